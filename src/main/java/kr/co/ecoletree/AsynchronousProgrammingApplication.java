@@ -1,7 +1,10 @@
 package kr.co.ecoletree;
 
+import org.springframework.boot.ApplicationRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,12 +15,18 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.request.async.DeferredResult;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+import kr.co.ecoletree.common.concurrent.EventLoop;
+import kr.co.ecoletree.common.concurrent.WorkerThreadFactory;
+import kr.co.ecoletree.common.helper.HttpWarmUp;
 import kr.co.ecoletree.common.helper.MapBuilder;
 
 @SpringBootApplication
@@ -27,26 +36,69 @@ public class AsynchronousProgrammingApplication {
         SpringApplication.run(AsynchronousProgrammingApplication.class, args);
     }
 
+    /**
+     * 기동 시 upstream HTTP 예열 (ApplicationRunner 가 끝나야 ApplicationReadyEvent / readiness 가 발생한다)
+     *
+     * ecoletree.warmup.urls 가 비어 있으면 아무것도 하지 않는다.
+     */
+    @Bean
+    public ApplicationRunner httpWarmUp(final Environment environment) {
+        return args -> {
+            final String[] urls = environment.getProperty("ecoletree.warmup.urls", String[].class, new String[0]);
+            if (urls.length == 0) {
+                return;
+            }
+            new HttpWarmUp(HttpWarmUp.Config.builder()
+                    .urls(Arrays.asList(urls))
+                    .connections(environment.getProperty("ecoletree.warmup.connections", Integer.class, 4))
+                    .rounds(environment.getProperty("ecoletree.warmup.rounds", Integer.class, 20))
+                    .timeout(environment.getProperty("ecoletree.warmup.timeout", Duration.class, Duration.ofSeconds(10)))
+                    .deadline(environment.getProperty("ecoletree.warmup.deadline", Duration.class, Duration.ofSeconds(60)))
+                    .build())
+                    .run();
+        };
+    }
+
 }
 
 @RestController
 @RequestMapping("/")
 class TestController {
-    final ExecutorService es = Executors.newFixedThreadPool(2);
+    final ExecutorService es = Executors.newFixedThreadPool(2, WorkerThreadFactory.daemon("controller"));
 
-    private DeferredResult<Map<String, Object>> DEFERRED;
+    /**
+     * 대기 중인 요청 목록은 Event Loop 쓰레드에서만 변경한다. (Lock 없음)
+     */
+    private final EventLoop waiterLoop = new EventLoop("waiters");
+    private final List<DeferredResult<Map<String, Object>>> waiters = new ArrayList<>();
 
     @GetMapping
     public DeferredResult<Map<String, Object>> defer() {
-        DEFERRED = new DeferredResult<>();
-        return DEFERRED;
+        final DeferredResult<Map<String, Object>> deferred = new DeferredResult<>();
+        deferred.onCompletion(() -> waiterLoop.execute(() -> waiters.remove(deferred)));
+        waiterLoop.execute(() -> waiters.add(deferred));
+        return deferred;
     }
 
     @GetMapping("/complete/{message}")
     public ResponseEntity<Void> complete(@PathVariable final String message) {
-        Optional.of(DEFERRED).ifPresent(defer -> {
-            defer.setResult(MapBuilder.of("message", message));
+        waiterLoop.execute(() -> {
+            final Map<String, Object> result = MapBuilder.of("message", message);
+            waiters.forEach(deferred -> deferred.setResult(result));
+            waiters.clear();
         });
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
+
+    @GetMapping("/waiters/metrics")
+    public Map<String, Object> waiterMetrics() {
+        return MapBuilder.<String, Object>createBuilder()
+                .put("queueDepth", waiterLoop.getQueueDepth())
+                .put("executed", waiterLoop.getExecutedTasks())
+                .put("batches", waiterLoop.getBatches())
+                .put("lagMicros", waiterLoop.getLag(TimeUnit.MICROSECONDS))
+                .put("maxLagMicros", waiterLoop.getMaxLag(TimeUnit.MICROSECONDS))
+                .put("uncaughtExceptions", WorkerThreadFactory.uncaughtExceptions())
+                .build();
+    }
 }
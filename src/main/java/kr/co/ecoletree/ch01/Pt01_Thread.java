@@ -10,7 +10,9 @@ package kr.co.ecoletree.ch01;
 
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Stream;
+
+import kr.co.ecoletree.common.concurrent.WorkerThreadFactory;
+import kr.co.ecoletree.common.helper.DiagnosticLog;
 
 public class Pt01_Thread {
 
@@ -47,9 +49,32 @@ public class Pt01_Thread {
         return t;
     }
 
-    private static void printMessage(final String messageFormat, final Object... o) {
-        final Object[] params = Stream.concat(Stream.of(Thread.currentThread().getName()), Stream.of(o)).toArray(Object[]::new);
-        System.out.printf("[%s]\t\t\t" + messageFormat + "\n", params);
+    /**
+     * 풀에서 사용하는 ThreadFactory 로 쓰레드 생성
+     *
+     * 이름(Ecoletree-{pool}-{번호}), daemon, 우선순위, stack 크기, CPU affinity(Linux) 를 한 곳에서 지정하고
+     * 처리되지 않은 예외는 풀 별로 센다.
+     *
+     * @return
+     */
+    private static Thread testFactoryThread(final Runnable r) {
+        return WorkerThreadFactory.builder("example")
+                .daemon(true)
+                .priority(Thread.NORM_PRIORITY + 1)
+                .stackSize(512 * 1024)
+                .affinity(0)
+                .build()
+                .newThread(r);
+    }
+
+    /**
+     * [쓰레드 이름] 메시지 출력. 메시지의 {} 는 인자로 치환된다.
+     * (호출마다 Stream, 배열, String.format 을 만들지 않도록 DiagnosticLog 사용)
+     *
+     * @param message
+     */
+    private static void printMessage(final String message) {
+        DiagnosticLog.print(message);
     }
 
     public static void main(String[] args) {
@@ -68,7 +93,9 @@ public class Pt01_Thread {
 //        testNormalThread(r1).start();
 
         testDaemonThread(r1).start();
+//        testFactoryThread(r1).start();
 
         printMessage("finished");
+        DiagnosticLog.flush();
     }
 }
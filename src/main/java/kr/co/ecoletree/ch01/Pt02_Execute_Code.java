@@ -15,6 +15,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
+import kr.co.ecoletree.common.concurrent.WorkerThreadFactory;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -25,7 +26,7 @@ public class Pt02_Execute_Code {
         ES.setCorePoolSize(2);
         ES.setMaxPoolSize(10);
         ES.setQueueCapacity(50);
-        ES.setThreadNamePrefix("Ecoletree-");
+        ES.setThreadFactory(WorkerThreadFactory.builder("task").build());
         ES.initialize();
     }
 
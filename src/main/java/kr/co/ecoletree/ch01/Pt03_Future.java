@@ -14,6 +14,7 @@ import org.springframework.util.concurrent.ListenableFutureAdapter;
 import org.springframework.util.concurrent.ListenableFutureTask;
 import org.springframework.util.concurrent.SuccessCallback;
 
+import java.time.Duration;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
@@ -24,13 +25,17 @@ import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
+import kr.co.ecoletree.common.concurrent.Futures;
+import kr.co.ecoletree.common.concurrent.Pipeline;
+import kr.co.ecoletree.common.concurrent.WorkerPools;
+import kr.co.ecoletree.common.concurrent.WorkerThreadFactory;
 import kr.co.ecoletree.common.exception.ETException;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class Pt03_Future {
 
-    private static final ExecutorService ES = Executors.newFixedThreadPool(5);
+    private static final ExecutorService ES = Executors.newFixedThreadPool(5, WorkerThreadFactory.builder("future").build());
 
     private static String handleWithFutureTask(final Callable<String> c) throws ExecutionException, InterruptedException {
         final FutureTask<String> ft = new FutureTask<>(c);
@@ -79,6 +84,42 @@ public class Pt03_Future {
         });
     }
 
+    private static void handleWithPipeline() {
+        final CompletableFuture<String> future = new CompletableFuture<>();
+        Pipeline.from(future)
+                .map(result -> result + "!")
+                .peek(result -> log.info("Result1: {}", result))
+                .peekAsync(WorkerPools.IO_POOL, result -> log.info("Result2: {}", result))
+                .peekAsync(WorkerPools.IO_POOL, result -> log.info("Result3: {}", result))
+                .peekAsync(WorkerPools.IO_POOL, result -> log.info("Result4: {}", result))
+                .peekAsync(WorkerPools.IO_POOL, result -> log.info("Result5: {}", result))
+                .peekAsync(WorkerPools.IO_POOL, result -> log.info("Result6: {}", result))
+                .peekAsync(WorkerPools.IO_POOL, result -> log.info("Result7: {}", result))
+                .recover(t -> {
+                    log.error("Msg: {}", t.getMessage(), t);
+                    return null;
+                })
+                .build();
+
+        ES.execute(() -> {
+            try { TimeUnit.MILLISECONDS.sleep(300); }
+            catch (InterruptedException ignore) {}
+            future.complete("completed");
+        });
+    }
+
+    private static void handleWithTimeout(final Callable<String> callable) {
+        // ES 에서 실행되는 작업은 derived stage 가 취소/timeout 되면 interrupt 된다.
+        final CompletableFuture<String> source = Futures.supplyAsync(callable, ES);
+        final CompletableFuture<String> derived = Futures.propagateCancel(source.thenApply(result -> result + "!"), source);
+
+        Futures.withTimeout(derived, Duration.ofMillis(500))
+                .whenComplete((result, t) -> {
+                    if (t != null) log.error("Derived: {}, Source cancelled: {}", Futures.unwrap(t).getClass().getSimpleName(), source.isCancelled());
+                    else log.info("Result: {}", result);
+                });
+    }
+
     private static void plsInvokeMe(final Object asyncResult) {
         log.info("Invoked with {}", asyncResult);
     }
@@ -88,6 +129,8 @@ public class Pt03_Future {
 //        System.out.println(handleWithFutureTask(callable));
 //        ES.execute(() -> handleWithListenableFuture(callable));
         handleWithCompletableFuture();
+//        handleWithPipeline();
+//        handleWithTimeout(callable);
         ES.shutdown();
         System.out.println("finished");
 
@@ -8,5 +8,112 @@
  *****************************************************************/
 package kr.co.ecoletree.ch01;
 
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureTask;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import kr.co.ecoletree.common.concurrent.Futures;
+import kr.co.ecoletree.common.concurrent.WorkerPools;
+import kr.co.ecoletree.common.concurrent.Workflow;
+import kr.co.ecoletree.common.helper.HttpClientUtil;
+import kr.co.ecoletree.common.helper.MapBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
 public class Pt04_CallbackHell {
+    private static final long STEP_MILLIS = 200;
+
+    /**
+     * DB 조회 stand-in (Blocking)
+     */
+    private static String query(final String name) throws InterruptedException {
+        TimeUnit.MILLISECONDS.sleep(STEP_MILLIS);
+        return name;
+    }
+
+    private static ListenableFuture<String> queryListenable(final String name) {
+        final ListenableFutureTask<String> task = new ListenableFutureTask<>(() -> query(name));
+        WorkerPools.io().execute(task);
+        return task;
+    }
+
+    private static CompletableFuture<String> queryAsync(final String name) {
+        return Futures.supplyAsync(() -> query(name), WorkerPools.io());
+    }
+
+    /**
+     * ListenableFuture.addCallback 중첩: 서로 독립적인 orders, profile 도 순서대로 실행된다.
+     * 총 시간 = 모든 step 시간의 합
+     */
+    private static void callbackHell() throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(1);
+        final long start = System.currentTimeMillis();
+        queryListenable("user").addCallback(user -> {
+            queryListenable("orders of " + user).addCallback(orders -> {
+                queryListenable("profile of " + user).addCallback(profile -> {
+                    queryListenable("recommend(" + orders + ", " + profile + ")").addCallback(recommend -> {
+                        queryListenable("notify " + recommend).addCallback(notified -> {
+                            log.info("[Callback] {} ({} ms)", notified, System.currentTimeMillis() - start);
+                            done.countDown();
+                        }, ex -> log.error(ex.getMessage(), ex));
+                    }, ex -> log.error(ex.getMessage(), ex));
+                }, ex -> log.error(ex.getMessage(), ex));
+            }, ex -> log.error(ex.getMessage(), ex));
+        }, ex -> log.error(ex.getMessage(), ex));
+        done.await();
+    }
+
+    /**
+     * Workflow: orders, profile 은 user 가 끝나면 동시에 실행된다.
+     * 총 시간 = critical path (user -> orders|profile -> recommend -> notify)
+     */
+    private static void workflow() {
+        final long start = System.currentTimeMillis();
+        final Workflow.Results results = Workflow.create()
+                .step("user", r -> queryAsync("user"))
+                .step("orders", Workflow.after("user"), r -> queryAsync("orders of " + r.get("user")))
+                .step("profile", Workflow.after("user"), r -> queryAsync("profile of " + r.get("user")))
+                .step("score", Workflow.after("user"), r -> WorkerPools.supplyCpu(() -> r.<String>get("user").hashCode() % 100))
+                .step("recommend", Workflow.after("orders", "profile", "score"),
+                        r -> queryAsync("recommend(" + r.get("orders") + ", " + r.get("profile") + ", " + r.get("score") + ")"))
+                .step("notify", Workflow.after("recommend"), r -> queryAsync("notify " + r.get("recommend")), Duration.ofSeconds(1))
+                .timeout(Duration.ofSeconds(3))
+                .run()
+                .join();
+        log.info("[Workflow] {} ({} ms)", results.<String>get("notify"), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * HTTP 호출(HttpClientUtil) 을 포함한 Workflow. 한 step 이 실패하면 나머지는 취소된다.
+     */
+    private static void workflowWithHttp() {
+        Workflow.create()
+                .step("user", r -> queryAsync("user"))
+                .step("rdd", Workflow.after("user"), r -> HttpClientUtil.post("http://101.101.217.170:8080/Boxwood_portal_demo/demo/infer/rdd")
+                        .body(MapBuilder.of("user_id", r.get("user")))
+                        .exchangeAsMapAsync()
+                        .timeout(Duration.ofSeconds(2))
+                        .body(), Duration.ofSeconds(2))
+                .step("orders", Workflow.after("user"), r -> queryAsync("orders of " + r.get("user")))
+                .step("page", Workflow.after("rdd", "orders"), r -> CompletableFuture.completedFuture(
+                        MapBuilder.of("rdd", r.<Map<String, Object>>get("rdd"), "orders", r.get("orders"))))
+                .run()
+                .whenComplete((results, t) -> {
+                    if (t != null) log.error("Workflow failed: {}", Futures.unwrap(t).getMessage());
+                    else log.info("Page: {}", results.<Object>get("page"));
+                })
+                .exceptionally(t -> null)
+                .join();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        callbackHell();
+        workflow();
+//        workflowWithHttp();
+    }
 }
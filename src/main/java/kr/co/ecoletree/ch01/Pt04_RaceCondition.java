@@ -9,78 +9,117 @@
 package kr.co.ecoletree.ch01;
 
 import java.util.Random;
-import java.util.concurrent.BrokenBarrierException;
-import java.util.concurrent.CyclicBarrier;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.stream.IntStream;
 
+import kr.co.ecoletree.common.concurrent.StressHarness;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class Pt04_RaceCondition {
 
-    public static final int THREAD_CNT = 3000;
-    private int number = THREAD_CNT;
+    public static final int ITERATIONS = 200_000;
+    private int number = 2;
     private AtomicInteger cnt = new AtomicInteger();
     private final Random rnd = new Random();
 
-    private final CyclicBarrier barrier = new CyclicBarrier(THREAD_CNT);
-
     private final Lock lock = new ReentrantLock();
 
+    private final Account account = new Account(100);
+
     private Runnable consume = () -> {
         log.info("Number: {}", cnt.incrementAndGet());
     };
 
     private Runnable update = () -> {
+//        System.out.printf("Number is %d\n", number--);
+        number--;
+    };
+
+    private Runnable lockedUpdate = () -> {
+        lock.lock();
         try {
-            barrier.await();
-//            System.out.printf("Number is %d\n", number--);
             number--;
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        } catch (BrokenBarrierException e) {
-            e.printStackTrace();
+        } finally {
+            lock.unlock();
         }
     };
 
-    public static void main(String[] args) throws InterruptedException {
-        final ExecutorService es = Executors.newFixedThreadPool(THREAD_CNT);
-        final Pt04_RaceCondition a = new Pt04_RaceCondition();
-
-        IntStream.range(0, THREAD_CNT).forEach(i -> es.execute(a.update));
+    public static void main(String[] args) {
+        // 쓰레드 3000개 + CyclicBarrier 대신, actor 쓰레드 2개를 재사용하며 같은 객체에 동시에 접근시키고
+        // 결과별 빈도를 집계한다.
+        final StressHarness.Outcomes<Integer> unsafe = StressHarness.of(Pt04_RaceCondition::new)
+                .actor(a -> a.update.run())
+                .actor(a -> a.update.run())
+                .arbiter(a -> a.number)
+                .iterations(ITERATIONS)
+                .run();
+        // 0 이 정상. 1 이 관찰되면 감소 한 번이 유실된 것
+        log.info("number-- (no lock)\n{}", unsafe);
 
-        es.shutdown();
-
-        TimeUnit.SECONDS.sleep(2);
-        System.out.println(a.number);
         // 1. Mutation Lock
         // 1.1. java.util.concurrent.locks.Lock
         // 1.2. java.util.concurrent.Semaphore
         // 1.3. synchronized
+        final StressHarness.Outcomes<Integer> locked = StressHarness.of(Pt04_RaceCondition::new)
+                .actor(a -> a.lockedUpdate.run())
+                .actor(a -> a.lockedUpdate.run())
+                .arbiter(a -> a.number)
+                .iterations(ITERATIONS)
+                .run()
+                .requireOnly(n -> n == 0);
+        log.info("number-- (ReentrantLock)\n{}", locked);
 
         // 2. Using Thread-safe data structure
         // Atomic...
-
-        // 3. ThreadLocal
+        final StressHarness.Outcomes<Integer> atomic = StressHarness.of(Pt04_RaceCondition::new)
+                .actor(a -> a.cnt.incrementAndGet())
+                .actor(a -> a.cnt.incrementAndGet())
+                .arbiter(a -> a.cnt.get())
+                .iterations(ITERATIONS)
+                .run()
+                .requireOnly(n -> n == 2);
+        log.info("AtomicInteger\n{}", atomic);
+
+        // 잔액 100 에서 60 씩 두 번 출금: 한 번만 성공해야 한다. (잔액 40)
+        final StressHarness.Outcomes<Integer> fetch = StressHarness.of(Pt04_RaceCondition::new)
+                .actor(a -> a.account.fetch(60))
+                .actor(a -> a.account.fetch(60))
+                .arbiter(a -> a.account.total.get())
+                .iterations(ITERATIONS)
+                .run()
+                .requireOnly(n -> n == 40);
+        log.info("Account.fetch\n{}", fetch);
+
+        // 3. ThreadLocal (비동기로 쓰레드가 바뀌는 경우는 Pt10_ContextPropagation 참고)
     }
 
     class Account {
-        private int total;
+        private final AtomicInteger total;
+
+        Account(final int total) {
+            this.total = new AtomicInteger(total);
+        }
 
+        /**
+         * 잔액 확인(check)과 차감(act)을 CAS 로 묶는다. 다른 쓰레드가 먼저 바꿨으면 다시 확인한다.
+         * (계좌가 많고 이체까지 필요하면 {@link kr.co.ecoletree.common.concurrent.Ledger} 참고)
+         *
+         * @param amount
+         * @return
+         */
         public int fetch(final int amount) {
-            if (total > 0 && total > amount) {
-                log.info("Fetching... {}", amount);
-                return total -= amount;
+            for (;;) {
+                final int current = total.get();
+                if (current <= 0 || current <= amount) {
+                    return 0;
+                }
+                if (total.compareAndSet(current, current - amount)) {
+                    log.trace("Fetching... {}", amount);
+                    return current - amount;
+                }
             }
-            return 0;
         }
     }
 }
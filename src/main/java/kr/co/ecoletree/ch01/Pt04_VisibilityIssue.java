@@ -8,5 +8,181 @@
  *****************************************************************/
 package kr.co.ecoletree.ch01;
 
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import kr.co.ecoletree.common.concurrent.CacheCell;
+import kr.co.ecoletree.common.concurrent.Lazy;
+import kr.co.ecoletree.common.concurrent.ReleaseFlag;
+import kr.co.ecoletree.common.concurrent.StressHarness;
+import kr.co.ecoletree.common.helper.MicroBenchmark;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
 public class Pt04_VisibilityIssue {
+    private static final int ITERATIONS = 200_000;
+
+    /**
+     * 1. 종료 플래그
+     * volatile 이 아닌 필드를 반복문에서 읽으면 JIT 가 값을 한 번만 읽도록 최적화할 수 있어서
+     * 다른 쓰레드가 false 로 바꿔도 반복문이 끝나지 않는다.
+     */
+    static class StopFlag {
+        boolean running = true;
+        final ReleaseFlag stopped = new ReleaseFlag();
+    }
+
+    private static void stopFlag() throws InterruptedException {
+        final StopFlag flag = new StopFlag();
+        final Thread naive = new Thread(() -> {
+            long spins = 0;
+            while (flag.running) {
+                spins++;
+            }
+            log.info("[naive] stopped after {} spins", spins);
+        }, "naive-reader");
+        final Thread safe = new Thread(() -> {
+            long spins = 0;
+            while (!flag.stopped.isSet()) {
+                spins++;
+            }
+            log.info("[ReleaseFlag] stopped after {} spins", spins);
+        }, "safe-reader");
+        naive.setDaemon(true);
+        safe.setDaemon(true);
+        naive.start();
+        safe.start();
+
+        TimeUnit.MILLISECONDS.sleep(500);
+        flag.running = false;
+        flag.stopped.set();
+
+        naive.join(1_000);
+        safe.join(1_000);
+        log.info("naive reader still running: {}, safe reader still running: {}", naive.isAlive(), safe.isAlive());
+    }
+
+    /**
+     * 2. 데이터 게시(publication)
+     * writer: data 를 쓰고 ready 를 켠다. reader: ready 를 보면 data 를 읽는다.
+     * -1 (아직 준비 안 됨) 과 42 는 정상, 0 (준비됐다고 봤는데 데이터가 안 보임) 은 가시성 문제.
+     */
+    static class Message {
+        int data;
+        boolean ready;
+        final ReleaseFlag published = new ReleaseFlag();
+        int seen;
+    }
+
+    private static void publication() {
+        final StressHarness.Outcomes<Integer> naive = StressHarness.of(Message::new)
+                .actor(m -> {
+                    m.data = 42;
+                    m.ready = true;
+                })
+                .actor(m -> m.seen = m.ready ? m.data : -1)
+                .arbiter(m -> m.seen)
+                .iterations(ITERATIONS)
+                .run();
+        // x86 은 쓰기 순서를 바꾸지 않으므로 0 이 잘 나오지 않지만, JIT 재배치나 ARM 등에서는 관찰된다.
+        log.info("publication (plain fields)\n{}", naive);
+
+        final StressHarness.Outcomes<Integer> safe = StressHarness.of(Message::new)
+                .actor(m -> {
+                    m.data = 42;
+                    m.published.set();
+                })
+                .actor(m -> m.seen = m.published.isSet() ? m.data : -1)
+                .arbiter(m -> m.seen)
+                .iterations(ITERATIONS)
+                .run()
+                .requireOnly(v -> v != 0);
+        log.info("publication (ReleaseFlag)\n{}", safe);
+    }
+
+    /**
+     * 3. 지연 초기화
+     * 동기화 없이 null 체크 후 생성하면 두 쓰레드가 모두 null 을 보고 각각 생성할 수 있다.
+     * 만료되면 다시 읽어오는 캐시도 같은 문제가 있으므로 CacheCell 로 한 번만 읽어오게 한다.
+     */
+    static class Singleton {
+        final AtomicInteger created = new AtomicInteger();
+        Object naive;
+        final Lazy<Object> lazy = Lazy.of(() -> {
+            created.incrementAndGet();
+            return new Object();
+        });
+        final CacheCell<Object> cache = new CacheCell<>(() -> {
+            created.incrementAndGet();
+            return new Object();
+        }, Duration.ofMinutes(1));
+
+        Object naive() {
+            if (naive == null) {
+                created.incrementAndGet();
+                naive = new Object();
+            }
+            return naive;
+        }
+    }
+
+    private static void lazyInit() {
+        final StressHarness.Outcomes<Integer> naive = StressHarness.of(Singleton::new)
+                .actor(Singleton::naive)
+                .actor(Singleton::naive)
+                .arbiter(s -> s.created.get())
+                .iterations(ITERATIONS)
+                .run();
+        log.info("lazy init (null check) - created count\n{}", naive);
+
+        final StressHarness.Outcomes<Integer> safe = StressHarness.of(Singleton::new)
+                .actor(s -> s.lazy.get())
+                .actor(s -> s.lazy.get())
+                .arbiter(s -> s.created.get())
+                .iterations(ITERATIONS)
+                .run()
+                .requireOnly(n -> n == 1);
+        log.info("lazy init (Lazy) - created count\n{}", safe);
+
+        final StressHarness.Outcomes<Integer> cached = StressHarness.of(Singleton::new)
+                .actor(s -> s.cache.get())
+                .actor(s -> s.cache.get())
+                .arbiter(s -> s.created.get())
+                .iterations(ITERATIONS)
+                .run()
+                .requireOnly(n -> n == 1);
+        log.info("cache (CacheCell) - load count\n{}", cached);
+    }
+
+    /**
+     * 4. 접근 방식별 비용 (단일 쓰레드)
+     * plain / volatile 읽기, volatile 쓰기, release 쓰기(lazySet), CAS
+     * (Java 8 에는 opaque 접근이 없으므로 plain 과 volatile 사이의 비교로 대신한다)
+     */
+    static class Fields {
+        static final AtomicIntegerFieldUpdater<Fields> VOLATILE_VALUE = AtomicIntegerFieldUpdater.newUpdater(Fields.class, "volatileValue");
+
+        int plainValue;
+        volatile int volatileValue;
+        int sink;
+    }
+
+    private static void accessCost() {
+        final Fields f = new Fields();
+        log.info("{}", MicroBenchmark.throughput("plain read", 1, i -> () -> f.sink += f.plainValue));
+        log.info("{}", MicroBenchmark.throughput("volatile read (acquire)", 1, i -> () -> f.sink += f.volatileValue));
+        log.info("{}", MicroBenchmark.throughput("plain write", 1, i -> () -> f.plainValue++));
+        log.info("{}", MicroBenchmark.throughput("lazySet (release)", 1, i -> () -> Fields.VOLATILE_VALUE.lazySet(f, f.sink++)));
+        log.info("{}", MicroBenchmark.throughput("volatile write", 1, i -> () -> f.volatileValue = f.sink++));
+        log.info("{}", MicroBenchmark.throughput("CAS", 1, i -> () -> Fields.VOLATILE_VALUE.incrementAndGet(f)));
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        stopFlag();
+        publication();
+        lazyInit();
+        accessCost();
+    }
 }
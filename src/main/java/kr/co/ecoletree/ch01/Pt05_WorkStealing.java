@@ -0,0 +1,100 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : Pt05_WorkStealing.java
+ * DESC : CPU-bound 작업은 work-stealing 풀, Blocking 작업은 I/O 풀에서 실행
+ *****************************************************************/
+package kr.co.ecoletree.ch01;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import kr.co.ecoletree.common.concurrent.WorkerPools;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class Pt05_WorkStealing {
+
+    /**
+     * 배열 합계를 fork/join 으로 계산하는 RecursiveTask
+     */
+    static class SumTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+        private static final int THRESHOLD = 10_000;
+        private final long[] values;
+        private final int from;
+        private final int to;
+
+        SumTask(final long[] values, final int from, final int to) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= THRESHOLD) {
+                long sum = 0;
+                for (int i = from; i < to; i++) {
+                    sum += values[i];
+                }
+                return sum;
+            }
+            final int mid = (from + to) >>> 1;
+            final SumTask left = new SumTask(values, from, mid);
+            left.fork();
+            return new SumTask(values, mid, to).compute() + left.join();
+        }
+    }
+
+    private static void forkJoin() {
+        final long[] values = LongStream.rangeClosed(1, 10_000_000).toArray();
+        final long sum = WorkerPools.invoke(new SumTask(values, 0, values.length));
+        log.info("RecursiveTask sum: {}", sum);
+    }
+
+    private static void parallelStream() {
+        // CPU 풀 안에서 시작한 parallel stream 은 commonPool 이 아닌 CPU 풀을 사용한다.
+        final long primes = WorkerPools.parallel(() -> IntStream.rangeClosed(2, 2_000_000)
+                .parallel()
+                .filter(Pt05_WorkStealing::isPrime)
+                .count());
+        log.info("Prime count: {}", primes);
+    }
+
+    private static void blockingOnCpuPool() {
+        // CPU 풀에서 sleep(Blocking) 호출 -> 경고 로그 + ManagedBlocker 로 보상 쓰레드 생성
+        final CompletableFuture<?>[] futures = IntStream.range(0, WorkerPools.CPU_PARALLELISM * 2)
+                .mapToObj(i -> WorkerPools.supplyCpu(() -> WorkerPools.blocking(() -> {
+                    TimeUnit.MILLISECONDS.sleep(200);
+                    return i;
+                })))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(futures).join();
+        log.info("Blocking calls on CPU pool: {}", WorkerPools.getBlockingCallsOnCpu());
+
+        // Blocking 작업은 I/O 풀로 보낸다.
+        WorkerPools.supplyIo(() -> {
+            TimeUnit.MILLISECONDS.sleep(200);
+            return "done";
+        }).thenAccept(result -> log.info("I/O result: {}", result)).join();
+    }
+
+    private static boolean isPrime(final int n) {
+        for (int i = 2; (long) i * i <= n; i++) {
+            if (n % i == 0) return false;
+        }
+        return true;
+    }
+
+    public static void main(String[] args) {
+        forkJoin();
+        parallelStream();
+        blockingOnCpuPool();
+    }
+}
@@ -0,0 +1,93 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : Pt06_Pipeline.java
+ * DESC : thenAcceptAsync 체인(commonPool) vs Executor 지정 + stage fusion 파이프라인 비교
+ *****************************************************************/
+package kr.co.ecoletree.ch01;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import kr.co.ecoletree.common.concurrent.Pipeline;
+import kr.co.ecoletree.common.concurrent.WorkerPools;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class Pt06_Pipeline {
+    private static final int STAGES = 7;
+    private static final int WARMUP = 5_000;
+    private static final int ITERATIONS = 20_000;
+
+    /**
+     * 체인 한 번 실행 동안의 쓰레드 전환 횟수 기록
+     */
+    static class HopCounter {
+        private Thread last;
+        private int hops;
+
+        HopCounter touch() {
+            final Thread current = Thread.currentThread();
+            if (last != null && last != current) {
+                hops++;
+            }
+            last = current;
+            return this;
+        }
+    }
+
+    /**
+     * Pt03_Future.handleWithCompletableFuture 와 같은 형태: thenApply 한 번 + Executor 없는 thenApplyAsync 여러 번
+     */
+    private static CompletableFuture<HopCounter> commonPoolChain(final CompletableFuture<HopCounter> source) {
+        CompletableFuture<HopCounter> future = source.thenApply(HopCounter::touch);
+        for (int i = 0; i < STAGES - 1; i++) {
+            future = future.thenApplyAsync(HopCounter::touch);
+        }
+        return future;
+    }
+
+    /**
+     * 같은 stage 들을 CPU 풀에 명시적으로 바인딩: 연속된 stage 가 합쳐져 한 번만 쓰레드를 옮긴다.
+     */
+    private static CompletableFuture<HopCounter> pipelineChain(final CompletableFuture<HopCounter> source) {
+        Pipeline<HopCounter> pipeline = Pipeline.from(source).map(HopCounter::touch);
+        for (int i = 0; i < STAGES - 1; i++) {
+            pipeline = pipeline.mapAsync(WorkerPools.CPU_POOL, HopCounter::touch);
+        }
+        return pipeline.build();
+    }
+
+    private static void measure(final String name, final Function<CompletableFuture<HopCounter>, CompletableFuture<HopCounter>> chain) {
+        run(chain, WARMUP);
+        final long start = System.nanoTime();
+        final long hops = run(chain, ITERATIONS);
+        final long elapsed = System.nanoTime() - start;
+        log.info("{}\tavg latency: {} ns/chain, thread hops: {} /chain",
+                name, elapsed / ITERATIONS, String.format("%.2f", (double) hops / ITERATIONS));
+    }
+
+    private static long run(final Function<CompletableFuture<HopCounter>, CompletableFuture<HopCounter>> chain, final int iterations) {
+        long hops = 0;
+        for (int i = 0; i < iterations; i++) {
+            final CompletableFuture<HopCounter> source = new CompletableFuture<>();
+            final CompletableFuture<HopCounter> result = chain.apply(source);
+            source.complete(new HopCounter());
+            hops += result.join().hops;
+        }
+        return hops;
+    }
+
+    public static void main(String[] args) {
+        log.info("Async boundaries after fusion: {}", Pipeline.from(new CompletableFuture<HopCounter>())
+                .map(HopCounter::touch)
+                .mapAsync(WorkerPools.CPU_POOL, HopCounter::touch)
+                .mapAsync(WorkerPools.CPU_POOL, HopCounter::touch)
+                .countAsyncBoundaries());
+
+        measure("commonPool thenApplyAsync", Pt06_Pipeline::commonPoolChain);
+        measure("Pipeline(cpu, fused)     ", Pt06_Pipeline::pipelineChain);
+    }
+}
@@ -0,0 +1,109 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : Pt07_FutureAdapters.java
+ * DESC : ListenableFuture / CompletableFuture / RxJava / Reactor 변환 시 Blocking, 쓰레드 전환 여부 확인
+ *****************************************************************/
+package kr.co.ecoletree.ch01;
+
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import kr.co.ecoletree.common.concurrent.FutureAdapters;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+@Slf4j
+public class Pt07_FutureAdapters {
+    private static final int ITERATIONS = 100_000;
+
+    /**
+     * Flowable.fromFuture: 구독한 쓰레드가 Future#get() 으로 Blocking 된다.
+     */
+    private static void blockingFromFuture() throws InterruptedException {
+        final CompletableFuture<String> future = new CompletableFuture<>();
+        completeLater(future, 300);
+
+        final long start = System.nanoTime();
+        Flowable.fromFuture(future).subscribe(v -> log.info("[fromFuture] received {} on {}", v, Thread.currentThread().getName()));
+        log.info("[fromFuture] subscribe() returned after {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * ListenableFuture -> CompletableFuture -> Single -> Mono -> CompletableFuture.
+     * subscribe 는 바로 리턴되고, 결과는 원본을 완료시킨 쓰레드에서 그대로 전달된다.
+     */
+    private static void nonBlockingChain() throws InterruptedException {
+        final SettableListenableFuture<String> source = new SettableListenableFuture<>();
+        final AtomicReference<Thread> producer = new AtomicReference<>();
+        final CountDownLatch done = new CountDownLatch(1);
+
+        final long start = System.nanoTime();
+        final Mono<String> mono = FutureAdapters.toMono(FutureAdapters.toSingle(source));
+        FutureAdapters.toCompletable(mono).thenAccept(v -> {
+            log.info("[adapters] received {} on {} (same thread as producer: {})",
+                    v, Thread.currentThread().getName(), Thread.currentThread() == producer.get());
+            done.countDown();
+        });
+        log.info("[adapters] subscribe() returned after {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        final Thread t = new Thread(() -> {
+            producer.set(Thread.currentThread());
+            source.set("completed");
+        }, "producer");
+        t.start();
+        done.await();
+    }
+
+    /**
+     * 변환된 쪽을 dispose/cancel 하면 원본 ListenableFuture 까지 취소된다.
+     */
+    private static void cancellation() {
+        final SettableListenableFuture<String> source = new SettableListenableFuture<>();
+        final Disposable disposable = FutureAdapters.toSingle(source).subscribe(v -> {});
+        disposable.dispose();
+        log.info("[cancel] Single disposed -> ListenableFuture cancelled: {}", source.isCancelled());
+
+        final CompletableFuture<String> future = new CompletableFuture<>();
+        FutureAdapters.toMono(future).subscribe().dispose();
+        log.info("[cancel] Mono disposed -> CompletableFuture cancelled: {}", future.isCancelled());
+    }
+
+    /**
+     * 변환 비용: CompletableFuture -> Single -> Mono -> CompletableFuture 왕복
+     */
+    private static void throughput() {
+        for (int round = 0; round < 2; round++) {
+            final long start = System.nanoTime();
+            long hops = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                final CompletableFuture<String> source = new CompletableFuture<>();
+                final CompletableFuture<Thread> received = FutureAdapters.toCompletable(FutureAdapters.toMono(FutureAdapters.toSingle(source)))
+                        .thenApply(v -> Thread.currentThread());
+                source.complete("completed");
+                if (received.join() != Thread.currentThread()) hops++;
+            }
+            log.info("[throughput] {} ns/round-trip, thread hops: {}", (System.nanoTime() - start) / ITERATIONS, hops);
+        }
+    }
+
+    private static void completeLater(final CompletableFuture<String> future, final long millis) {
+        Schedulers.io().scheduleDirect(() -> future.complete("completed"), millis, TimeUnit.MILLISECONDS);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        throughput();
+        blockingFromFuture();
+        nonBlockingChain();
+        cancellation();
+    }
+}
@@ -0,0 +1,163 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : Pt08_Counters.java
+ * DESC : 경합 상황에서 카운터 구현별 처리량 비교 (synchronized, Lock, Semaphore, Atomic, Striped)
+ *****************************************************************/
+package kr.co.ecoletree.ch01;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import kr.co.ecoletree.common.concurrent.StripedCounter;
+import kr.co.ecoletree.common.helper.MicroBenchmark;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class Pt08_Counters {
+    private static final int[] THREADS = { 1, 2, 4, 8, 16, 32, 64 };
+
+    /**
+     * 측정 대상 카운터
+     */
+    interface Counter {
+        void increment();
+
+        long get();
+    }
+
+    static class SynchronizedCounter implements Counter {
+        private long value;
+
+        @Override
+        public synchronized void increment() {
+            value++;
+        }
+
+        @Override
+        public synchronized long get() {
+            return value;
+        }
+    }
+
+    static class LockCounter implements Counter {
+        private final Lock lock = new ReentrantLock();
+        private long value;
+
+        @Override
+        public void increment() {
+            lock.lock();
+            try {
+                value++;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public long get() {
+            lock.lock();
+            try {
+                return value;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    static class SemaphoreCounter implements Counter {
+        private final Semaphore semaphore = new Semaphore(1);
+        private long value;
+
+        @Override
+        public void increment() {
+            semaphore.acquireUninterruptibly();
+            try {
+                value++;
+            } finally {
+                semaphore.release();
+            }
+        }
+
+        @Override
+        public long get() {
+            semaphore.acquireUninterruptibly();
+            try {
+                return value;
+            } finally {
+                semaphore.release();
+            }
+        }
+    }
+
+    static class AtomicCounter implements Counter {
+        private final AtomicInteger value = new AtomicInteger();
+
+        @Override
+        public void increment() {
+            value.incrementAndGet();
+        }
+
+        @Override
+        public long get() {
+            return value.get();
+        }
+    }
+
+    static class LongAdderCounter implements Counter {
+        private final LongAdder value = new LongAdder();
+
+        @Override
+        public void increment() {
+            value.increment();
+        }
+
+        @Override
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    static class Striped implements Counter {
+        private final StripedCounter value = new StripedCounter();
+
+        @Override
+        public void increment() {
+            value.increment();
+        }
+
+        @Override
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    private static Map<String, Supplier<Counter>> counters() {
+        final Map<String, Supplier<Counter>> counters = new LinkedHashMap<>();
+        counters.put("synchronized", SynchronizedCounter::new);
+        counters.put("ReentrantLock", LockCounter::new);
+        counters.put("Semaphore", SemaphoreCounter::new);
+        counters.put("AtomicInteger", AtomicCounter::new);
+        counters.put("LongAdder(JDK)", LongAdderCounter::new);
+        counters.put("StripedCounter", Striped::new);
+        return counters;
+    }
+
+    public static void main(String[] args) {
+        for (final int threads : THREADS) {
+            counters().forEach((name, factory) -> {
+                final Counter counter = factory.get();
+                final MicroBenchmark.Result result = MicroBenchmark.throughput(name, threads, i -> counter::increment);
+                log.info("{}", result);
+            });
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : Pt09_Ledger.java
+ * DESC : 전역 Lock 원장과 계좌별 CAS 원장(Ledger)의 처리량 비교 및 잔액 합계 검증
+ *****************************************************************/
+package kr.co.ecoletree.ch01;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import kr.co.ecoletree.common.concurrent.Ledger;
+import kr.co.ecoletree.common.helper.MicroBenchmark;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class Pt09_Ledger {
+    private static final int[] THREADS = { 1, 4, 16, 64 };
+    private static final int ACCOUNTS = 1024;
+    private static final long INITIAL_BALANCE = 1_000;
+
+    /**
+     * Pt04_RaceCondition 에서 제시한 방식: 모든 요청을 Lock 하나로 직렬화
+     */
+    static class GlobalLockLedger {
+        private final long[] balances = new long[ACCOUNTS];
+        private final Lock lock = new ReentrantLock();
+
+        GlobalLockLedger() {
+            Arrays.fill(balances, INITIAL_BALANCE);
+        }
+
+        boolean withdraw(final int id, final long amount) {
+            lock.lock();
+            try {
+                if (balances[id] < amount) return false;
+                balances[id] -= amount;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void deposit(final int id, final long amount) {
+            lock.lock();
+            try {
+                balances[id] += amount;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean transfer(final int from, final int to, final long amount) {
+            lock.lock();
+            try {
+                if (balances[from] < amount) return false;
+                balances[from] -= amount;
+                balances[to] += amount;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long total() {
+            lock.lock();
+            try {
+                long total = 0;
+                for (final long b : balances) total += b;
+                return total;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 출금/입금 40%씩, 이체 20%. 출금한 금액은 같은 쓰레드가 입금으로 돌려주므로 합계는 변하지 않는다.
+     */
+    private static Runnable globalLockWorkload(final GlobalLockLedger ledger) {
+        return () -> {
+            final ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            final int a = rnd.nextInt(ACCOUNTS);
+            final int b = rnd.nextInt(ACCOUNTS);
+            final long amount = 1 + rnd.nextInt(10);
+            if (rnd.nextInt(5) == 0) {
+                ledger.transfer(a, b, amount);
+            } else if (ledger.withdraw(a, amount)) {
+                ledger.deposit(b, amount);
+            }
+        };
+    }
+
+    private static Runnable ledgerWorkload(final Ledger ledger) {
+        return () -> {
+            final ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            final int a = rnd.nextInt(ACCOUNTS);
+            final int b = rnd.nextInt(ACCOUNTS);
+            final long amount = 1 + rnd.nextInt(10);
+            if (rnd.nextInt(5) == 0) {
+                ledger.transfer(a, b, amount);
+            } else if (ledger.withdraw(a, amount)) {
+                ledger.deposit(b, amount);
+            }
+        };
+    }
+
+    public static void main(String[] args) {
+        final long expected = ACCOUNTS * INITIAL_BALANCE;
+        for (final int threads : THREADS) {
+            final GlobalLockLedger global = new GlobalLockLedger();
+            log.info("{}", MicroBenchmark.throughput("global ReentrantLock", threads, i -> globalLockWorkload(global)));
+            log.info("    total={} (expected {})", global.total(), expected);
+
+            final Ledger ledger = new Ledger();
+            for (int id = 0; id < ACCOUNTS; id++) {
+                ledger.open(id, INITIAL_BALANCE);
+            }
+            log.info("{}", MicroBenchmark.throughput("Ledger (CAS)", threads, i -> ledgerWorkload(ledger)));
+            log.info("    total={} (expected {})", ledger.total(), expected);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : Pt10_ContextPropagation.java
+ * DESC : 쓰레드 전환 시 ThreadLocal / MDC 유실과 Context 전달 비교
+ *****************************************************************/
+package kr.co.ecoletree.ch01;
+
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import kr.co.ecoletree.common.concurrent.Context;
+import kr.co.ecoletree.common.concurrent.WorkerThreadFactory;
+import kr.co.ecoletree.common.helper.MicroBenchmark;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class Pt10_ContextPropagation {
+    private static final Context.Key<String> TRACE_ID = Context.Key.mdc("traceId");
+    private static final Context.Key<String> TENANT = Context.Key.of("tenant");
+
+    private static final ThreadLocal<String> TRACE_ID_LOCAL = new ThreadLocal<>();
+    private static final ExecutorService ES = Executors.newFixedThreadPool(2, WorkerThreadFactory.builder("context").build());
+
+    private static void print(final String step) {
+        log.info("[{}] ThreadLocal={}, Context(traceId={}, tenant={}), MDC={}",
+                step, TRACE_ID_LOCAL.get(), Context.current().get(TRACE_ID), Context.current().get(TENANT), MDC.get("traceId"));
+    }
+
+    /**
+     * ThreadLocal 은 쓰레드가 바뀌면 유실된다.
+     */
+    private static void threadLocalIsLost() {
+        TRACE_ID_LOCAL.set("trace-1");
+        CompletableFuture.supplyAsync(() -> "value", ES)
+                .thenAcceptAsync(v -> print("ThreadLocal/thenAcceptAsync"), ES)
+                .join();
+        TRACE_ID_LOCAL.remove();
+    }
+
+    /**
+     * Context: 호출 시점의 참조 하나를 캡처해서 작업 쓰레드에 적용
+     */
+    private static void contextIsPropagated() {
+        final Context.Scope scope = Context.current().with(TRACE_ID, "trace-2").with(TENANT, "ecoletree").attach();
+        try {
+            print("caller");
+
+            // ExecutorService 래핑: submit 한 쓰레드의 Context 전달
+            final ExecutorService es = Context.wrap(ES);
+            CompletableFuture.runAsync(() -> print("wrapped executor"), es).join();
+
+            // CompletableFuture: 함수를 감싸면 완료시킨 쓰레드와 관계없이 호출 시점 Context 로 실행
+            final Consumer<String> consumer = v -> print("CompletableFuture.thenAcceptAsync");
+            CompletableFuture.supplyAsync(() -> "value", ES)
+                    .thenAcceptAsync(Context.wrapConsumer(consumer), ES)
+                    .join();
+
+            // RxJava: schedule handler 에서 일괄 적용
+            Single.fromCallable(() -> "value")
+                    .subscribeOn(Schedulers.io())
+                    .observeOn(Schedulers.computation())
+                    .doOnSuccess(v -> print("RxJava observeOn"))
+                    .blockingGet();
+        } finally {
+            scope.close();
+        }
+        print("after scope");
+    }
+
+    /**
+     * 쓰레드 전환 1회 비용: 작업 쓰레드에서 캡처한 값을 적용하고 원래대로 복원
+     * MDC 는 Map 을 복사해서 전달하고, Context 는 참조 하나를 전달한다.
+     */
+    private static void hopCost() {
+        log.info("{}", MicroBenchmark.throughput("MDC copy per hop", 1, i -> () -> {
+            if (MDC.get("traceId") == null) {
+                MDC.put("traceId", "trace-3");
+                MDC.put("tenant", "ecoletree");
+            }
+            final Map<String, String> captured = MDC.getCopyOfContextMap();
+            final Map<String, String> previous = MDC.getCopyOfContextMap();
+            MDC.setContextMap(captured);
+            MDC.setContextMap(previous);
+        }));
+
+        final Context captured = Context.current().with(TRACE_ID, "trace-3").with(TENANT, "ecoletree");
+        final Runnable noop = () -> {};
+        log.info("{}", MicroBenchmark.throughput("Context per hop", 1, i -> () -> captured.run(noop)));
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Context.installRxJavaHook();
+
+        threadLocalIsLost();
+        contextIsPropagated();
+        hopCost();
+
+        ES.shutdown();
+        ES.awaitTermination(1, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,187 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : Pt11_Queues.java
+ * DESC : LinkedBlockingQueue / ArrayBlockingQueue 와 Lock-free 배열 큐의 전달 처리량, Executor 작업 지연 비교
+ *****************************************************************/
+package kr.co.ecoletree.ch01;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import kr.co.ecoletree.common.concurrent.queue.BlockingQueueAdapter;
+import kr.co.ecoletree.common.concurrent.queue.MessageQueue;
+import kr.co.ecoletree.common.concurrent.queue.WaitStrategy;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class Pt11_Queues {
+    private static final int CAPACITY = 1024;
+    private static final int ITEMS = 2_000_000;
+    private static final int TASKS = 200_000;
+
+    /**
+     * 생산자 producers 개가 ITEMS 개를 나눠서 넣고, 소비자 하나가 모두 꺼낼 때까지의 처리량
+     */
+    private static void handoff(final String name, final int producers, final Predicate<Integer> offer, final Supplier<Integer> poll) throws InterruptedException {
+        final WaitStrategy wait = WaitStrategy.yielding();
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>();
+        final int perProducer = ITEMS / producers;
+        for (int i = 0; i < producers; i++) {
+            final Thread t = new Thread(() -> {
+                try { start.await(); }
+                catch (InterruptedException e) { return; }
+                final Integer item = 1;
+                for (int n = 0; n < perProducer; n++) {
+                    for (int idle = 0; !offer.test(item); idle++) {
+                        wait.idle(idle);
+                    }
+                }
+            }, "producer-" + i);
+            t.start();
+            threads.add(t);
+        }
+
+        final long total = (long) perProducer * producers;
+        final long begin = System.nanoTime();
+        start.countDown();
+        long received = 0;
+        for (int idle = 0; received < total; ) {
+            final Integer item = poll.get();
+            if (item == null) {
+                wait.idle(idle++);
+            } else {
+                received += item;
+                idle = 0;
+            }
+        }
+        final long elapsed = System.nanoTime() - begin;
+        for (final Thread t : threads) t.join();
+        log.info("{} producers={} {} ops/s (received {})", String.format("%-28s", name), producers,
+                String.format("%,14.0f", total * 1e9 / elapsed), received);
+    }
+
+    /**
+     * MessageQueue#drain 으로 한 번에 여러 개씩 꺼내는 소비자
+     */
+    private static void batchHandoff(final String name, final int producers, final MessageQueue<Integer> queue) throws InterruptedException {
+        final Supplier<Integer> poll = new Supplier<Integer>() {
+            @Override
+            public Integer get() {
+                final int n = queue.drain(item -> {}, 256);
+                return n == 0 ? null : n;
+            }
+        };
+        handoff(name, producers, queue::offer, poll);
+    }
+
+    /**
+     * ThreadPoolExecutor 작업 큐 교체: 작업 제출 -> 실행 시작까지의 지연
+     */
+    private static void executor(final String name, final BlockingQueue<Runnable> workQueue) throws InterruptedException {
+        final LongAdder latency = new LongAdder();
+        final LongAccumulator maxLatency = new LongAccumulator(Math::max, 0);
+        final CountDownLatch done = new CountDownLatch(TASKS);
+        final AtomicLong rejected = new AtomicLong();
+        // 큐가 가득 차면 잠시 양보 후 큐에 다시 넣는다 (RejectedExecutionException 대신)
+        final ThreadPoolExecutor es = new ThreadPoolExecutor(2, 2, 0, TimeUnit.MILLISECONDS, workQueue, (task, executor) -> {
+            while (!executor.getQueue().offer(task)) {
+                rejected.incrementAndGet();
+                Thread.yield();
+            }
+        });
+
+        final long begin = System.nanoTime();
+        for (int i = 0; i < TASKS; i++) {
+            final long enqueuedAt = System.nanoTime();
+            final Runnable task = () -> {
+                final long waited = System.nanoTime() - enqueuedAt;
+                latency.add(waited);
+                maxLatency.accumulate(waited);
+                done.countDown();
+            };
+            es.execute(task);
+        }
+        done.await();
+        final long elapsed = System.nanoTime() - begin;
+        es.shutdown();
+        log.info("{} {} tasks/s, mean latency {} us, max {} us, full-queue retries {}", String.format("%-28s", name),
+                String.format("%,12.0f", TASKS * 1e9 / elapsed),
+                TimeUnit.NANOSECONDS.toMicros(latency.sum() / TASKS), TimeUnit.NANOSECONDS.toMicros(maxLatency.get()), rejected.get());
+    }
+
+    /**
+     * ThreadPoolExecutor 가 큐를 순회 / 중간 제거하는 경로: remove(Runnable), purge(), shutdownNow()
+     */
+    private static void shutdownNow(final String name, final BlockingQueue<Runnable> workQueue) throws InterruptedException {
+        final ThreadPoolExecutor es = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, workQueue);
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final LongAdder executed = new LongAdder();
+        // 작업 쓰레드 하나를 막아 두고 나머지 작업은 큐에 쌓는다
+        es.execute(() -> {
+            try { blocked.await(); }
+            catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        });
+        final Runnable task = executed::increment;
+        for (int i = 0; i < 10; i++) {
+            es.execute(task);
+        }
+        final Runnable removable = executed::increment;
+        es.execute(removable);
+        final Future<?> cancelled = es.submit(executed::increment);
+        cancelled.cancel(false);
+
+        final boolean removed = es.remove(removable);
+        es.purge();
+        final int queuedBeforeShutdown = workQueue.size();
+        final List<Runnable> notExecuted = es.shutdownNow();
+        final boolean terminated = es.awaitTermination(1, TimeUnit.SECONDS);
+        log.info("{} remove={}, queued after purge={}, shutdownNow returned {}, executed={}, terminated={}",
+                String.format("%-28s", name), removed, queuedBeforeShutdown, notExecuted.size(), executed.sum(), terminated);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        for (int round = 0; round < 2; round++) {
+            log.info("---- round {} ----", round + 1);
+            final LinkedBlockingQueue<Integer> lbq = new LinkedBlockingQueue<>(CAPACITY);
+            handoff("LinkedBlockingQueue", 1, lbq::offer, lbq::poll);
+            final ArrayBlockingQueue<Integer> abq = new ArrayBlockingQueue<>(CAPACITY);
+            handoff("ArrayBlockingQueue", 1, abq::offer, abq::poll);
+            final MessageQueue<Integer> spsc = MessageQueue.spsc(CAPACITY);
+            handoff("SPSC", 1, spsc::offer, spsc::poll);
+            batchHandoff("SPSC (drain)", 1, MessageQueue.spsc(CAPACITY));
+
+            final LinkedBlockingQueue<Integer> lbq4 = new LinkedBlockingQueue<>(CAPACITY);
+            handoff("LinkedBlockingQueue", 4, lbq4::offer, lbq4::poll);
+            final ArrayBlockingQueue<Integer> abq4 = new ArrayBlockingQueue<>(CAPACITY);
+            handoff("ArrayBlockingQueue", 4, abq4::offer, abq4::poll);
+            final MessageQueue<Integer> mpsc = MessageQueue.mpsc(CAPACITY);
+            handoff("MPSC", 4, mpsc::offer, mpsc::poll);
+            batchHandoff("MPSC (drain)", 4, MessageQueue.mpsc(CAPACITY));
+            final MessageQueue<Integer> mpmc = MessageQueue.mpmc(CAPACITY);
+            handoff("MPMC", 4, mpmc::offer, mpmc::poll);
+
+            executor("TPE + LinkedBlockingQueue", new LinkedBlockingQueue<>(CAPACITY));
+            executor("TPE + ArrayBlockingQueue", new ArrayBlockingQueue<>(CAPACITY));
+            executor("TPE + MPMC (backoff)", BlockingQueueAdapter.mpmc(CAPACITY));
+            executor("TPE + MPMC (yield)", new BlockingQueueAdapter<>(MessageQueue.mpmc(CAPACITY), WaitStrategy.yielding()));
+        }
+        shutdownNow("TPE + LinkedBlockingQueue", new LinkedBlockingQueue<>(CAPACITY));
+        shutdownNow("TPE + MPMC", BlockingQueueAdapter.mpmc(CAPACITY));
+    }
+}
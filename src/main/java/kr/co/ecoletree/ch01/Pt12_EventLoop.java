@@ -0,0 +1,130 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : Pt12_EventLoop.java
+ * DESC : Lock 으로 보호하는 상태 vs Event Loop 쓰레드에 가둔 상태 (단일 쓰레드 소유)
+ *****************************************************************/
+package kr.co.ecoletree.ch01;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import kr.co.ecoletree.common.concurrent.EventLoop;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class Pt12_EventLoop {
+    private static final int PRODUCERS = 4;
+    private static final int COMMANDS = 500_000;
+    private static final int KEYS = 128;
+    /** COMMANDS 의 약수 (마지막 묶음이 남지 않도록) */
+    private static final int BATCH = 50;
+
+    /**
+     * 생산자 PRODUCERS 개가 각각 COMMANDS 개의 명령을 보낼 때 걸린 시간
+     */
+    private static long run(final Consumer<Integer> command) throws InterruptedException {
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(PRODUCERS);
+        for (int i = 0; i < PRODUCERS; i++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    final ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                    for (int n = 0; n < COMMANDS; n++) {
+                        command.accept(rnd.nextInt(KEYS));
+                    }
+                } catch (final InterruptedException ignore) {
+                } finally {
+                    done.countDown();
+                }
+            }, "producer-" + i).start();
+        }
+        final long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        return System.nanoTime() - begin;
+    }
+
+    /**
+     * 1. synchronized 로 공유 Map 보호
+     */
+    private static void lockedState() throws InterruptedException {
+        final Map<Integer, Long> counts = new HashMap<>();
+        final long elapsed = run(key -> {
+            synchronized (counts) {
+                counts.merge(key, 1L, Long::sum);
+            }
+        });
+        final long total = counts.values().stream().mapToLong(Long::longValue).sum();
+        log.info("[synchronized] {} ms, total={}", TimeUnit.NANOSECONDS.toMillis(elapsed), total);
+    }
+
+    /**
+     * 2. Map 은 Event Loop 쓰레드만 접근. 생산자는 명령만 넣는다.
+     */
+    private static void confinedState() throws InterruptedException {
+        final EventLoop loop = new EventLoop("counter", 1 << 16, EventLoop.DEFAULT_BATCH_SIZE);
+        final Map<Integer, Long> counts = new HashMap<>();
+        final long elapsed = run(key -> {
+            final Runnable command = () -> counts.merge(key, 1L, Long::sum);
+            while (!loop.offer(command)) {
+                Thread.yield();
+            }
+        });
+        // 결과 조회도 Event Loop 에 명령으로 넣는다.
+        final CompletableFuture<Long> total = new CompletableFuture<>();
+        loop.execute(() -> total.complete(counts.values().stream().mapToLong(Long::longValue).sum()));
+        log.info("[event loop] {} ms (publish), total={}", TimeUnit.NANOSECONDS.toMillis(elapsed), total.join());
+        log.info("{}", loop);
+        log.info("average batch size: {}", loop.getExecutedTasks() / Math.max(1, loop.getBatches()));
+        loop.shutdown();
+        loop.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 3. 여러 명령을 모아서 넣으면 Event Loop 를 깨우는 횟수가 줄어든다.
+     */
+    private static void batchedSubmission() throws InterruptedException {
+        final EventLoop loop = new EventLoop("batch", 1 << 16, EventLoop.DEFAULT_BATCH_SIZE);
+        final Map<Integer, Long> counts = new HashMap<>();
+        final long elapsed = run(new Consumer<Integer>() {
+            private final ThreadLocal<List<Runnable>> buffer = ThreadLocal.withInitial(ArrayList::new);
+
+            @Override
+            public void accept(final Integer key) {
+                final List<Runnable> commands = buffer.get();
+                commands.add(() -> counts.merge(key, 1L, Long::sum));
+                if (commands.size() == BATCH) {
+                    int offset = 0;
+                    while (offset < commands.size()) {
+                        offset += loop.offerAll(commands.subList(offset, commands.size()));
+                        if (offset < commands.size()) Thread.yield();
+                    }
+                    commands.clear();
+                }
+            }
+        });
+        final CompletableFuture<Long> total = new CompletableFuture<>();
+        loop.execute(() -> total.complete(counts.values().stream().mapToLong(Long::longValue).sum()));
+        log.info("[event loop, batched] {} ms (publish), total={}", TimeUnit.NANOSECONDS.toMillis(elapsed), total.join());
+        log.info("{}", loop);
+        loop.shutdown();
+        loop.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        lockedState();
+        confinedState();
+        batchedSubmission();
+    }
+}
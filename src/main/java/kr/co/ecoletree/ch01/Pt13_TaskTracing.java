@@ -0,0 +1,101 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : Pt13_TaskTracing.java
+ * DESC : CompletableFuture 체인의 단계별 큐 대기 / 실행 시간 추적 (Chrome trace 출력)
+ *****************************************************************/
+package kr.co.ecoletree.ch01;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import kr.co.ecoletree.common.concurrent.TaskTracer;
+import kr.co.ecoletree.common.concurrent.WorkerThreadFactory;
+import kr.co.ecoletree.common.helper.MicroBenchmark;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class Pt13_TaskTracing {
+    /** 쓰레드 2개에 작업 20개 → 뒤쪽 작업은 ES 큐에서 기다린다. */
+    private static final ExecutorService ES = Executors.newFixedThreadPool(2, WorkerThreadFactory.daemon("trace"));
+    private static final Executor TRACED_ES = TaskTracer.wrap(ES, "es");
+    private static final int ORDERS = 20;
+
+    private static String load(final int id) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(20);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "order-" + id;
+    }
+
+    private static int parse(final String order) {
+        return IntStream.range(0, 200_000).map(i -> order.hashCode() ^ i).sum();
+    }
+
+    /**
+     * ES(Blocking) → commonPool(CPU) → ES(결과 처리) 체인을 추적
+     */
+    private static void traceChain() throws IOException {
+        TaskTracer.setSampleRate(1);
+        final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            final int id = i;
+            final TaskTracer.Operation op = TaskTracer.begin("order-" + id);
+            futures.add(op.call(() -> op.track(CompletableFuture.supplyAsync(() -> load(id), TRACED_ES)
+                    .thenApplyAsync(Pt13_TaskTracing::parse, TaskTracer.commonPool())
+                    .thenAcceptAsync(result -> log.trace("{} -> {}", id, result), TRACED_ES))));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+
+        final List<TaskTracer.Operation> operations = TaskTracer.drain();
+        operations.stream().limit(3).forEach(op -> log.info("{}", op));
+        operations.stream().skip(operations.size() - 3).forEach(op -> log.info("{}", op));
+
+        final Path path = Paths.get("target", "trace.json");
+        path.getParent().toFile().mkdirs();
+        try (OutputStream out = Files.newOutputStream(path)) {
+            TaskTracer.writeChromeTrace(operations, out);
+        }
+        log.info("{} operations written to {} (chrome://tracing 또는 ui.perfetto.dev 에서 열기)", operations.size(), path.toAbsolutePath());
+    }
+
+    /**
+     * 추적 비용: wrap 하지 않은 Executor / 추적하지 않는 작업 / 모두 추적하는 작업
+     */
+    private static void overhead() {
+        final Executor direct = Runnable::run;
+        final Executor traced = TaskTracer.wrap(direct, "direct");
+        final Runnable noop = () -> {};
+
+        log.info("{}", MicroBenchmark.throughput("executor", 1, t -> () -> direct.execute(noop)));
+        log.info("{}", MicroBenchmark.throughput("traced, not sampled", 1, t -> () -> traced.execute(noop)));
+        TaskTracer.setSampleRate(1);
+        log.info("{}", MicroBenchmark.throughput("traced, sampled", 1, t -> () -> {
+            try (TaskTracer.Operation op = TaskTracer.begin("bench")) {
+                op.run(() -> traced.execute(noop));
+            }
+        }));
+        TaskTracer.drain();
+    }
+
+    public static void main(String[] args) throws IOException {
+        traceChain();
+        overhead();
+        ES.shutdown();
+    }
+}
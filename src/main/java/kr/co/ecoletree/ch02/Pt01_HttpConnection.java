@@ -8,6 +8,132 @@
  *****************************************************************/
 package kr.co.ecoletree.ch02;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import kong.unirest.Config;
+import kong.unirest.UnirestInstance;
+import kr.co.ecoletree.common.concurrent.WorkerPools;
+import kr.co.ecoletree.common.helper.DnsCache;
+import kr.co.ecoletree.common.helper.HttpClientUtil;
+import kr.co.ecoletree.common.helper.HttpWarmUp;
+import kr.co.ecoletree.common.helper.MapBuilder;
+import kr.co.ecoletree.common.helper.StubHttpServer;
+import kr.co.ecoletree.common.helper.UrlConnectionClient;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
 public class Pt01_HttpConnection {
+    private static final int REQUESTS = 2000;
+
+    /**
+     * HttpURLConnection 직접 사용 (응답 본문을 끝까지 읽고 닫아야 연결이 재사용된다)
+     */
+    private static String get(final String url) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(5000);
+        connection.setReadTimeout(30000);
+        connection.setRequestProperty("Accept", "application/json");
+        final int status = connection.getResponseCode();
+        // 4xx/5xx 에 본문이 없으면 getErrorStream() 은 null
+        final InputStream stream = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        if (stream == null) {
+            connection.disconnect();
+            return status + " ";
+        }
+        try (InputStream in = stream) {
+            final ByteArrayOutputStream body = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            for (int n; (n = in.read(buffer)) >= 0; ) {
+                body.write(buffer, 0, n);
+            }
+            return status + " " + body.toString(StandardCharsets.UTF_8.name());
+        }
+    }
+
+    /**
+     * HttpClientUtil 의 Exchange / AsyncExchange 를 그대로 사용 (전송만 HttpURLConnection)
+     */
+    private static void exchanges(final StubHttpServer server) {
+        final UnirestInstance client = UrlConnectionClient.shared();
+
+        final HttpClientUtil.Exchange<String> hello = HttpClientUtil.get(client, server.url("/hello")).exchangeAsString();
+        log.info("[sync] {} {}", hello.statusCode(), hello.responseBody());
+
+        final Map<String, Object> map = HttpClientUtil.get(client, server.url("/hello")).exchangeAsMapAsync().body().join();
+        log.info("[async map] {}", map);
+
+        final String echo = HttpClientUtil.post(client, server.url("/echo"))
+                .body(MapBuilder.of("name", "ecoletree", "count", 3))
+                .exchangeAsStringAsync()
+                .body()
+                .join();
+        log.info("[async body] {}", echo);
+
+        final String form = HttpClientUtil.post(client, server.url("/echo"))
+                .formData(MapBuilder.of("name", "ecoletree", "query", "a&b=c"))
+                .exchangeAsStringAsync()
+                .body()
+                .join();
+        log.info("[async form] {}", form);
+
+        final HttpClientUtil.Exchange<String> missing = HttpClientUtil.get(client, server.url("/missing")).exchangeAsString();
+        log.info("[sync 404] {} {}", missing.statusCode(), missing.responseBody());
+    }
+
+    /**
+     * 첫 응답까지 걸린 시간 (클라이언트 생성 포함) 과 REQUESTS 번 비동기 요청 처리량, 쓰레드 수
+     */
+    private static void compare(final String name, final UnirestInstance client, final StubHttpServer server) {
+        final int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+        final long begin = System.nanoTime();
+        HttpClientUtil.get(client, server.url("/hello")).exchangeAsStringAsync().body().join();
+        final long firstMillis = (System.nanoTime() - begin) / 1_000_000;
+
+        final long start = System.nanoTime();
+        final List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            futures.add(HttpClientUtil.get(client, server.url("/hello")).exchangeAsStringAsync().body());
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        final double seconds = (System.nanoTime() - start) / 1e9;
+        log.info("[{}] first response {} ms, {} requests in {} ms ({} req/s), +{} threads",
+                name, firstMillis, REQUESTS, Math.round(seconds * 1000), Math.round(REQUESTS / seconds),
+                ManagementFactory.getThreadMXBean().getThreadCount() - threadsBefore);
+    }
+
+    public static void main(String[] args) throws IOException {
+        try (StubHttpServer server = StubHttpServer.start()) {
+            log.info("[HttpURLConnection] {}", get(server.url("/hello")));
+            exchanges(server);
 
+            WorkerPools.io();
+            try (UnirestInstance apache = new UnirestInstance(new Config().addShutdownHook(false))) {
+                compare("Unirest + Apache HttpAsyncClient", apache, server);
+            }
+            try (UnirestInstance urlConnection = UrlConnectionClient.newInstance(WorkerPools.io())) {
+                compare("Unirest + HttpURLConnection", urlConnection, server);
+            }
+            try (UnirestInstance warmed = new UnirestInstance(new Config().addShutdownHook(false))) {
+                // 기동 시 예열 (DNS 조회, 연결 생성, JIT) 후 첫 응답
+                new HttpWarmUp(HttpWarmUp.Config.builder()
+                        .url(server.url("/hello").replace("127.0.0.1", "localhost"))
+                        .client(warmed)
+                        .build())
+                        .run();
+                compare("Unirest + Apache HttpAsyncClient, warmed up", warmed, server);
+            }
+            log.info("{}", DnsCache.shared());
+            log.info("{}", server);
+        }
+    }
 }
@@ -8,34 +8,52 @@
  *****************************************************************/
 package kr.co.ecoletree.ch02;
 
-import org.springframework.http.HttpEntity;
-import org.springframework.http.MediaType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
 import org.springframework.http.ResponseEntity;
-import org.springframework.util.MultiValueMapAdapter;
-import org.springframework.web.client.AsyncRestTemplate;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
-import java.util.Collections;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
-import static org.apache.http.HttpHeaders.*;
-
+import kr.co.ecoletree.common.helper.DnsCache;
 import kr.co.ecoletree.common.helper.MapBuilder;
+import kr.co.ecoletree.common.helper.WebClientService;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class Pt02_RestTemplate {
 
+    /**
+     * 연결 풀을 쓰는 공용 RestTemplate (요청마다 new RestTemplate() 하면 연결을 재사용하지 못한다)
+     */
+    private static final RestTemplate restTemplate = pooledRestTemplate();
+
+    private static RestTemplate pooledRestTemplate() {
+        final CloseableHttpClient httpClient = HttpClients.custom()
+                .setMaxConnTotal(200)
+                .setMaxConnPerRoute(50)
+                .evictIdleConnections(30, TimeUnit.SECONDS)
+                .setDnsResolver(DnsCache.shared())
+                .build();
+        final HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        factory.setConnectTimeout(5000);
+        factory.setReadTimeout(30000);
+        return new RestTemplate(factory);
+    }
+
     private static void httpTest() {
         final String url = "https://search.naver.com/search.naver?where=nexearch&sm=top_hty&fbm=1&ie=utf8&query=a";
-        final RestTemplate restTemplate = new RestTemplate();
         ResponseEntity<String> result = restTemplate.getForEntity(url, String.class);
         System.err.println(result.getBody());
     }
 
+    /**
+     * AsyncRestTemplate (deprecated, 요청마다 쓰레드) 대신 WebClientService 사용
+     */
     private static void asyncHttpTest() {
-        final AsyncRestTemplate restTemplate = new AsyncRestTemplate();
         final String url = "http://101.101.217.170:8080/Boxwood_portal_demo/emo/infer/rdd";
         final Map<String, Object> body = MapBuilder.of(
                 "po_num", "11111111",
@@ -45,22 +63,21 @@ public class Pt02_RestTemplate {
                 "user_id", "hskim@ecoletree.com",
                 "apiKey", "asdasd"
         );
-        final Map<String, List<String>> headers = MapBuilder.of(
-                CONTENT_TYPE, Collections.singletonList(MediaType.APPLICATION_JSON_VALUE),
-                ACCEPT, Collections.singletonList(MediaType.APPLICATION_JSON_VALUE)
-        );
-        final HttpEntity<Map<String, Object>> request = new HttpEntity<>(body, new MultiValueMapAdapter<>(headers));
-        restTemplate.postForEntity(
-                        url
-                        , request
-                        , String.class)
-
-                .addCallback(response -> {
+        final CountDownLatch latch = new CountDownLatch(1);
+        WebClientService.shared()
+                .post(url, body, String.class)
+                .doFinally(signal -> latch.countDown())
+                .subscribe(response -> {
                     log.info("Response: {}", response);
                 }, e -> {
                     log.error(e.getMessage());
                 });
-
+        // Event Loop 쓰레드는 daemon 이므로 응답을 받기 전에 main 이 끝나지 않도록 기다린다.
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     public static void main(String[] args) {
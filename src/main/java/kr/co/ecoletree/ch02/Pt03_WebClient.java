@@ -8,40 +8,210 @@
  *****************************************************************/
 package kr.co.ecoletree.ch02;
 
-import org.springframework.http.MediaType;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.web.client.AsyncRestTemplate;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
+import kr.co.ecoletree.common.concurrent.WorkerThreadFactory;
 import kr.co.ecoletree.common.helper.MapBuilder;
+import kr.co.ecoletree.common.helper.StubHttpServer;
+import kr.co.ecoletree.common.helper.WebClientService;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @Slf4j
 public class Pt03_WebClient {
+    private static final int REQUESTS = 500;
+    private static final int DELAY_MILLIS = 50;
 
-//    private static void testHttp() {
-//        final String url = "http://101.101.217.170:8080/Boxwood_portal_demo/demo/infer/rdd";
-//        final Map<String, Object> body = MapBuilder.of(
-//                "po_num", "11111111",
-//                "provider","abvc",
-//                "total", "12",
-//                "rdd", "2021-12-10 14:51:33",
-//                "user_id", "hskim@ecoletree.com",
-//                "apiKey", "asdasd"
-//        );
-//
-//        final String responseBody = WebClient.create(url)
-//                .post()
-//                .contentType(MediaType.APPLICATION_JSON)
-//                .accept(MediaType.APPLICATION_JSON)
-//                .body(BodyInserters.fromValue(body))
-//                .retrieve()
-//                .bodyToMono(Map.class)
-//                .flatMap(rBody -> WebClient.create(url).post().body(BodyInserters.fromValue(rBody)).retrieve().bodyToMono(String.class))
-//                .block();
-//        log.info("Response Body: {}", body);
-//    }
-//
-//    public static void main(String[] args) {
-//        testHttp();
-//    }
+    private static final Map<String, Object> body = MapBuilder.of(
+            "po_num", "11111111",
+            "provider","abvc",
+            "total", "12",
+            "rdd", "2021-12-10 14:51:33",
+            "user_id", "hskim@ecoletree.com",
+            "apiKey", "asdasd"
+    );
+
+    /**
+     * 응답을 Map 으로 받아 다시 JSON 으로 보내는 기존 방식 (역직렬화 + 재직렬화)
+     */
+    @SuppressWarnings("rawtypes")
+    private static Mono<String> chainWithMap(final WebClientService service, final String url) {
+        return service.post(url, body, Map.class)
+                .flatMap(rBody -> service.post(url, rBody, String.class));
+    }
+
+    /**
+     * 응답 본문(DataBuffer)을 그대로 다음 요청 본문으로 전송 (재직렬화 없음)
+     */
+    private static Mono<String> chainWithBuffers(final WebClientService service, final String url) {
+        return service.relay(url, service.postForBuffers(url, body), String.class);
+    }
+
+    /**
+     * 첫 응답을 받으면 서로 의존하지 않는 후속 요청들을 동시에 보낸다.
+     */
+    private static Mono<String> pipeline(final WebClientService service, final StubHttpServer server) {
+        final Flux<DataBuffer> first = service.postForBuffers(server.url("/echo"), body);
+        final Mono<List<String>> relayed = service.relayAll(
+                Arrays.asList(server.url("/echo?delay=" + DELAY_MILLIS), server.url("/echo?delay=" + DELAY_MILLIS)), first, String.class);
+        final Mono<String> hello = service.get(server.url("/hello?delay=" + DELAY_MILLIS), String.class);
+        return Mono.zip(relayed, hello, (responses, greeting) -> responses + " / " + greeting);
+    }
+
+    private static void testHttp(final StubHttpServer server) {
+        final WebClientService service = WebClientService.shared();
+        final String url = server.url("/echo");
+        final CountDownLatch latch = new CountDownLatch(1);
+        chainWithBuffers(service, url)
+                .doOnNext(responseBody -> log.info("Response Body: {}", responseBody))
+                .then(pipeline(service, server))
+                .doFinally(signal -> latch.countDown())
+                .subscribe(responses -> log.info("Pipelined: {}", responses), e -> log.error(e.getMessage()));
+        // 호출 쓰레드는 막지 않는다. (예제가 끝나지 않도록 main 에서만 기다린다)
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Map 변환 / DataBuffer 전달 방식으로 REQUESTS 번 연속 호출
+     */
+    private static void compareChain(final String name, final Function<WebClientService, Mono<String>> chain) {
+        final WebClientService service = WebClientService.shared();
+        chain.apply(service).block();
+        final long begin = System.nanoTime();
+        Flux.range(0, REQUESTS)
+                .flatMap(i -> chain.apply(service), 64)
+                .blockLast();
+        log.info("[{}] {} chained calls in {} ms", name, REQUESTS, (System.nanoTime() - begin) / 1_000_000);
+    }
+
+    /**
+     * AsyncRestTemplate (기본 Executor = 요청마다 새 쓰레드) 로 REQUESTS 개 동시 요청
+     */
+    @SuppressWarnings("deprecation")
+    private static void asyncRestTemplate(final String url) throws InterruptedException {
+        final AsyncRestTemplate restTemplate = new AsyncRestTemplate(new SimpleAsyncTaskExecutor("async-rest-"));
+        final CountDownLatch latch = new CountDownLatch(REQUESTS);
+        final AtomicInteger failed = new AtomicInteger();
+        try (ThreadSampler threads = new ThreadSampler("async-rest-")) {
+            final long begin = System.nanoTime();
+            for (int i = 0; i < REQUESTS; i++) {
+                final ListenableFuture<ResponseEntity<String>> future = restTemplate.getForEntity(url, String.class);
+                future.addCallback(response -> latch.countDown(), e -> {
+                    failed.incrementAndGet();
+                    latch.countDown();
+                });
+            }
+            latch.await();
+            report("AsyncRestTemplate", begin, failed.get(), threads);
+        }
+    }
+
+    /**
+     * WebClientService (공유 연결 풀 + Event Loop) 로 REQUESTS 개 동시 요청
+     */
+    private static void webClient(final String url) {
+        final WebClientService.Config config = WebClientService.Config.builder()
+                .name("bench")
+                .maxConnections(REQUESTS)
+                .build();
+        final AtomicInteger failed = new AtomicInteger();
+        try (WebClientService service = new WebClientService(config);
+             ThreadSampler threads = new ThreadSampler("Ecoletree-bench")) {
+            // 연결 / Event Loop 생성은 측정에서 뺀다.
+            service.get(url, String.class).block();
+            final long begin = System.nanoTime();
+            Flux.range(0, REQUESTS)
+                    .flatMap(i -> service.get(url, String.class).onErrorResume(e -> {
+                        failed.incrementAndGet();
+                        return Mono.empty();
+                    }), REQUESTS)
+                    .blockLast();
+            report(service.toString(), begin, failed.get(), threads);
+        }
+    }
+
+    private static void report(final String name, final long begin, final int failed, final ThreadSampler threads) {
+        final double seconds = (System.nanoTime() - begin) / 1e9;
+        log.info("[{}] {} requests ({} failed) in {} ms, {} req/s, peak client threads={}",
+                name, REQUESTS, failed, Math.round(seconds * 1000), Math.round(REQUESTS / seconds), threads.getPeak());
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        try (StubHttpServer server = StubHttpServer.start()) {
+            testHttp(server);
+            final String echo = server.url("/echo");
+            compareChain("Map", service -> chainWithMap(service, echo));
+            compareChain("DataBuffer", service -> chainWithBuffers(service, echo));
+
+            final String url = server.url("/hello?delay=" + DELAY_MILLIS);
+            asyncRestTemplate(url);
+            webClient(url);
+            log.info("{}", server);
+        }
+    }
+
+    /**
+     * 이름이 prefix 로 시작하는 살아있는 쓰레드 수의 최대값을 주기적으로 측정
+     */
+    private static final class ThreadSampler implements AutoCloseable {
+        private final String prefix;
+        private final Thread sampler;
+        private volatile boolean running = true;
+        private volatile int peak;
+
+        ThreadSampler(final String prefix) {
+            this.prefix = prefix;
+            this.sampler = WorkerThreadFactory.daemon("thread-sampler").newThread(this::sample);
+            sampler.start();
+        }
+
+        int getPeak() {
+            return peak;
+        }
+
+        private void sample() {
+            while (running) {
+                ThreadGroup root = Thread.currentThread().getThreadGroup();
+                while (root.getParent() != null) {
+                    root = root.getParent();
+                }
+                final Thread[] threads = new Thread[root.activeCount() * 2];
+                int count = 0;
+                for (int i = 0, n = root.enumerate(threads); i < n; i++) {
+                    if (threads[i].getName().startsWith(prefix)) {
+                        count++;
+                    }
+                }
+                peak = Math.max(peak, count);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(10);
+                } catch (final InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            running = false;
+            sampler.interrupt();
+        }
+    }
 }
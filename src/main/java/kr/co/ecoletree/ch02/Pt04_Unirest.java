@@ -4,28 +4,35 @@
  * Author : HyungSeok Kim
  * Create Date : 2022. 02. 16.
  * File Name : Pt04_Unirest.java
- * DESC :
+ * DESC : Unirest 비동기 요청, 응답 처리 쓰레드 분리
  *****************************************************************/
 package kr.co.ecoletree.ch02;
 
-import com.esotericsoftware.kryo.util.ObjectMap;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
-import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import kong.unirest.Config;
 import kong.unirest.GenericType;
 import kong.unirest.HttpResponse;
-import kong.unirest.Unirest;
+import kong.unirest.UnirestInstance;
+import kr.co.ecoletree.common.concurrent.WorkerPools;
+import kr.co.ecoletree.common.helper.HttpClientUtil;
+import kr.co.ecoletree.common.helper.IoReactorMonitor;
 import kr.co.ecoletree.common.helper.MapBuilder;
+import kr.co.ecoletree.common.helper.StubHttpServer;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 public class Pt04_Unirest {
-    private static final String url = "http://101.101.217.170:8080/Boxwood_portal_demo/demo/infer/rdd";
+    private static final int REQUESTS = 200;
     private static final Map<String, Object> body = MapBuilder.of(
             "po_num", "11111111",
             "provider","abvc",
@@ -35,19 +42,65 @@ public class Pt04_Unirest {
             "apiKey", "asdasd"
     );
 
-    public static void main(String[] args) throws InterruptedException {
-        final CompletableFuture<HttpResponse<Map<String, Object>>> response = Unirest.post(url)
-                .accept("application/json")
-                .contentType("application/json")
-                .body(body)
-                .asObjectAsync(new GenericType<Map<String, Object>>() {});
-//                .map(res -> {
-//                    try {
-//                        return new ObjectMapper().readValue(res, Map.class);
-//                    } catch (JsonProcessingException e) {
-//                        e.printStackTrace();
-//                    }
-//                    return null;
-//                });
+    /** 변환 비용이 큰 응답 (JSON 필드 5000 개) */
+    private static final Map<String, Object> large = IntStream.range(0, 5000).boxed()
+            .collect(Collectors.toMap(i -> "field" + i, i -> "value-" + i));
+
+    /**
+     * 큰 JSON 응답 변환 요청과 작은 요청을 동시에 보내고 작은 요청의 응답 시간, I/O reactor 사용률을 본다.
+     *
+     * @param executor 응답 처리 Executor (null 이면 I/O reactor 쓰레드)
+     */
+    private static void run(final String name, final UnirestInstance client, final StubHttpServer server, final Executor executor) {
+        final IoReactorMonitor monitor = IoReactorMonitor.apache();
+        final Set<String> parsedOn = ConcurrentHashMap.newKeySet();
+        final List<CompletableFuture<?>> futures = new ArrayList<>();
+        final List<CompletableFuture<Long>> latencies = new ArrayList<>();
+
+        monitor.sample();
+        final long begin = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            futures.add(HttpClientUtil.post(client, server.url("/echo"))
+                    .callbackExecutor(executor)
+                    .body(large)
+                    .exchangeAsMapAsync()
+                    .body()
+                    .thenApply(map -> {
+                        parsedOn.add(Thread.currentThread().getName().replaceAll("\\d+$", "N"));
+                        return map.values().stream().mapToInt(v -> String.valueOf(v).hashCode()).sum();
+                    }));
+
+            final long sent = System.nanoTime();
+            latencies.add(HttpClientUtil.get(client, server.url("/hello"))
+                    .callbackExecutor(executor)
+                    .exchangeAsStringAsync()
+                    .body()
+                    .thenApply(hello -> System.nanoTime() - sent));
+        }
+        futures.addAll(latencies);
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        final long elapsed = System.nanoTime() - begin;
+
+        final double averageMillis = latencies.stream().mapToLong(CompletableFuture::join).average().orElse(0) / 1e6;
+        log.info("[{}] {} ms, small request latency avg {} ms, parsed on {}, {}",
+                name, TimeUnit.NANOSECONDS.toMillis(elapsed), String.format("%.1f", averageMillis), parsedOn, monitor.sample());
+    }
+
+    public static void main(String[] args) {
+        try (StubHttpServer server = StubHttpServer.start();
+             UnirestInstance client = new UnirestInstance(new Config().addShutdownHook(false))) {
+            final CompletableFuture<HttpResponse<Map<String, Object>>> response = client.post(server.url("/echo"))
+                    .accept("application/json")
+                    .contentType("application/json")
+                    .body(body)
+                    .asObjectAsync(new GenericType<Map<String, Object>>() {});
+            log.info("Response: {}", response.join().getBody());
+
+            // 연결 / JIT 준비
+            run("warm-up", client, server, WorkerPools.cpu());
+            run("I/O reactor thread", client, server, null);
+            run("CPU pool", client, server, WorkerPools.cpu());
+            log.info("{}", server);
+        }
     }
 }
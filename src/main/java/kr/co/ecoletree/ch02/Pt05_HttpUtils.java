@@ -4,17 +4,80 @@
  * Author : HyungSeok Kim
  * Create Date : 2022. 02. 16.
  * File Name : Pt05_HttpUtils.java
- * DESC :
+ * DESC : HttpClientUtil 큰 파일 업로드 (multipart streaming, 구간 병렬 업로드)
  *****************************************************************/
 package kr.co.ecoletree.ch02;
 
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import kong.unirest.Config;
+import kong.unirest.UnirestInstance;
+import kr.co.ecoletree.common.concurrent.Futures;
 import kr.co.ecoletree.common.helper.HttpClientUtil;
+import kr.co.ecoletree.common.helper.MapBuilder;
+import kr.co.ecoletree.common.helper.RangedUpload;
+import kr.co.ecoletree.common.helper.StubHttpServer;
+import kr.co.ecoletree.common.helper.UrlConnectionClient;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 public class Pt05_HttpUtils {
+    private static final long FILE_SIZE = 64L * 1024 * 1024;
+    private static final long PART_SIZE = 8L * 1024 * 1024;
+
+    /**
+     * 업로드 실행, 걸린 시간 / 응답 / 힙 사용 증가량 (대략) 기록
+     */
+    private static void upload(final String name, final Supplier<Map<String, Object>> upload) {
+        System.gc();
+        final Runtime runtime = Runtime.getRuntime();
+        final long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        final long begin = System.nanoTime();
+        try {
+            final Map<String, Object> response = upload.get();
+            log.info("[{}] {} ms, +{} MB heap, {}", name, (System.nanoTime() - begin) / 1_000_000,
+                    (runtime.totalMemory() - runtime.freeMemory() - heapBefore) / (1024 * 1024), response);
+        } catch (final RuntimeException e) {
+            log.warn("[{}] failed: {}", name, Futures.unwrap(e).toString());
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        final Path file = Files.createTempFile("ecoletree-upload", ".bin");
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw");
+             StubHttpServer server = StubHttpServer.start();
+             UnirestInstance apache = new UnirestInstance(new Config().addShutdownHook(false))) {
+            raf.setLength(FILE_SIZE);
+            final String url = server.url("/upload");
+            final UnirestInstance urlConnection = UrlConnectionClient.shared();
+            final Map<String, Object> form = MapBuilder.of("name", "ecoletree", "upload", file.toFile());
+
+            // 기존 방식: Unirest MultipartBody
+            upload("formData, Apache", () -> HttpClientUtil.post(apache, url).formData(form).exchangeAsMapAsync().body().join());
+
+            // 읽는 대로 전송 (Unirest 의 Apache async client 는 본문을 byte[] 로 모은 뒤 보내므로 streaming 이 되지 않는다)
+            upload("formDataStream, Apache async", () -> HttpClientUtil.post(apache, url).formDataStream(form).exchangeAsMapAsync().body().join());
+            upload("formDataStream, Apache sync", () -> HttpClientUtil.post(apache, url).formDataStream(form).exchangeAsMap().responseBody());
+            upload("formDataStream, HttpURLConnection", () -> HttpClientUtil.post(urlConnection, url).formDataStream(form).exchangeAsMapAsync().body().join());
 
-    public static void main(String[] args) {
-        HttpClientUtil.post("")
-                .body("")
-                .exchangeAsMapAsync();
+            // 구간 나눠 동시에 업로드
+            for (final int parallelism : new int[] {1, 4}) {
+                final RangedUpload.Result result = RangedUpload.of(file, PART_SIZE, parallelism)
+                        .upload(part -> HttpClientUtil.put(urlConnection, url)
+                                .headers(MapBuilder.of("Content-Range", part.getContentRange()))
+                                .stream(part.open())
+                                .exchangeAsMapAsync())
+                        .join();
+                log.info("[ranged, parallelism={}] {}", parallelism, result);
+            }
+            log.info("{}", server);
+        } finally {
+            Files.deleteIfExists(file);
+        }
     }
 }
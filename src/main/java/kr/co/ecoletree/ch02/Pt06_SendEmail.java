@@ -9,66 +9,358 @@
 package kr.co.ecoletree.ch02;
 
 import org.simplejavamail.api.email.Email;
-import org.simplejavamail.api.mailer.AsyncResponse;
+import org.simplejavamail.api.email.EmailPopulatingBuilder;
 import org.simplejavamail.api.mailer.Mailer;
 import org.simplejavamail.api.mailer.config.TransportStrategy;
 import org.simplejavamail.email.EmailBuilder;
 import org.simplejavamail.mailer.MailerBuilder;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
-import lombok.Data;
+import kr.co.ecoletree.common.concurrent.WorkerThreadFactory;
+import kr.co.ecoletree.common.mail.BulkMailer;
+import kr.co.ecoletree.common.mail.EmailAuth;
+import kr.co.ecoletree.common.mail.EmailInfo;
+import kr.co.ecoletree.common.mail.MailOutbox;
+import kr.co.ecoletree.common.mail.MailerCache;
+import kr.co.ecoletree.common.mail.PooledMailer;
+import kr.co.ecoletree.common.mail.SmtpConnectionPool;
+import kr.co.ecoletree.common.mail.StubSmtpServer;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 public class Pt06_SendEmail {
+    private static final int EMAILS = 300;
+    private static final int SENDERS = 4;
+    private static final int RECIPIENTS = 20_000;
+    private static final int LIST_SIZE = 1000;
 
-    private static AsyncResponse sendMail(final EmailInfo email, final EmailAuth auth) {
-        final String from = email.getSender();
-        final String to = email.getReceiver();
-        final String cc = email.getCc().stream().findFirst().orElse(null);
-        final String title = email.getSubject();
-        final String content = email.getContent();
-
-        final String from_name = email.getSenderName();
-        final String to_name = email.getReceiverName();
-
-        final String sender = auth.getAccount();
-        final String password = auth.getPassword();
-        final String host = auth.getHost();
-        final int port = auth.getPort();
-
-        Email mail = EmailBuilder.startingBlank()
-                .from(from_name, from)
-                .to(to_name, to)
-                .ccMultiple(cc) // 다중 참조
-                .withSubject(title)
-                .withPlainText(content)
-                .buildEmail();
-
-        Mailer mailer = MailerBuilder
-                .withSMTPServer(host, port, sender, password)
+    private static final String BULK_SUBJECT = "[${company}] ${name}님, ${month}월 이용 내역 안내";
+    private static final String BULK_CONTENT = "${name}님 안녕하세요.\n\n"
+            + "${company} 에서 ${month}월 이용 내역을 알려드립니다.\n"
+            + "- 회원 번호: ${memberNo}\n"
+            + "- 이용 금액: ${amount}원\n"
+            + "- 적립 포인트: ${point}\n\n"
+            + "문의 사항은 고객센터로 연락 주세요. ${name}님 감사합니다.\n";
+
+    private static Email buildEmail(final EmailInfo email) {
+        final EmailPopulatingBuilder builder = EmailBuilder.startingBlank()
+                .from(email.getSenderName(), email.getSender())
+                .to(email.getReceiverName(), email.getReceiver())
+                .withSubject(email.getSubject())
+                .withPlainText(email.getContent());
+        if (email.getCc() != null && !email.getCc().isEmpty()) {
+            builder.ccAddresses(email.getCc()); // 다중 참조
+        }
+        if (email.getBcc() != null && !email.getBcc().isEmpty()) {
+            builder.bccAddresses(email.getBcc());
+        }
+        return builder.buildEmail();
+    }
+
+    /**
+     * 보내는 사람 / 제목 / 본문이 같은 메일을 묶어서 한 번씩만 발송 (수신자, 참조, 숨은 참조 모두 RCPT TO 로)
+     * 묶인 메일의 To 헤더는 보내는 사람 자신이고, 수신자끼리는 서로 보이지 않는다.
+     */
+    private static CompletableFuture<Void> sendGrouped(final List<EmailInfo> emails, final EmailAuth auth) {
+        final Map<List<String>, Set<String>> groups = new LinkedHashMap<>();
+        for (final EmailInfo email : emails) {
+            final Set<String> recipients = groups.computeIfAbsent(
+                    Arrays.asList(email.getSender(), email.getSenderName(), email.getSubject(), email.getContent()),
+                    key -> new LinkedHashSet<>());
+            recipients.add(email.getReceiver());
+            if (email.getCc() != null) {
+                recipients.addAll(email.getCc());
+            }
+            if (email.getBcc() != null) {
+                recipients.addAll(email.getBcc());
+            }
+        }
+
+        final PooledMailer mailer = MailerCache.shared().get(auth);
+        final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        groups.forEach((key, recipients) -> {
+            final Email email = EmailBuilder.startingBlank()
+                    .from(key.get(1), key.get(0))
+                    .to(key.get(1), key.get(0))
+                    .withSubject(key.get(2))
+                    .withPlainText(key.get(3))
+                    .buildEmail();
+            futures.add(mailer.sendToAllAsync(email, recipients));
+        });
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * SMTP 서버(EmailAuth) 별로 캐시된 Mailer 의 연결 풀로 발송
+     */
+    private static CompletableFuture<Void> sendMail(final EmailInfo email, final EmailAuth auth) {
+        return MailerCache.shared().get(auth).sendAsync(buildEmail(email));
+    }
+
+    /**
+     * 메일마다 Mailer 를 새로 만드는 방식 (연결 / EHLO / AUTH 를 매번 한다)
+     */
+    private static void sendMailWithNewMailer(final EmailInfo email, final EmailAuth auth) {
+        final Mailer mailer = MailerBuilder
+                .withSMTPServer(auth.getHost(), auth.getPort(), auth.getAccount(), auth.getPassword())
                 .withTransportStrategy(TransportStrategy.SMTP)
-                .async()
                 .buildMailer();
+        mailer.sendMail(buildEmail(email));
+    }
+
+    private static EmailInfo sample(final int n) {
+        final EmailInfo email = new EmailInfo();
+        email.setSender("noreply@ecoletree.co.kr");
+        email.setSenderName("Ecoletree");
+        email.setReceiver("user" + n + "@example.com");
+        email.setReceiverName("User " + n);
+        email.setCc(Arrays.asList("cc" + n + "@example.com", "team@example.com"));
+        email.setBcc(Collections.singletonList("audit@ecoletree.co.kr"));
+        email.setSubject("Notification #" + n);
+        email.setContent("Hello, this is notification #" + n);
+        return email;
+    }
+
+    /**
+     * 로컬 SMTP 서버(연결 설정 20ms 지연)로 EMAILS 통 발송: 메일마다 새 Mailer vs 연결 풀
+     */
+    private static void compareMailers(final StubSmtpServer server) throws InterruptedException {
+        final EmailAuth auth = server.auth();
+
+        final ExecutorService es = Executors.newFixedThreadPool(SENDERS, WorkerThreadFactory.daemon("mail-bench"));
+        long begin = System.nanoTime();
+        final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < EMAILS; i++) {
+            final EmailInfo email = sample(i);
+            futures.add(CompletableFuture.runAsync(() -> sendMailWithNewMailer(email, auth), es));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        report("new mailer per email", begin, server);
+        es.shutdown();
+        es.awaitTermination(1, TimeUnit.SECONDS);
+
+        server.reset();
+        futures.clear();
+        final MailerCache cache = new MailerCache(SmtpConnectionPool.Config.builder()
+                .maxSize(SENDERS)
+                .maxReuse(100)
+                .idleTimeout(Duration.ofSeconds(10))
+                .build());
+        final PooledMailer mailer = cache.get(auth);
+        begin = System.nanoTime();
+        for (int i = 0; i < EMAILS; i++) {
+            futures.add(mailer.sendAsync(buildEmail(sample(i))));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        report("pooled mailer", begin, server);
+        log.info("{}", mailer);
+        cache.close();
+    }
+
+    /**
+     * 발송 대기열: 일시적 실패(451)는 재시도, 영구 실패(554)는 dead letter, 닫았다 다시 열면 남은 메일 발송
+     */
+    private static void outbox(final StubSmtpServer server) throws IOException, InterruptedException {
+        server.reset();
+        final Path directory = Files.createTempDirectory("outbox");
+        final PooledMailer mailer = MailerCache.shared().get(server.auth());
+        final MailOutbox.Config config = MailOutbox.Config.builder()
+                .batchSize(50)
+                .ratePerSecond(500)
+                .maxAttempts(3)
+                .backoff(Duration.ofMillis(50), Duration.ofSeconds(1))
+                .build();
+
+        try (MailOutbox outbox = MailOutbox.open(mailer, directory, config)) {
+            server.failNext(20, "451 4.3.0 Try again later");
+            for (int i = 0; i < EMAILS; i++) {
+                outbox.offer(buildEmail(sample(i)));
+            }
+            outbox.awaitEmpty(Duration.ofSeconds(10));
+            log.info("[transient failures] {}", outbox);
+
+            server.failNext(5, "554 5.7.1 Rejected");
+            for (int i = 0; i < 10; i++) {
+                outbox.offer(buildEmail(sample(i)));
+            }
+            outbox.awaitEmpty(Duration.ofSeconds(10));
+            log.info("[permanent failures] {}", outbox);
+        }
+
+        // 초당 20통으로 보내다가 1초 뒤에 닫는다. 남은 메일은 journal 에 남는다.
+        final MailOutbox.Config slow = MailOutbox.Config.builder().batchSize(10).ratePerSecond(20).build();
+        final MailOutbox first = MailOutbox.open(mailer, directory, slow);
+        for (int i = 0; i < 100; i++) {
+            first.offer(buildEmail(sample(i)));
+        }
+        TimeUnit.SECONDS.sleep(1);
+        first.close();
+        log.info("[closed] {}", first);
 
-        return mailer.sendMail(mail, true);
+        try (MailOutbox reopened = MailOutbox.open(mailer, directory, config)) {
+            log.info("[reopened] pending={}", reopened.getPending());
+            reopened.awaitEmpty(Duration.ofSeconds(10));
+            log.info("[reopened] {}", reopened);
+        }
+        log.info("{}", server);
     }
 
-    @Data
-    static class EmailInfo {
-        private String receiver;
-        private String receiverName;
-        private String sender;
-        private String senderName;
-        private List<String> cc;
-        private String subject;
-        private String content;
+    private static EmailInfo campaign() {
+        final EmailInfo email = new EmailInfo();
+        email.setSender("noreply@ecoletree.co.kr");
+        email.setSenderName("Ecoletree");
+        email.setCc(Collections.singletonList("marketing@ecoletree.co.kr"));
+        email.setSubject(BULK_SUBJECT);
+        email.setContent(BULK_CONTENT);
+        return email;
     }
 
-    @Data
-    static class EmailAuth {
-        private String host;
-        private int port;
-        private String account;
-        private String password;
+    private static BulkMailer.Recipient recipient(final int n) {
+        final Map<String, Object> variables = new HashMap<>();
+        variables.put("company", "Ecoletree");
+        variables.put("name", "User " + n);
+        variables.put("month", 10);
+        variables.put("memberNo", 100_000 + n);
+        variables.put("amount", n * 10);
+        variables.put("point", n % 100);
+        return new BulkMailer.Recipient("user" + n + "@example.com", "User " + n, variables);
     }
+
+    /**
+     * 수신자마다 String.replace 로 치환하고 buildEmail
+     */
+    private static Email renderWithReplace(final EmailInfo campaign, final BulkMailer.Recipient recipient) {
+        final EmailInfo email = new EmailInfo();
+        email.setSender(campaign.getSender());
+        email.setSenderName(campaign.getSenderName());
+        email.setReceiver(recipient.getAddress());
+        email.setReceiverName(recipient.getName());
+        email.setCc(campaign.getCc());
+        String subject = campaign.getSubject();
+        String content = campaign.getContent();
+        for (final Map.Entry<String, ?> variable : recipient.getVariables().entrySet()) {
+            final String key = "${" + variable.getKey() + "}";
+            subject = subject.replace(key, String.valueOf(variable.getValue()));
+            content = content.replace(key, String.valueOf(variable.getValue()));
+        }
+        email.setSubject(subject);
+        email.setContent(content);
+        return buildEmail(email);
+    }
+
+    /**
+     * RECIPIENTS 명 대량 발송 렌더링: 수신자마다 replace (한 쓰레드) vs 미리 해석한 템플릿 (CPU 풀, streaming)
+     * 이어서 일부를 발송 대기열로 흘려 보낸다.
+     */
+    private static void bulk(final StubSmtpServer server) throws IOException, InterruptedException {
+        final EmailInfo campaign = campaign();
+        final AtomicLong bytes = new AtomicLong();
+
+        long begin = System.nanoTime();
+        for (int i = 0; i < RECIPIENTS; i++) {
+            bytes.addAndGet(renderWithReplace(campaign, recipient(i)).getPlainText().length());
+        }
+        log.info("[replace] {} emails in {} ms, {} chars", RECIPIENTS,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin), bytes.getAndSet(0));
+
+        final BulkMailer bulk = new BulkMailer(campaign);
+        final BulkMailer.Result result = bulk.send(IntStream.range(0, RECIPIENTS).mapToObj(Pt06_SendEmail::recipient),
+                email -> bytes.addAndGet(email.getPlainText().length()));
+        log.info("[precompiled] {}, {} chars", result, bytes.get());
+
+        // 렌더링 실패 (변수 누락) 는 해당 수신자만 실패로 센다.
+        final BulkMailer.Result missing = bulk.send(Stream.of(recipient(1), new BulkMailer.Recipient("nobody@example.com", "Nobody")),
+                email -> { });
+        log.info("[missing variables] {}", missing);
+
+        server.reset();
+        final Path directory = Files.createTempDirectory("bulk");
+        final PooledMailer mailer = MailerCache.shared().get(server.auth());
+        final MailOutbox.Config config = MailOutbox.Config.builder().capacity(100).ratePerSecond(1000).build();
+        try (MailOutbox outbox = MailOutbox.open(mailer, directory, config)) {
+            // 대기열이 가득 차면 put 이 기다리므로 렌더링도 발송 속도에 맞춰진다.
+            final BulkMailer.Result queued = bulk.send(IntStream.range(0, 1000).mapToObj(Pt06_SendEmail::recipient),
+                    email -> outbox.put(email, Duration.ofSeconds(10)));
+            outbox.awaitEmpty(Duration.ofSeconds(10));
+            log.info("[outbox] {} / {}", queued, outbox);
+        }
+        log.info("{}", server);
+    }
+
+    /**
+     * 공지 메일 (같은 내용) 을 LIST_SIZE 명에게: 수신자마다 한 통씩 vs 묶어서 트랜잭션 하나에 여러 RCPT TO
+     * 서버 한도(40명)가 설정(100명)보다 작으면 452 로 미룬 수신자를 다음 트랜잭션으로 보낸다.
+     */
+    private static void distributionList(final StubSmtpServer server) {
+        final List<EmailInfo> notices = new ArrayList<>();
+        for (int i = 0; i < LIST_SIZE; i++) {
+            final EmailInfo email = sample(i);
+            email.setCc(Collections.emptyList());
+            email.setBcc(Collections.emptyList());
+            email.setSubject("Service maintenance notice");
+            email.setContent("Service will be unavailable from 02:00 to 04:00.");
+            notices.add(email);
+        }
+
+        server.reset();
+        final PooledMailer mailer = MailerCache.shared().get(server.auth());
+        long begin = System.nanoTime();
+        final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (final EmailInfo email : notices) {
+            futures.add(mailer.sendAsync(buildEmail(email)));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        report("one email per recipient", begin, server);
+        log.info("{}", server);
+
+        server.reset();
+        begin = System.nanoTime();
+        sendGrouped(notices, server.auth()).join();
+        report("grouped", begin, server);
+        log.info("{}", server);
+
+        try (StubSmtpServer limited = StubSmtpServer.start(Duration.ofMillis(20), 40)) {
+            begin = System.nanoTime();
+            sendGrouped(notices, limited.auth()).join();
+            report("grouped, relay limit 40", begin, limited);
+            log.info("{}", limited);
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        try (StubSmtpServer server = StubSmtpServer.start(Duration.ofMillis(20))) {
+            compareMailers(server);
+            outbox(server);
+            bulk(server);
+            distributionList(server);
+        }
+    }
+
+    private static void report(final String name, final long begin, final StubSmtpServer server) {
+        final double seconds = (System.nanoTime() - begin) / 1e9;
+        log.info("[{}] {} emails ({} recipients) in {} ms, {} emails/s, SMTP sessions={}",
+                name, server.getTransactions(), server.getRecipients(), Math.round(seconds * 1000),
+                Math.round(server.getTransactions() / seconds), server.getConnections());
+    }
+
 }
@@ -0,0 +1,92 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : CacheCell.java
+ * DESC : 만료 시간이 있는 단일 값 캐시 (Double-Checked, 불변 entry 게시)
+ *****************************************************************/
+package kr.co.ecoletree.common.concurrent;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * 값 하나를 캐시하고 만료되면 다시 읽어오는 셀.
+ *
+ * 값과 만료 시각을 불변 객체(Entry) 하나로 묶어 volatile 필드로 교체하므로,
+ * 읽는 쪽은 Lock 없이 항상 짝이 맞는 값/만료 시각을 본다.
+ * 만료되었거나 비어 있을 때만 Lock 을 잡고, Lock 안에서 한 번 더 확인하여 한 쓰레드만 다시 읽어온다.
+ *
+ * @param <T>
+ */
+public final class CacheCell<T> implements Supplier<T> {
+    private final Supplier<? extends T> loader;
+    private final long ttlNanos;
+    private volatile Entry<T> entry;
+
+    /**
+     * 만료 없음. {@link #invalidate()} 를 호출해야 다시 읽어온다.
+     *
+     * @param loader
+     */
+    public CacheCell(final Supplier<? extends T> loader) {
+        this(loader, null);
+    }
+
+    /**
+     * @param loader
+     * @param ttl 캐시 유지 시간. null 이면 만료 없음
+     */
+    public CacheCell(final Supplier<? extends T> loader, final Duration ttl) {
+        this.loader = loader;
+        this.ttlNanos = ttl == null ? Long.MAX_VALUE : ttl.toNanos();
+    }
+
+    @Override
+    public T get() {
+        Entry<T> e = entry;
+        if (e != null && e.isFresh(System.nanoTime())) {
+            return e.value;
+        }
+        synchronized (this) {
+            final long now = System.nanoTime();
+            e = entry;
+            if (e == null || !e.isFresh(now)) {
+                e = new Entry<>(loader.get(), now, ttlNanos);
+                entry = e;
+            }
+            return e.value;
+        }
+    }
+
+    /**
+     * 캐시된 값. 비어 있거나 만료되었으면 null (다시 읽어오지 않음)
+     *
+     * @return
+     */
+    public T peek() {
+        final Entry<T> e = entry;
+        return e != null && e.isFresh(System.nanoTime()) ? e.value : null;
+    }
+
+    public void invalidate() {
+        entry = null;
+    }
+
+    private static final class Entry<T> {
+        private final T value;
+        private final long loadedAt;
+        private final long ttlNanos;
+
+        Entry(final T value, final long loadedAt, final long ttlNanos) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+            this.ttlNanos = ttlNanos;
+        }
+
+        boolean isFresh(final long now) {
+            return now - loadedAt < ttlNanos;
+        }
+    }
+}
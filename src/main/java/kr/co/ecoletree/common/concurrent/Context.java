@@ -0,0 +1,361 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : Context.java
+ * DESC : 비동기 경계(쓰레드 전환)를 넘어 전달되는 불변 요청 컨텍스트 (trace id, tenant, MDC)
+ *****************************************************************/
+package kr.co.ecoletree.common.concurrent;
+
+import org.slf4j.MDC;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import io.reactivex.rxjava3.plugins.RxJavaPlugins;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * 요청 컨텍스트.
+ *
+ * Context 객체는 불변이고 값을 추가하면 새 객체가 만들어진다. 쓰레드에는 현재 Context 참조 하나만 저장하므로
+ * 쓰레드 전환 시 캡처(참조 읽기)와 복원(참조 쓰기) 모두 O(1) 이다. (Map 전체 복사 없음)
+ *
+ * MDC 연동: {@link Key#mdc(String)} 로 만든 키는 Context 가 적용될 때 SLF4J MDC 에도 반영된다.
+ * 이전 Context 와 MDC 값이 같으면(같은 Context 에서 파생된 경우 등) MDC 는 건드리지 않는다.
+ *
+ * <pre>
+ * try (Context.Scope ignored = Context.current().with(TRACE_ID, "abc").attach()) {
+ *     future.thenApplyAsync(Context.wrapFunction(fn), executor);   // 호출 시점의 Context 로 실행
+ * }
+ * </pre>
+ *
+ * 주의: {@link #wrap(Executor)} 는 execute() 가 호출되는 시점의 Context 를 캡처한다.
+ * CompletableFuture 의 *Async 단계는 이전 단계를 완료시킨 쓰레드에서 execute() 를 호출하므로,
+ * 호출한 쪽의 Context 를 유지하려면 함수 자체를 {@link #wrapFunction(Function)} 으로 감싼다.
+ */
+public final class Context {
+    public static final Context ROOT = new Context(new Object[0], Collections.emptyMap());
+
+    private static final ThreadLocal<Context> CURRENT = new ThreadLocal<>();
+    private static final String HOOK_KEY = "ecoletree-context";
+
+    /** key0, value0, key1, value1 ... (값 개수가 적으므로 배열 복사가 Map 보다 싸다) */
+    private final Object[] entries;
+    private final Map<String, String> mdc;
+
+    private Context(final Object[] entries, final Map<String, String> mdc) {
+        this.entries = entries;
+        this.mdc = mdc;
+    }
+
+    /**
+     * 현재 쓰레드의 Context. 없으면 ROOT
+     *
+     * @return
+     */
+    public static Context current() {
+        final Context context = CURRENT.get();
+        return context == null ? ROOT : context;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(final Key<T> key) {
+        for (int i = 0; i < entries.length; i += 2) {
+            if (entries[i] == key) {
+                return (T) entries[i + 1];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 값을 추가(또는 변경)한 새 Context
+     *
+     * @param key
+     * @param value
+     * @param <T>
+     * @return
+     */
+    public <T> Context with(final Key<T> key, final T value) {
+        int index = -1;
+        for (int i = 0; i < entries.length; i += 2) {
+            if (entries[i] == key) {
+                index = i;
+                break;
+            }
+        }
+        final Object[] copy;
+        if (index < 0) {
+            copy = new Object[entries.length + 2];
+            System.arraycopy(entries, 0, copy, 0, entries.length);
+            index = entries.length;
+        } else {
+            copy = entries.clone();
+        }
+        copy[index] = key;
+        copy[index + 1] = value;
+
+        Map<String, String> mdcCopy = mdc;
+        if (key.mdc) {
+            mdcCopy = new HashMap<>(mdc);
+            if (value == null) mdcCopy.remove(key.name);
+            else mdcCopy.put(key.name, String.valueOf(value));
+            mdcCopy = Collections.unmodifiableMap(mdcCopy);
+        }
+        return new Context(copy, mdcCopy);
+    }
+
+    /**
+     * 현재 쓰레드에 이 Context 를 적용. 리턴된 Scope 를 close 하면 이전 Context 로 돌아간다.
+     *
+     * @return
+     */
+    public Scope attach() {
+        final Context previous = swap(this);
+        return () -> swap(previous);
+    }
+
+    /**
+     * 이 Context 로 실행
+     *
+     * @param task
+     */
+    public void run(final Runnable task) {
+        final Context previous = swap(this);
+        try {
+            task.run();
+        } finally {
+            swap(previous);
+        }
+    }
+
+    /**
+     * 이 Context 로 실행
+     *
+     * @param task
+     * @param <T>
+     * @return
+     */
+    public <T> T call(final Supplier<T> task) {
+        final Context previous = swap(this);
+        try {
+            return task.get();
+        } finally {
+            swap(previous);
+        }
+    }
+
+    private static Context swap(final Context next) {
+        final Context previous = current();
+        if (previous == next) {
+            return previous;
+        }
+        CURRENT.set(next == ROOT ? null : next);
+        if (previous.mdc != next.mdc) {
+            syncMdc(previous.mdc, next.mdc);
+        }
+        return previous;
+    }
+
+    private static void syncMdc(final Map<String, String> previous, final Map<String, String> next) {
+        for (final String key : previous.keySet()) {
+            if (!next.containsKey(key)) {
+                MDC.remove(key);
+            }
+        }
+        next.forEach((key, value) -> {
+            if (!value.equals(previous.get(key))) {
+                MDC.put(key, value);
+            }
+        });
+    }
+
+    ///////////////////////////////////////////
+    ///      호출 시점의 Context 캡처          ///
+    ///////////////////////////////////////////
+
+    public static Runnable wrap(final Runnable task) {
+        final Context captured = current();
+        return () -> captured.run(task);
+    }
+
+    /**
+     * 값을 리턴하는 람다는 Callable 과 Supplier 어느 쪽에도 맞으므로 오버로드 대신 이름을 나눈다. ({@link #wrapSupplier(Supplier)})
+     *
+     * @param task
+     * @param <T>
+     * @return
+     */
+    public static <T> Callable<T> wrapCallable(final Callable<T> task) {
+        final Context captured = current();
+        return () -> {
+            final Context previous = swap(captured);
+            try {
+                return task.call();
+            } finally {
+                swap(previous);
+            }
+        };
+    }
+
+    public static <T> Supplier<T> wrapSupplier(final Supplier<T> task) {
+        final Context captured = current();
+        return () -> captured.call(task);
+    }
+
+    public static <T, R> Function<T, R> wrapFunction(final Function<T, R> fn) {
+        final Context captured = current();
+        return value -> captured.call(() -> fn.apply(value));
+    }
+
+    public static <T> Consumer<T> wrapConsumer(final Consumer<T> fn) {
+        final Context captured = current();
+        return value -> captured.run(() -> fn.accept(value));
+    }
+
+    /**
+     * execute() 를 호출한 쓰레드의 Context 를 작업 쓰레드로 전달하는 Executor
+     *
+     * @param executor
+     * @return
+     */
+    public static Executor wrap(final Executor executor) {
+        return task -> executor.execute(wrap(task));
+    }
+
+    /**
+     * submit/execute 를 호출한 쓰레드의 Context 를 작업 쓰레드로 전달하는 ExecutorService
+     *
+     * @param executor
+     * @return
+     */
+    public static ExecutorService wrap(final ExecutorService executor) {
+        return new ContextExecutorService(executor);
+    }
+
+    /**
+     * RxJava Scheduler 로 예약되는 모든 작업에 Context 를 전달한다. (기존 schedule handler 가 있으면 함께 적용)
+     */
+    public static void installRxJavaHook() {
+        final io.reactivex.rxjava3.functions.Function<? super Runnable, ? extends Runnable> existing = RxJavaPlugins.getScheduleHandler();
+        if (existing == null) {
+            RxJavaPlugins.setScheduleHandler(Context::wrap);
+        } else {
+            RxJavaPlugins.setScheduleHandler(task -> existing.apply(wrap(task)));
+        }
+    }
+
+    /**
+     * Reactor Scheduler 로 예약되는 모든 작업에 Context 를 전달한다.
+     */
+    public static void installReactorHook() {
+        Schedulers.onScheduleHook(HOOK_KEY, Context::wrap);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("Context{");
+        for (int i = 0; i < entries.length; i += 2) {
+            if (i > 0) sb.append(", ");
+            sb.append(entries[i]).append('=').append(entries[i + 1]);
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Context 적용 범위. close 하면 이전 Context 로 복원된다.
+     */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Context 키. 동일 객체(identity)로 비교하므로 static final 로 선언해서 사용한다.
+     *
+     * @param <T>
+     */
+    public static final class Key<T> {
+        private final String name;
+        private final boolean mdc;
+
+        private Key(final String name, final boolean mdc) {
+            this.name = name;
+            this.mdc = mdc;
+        }
+
+        public static <T> Key<T> of(final String name) {
+            return new Key<>(name, false);
+        }
+
+        /**
+         * 값이 SLF4J MDC 에도 반영되는 키 (값은 toString)
+         *
+         * @param name MDC 키 이름
+         * @param <T>
+         * @return
+         */
+        public static <T> Key<T> mdc(final String name) {
+            return new Key<>(name, true);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private static final class ContextExecutorService extends AbstractExecutorService {
+        private final ExecutorService delegate;
+
+        ContextExecutorService(final ExecutorService delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            delegate.execute(wrap(command));
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : CpuAffinity.java
+ * DESC : (Linux 전용) 현재 쓰레드를 지정한 CPU 에 고정 (taskset 사용)
+ *****************************************************************/
+package kr.co.ecoletree.common.concurrent;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * CPU affinity 설정.
+ *
+ * Java 에는 쓰레드 affinity API 가 없으므로 Linux 에서 /proc/thread-self 로 OS 쓰레드 id 를 얻고
+ * taskset 명령으로 설정한다. 프로세스를 하나 실행하므로 오래 사는 쓰레드(Event Loop, 전용 워커)가 시작할 때 한 번만 사용한다.
+ *
+ * Linux 가 아니거나 taskset 이 없으면 아무것도 하지 않고 false 를 리턴한다. (affinity 는 힌트일 뿐 필수가 아니다)
+ */
+@Slf4j
+public final class CpuAffinity {
+    private static final Path THREAD_SELF = Paths.get("/proc/thread-self");
+    private static final File DEV_NULL = new File("/dev/null");
+    private static final Lazy<Boolean> SUPPORTED = Lazy.of(CpuAffinity::detect);
+
+    private CpuAffinity() {}
+
+    public static boolean isSupported() {
+        return SUPPORTED.get();
+    }
+
+    /**
+     * 현재 쓰레드를 지정한 CPU 들에서만 실행되도록 고정
+     *
+     * @param cpus CPU 번호 (0 부터)
+     * @return 성공 여부
+     */
+    public static boolean pinCurrentThread(final int... cpus) {
+        if (cpus.length == 0 || !isSupported()) {
+            return false;
+        }
+        final String cpuList = Arrays.stream(cpus).mapToObj(Integer::toString).collect(Collectors.joining(","));
+        try {
+            final String tid = Files.readSymbolicLink(THREAD_SELF).getFileName().toString();
+            final Process process = new ProcessBuilder("taskset", "-p", "-c", cpuList, tid)
+                    .redirectErrorStream(true)
+                    .redirectOutput(DEV_NULL)
+                    .start();
+            if (!process.waitFor(1, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                return false;
+            }
+            final boolean pinned = process.exitValue() == 0;
+            if (!pinned) {
+                log.warn("taskset failed for {} (cpus={})", Thread.currentThread().getName(), cpuList);
+            }
+            return pinned;
+        } catch (final IOException e) {
+            log.warn("CPU affinity not applied to {}: {}", Thread.currentThread().getName(), e.getMessage());
+            return false;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static boolean detect() {
+        if (!System.getProperty("os.name", "").toLowerCase().contains("linux") || !Files.exists(THREAD_SELF)) {
+            return false;
+        }
+        try {
+            final Process process = new ProcessBuilder("taskset", "-V")
+                    .redirectErrorStream(true)
+                    .redirectOutput(DEV_NULL)
+                    .start();
+            return process.waitFor(1, TimeUnit.SECONDS) && process.exitValue() == 0;
+        } catch (final IOException e) {
+            return false;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : EventLoop.java
+ * DESC : 단일 쓰레드 Event Loop Executor (MPSC ring buffer, 일괄 처리, 큐 깊이 / 지연 지표)
+ *****************************************************************/
+package kr.co.ecoletree.common.concurrent;
+
+import java.util.Collection;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import kr.co.ecoletree.common.concurrent.queue.MessageQueue;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 단일 쓰레드 Event Loop.
+ *
+ * 상태를 가진 컴포넌트가 Lock 대신 "이 쓰레드에서만 상태를 변경한다" 는 규칙으로 동시성을 해결할 때 사용한다.
+ * 어느 쓰레드에서든 명령(Runnable)을 넣을 수 있고, 명령은 넣은 순서대로 Event Loop 쓰레드 하나에서 실행된다.
+ *
+ * - 명령은 MPSC 배열 큐(ring buffer)에 쌓이고, Event Loop 는 한 번에 최대 batchSize 개씩 꺼내서 실행한다.
+ * - 할 일이 없으면 잠시 spin 한 뒤 park 하고, 잠든 상태에서 명령이 들어오면 생산자가 깨운다.
+ * - 지표: 큐 깊이, 실행 건수/일괄 처리 횟수, loop lag (주기적으로 넣은 probe 명령이 실행되기까지 걸린 시간)
+ *
+ * 명령 안에서 Blocking 작업을 하면 뒤의 모든 명령이 밀린다. Blocking 작업은 {@link WorkerPools#io()} 로 넘기고
+ * 결과만 다시 Event Loop 로 넣는다.
+ */
+@Slf4j
+public final class EventLoop implements Executor {
+    public static final int DEFAULT_CAPACITY = 4096;
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    private static final long PROBE_INTERVAL_MILLIS = 100;
+    private static final int SPINS_BEFORE_PARK = 100;
+
+    private final String name;
+    private final MessageQueue<Runnable> queue;
+    private final int batchSize;
+    private final Thread thread;
+    private final Consumer<Runnable> runner = this::run;
+    private final AtomicBoolean sleeping = new AtomicBoolean();
+    /** shutdown 확인 후 큐에 넣는 중인 생산자 수. 0 이 될 때까지 Event Loop 는 종료하지 않는다. */
+    private final AtomicInteger offering = new AtomicInteger();
+    private volatile boolean shutdown;
+
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile long lagNanos;
+    private volatile long maxLagNanos;
+
+    public EventLoop(final String name) {
+        this(name, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param name 쓰레드 이름 (Ecoletree-loop-{name}-1)
+     * @param capacity 대기 명령 최대 개수 (2의 거듭제곱으로 올림)
+     * @param batchSize 한 번에 꺼내서 실행할 최대 명령 수
+     */
+    public EventLoop(final String name, final int capacity, final int batchSize) {
+        this.name = name;
+        this.queue = MessageQueue.mpsc(capacity);
+        this.batchSize = batchSize;
+        this.thread = WorkerThreadFactory.daemon("loop-" + name).newThread(this::loop);
+        this.thread.start();
+        scheduleProbe();
+    }
+
+    /**
+     * 명령 추가. 큐가 가득 찼거나 종료된 경우 RejectedExecutionException
+     *
+     * @param command
+     */
+    @Override
+    public void execute(final Runnable command) {
+        if (!offer(command)) {
+            throw new RejectedExecutionException(shutdown ? name + " is shut down" : name + " queue is full (" + queue.capacity() + ")");
+        }
+    }
+
+    /**
+     * 명령 추가. 큐가 가득 찼거나 종료된 경우 false
+     *
+     * @param command
+     * @return
+     */
+    public boolean offer(final Runnable command) {
+        offering.incrementAndGet();
+        try {
+            if (shutdown || !queue.offer(command)) {
+                return false;
+            }
+        } finally {
+            offering.decrementAndGet();
+        }
+        wakeUp();
+        return true;
+    }
+
+    /**
+     * 여러 명령을 추가하고 Event Loop 는 한 번만 깨운다.
+     * 슬롯은 명령마다 하나씩 확보하므로 다른 생산자의 명령이 사이에 끼어들 수 있다. (줄어드는 것은 깨우는 비용)
+     * 큐가 중간에 가득 차면 나머지는 넣지 않는다.
+     *
+     * @param commands
+     * @return 추가된 명령 수
+     */
+    public int offerAll(final Collection<? extends Runnable> commands) {
+        int count = 0;
+        offering.incrementAndGet();
+        try {
+            if (shutdown) {
+                return 0;
+            }
+            for (final Runnable command : commands) {
+                if (!queue.offer(command)) {
+                    break;
+                }
+                count++;
+            }
+        } finally {
+            offering.decrementAndGet();
+        }
+        if (count > 0) {
+            wakeUp();
+        }
+        return count;
+    }
+
+    /**
+     * 현재 쓰레드가 Event Loop 쓰레드인지 여부. (상태 접근 전 확인용)
+     *
+     * @return
+     */
+    public boolean inEventLoop() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * 새 명령을 받지 않고, 이미 들어온 명령을 모두 실행한 뒤 종료한다.
+     */
+    public void shutdown() {
+        shutdown = true;
+        LockSupport.unpark(thread);
+    }
+
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        thread.join(unit.toMillis(timeout));
+        return !thread.isAlive();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** 대기 중인 명령 수 */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getCapacity() {
+        return queue.capacity();
+    }
+
+    public long getExecutedTasks() {
+        return executed.get();
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    public long getFailedTasks() {
+        return failed.get();
+    }
+
+    /** 마지막 probe 명령이 들어온 뒤 실행되기까지 걸린 시간 */
+    public long getLag(final TimeUnit unit) {
+        return unit.convert(lagNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getMaxLag(final TimeUnit unit) {
+        return unit.convert(maxLagNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EventLoop(%s, depth=%d/%d, executed=%d, batches=%d, failed=%d, lag=%dus, maxLag=%dus)",
+                name, getQueueDepth(), getCapacity(), getExecutedTasks(), getBatches(), getFailedTasks(),
+                getLag(TimeUnit.MICROSECONDS), getMaxLag(TimeUnit.MICROSECONDS));
+    }
+
+    private void wakeUp() {
+        if (sleeping.get() && sleeping.compareAndSet(true, false)) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void loop() {
+        int idle = 0;
+        for (;;) {
+            final int count = queue.drain(runner, batchSize);
+            if (count > 0) {
+                executed.addAndGet(count);
+                batches.incrementAndGet();
+                idle = 0;
+                continue;
+            }
+            // shutdown 을 보기 전에 확인을 통과한 생산자가 넣은 명령까지 실행한 뒤 종료
+            if (shutdown && offering.get() == 0 && queue.isEmpty()) {
+                return;
+            }
+            if (idle++ < SPINS_BEFORE_PARK) {
+                continue;
+            }
+            // 잠들기 전에 표시하고 큐를 다시 확인 (표시 후 들어온 명령의 생산자가 깨워준다)
+            sleeping.set(true);
+            if (queue.isEmpty() && !shutdown) {
+                LockSupport.park(this);
+            }
+            sleeping.set(false);
+        }
+    }
+
+    private void run(final Runnable command) {
+        try {
+            command.run();
+        } catch (final Throwable t) {
+            failed.incrementAndGet();
+            log.error("[{}] command failed: {}", name, t.getMessage(), t);
+        }
+    }
+
+    private void scheduleProbe() {
+        TimerWheel.shared().schedule(() -> {
+            if (shutdown) {
+                return;
+            }
+            final long enqueuedAt = System.nanoTime();
+            final boolean accepted = offer(() -> {
+                final long lag = System.nanoTime() - enqueuedAt;
+                lagNanos = lag;
+                if (lag > maxLagNanos) {
+                    maxLagNanos = lag;
+                }
+            });
+            // 가득 찬 경우 이번 probe 는 건너뛴다.
+            scheduleProbe();
+            if (!accepted) {
+                log.debug("[{}] queue is full, skip lag probe", name);
+            }
+        }, PROBE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,326 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : FutureAdapters.java
+ * DESC : ListenableFuture / CompletableFuture / RxJava / Reactor 상호 변환 (Non-blocking, 취소 전파)
+ *****************************************************************/
+package kr.co.ecoletree.common.concurrent;
+
+import org.reactivestreams.Publisher;
+import org.springframework.util.concurrent.CompletableToListenableFutureAdapter;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.core.MaybeObserver;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.core.SingleObserver;
+import io.reactivex.rxjava3.disposables.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 비동기 모델 간 변환.
+ *
+ * 모든 변환은 완료 콜백을 연결하기만 하므로 쓰레드를 Blocking 하지 않고, 별도 Executor 로 쓰레드를 옮기지도 않는다.
+ * (결과는 원본을 완료시킨 쓰레드에서 그대로 전달된다)
+ * 변환된 쪽을 취소(cancel, dispose)하면 원본도 취소된다.
+ *
+ * 참고: {@link Flowable#fromFuture(java.util.concurrent.Future)}, {@link Single#fromFuture(java.util.concurrent.Future)} 는
+ * 구독한 쓰레드에서 Future#get() 으로 Blocking 된다.
+ */
+public final class FutureAdapters {
+
+    private FutureAdapters() {}
+
+    ///////////////////////////////////////////
+    ///         ListenableFuture            ///
+    ///////////////////////////////////////////
+
+    /**
+     * ListenableFuture -> CompletableFuture
+     *
+     * @param future
+     * @param <T>
+     * @return
+     */
+    public static <T> CompletableFuture<T> toCompletable(final ListenableFuture<T> future) {
+        final CompletableFuture<T> completable = new CompletableFuture<>();
+        future.addCallback(completable::complete, completable::completeExceptionally);
+        return Futures.propagateCancel(completable, future);
+    }
+
+    /**
+     * CompletableFuture -> ListenableFuture
+     *
+     * @param future
+     * @param <T>
+     * @return
+     */
+    public static <T> ListenableFuture<T> toListenable(final CompletableFuture<T> future) {
+        return new CompletableToListenableFutureAdapter<>(future);
+    }
+
+    ///////////////////////////////////////////
+    ///              RxJava 3               ///
+    ///////////////////////////////////////////
+
+    /**
+     * CompletableFuture -> Single. 결과가 null 이면 NoSuchElementException.
+     *
+     * @param future
+     * @param <T>
+     * @return
+     */
+    public static <T> Single<T> toSingle(final CompletableFuture<T> future) {
+        return Single.create(emitter -> {
+            emitter.setCancellable(() -> future.cancel(true));
+            future.whenComplete((value, t) -> {
+                if (t != null) emitter.tryOnError(Futures.unwrap(t));
+                else if (value == null) emitter.tryOnError(new NoSuchElementException("CompletableFuture completed with null"));
+                else emitter.onSuccess(value);
+            });
+        });
+    }
+
+    /**
+     * CompletableFuture -> Maybe. 결과가 null 이면 empty.
+     *
+     * @param future
+     * @param <T>
+     * @return
+     */
+    public static <T> Maybe<T> toMaybe(final CompletableFuture<T> future) {
+        return Maybe.create(emitter -> {
+            emitter.setCancellable(() -> future.cancel(true));
+            future.whenComplete((value, t) -> {
+                if (t != null) emitter.tryOnError(Futures.unwrap(t));
+                else if (value == null) emitter.onComplete();
+                else emitter.onSuccess(value);
+            });
+        });
+    }
+
+    /**
+     * CompletableFuture -> Flowable (0..1 개 아이템)
+     *
+     * @param future
+     * @param <T>
+     * @return
+     */
+    public static <T> Flowable<T> toFlowable(final CompletableFuture<T> future) {
+        return toMaybe(future).toFlowable();
+    }
+
+    /**
+     * Single -> CompletableFuture. future 를 취소하면 구독을 해제한다.
+     *
+     * @param single
+     * @param <T>
+     * @return
+     */
+    public static <T> CompletableFuture<T> toCompletable(final Single<T> single) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final AtomicReference<Disposable> subscription = new AtomicReference<>();
+        single.subscribe(new SingleObserver<T>() {
+            @Override
+            public void onSubscribe(final Disposable d) {
+                subscription.set(d);
+            }
+
+            @Override
+            public void onSuccess(final T value) {
+                future.complete(value);
+            }
+
+            @Override
+            public void onError(final Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return Futures.onCancel(future, () -> dispose(subscription));
+    }
+
+    /**
+     * Maybe -> CompletableFuture. empty 면 null 로 완료된다.
+     *
+     * @param maybe
+     * @param <T>
+     * @return
+     */
+    public static <T> CompletableFuture<T> toCompletable(final Maybe<T> maybe) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final AtomicReference<Disposable> subscription = new AtomicReference<>();
+        maybe.subscribe(new MaybeObserver<T>() {
+            @Override
+            public void onSubscribe(final Disposable d) {
+                subscription.set(d);
+            }
+
+            @Override
+            public void onSuccess(final T value) {
+                future.complete(value);
+            }
+
+            @Override
+            public void onError(final Throwable e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onComplete() {
+                future.complete(null);
+            }
+        });
+        return Futures.onCancel(future, () -> dispose(subscription));
+    }
+
+    ///////////////////////////////////////////
+    ///              Reactor                ///
+    ///////////////////////////////////////////
+
+    /**
+     * CompletableFuture -> Mono. Mono 구독을 취소하면 future 도 취소된다.
+     * ({@link Mono#fromFuture(CompletableFuture)} 는 구독 취소 시 future 를 취소하지 않는다)
+     *
+     * @param future
+     * @param <T>
+     * @return
+     */
+    public static <T> Mono<T> toMono(final CompletableFuture<T> future) {
+        return Mono.create(sink -> {
+            // 구독 취소 후에는 결과를 전달하지 않는다 (취소로 인한 CancellationException 이 Hooks.onErrorDropped 로 가지 않도록)
+            final AtomicBoolean cancelled = new AtomicBoolean();
+            sink.onCancel(() -> {
+                cancelled.set(true);
+                future.cancel(true);
+            });
+            future.whenComplete((value, t) -> {
+                if (cancelled.get()) return;
+                if (t != null) sink.error(Futures.unwrap(t));
+                else sink.success(value);
+            });
+        });
+    }
+
+    /**
+     * Mono -> CompletableFuture. future 를 취소하면 구독을 취소한다.
+     *
+     * @param mono
+     * @param <T>
+     * @return
+     */
+    public static <T> CompletableFuture<T> toCompletable(final Mono<T> mono) {
+        return mono.toFuture();
+    }
+
+    ///////////////////////////////////////////
+    ///          RxJava <-> Reactor         ///
+    ///////////////////////////////////////////
+
+    /**
+     * Single -> Mono (Reactive Streams 로 직접 연결)
+     *
+     * @param single
+     * @param <T>
+     * @return
+     */
+    public static <T> Mono<T> toMono(final Single<T> single) {
+        return Mono.from(single.toFlowable());
+    }
+
+    /**
+     * Mono -> Single
+     *
+     * @param mono
+     * @param <T>
+     * @return
+     */
+    public static <T> Single<T> toSingle(final Mono<T> mono) {
+        return Single.fromPublisher(mono);
+    }
+
+    /**
+     * Publisher(Flowable 등) -> Flux
+     *
+     * @param publisher
+     * @param <T>
+     * @return
+     */
+    public static <T> Flux<T> toFlux(final Publisher<T> publisher) {
+        return Flux.from(publisher);
+    }
+
+    /**
+     * Publisher(Flux 등) -> Flowable
+     *
+     * @param publisher
+     * @param <T>
+     * @return
+     */
+    public static <T> Flowable<T> toFlowable(final Publisher<T> publisher) {
+        return Flowable.fromPublisher(publisher);
+    }
+
+    ///////////////////////////////////////////
+    ///   ListenableFuture <-> Rx / Reactor ///
+    ///////////////////////////////////////////
+
+    /**
+     * ListenableFuture -> Single
+     *
+     * @param future
+     * @param <T>
+     * @return
+     */
+    public static <T> Single<T> toSingle(final ListenableFuture<T> future) {
+        return toSingle(toCompletable(future));
+    }
+
+    /**
+     * ListenableFuture -> Mono
+     *
+     * @param future
+     * @param <T>
+     * @return
+     */
+    public static <T> Mono<T> toMono(final ListenableFuture<T> future) {
+        return toMono(toCompletable(future));
+    }
+
+    /**
+     * Single -> ListenableFuture
+     *
+     * @param single
+     * @param <T>
+     * @return
+     */
+    public static <T> ListenableFuture<T> toListenable(final Single<T> single) {
+        return toListenable(toCompletable(single));
+    }
+
+    /**
+     * Mono -> ListenableFuture
+     *
+     * @param mono
+     * @param <T>
+     * @return
+     */
+    public static <T> ListenableFuture<T> toListenable(final Mono<T> mono) {
+        return toListenable(toCompletable(mono));
+    }
+
+    private static void dispose(final AtomicReference<Disposable> subscription) {
+        final Disposable d = subscription.get();
+        if (d != null) {
+            d.dispose();
+        }
+    }
+}
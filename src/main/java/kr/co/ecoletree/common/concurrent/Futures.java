@@ -0,0 +1,188 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : Futures.java
+ * DESC : CompletableFuture timeout / 취소 전파 / 정리 작업 유틸리티 (Java 8)
+ *****************************************************************/
+package kr.co.ecoletree.common.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Java 8 에는 CompletableFuture#orTimeout, completeOnTimeout 이 없으므로 공용 {@link TimerWheel} 로 구현한다.
+ *
+ * 취소 전파: 파생된 stage(thenApply...)를 cancel 해도 원본 future 와 실제 작업은 멈추지 않는다.
+ * {@link #propagateCancel(CompletableFuture, Future)} 로 파생 stage 가 취소(또는 timeout)되면 원본을 취소하고,
+ * {@link #supplyAsync(Callable, ExecutorService)} 로 실행한 작업은 interrupt 한다.
+ */
+public final class Futures {
+
+    private Futures() {}
+
+    /**
+     * 지정 시간 안에 완료되지 않으면 TimeoutException 으로 완료시킨다. (Java 9 orTimeout)
+     *
+     * @param future
+     * @param timeout
+     * @param <T>
+     * @return 인자로 받은 future
+     */
+    public static <T> CompletableFuture<T> withTimeout(final CompletableFuture<T> future, final Duration timeout) {
+        if (future.isDone()) {
+            return future;
+        }
+        final TimerWheel.Timeout handle = TimerWheel.shared().schedule(
+                () -> completeOffTimer(future, null, new TimeoutException(String.format("Timed out after %d ms", timeout.toMillis()))),
+                timeout.toNanos(), TimeUnit.NANOSECONDS);
+        future.whenComplete((r, t) -> handle.cancel());
+        return future;
+    }
+
+    /**
+     * 지정 시간 안에 완료되지 않으면 기본값으로 완료시킨다. (Java 9 completeOnTimeout)
+     *
+     * @param future
+     * @param value
+     * @param timeout
+     * @param <T>
+     * @return 인자로 받은 future
+     */
+    public static <T> CompletableFuture<T> completeOnTimeout(final CompletableFuture<T> future, final T value, final Duration timeout) {
+        if (future.isDone()) {
+            return future;
+        }
+        final TimerWheel.Timeout handle = TimerWheel.shared().schedule(
+                () -> completeOffTimer(future, value, null),
+                timeout.toNanos(), TimeUnit.NANOSECONDS);
+        future.whenComplete((r, t) -> handle.cancel());
+        return future;
+    }
+
+    /**
+     * 지정 시간 후 완료되는 future
+     *
+     * @param delay
+     * @return
+     */
+    public static CompletableFuture<Void> delay(final Duration delay) {
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        final TimerWheel.Timeout handle = TimerWheel.shared().schedule(
+                () -> completeOffTimer(future, null, null),
+                delay.toNanos(), TimeUnit.NANOSECONDS);
+        future.whenComplete((r, t) -> handle.cancel());
+        return future;
+    }
+
+    /**
+     * ExecutorService 에서 Callable 실행.
+     * 리턴된 future 가 작업 완료 전에 취소/timeout 되면 실행중인 작업을 interrupt 한다.
+     *
+     * @param callable
+     * @param executor
+     * @param <T>
+     * @return
+     */
+    public static <T> CompletableFuture<T> supplyAsync(final Callable<T> callable, final ExecutorService executor) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final Future<?> task = executor.submit(() -> {
+            try {
+                future.complete(callable.call());
+            } catch (final Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        return propagateCancel(future, task);
+    }
+
+    /**
+     * ExecutorService 에서 Callable 실행, 지정 시간 초과 시 TimeoutException 으로 완료하고 작업을 interrupt 한다.
+     *
+     * @param callable
+     * @param executor
+     * @param timeout
+     * @param <T>
+     * @return
+     */
+    public static <T> CompletableFuture<T> supplyAsync(final Callable<T> callable, final ExecutorService executor, final Duration timeout) {
+        return withTimeout(supplyAsync(callable, executor), timeout);
+    }
+
+    /**
+     * 파생 future 가 취소되거나 timeout 으로 끝나면 upstream 을 cancel(true) 한다.
+     * 정상 완료/일반 예외 인 경우에는 아무것도 하지 않는다.
+     *
+     * @param derived
+     * @param upstream 원본 future 또는 실제 작업의 Future
+     * @param <T>
+     * @return 인자로 받은 derived
+     */
+    public static <T> CompletableFuture<T> propagateCancel(final CompletableFuture<T> derived, final Future<?> upstream) {
+        return onCancel(derived, () -> upstream.cancel(true));
+    }
+
+    /**
+     * future 가 취소되거나 timeout 으로 끝나면 정리 작업을 실행한다. (HTTP 연결 해제, 임시 파일 삭제 등)
+     *
+     * @param future
+     * @param cleanup
+     * @param <T>
+     * @return 인자로 받은 future
+     */
+    public static <T> CompletableFuture<T> onCancel(final CompletableFuture<T> future, final Runnable cleanup) {
+        future.whenComplete((r, t) -> {
+            if (t != null && isCancellation(t)) {
+                cleanup.run();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 취소 또는 timeout 으로 인한 예외인지 확인
+     *
+     * @param t
+     * @return
+     */
+    public static boolean isCancellation(final Throwable t) {
+        final Throwable cause = unwrap(t);
+        return cause instanceof CancellationException || cause instanceof TimeoutException;
+    }
+
+    /**
+     * CompletionException, ExecutionException 을 벗긴 원인 예외 리턴
+     *
+     * @param t
+     * @return
+     */
+    public static Throwable unwrap(final Throwable t) {
+        Throwable cause = t;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /**
+     * 후속 stage 가 timer 쓰레드를 점유하지 않도록 CPU 풀에서 완료시킨다.
+     */
+    private static <T> void completeOffTimer(final CompletableFuture<T> future, final T value, final Throwable error) {
+        WorkerPools.cpu().execute(() -> {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(value);
+            }
+        });
+    }
+}
@@ -0,0 +1,69 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : Lazy.java
+ * DESC : 최초 사용 시 한 번만 초기화되는 값 (안전한 Double-Checked Locking)
+ *****************************************************************/
+package kr.co.ecoletree.common.concurrent;
+
+import java.util.function.Supplier;
+
+/**
+ * 지연 초기화 값.
+ *
+ * 초기화 후에는 volatile 읽기 한 번으로 값을 리턴하고, 초기화는 여러 쓰레드가 동시에 호출해도 한 번만 실행된다.
+ * 값을 volatile 필드로 게시(publish)하므로 생성 도중의 객체가 다른 쓰레드에 보이지 않는다.
+ * (volatile 없이 Double-Checked Locking 을 하면 생성자가 끝나기 전의 객체가 보일 수 있다)
+ *
+ * static 싱글톤이라면 클래스 초기화를 이용한 holder idiom 이 더 가볍다.
+ * <pre>
+ * private static class Holder {
+ *     static final Foo INSTANCE = new Foo();
+ * }
+ * </pre>
+ *
+ * @param <T>
+ */
+public final class Lazy<T> implements Supplier<T> {
+    private static final Object UNSET = new Object();
+
+    private Supplier<? extends T> loader;
+    private volatile Object value = UNSET;
+
+    private Lazy(final Supplier<? extends T> loader) {
+        this.loader = loader;
+    }
+
+    public static <T> Lazy<T> of(final Supplier<? extends T> loader) {
+        return new Lazy<>(loader);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get() {
+        Object v = value;
+        if (v == UNSET) {
+            synchronized (this) {
+                v = value;
+                if (v == UNSET) {
+                    v = loader.get();
+                    value = v;
+                    // 초기화 후에는 loader 가 참조하던 객체를 놓아준다.
+                    loader = null;
+                }
+            }
+        }
+        return (T) v;
+    }
+
+    public boolean isInitialized() {
+        return value != UNSET;
+    }
+
+    @Override
+    public String toString() {
+        return isInitialized() ? String.valueOf(value) : "Lazy(not initialized)";
+    }
+}
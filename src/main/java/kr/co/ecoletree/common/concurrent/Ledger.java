@@ -0,0 +1,220 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : Ledger.java
+ * DESC : 다수 계좌의 잔액을 Lock 없이 갱신하는 원장 (계좌별 CAS, Deadlock 없는 이체)
+ *****************************************************************/
+package kr.co.ecoletree.common.concurrent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+import kr.co.ecoletree.common.exception.ETRuntimeException;
+
+/**
+ * 동시 입출금/이체용 원장.
+ *
+ * 전역 Lock 하나로 모든 출금을 직렬화하지 않고, 계좌마다 잔액(long)을 CAS 로 갱신한다.
+ * 서로 다른 계좌에 대한 요청은 서로 기다리지 않는다.
+ *
+ * 이체는 출금 계좌 CAS(잔액 확인 포함) -> 입금 계좌 CAS 순서로 처리한다.
+ * 계좌 Lock 을 잡지 않으므로 A->B, B->A 이체가 동시에 일어나도 Deadlock 이 없고,
+ * 출금이 성공하면 입금은 항상 성공하므로 중간에 실패해서 돈이 사라지는 경우도 없다.
+ *
+ * 이체 도중(출금 후 입금 전)에는 합계가 잠시 줄어 보이므로 {@link #total()} 은 seqlock 처럼 검증한다.
+ * 이체는 시작 / 종료 횟수를 LongAdder(쓰레드별로 나뉜 cell)에 더하기만 하므로 이체끼리 같은 cache line 을 두고 경쟁하지 않는다.
+ * total() 은 진행 중인 이체가 없고 합산하는 동안 새 이체가 시작되지 않았을 때의 합계만 리턴하고,
+ * 이체가 계속 들어와 몇 번 실패하면 새 이체를 잠깐 멈춰 세운다. (Lock 은 total() 끼리만 잡는다)
+ */
+public final class Ledger {
+    private static final int OPTIMISTIC_ATTEMPTS = 8;
+
+    private final Map<Long, Account> accounts = new ConcurrentHashMap<>();
+    private final LongAdder transfersStarted = new LongAdder();
+    private final LongAdder transfersFinished = new LongAdder();
+    private final Object auditLock = new Object();
+    /** total() 이 합산을 못 끝내고 있을 때만 true (이체는 읽기만 하므로 cache line 이 공유 상태로 유지된다) */
+    private volatile boolean draining;
+
+    /**
+     * 계좌 개설
+     *
+     * @param id
+     * @param initialBalance
+     * @return
+     */
+    public Account open(final long id, final long initialBalance) {
+        if (initialBalance < 0) {
+            throw new ETRuntimeException("initial balance must not be negative: " + initialBalance);
+        }
+        final Account account = new Account(id, initialBalance);
+        if (accounts.putIfAbsent(id, account) != null) {
+            throw new ETRuntimeException("account already exists: " + id);
+        }
+        return account;
+    }
+
+    /**
+     * 계좌 조회. 없으면 ETRuntimeException
+     *
+     * @param id
+     * @return
+     */
+    public Account account(final long id) {
+        final Account account = accounts.get(id);
+        if (account == null) {
+            throw new ETRuntimeException("unknown account: " + id);
+        }
+        return account;
+    }
+
+    public long balance(final long id) {
+        return account(id).balance();
+    }
+
+    public void deposit(final long id, final long amount) {
+        account(id).deposit(amount);
+    }
+
+    /**
+     * 출금. 잔액이 부족하면 false
+     *
+     * @param id
+     * @param amount
+     * @return
+     */
+    public boolean withdraw(final long id, final long amount) {
+        return account(id).withdraw(amount);
+    }
+
+    /**
+     * 이체. 출금 계좌의 잔액이 부족하면 아무것도 변경하지 않고 false
+     *
+     * @param from
+     * @param to
+     * @param amount
+     * @return
+     */
+    public boolean transfer(final long from, final long to, final long amount) {
+        checkAmount(amount);
+        final Account source = account(from);
+        final Account target = account(to);
+        if (source == target) {
+            return source.balance() >= amount;
+        }
+
+        while (draining) {
+            Thread.yield();
+        }
+        transfersStarted.increment();
+        try {
+            if (!source.withdraw(amount)) {
+                return false;
+            }
+            target.deposit(amount);
+            return true;
+        } finally {
+            transfersFinished.increment();
+        }
+    }
+
+    /**
+     * 전체 잔액 합계. 진행 중인 이체가 끝난 시점의 값이다.
+     * (단건 입출금은 계좌 하나에서 원자적으로 끝나므로 막지 않는다)
+     *
+     * @return
+     */
+    public long total() {
+        synchronized (auditLock) {
+            try {
+                for (int attempt = 0; ; attempt++) {
+                    if (attempt == OPTIMISTIC_ATTEMPTS) {
+                        draining = true;
+                    }
+                    // finished -> started 순서로 읽어서 같으면 그 사이에 진행 중인 이체가 없었다
+                    final long finished = transfersFinished.sum();
+                    final long started = transfersStarted.sum();
+                    if (started == finished) {
+                        long total = 0;
+                        for (final Account account : accounts.values()) {
+                            total += account.balance();
+                        }
+                        // 합산하는 동안 새 이체가 시작되지 않았으면 일관된 값
+                        if (transfersStarted.sum() == started) {
+                            return total;
+                        }
+                    }
+                    Thread.yield();
+                }
+            } finally {
+                draining = false;
+            }
+        }
+    }
+
+    public int size() {
+        return accounts.size();
+    }
+
+    private static void checkAmount(final long amount) {
+        if (amount <= 0) {
+            throw new ETRuntimeException("amount must be positive: " + amount);
+        }
+    }
+
+    /**
+     * 계좌. 잔액은 CAS 로만 변경한다.
+     */
+    public static final class Account {
+        private static final AtomicLongFieldUpdater<Account> BALANCE = AtomicLongFieldUpdater.newUpdater(Account.class, "balance");
+
+        private final long id;
+        private volatile long balance;
+
+        Account(final long id, final long balance) {
+            this.id = id;
+            this.balance = balance;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public long balance() {
+            return balance;
+        }
+
+        public void deposit(final long amount) {
+            checkAmount(amount);
+            BALANCE.addAndGet(this, amount);
+        }
+
+        /**
+         * 잔액 확인 후 출금 (check-then-act 를 CAS 한 번으로 처리)
+         *
+         * @param amount
+         * @return 잔액이 부족하면 false
+         */
+        public boolean withdraw(final long amount) {
+            checkAmount(amount);
+            for (;;) {
+                final long current = balance;
+                if (current < amount) {
+                    return false;
+                }
+                if (BALANCE.compareAndSet(this, current, current - amount)) {
+                    return true;
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Account(" + id + ", " + balance + ")";
+        }
+    }
+}
@@ -0,0 +1,316 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : Pipeline.java
+ * DESC : Executor 를 명시적으로 지정하는 CompletableFuture 파이프라인 빌더
+ *****************************************************************/
+package kr.co.ecoletree.common.concurrent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * CompletableFuture 체인 빌더.
+ *
+ * - map/peek: 동기 stage. 이전 stage 를 실행한 쓰레드에서 이어서 실행한다.
+ * - mapAsync/peekAsync: 지정한 Executor 에서 실행한다.
+ *
+ * {@link #build()} 시점에 연속된 stage 들을 하나의 함수로 합친다(fusion).
+ * 동기 stage 는 앞 stage 에 합쳐지고, 직전 그룹과 같은 Executor 에 바인딩된 비동기 stage 도 합쳐지므로
+ * Executor 가 바뀌는 지점에서만 쓰레드 전환(thenApplyAsync)이 일어난다.
+ * recover 는 완료한 쓰레드에서 실행되므로 그 뒤의 비동기 stage 는 항상 지정한 Executor 로 옮겨서 실행한다.
+ *
+ * <pre>
+ * Pipeline.from(future)
+ *         .map(result -> result + "!")
+ *         .peekAsync(WorkerPools.IO_POOL, result -> log.info("Result1: {}", result))
+ *         .peekAsync(WorkerPools.IO_POOL, result -> log.info("Result2: {}", result))   // 같은 Executor -> 합쳐짐
+ *         .build();
+ * </pre>
+ *
+ * @param <T> 현재 stage 결과 타입
+ */
+public final class Pipeline<T> {
+    private final CompletableFuture<?> source;
+    private final Supplier<?> supplier;
+    private final Executor sourceExecutor;
+    private final List<Stage> stages = new ArrayList<>();
+
+    private Pipeline(final CompletableFuture<?> source, final Supplier<?> supplier, final Executor sourceExecutor) {
+        this.source = source;
+        this.supplier = supplier;
+        this.sourceExecutor = sourceExecutor;
+    }
+
+    /**
+     * 이미 존재하는 CompletableFuture 로 파이프라인 시작. 완료 쓰레드는 알 수 없는 것으로 간주한다.
+     *
+     * @param source
+     * @param <T>
+     * @return
+     */
+    public static <T> Pipeline<T> from(final CompletableFuture<T> source) {
+        return new Pipeline<>(source, null, null);
+    }
+
+    /**
+     * 지정한 Executor 에서 supplier 를 실행하며 파이프라인 시작.
+     * 이후 같은 Executor 에 바인딩된 비동기 stage 는 쓰레드 전환 없이 이어서 실행된다.
+     * supplier 는 {@link #build()} 할 때 실행을 시작한다.
+     *
+     * @param executorName {@link WorkerPools#named(String)} 에 등록된 이름
+     * @param supplier
+     * @param <T>
+     * @return
+     */
+    public static <T> Pipeline<T> supplyAsync(final String executorName, final Supplier<T> supplier) {
+        return supplyAsync(WorkerPools.named(executorName), supplier);
+    }
+
+    /**
+     * 지정한 Executor 에서 supplier 를 실행하며 파이프라인 시작.
+     * 바로 뒤의 동기 stage, 같은 Executor 의 비동기 stage 는 supplier 와 같은 작업으로 합쳐진다.
+     * (그래서 supplier 는 {@link #build()} 할 때 실행을 시작한다)
+     *
+     * @param executor
+     * @param supplier
+     * @param <T>
+     * @return
+     */
+    public static <T> Pipeline<T> supplyAsync(final Executor executor, final Supplier<T> supplier) {
+        return new Pipeline<>(null, supplier, executor);
+    }
+
+    /**
+     * 동기 변환 stage
+     *
+     * @param fn
+     * @param <R>
+     * @return
+     */
+    public <R> Pipeline<R> map(final Function<? super T, ? extends R> fn) {
+        return addStage(null, fn);
+    }
+
+    /**
+     * 동기 소비 stage. 값은 다음 stage 로 그대로 전달된다.
+     *
+     * @param consumer
+     * @return
+     */
+    public Pipeline<T> peek(final Consumer<? super T> consumer) {
+        return addStage(null, peeking(consumer));
+    }
+
+    /**
+     * 비동기 변환 stage
+     *
+     * @param executorName {@link WorkerPools#named(String)} 에 등록된 이름
+     * @param fn
+     * @param <R>
+     * @return
+     */
+    public <R> Pipeline<R> mapAsync(final String executorName, final Function<? super T, ? extends R> fn) {
+        return mapAsync(WorkerPools.named(executorName), fn);
+    }
+
+    /**
+     * 비동기 변환 stage
+     *
+     * @param executor
+     * @param fn
+     * @param <R>
+     * @return
+     */
+    public <R> Pipeline<R> mapAsync(final Executor executor, final Function<? super T, ? extends R> fn) {
+        return addStage(executor, fn);
+    }
+
+    /**
+     * 비동기 소비 stage. 값은 다음 stage 로 그대로 전달된다.
+     *
+     * @param executorName {@link WorkerPools#named(String)} 에 등록된 이름
+     * @param consumer
+     * @return
+     */
+    public Pipeline<T> peekAsync(final String executorName, final Consumer<? super T> consumer) {
+        return peekAsync(WorkerPools.named(executorName), consumer);
+    }
+
+    /**
+     * 비동기 소비 stage. 값은 다음 stage 로 그대로 전달된다.
+     *
+     * @param executor
+     * @param consumer
+     * @return
+     */
+    public Pipeline<T> peekAsync(final Executor executor, final Consumer<? super T> consumer) {
+        return addStage(executor, peeking(consumer));
+    }
+
+    /**
+     * 앞 stage 들에서 발생한 예외를 값으로 변환. (CompletionException 은 벗겨서 전달)
+     *
+     * @param fn
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public Pipeline<T> recover(final Function<Throwable, ? extends T> fn) {
+        stages.add(new Stage(null, (Function<Object, Object>) (Function<?, ?>) fn, true));
+        return this;
+    }
+
+    /**
+     * 연속된 stage 들을 합쳐서 CompletableFuture 체인 생성.
+     * 리턴된 future 를 cancel 하면 원본 future 도 취소된다.
+     *
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<T> build() {
+        final List<Group> groups = plan();
+        CompletableFuture<Object> future;
+        int index = 0;
+        if (supplier == null) {
+            future = (CompletableFuture<Object>) source;
+        } else {
+            final Function<Object, Object> head = fuse(groups.get(index++).fns);
+            future = CompletableFuture.supplyAsync(() -> head.apply(supplier.get()), sourceExecutor);
+        }
+        final CompletableFuture<Object> first = future;
+        for (; index < groups.size(); index++) {
+            final Group group = groups.get(index);
+            final Function<Object, Object> fused = fuse(group.fns);
+            if (group.recover) {
+                future = future.exceptionally(t -> fused.apply(unwrap(t)));
+            } else if (group.executor == null) {
+                future = future.thenApply(fused);
+            } else {
+                future = future.thenApplyAsync(fused, group.executor);
+            }
+        }
+        return Futures.propagateCancel((CompletableFuture<T>) future, first);
+    }
+
+    /**
+     * 연속된 stage 들을 합쳐서 CompletableFuture 체인 생성.
+     * 지정 시간 안에 끝나지 않으면 TimeoutException 으로 완료되고 원본 future 도 취소된다.
+     *
+     * @param timeout
+     * @return
+     */
+    public CompletableFuture<T> build(final Duration timeout) {
+        return Futures.withTimeout(build(), timeout);
+    }
+
+    /**
+     * fusion 이후 Executor 전환(thenApplyAsync)이 일어나는 지점 수
+     *
+     * @return
+     */
+    public int countAsyncBoundaries() {
+        int boundaries = 0;
+        final List<Group> groups = plan();
+        for (int i = supplier == null ? 0 : 1; i < groups.size(); i++) {
+            if (groups.get(i).executor != null) {
+                boundaries++;
+            }
+        }
+        return boundaries;
+    }
+
+    /**
+     * stage 들을 실행 단위(그룹)로 나눈다.
+     *
+     * 그룹의 Executor 는 그 그룹이 실제로 실행되는 Executor 이다. (null: 앞 그룹을 완료한 쓰레드, 알 수 없음)
+     * 비동기 stage 는 앞 그룹의 Executor 가 같을 때만 합쳐지고, 아니면 새 그룹을 만들어 그 Executor 로 옮긴다.
+     * supplyAsync 로 시작하면 첫 그룹은 supplier 와 함께 sourceExecutor 에서 실행된다.
+     */
+    private List<Group> plan() {
+        final List<Group> groups = new ArrayList<>();
+        Group group = supplier == null ? null : new Group(sourceExecutor, false);
+        if (group != null) {
+            groups.add(group);
+        }
+        for (final Stage stage : stages) {
+            if (stage.recover) {
+                group = new Group(null, true);
+                groups.add(group);
+                group.fns.add(stage.fn);
+                // recover 를 실행한 쓰레드는 알 수 없으므로 다음 stage 는 새 그룹에서 시작
+                group = null;
+                continue;
+            }
+            if (group == null || (stage.executor != null && stage.executor != group.executor)) {
+                group = new Group(stage.executor, false);
+                groups.add(group);
+            }
+            group.fns.add(stage.fn);
+        }
+        return groups;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> Pipeline<R> addStage(final Executor executor, final Function<? super T, ? extends R> fn) {
+        stages.add(new Stage(executor, (Function<Object, Object>) (Function<?, ?>) fn, false));
+        return (Pipeline<R>) this;
+    }
+
+    private static Function<Object, Object> fuse(final List<Function<Object, Object>> group) {
+        if (group.size() == 1) {
+            return group.get(0);
+        }
+        @SuppressWarnings("unchecked")
+        final Function<Object, Object>[] fns = group.toArray((Function<Object, Object>[]) new Function<?, ?>[0]);
+        return value -> {
+            Object result = value;
+            for (final Function<Object, Object> fn : fns) {
+                result = fn.apply(result);
+            }
+            return result;
+        };
+    }
+
+    private static <V> Function<V, V> peeking(final Consumer<? super V> consumer) {
+        return value -> {
+            consumer.accept(value);
+            return value;
+        };
+    }
+
+    private static Throwable unwrap(final Throwable t) {
+        return t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+    }
+
+    private static final class Group {
+        private final Executor executor;
+        private final boolean recover;
+        private final List<Function<Object, Object>> fns = new ArrayList<>();
+
+        Group(final Executor executor, final boolean recover) {
+            this.executor = executor;
+            this.recover = recover;
+        }
+    }
+
+    private static final class Stage {
+        private final Executor executor;
+        private final Function<Object, Object> fn;
+        private final boolean recover;
+
+        Stage(final Executor executor, final Function<Object, Object> fn, final boolean recover) {
+            this.executor = executor;
+            this.fn = fn;
+            this.recover = recover;
+        }
+    }
+}
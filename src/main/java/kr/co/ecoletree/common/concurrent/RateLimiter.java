@@ -0,0 +1,129 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : RateLimiter.java
+ * DESC : 초당 처리량 제한 (token bucket, Lock 없이 CAS 로 예약)
+ *****************************************************************/
+package kr.co.ecoletree.common.concurrent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import kr.co.ecoletree.common.exception.ETRuntimeException;
+
+/**
+ * 초당 처리량 제한.
+ *
+ * permit 하나 당 1/rate 초씩 "다음에 비는 시각" 을 뒤로 미루는 방식(GCRA)이다. 상태는 long 하나이므로 CAS 한 번으로 예약한다.
+ * burst 만큼은 쉬고 있던 동안 모아둔 것으로 보고 기다리지 않고 바로 사용할 수 있다.
+ *
+ * <pre>
+ * {@code
+ * final RateLimiter limiter = RateLimiter.create(100);   // 초당 100건
+ * limiter.acquire();                                     // 필요하면 대기
+ * }
+ * </pre>
+ */
+public final class RateLimiter {
+    private final double permitsPerSecond;
+    private final long intervalNanos;
+    private final long burstNanos;
+    /** 다음 permit 이 비는 시각 (theoretical arrival time) */
+    private final AtomicLong next;
+
+    private RateLimiter(final double permitsPerSecond, final int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new ETRuntimeException(String.format("invalid rate: %s/s, burst %d", permitsPerSecond, burst));
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstNanos = intervalNanos * burst;
+        this.next = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * @param permitsPerSecond 초당 permit 수 (burst 1)
+     * @return
+     */
+    public static RateLimiter create(final double permitsPerSecond) {
+        return new RateLimiter(permitsPerSecond, 1);
+    }
+
+    /**
+     * @param permitsPerSecond 초당 permit 수
+     * @param burst 기다리지 않고 연속으로 사용할 수 있는 최대 permit 수
+     * @return
+     */
+    public static RateLimiter create(final double permitsPerSecond, final int burst) {
+        return new RateLimiter(permitsPerSecond, burst);
+    }
+
+    public double getRate() {
+        return permitsPerSecond;
+    }
+
+    public void acquire() {
+        acquire(1);
+    }
+
+    /**
+     * permit 을 예약하고 사용할 수 있을 때까지 대기
+     *
+     * @param permits
+     */
+    public void acquire(final int permits) {
+        final long wait = reserve(permits);
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ETRuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * 기다리지 않고 사용할 수 있으면 예약
+     *
+     * @param permits
+     * @return 예약 여부
+     */
+    public boolean tryAcquire(final int permits) {
+        for (;;) {
+            final long now = System.nanoTime();
+            final long current = next.get();
+            final long updated = Math.max(current, now) + intervalNanos * permits;
+            if (updated - burstNanos - now > 0) {
+                return false;
+            }
+            if (next.compareAndSet(current, updated)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * permit 예약
+     *
+     * @param permits
+     * @return 사용 가능할 때까지 기다려야 하는 시간 (ns)
+     */
+    public long reserve(final int permits) {
+        for (;;) {
+            final long now = System.nanoTime();
+            final long current = next.get();
+            final long updated = Math.max(current, now) + intervalNanos * permits;
+            if (next.compareAndSet(current, updated)) {
+                return Math.max(0, updated - burstNanos - now);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RateLimiter(%.1f/s, burst=%d)", permitsPerSecond, burstNanos / intervalNanos);
+    }
+}
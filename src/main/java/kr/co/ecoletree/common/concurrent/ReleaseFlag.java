@@ -0,0 +1,64 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : ReleaseFlag.java
+ * DESC : release 쓰기 / acquire 읽기 플래그 (데이터를 준비한 뒤 신호를 보내는 용도)
+ *****************************************************************/
+package kr.co.ecoletree.common.concurrent;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * 다른 쓰레드에 "준비 완료" 를 알리는 플래그.
+ *
+ * {@link #set()} 이전에 쓴 값들은 {@link #isSet()} 이 true 를 본 쓰레드에게 반드시 보인다. (release/acquire)
+ * 쓰기는 lazySet(release store) 이므로 volatile 쓰기의 full fence 비용이 없고,
+ * 다른 쓰레드에 보이기까지 약간 늦을 수 있지만 순서는 보장된다.
+ *
+ * 일반 boolean 필드를 쓰면 읽는 쪽이 값을 레지스터에 캐시해 영원히 바뀐 값을 못 보거나(JIT hoisting),
+ * 플래그는 보이는데 그 전에 쓴 데이터는 안 보이는 문제가 생길 수 있다.
+ * (Java 9 이상이면 VarHandle#setRelease / getAcquire 와 같은 의미)
+ */
+public final class ReleaseFlag {
+    private static final AtomicIntegerFieldUpdater<ReleaseFlag> STATE = AtomicIntegerFieldUpdater.newUpdater(ReleaseFlag.class, "state");
+
+    private volatile int state;
+
+    /**
+     * release: 이 호출 이전의 쓰기가 모두 보인 뒤에 플래그가 보인다.
+     */
+    public void set() {
+        STATE.lazySet(this, 1);
+    }
+
+    public void clear() {
+        STATE.lazySet(this, 0);
+    }
+
+    /**
+     * acquire: true 를 보면 set() 이전의 쓰기도 모두 보인다.
+     *
+     * @return
+     */
+    public boolean isSet() {
+        return state == 1;
+    }
+
+    /**
+     * 한 쓰레드만 상태를 바꾸도록 할 때 사용 (volatile 수준의 순서 보장)
+     *
+     * @param expect
+     * @param update
+     * @return
+     */
+    public boolean compareAndSet(final boolean expect, final boolean update) {
+        return STATE.compareAndSet(this, expect ? 1 : 0, update ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        return Boolean.toString(isSet());
+    }
+}
@@ -0,0 +1,303 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : StressHarness.java
+ * DESC : 동시성 버그 검출용 스트레스 테스트 도구 (jcstress 방식: actor 경쟁 -> 결과 빈도 집계)
+ *****************************************************************/
+package kr.co.ecoletree.common.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import kr.co.ecoletree.common.concurrent.queue.WaitStrategy;
+import kr.co.ecoletree.common.exception.ETRuntimeException;
+
+/**
+ * 경쟁 상태(race condition) 검출용 하네스.
+ *
+ * 상태 객체 하나에 여러 actor 를 동시에 실행시키고, 모든 actor 가 끝난 뒤 arbiter 로 결과를 관찰한다.
+ * 이를 여러 번 반복하여 관찰된 결과별 빈도를 집계한다.
+ *
+ * 쓰레드를 반복마다 만들지 않고 actor 당 하나씩 만들어 서로 다른 CPU 에 고정(Linux)해서 재사용한다.
+ * 한 번에 batch 크기만큼 상태 객체를 만들어 두고, 모든 actor 가 도착할 때까지 spin 한 뒤 같은 순서로 훑는다.
+ * (blocking barrier 는 깨어나는 시간 차이가 actor 연산보다 훨씬 커서 같은 상태에 동시에 접근하지 못한다)
+ * batch 가 작을수록 시작 시점이 자주 다시 맞춰진다.
+ * CPU 가 하나뿐이면 actor 들이 실제로 겹쳐 실행되지 않으므로 경쟁 상태를 거의 검출하지 못한다.
+ *
+ * <pre>
+ * StressHarness.of(Counter::new)
+ *     .actor(Counter::increment)
+ *     .actor(Counter::increment)
+ *     .arbiter(Counter::get)
+ *     .run()
+ *     .requireOnly(v -> v == 2);
+ * </pre>
+ *
+ * @param <S> 상태
+ * @param <R> 관찰 결과
+ */
+public final class StressHarness<S, R> {
+    public static final int DEFAULT_ITERATIONS = 100_000;
+    public static final int DEFAULT_BATCH = 128;
+    private static final WaitStrategy WAIT = WaitStrategy.backoff();
+
+    private final Supplier<S> state;
+    private final List<Consumer<? super S>> actors = new ArrayList<>();
+    private Function<? super S, ? extends R> arbiter;
+    private int iterations = DEFAULT_ITERATIONS;
+    private int batch = DEFAULT_BATCH;
+    private boolean pinned = true;
+
+    private StressHarness(final Supplier<S> state) {
+        this.state = state;
+    }
+
+    /**
+     * @param state 반복마다 새 상태 객체를 만드는 Supplier
+     * @param <S>
+     * @param <R>
+     * @return
+     */
+    public static <S, R> StressHarness<S, R> of(final Supplier<S> state) {
+        return new StressHarness<>(state);
+    }
+
+    /**
+     * 동시에 실행할 actor 추가. actor 마다 전용 쓰레드 하나가 할당된다.
+     *
+     * @param actor
+     * @return
+     */
+    public StressHarness<S, R> actor(final Consumer<? super S> actor) {
+        actors.add(actor);
+        return this;
+    }
+
+    /**
+     * 모든 actor 가 끝난 뒤 상태를 관찰할 함수. 결과는 equals/hashCode 로 집계된다.
+     *
+     * @param arbiter
+     * @param <T>
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public <T> StressHarness<S, T> arbiter(final Function<? super S, ? extends T> arbiter) {
+        final StressHarness<S, T> self = (StressHarness<S, T>) this;
+        self.arbiter = arbiter;
+        return self;
+    }
+
+    public StressHarness<S, R> iterations(final int iterations) {
+        this.iterations = iterations;
+        return this;
+    }
+
+    public StressHarness<S, R> batch(final int batch) {
+        this.batch = batch;
+        return this;
+    }
+
+    /**
+     * @param pinned actor 쓰레드를 CPU 에 고정할지 여부 (기본: true, Linux + taskset 일 때만 적용)
+     * @return
+     */
+    public StressHarness<S, R> pinned(final boolean pinned) {
+        this.pinned = pinned;
+        return this;
+    }
+
+    /**
+     * 실행
+     *
+     * @return 관찰된 결과별 빈도
+     */
+    public Outcomes<R> run() {
+        if (actors.isEmpty()) {
+            throw new ETRuntimeException("at least one actor is required");
+        }
+        if (arbiter == null) {
+            throw new ETRuntimeException("arbiter is required");
+        }
+
+        final int parties = actors.size();
+        final Round round = new Round(parties);
+        final List<Thread> threads = new ArrayList<>(parties);
+        final int processors = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 0; i < parties; i++) {
+            final Consumer<? super S> actor = actors.get(i);
+            final WorkerThreadFactory.Builder factory = WorkerThreadFactory.builder("stress").daemon(true);
+            if (pinned) {
+                // actor 마다 다른 CPU 에 고정 (CPU 가 모자라면 나눠 쓴다)
+                factory.affinity(i % processors);
+            }
+            final Thread t = factory.build().newThread(() -> runActor(actor, round));
+            threads.add(t);
+            t.start();
+        }
+
+        final Map<R, Long> counts = new LinkedHashMap<>();
+        try {
+            for (int done = 0; done < iterations; ) {
+                final int size = Math.min(batch, iterations - done);
+                final Object[] states = new Object[size];
+                for (int i = 0; i < size; i++) {
+                    states[i] = state.get();
+                }
+                round.begin(states);
+                round.awaitFinished();
+                if (round.failure.get() != null) {
+                    break;
+                }
+                for (final Object s : states) {
+                    @SuppressWarnings("unchecked")
+                    final R outcome = arbiter.apply((S) s);
+                    counts.merge(outcome, 1L, Long::sum);
+                }
+                done += size;
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            threads.forEach(Thread::interrupt);
+            throw new ETRuntimeException(e);
+        } finally {
+            round.begin(null);
+        }
+        if (round.failure.get() != null) {
+            throw new ETRuntimeException("actor failed", round.failure.get());
+        }
+        return new Outcomes<>(counts);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <S> void runActor(final Consumer<? super S> actor, final Round round) {
+        int seen = 0;
+        for (;;) {
+            // 다음 batch 대기 (spin -> yield -> park)
+            for (int idle = 0; round.epoch == seen; idle++) {
+                WAIT.idle(idle);
+            }
+            seen = round.epoch;
+            final Object[] states = round.states;
+            if (states == null) {
+                return;
+            }
+            // 모든 actor 가 도착할 때까지 spin 해서 시작 시점을 맞춘다. (blocking barrier 는 깨어나는 시간 차이가 수 us)
+            round.arrived.incrementAndGet();
+            for (int idle = 0; round.arrived.get() < round.parties; idle++) {
+                WAIT.idle(idle);
+            }
+            try {
+                for (final Object s : states) {
+                    actor.accept((S) s);
+                }
+            } catch (final Throwable t) {
+                // 실패를 기록하고 batch 는 끝낸다. (다음 batch 전에 중단)
+                round.failure.compareAndSet(null, t);
+            }
+            round.finished.incrementAndGet();
+        }
+    }
+
+    /**
+     * batch 하나의 시작 / 종료 신호 (volatile epoch 를 바꿔서 actor 들을 동시에 출발시킨다)
+     */
+    private static final class Round {
+        private final int parties;
+        private final AtomicInteger arrived = new AtomicInteger();
+        private final AtomicInteger finished = new AtomicInteger();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        /** null 이면 종료 */
+        private volatile Object[] states;
+        private volatile int epoch;
+
+        Round(final int parties) {
+            this.parties = parties;
+        }
+
+        /**
+         * 새 batch 시작. states 와 카운터를 먼저 쓰고 epoch 를 바꾼다. (actor 는 epoch 를 읽은 뒤 states 를 읽는다)
+         */
+        void begin(final Object[] states) {
+            this.states = states;
+            arrived.set(0);
+            finished.set(0);
+            epoch++;
+        }
+
+        void awaitFinished() throws InterruptedException {
+            for (int idle = 0; finished.get() < parties; idle++) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                WAIT.idle(idle);
+            }
+        }
+    }
+
+    /**
+     * 관찰된 결과별 빈도
+     *
+     * @param <R>
+     */
+    public static final class Outcomes<R> {
+        private final Map<R, Long> counts;
+
+        Outcomes(final Map<R, Long> counts) {
+            this.counts = Collections.unmodifiableMap(counts);
+        }
+
+        public Map<R, Long> getCounts() {
+            return counts;
+        }
+
+        public long count(final R outcome) {
+            return counts.getOrDefault(outcome, 0L);
+        }
+
+        public long count(final Predicate<? super R> predicate) {
+            long sum = 0;
+            for (final Map.Entry<R, Long> e : counts.entrySet()) {
+                if (predicate.test(e.getKey())) sum += e.getValue();
+            }
+            return sum;
+        }
+
+        public long total() {
+            return count(r -> true);
+        }
+
+        /**
+         * 허용되지 않은 결과가 한 번이라도 관찰되면 ETRuntimeException (CI 테스트용)
+         *
+         * @param acceptable
+         * @return
+         */
+        public Outcomes<R> requireOnly(final Predicate<? super R> acceptable) {
+            if (count(acceptable.negate()) > 0) {
+                throw new ETRuntimeException("forbidden outcome observed\n" + this);
+            }
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            final long total = total();
+            final StringBuilder sb = new StringBuilder();
+            counts.forEach((outcome, count) -> sb.append(String.format("%-20s %,12d (%6.2f%%)%n",
+                    outcome, count, total == 0 ? 0d : count * 100d / total)));
+            return sb.toString();
+        }
+    }
+}
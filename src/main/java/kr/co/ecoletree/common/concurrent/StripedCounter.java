@@ -0,0 +1,200 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : StripedCounter.java
+ * DESC : 경합이 심한 환경용 분산(striped) 카운터 (LongAdder 방식, cache-line padding)
+ *****************************************************************/
+package kr.co.ecoletree.common.concurrent;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * 여러 쓰레드가 동시에 증감하는 카운터.
+ *
+ * AtomicInteger 하나를 모든 쓰레드가 CAS 하면 실패/재시도가 반복된다.
+ * 이 카운터는 경합이 감지되면 쓰레드 별로 다른 cell 에 더하고, 읽을 때 cell 들을 합산한다.
+ * cell 은 앞뒤로 padding 을 두어 서로 다른 cache line 에 위치하도록 한다. (false sharing 방지)
+ *
+ * - {@link #sum()}: 모든 cell 합산. 진행 중인 증감이 없을 때만 정확하다.
+ *   (동시 갱신 중에는 cell 을 차례로 읽는 동안 더해진 값이 일부만 반영될 수 있다. 어느 한 시점의 값이라는 보장도 없다)
+ * - {@link #approximate()}: 지정한 주기 안에서는 마지막 합산값을 재사용 (읽기가 매우 잦은 경우)
+ */
+public final class StripedCounter {
+    private static final int MAX_CELLS = ceilingPowerOfTwo(Runtime.getRuntime().availableProcessors() * 2);
+    private static final AtomicLongFieldUpdater<StripedCounter> BASE = AtomicLongFieldUpdater.newUpdater(StripedCounter.class, "base");
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(() -> new int[] { ThreadLocalRandom.current().nextInt() | 1 });
+
+    private volatile long base;
+    private volatile Cell[] cells;
+    private final long approximateNanos;
+    private volatile long cachedSum;
+    private volatile long cachedAt;
+
+    /**
+     * approximate() 재사용 주기 1ms
+     */
+    public StripedCounter() {
+        this(1, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param approximateInterval approximate() 가 마지막 합산값을 재사용하는 주기
+     * @param unit
+     */
+    public StripedCounter(final long approximateInterval, final TimeUnit unit) {
+        this.approximateNanos = unit.toNanos(approximateInterval);
+        this.cachedAt = System.nanoTime() - approximateNanos;
+    }
+
+    public void increment() {
+        add(1L);
+    }
+
+    public void decrement() {
+        add(-1L);
+    }
+
+    /**
+     * 값 더하기. 경합이 없으면 base 에 CAS 한 번, 경합이 있으면 쓰레드의 cell 에 더한다.
+     *
+     * @param x
+     */
+    public void add(final long x) {
+        final Cell[] cs = cells;
+        if (cs == null) {
+            final long b = base;
+            if (BASE.compareAndSet(this, b, b + x)) {
+                return;
+            }
+            growCells(null);
+        }
+        addToCell(x);
+    }
+
+    /**
+     * 모든 cell 합산.
+     * 동시에 증감 중이면 원자적 snapshot 이 아니다. 정확한 값이 필요하면 갱신이 멈춘 뒤(예: 작업 쓰레드 join 후) 호출할 것
+     *
+     * @return
+     */
+    public long sum() {
+        long sum = base;
+        final Cell[] cs = cells;
+        if (cs != null) {
+            for (final Cell c : cs) {
+                sum += c.value;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * 근사값. 마지막 합산 후 지정 주기가 지나지 않았으면 합산하지 않고 이전 값을 리턴한다.
+     *
+     * @return
+     */
+    public long approximate() {
+        final long now = System.nanoTime();
+        if (now - cachedAt < approximateNanos) {
+            return cachedSum;
+        }
+        final long sum = sum();
+        cachedSum = sum;
+        cachedAt = now;
+        return sum;
+    }
+
+    /**
+     * 0 으로 초기화. 동시에 갱신 중인 값은 유실될 수 있다.
+     */
+    public void reset() {
+        base = 0L;
+        final Cell[] cs = cells;
+        if (cs != null) {
+            for (final Cell c : cs) {
+                c.value = 0L;
+            }
+        }
+    }
+
+    /**
+     * 현재 할당된 cell 개수 (모니터링용)
+     *
+     * @return
+     */
+    public int cellCount() {
+        final Cell[] cs = cells;
+        return cs == null ? 0 : cs.length;
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(sum());
+    }
+
+    private void addToCell(final long x) {
+        final int[] probe = PROBE.get();
+        int h = probe[0];
+        for (;;) {
+            final Cell[] cs = cells;
+            final Cell c = cs[h & (cs.length - 1)];
+            final long v = c.value;
+            if (Cell.VALUE.compareAndSet(c, v, v + x)) {
+                return;
+            }
+            // 다른 쓰레드와 같은 cell 에서 충돌: cell 을 늘리거나 다른 cell 로 이동
+            if (cs.length < MAX_CELLS) {
+                growCells(cs);
+            }
+            h ^= h << 13;
+            h ^= h >>> 17;
+            h ^= h << 5;
+            probe[0] = h;
+        }
+    }
+
+    private synchronized void growCells(final Cell[] expected) {
+        final Cell[] cs = cells;
+        if (cs != expected) {
+            return;
+        }
+        // cell 객체는 새 배열에 그대로 옮기므로 이전 배열에 더해진 값도 유지된다.
+        final int length = cs == null ? 2 : cs.length << 1;
+        final Cell[] grown = new Cell[length];
+        for (int i = 0; i < length; i++) {
+            grown[i] = cs != null && i < cs.length ? cs[i] : new Cell(0L);
+        }
+        cells = grown;
+    }
+
+    private static int ceilingPowerOfTwo(final int x) {
+        return x <= 1 ? 1 : Integer.highestOneBit(x - 1) << 1;
+    }
+
+    /**
+     * cache line(64 bytes) 를 혼자 쓰도록 앞뒤로 padding 한 cell
+     */
+    @SuppressWarnings("unused")
+    static class CellLhsPadding {
+        long p01, p02, p03, p04, p05, p06, p07;
+    }
+
+    static class CellValue extends CellLhsPadding {
+        volatile long value;
+    }
+
+    @SuppressWarnings("unused")
+    static final class Cell extends CellValue {
+        static final AtomicLongFieldUpdater<CellValue> VALUE = AtomicLongFieldUpdater.newUpdater(CellValue.class, "value");
+
+        long p11, p12, p13, p14, p15, p16, p17;
+
+        Cell(final long x) {
+            this.value = x;
+        }
+    }
+}
@@ -0,0 +1,430 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : TaskTracer.java
+ * DESC : 비동기 작업 추적 (큐 대기 / 실행 시간 / 쓰레드 이동 기록, Chrome trace JSON 출력, 샘플링)
+ *****************************************************************/
+package kr.co.ecoletree.common.concurrent;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import kr.co.ecoletree.common.concurrent.queue.MessageQueue;
+
+/**
+ * 비동기 작업 추적.
+ *
+ * 논리적인 작업(Operation) 하나가 여러 Executor 를 거치는 동안 단계(Hop)마다
+ * 큐에 들어간 시각, 실행 시작/종료 시각, 실행한 쓰레드를 기록한다.
+ * "큐에서 기다린 시간" 과 "실행한 시간" 을 나눠 보기 위한 용도.
+ *
+ * <pre>
+ * {@code
+ * final Executor traced = TaskTracer.wrap(ES, "es");
+ * final TaskTracer.Operation op = TaskTracer.begin("order");
+ * try (Context.Scope ignore = op.attach()) {
+ *     op.track(CompletableFuture.supplyAsync(this::load, traced)
+ *             .thenApplyAsync(this::parse, TaskTracer.commonPool()));
+ * }
+ * TaskTracer.exportChromeTrace(Paths.get("trace.json"));   // chrome://tracing, ui.perfetto.dev 에서 열기
+ * }
+ * </pre>
+ *
+ * - Operation 은 {@link Context} 로 전달된다. 추적 중인 작업이 wrap 한 Executor 에 넣은 작업은 같은 Operation 의 Hop 이 된다.
+ * - 샘플링: {@link #begin(String)} 에서 샘플링 비율(-Decoletree.trace.sample, 기본 0.01)에 들지 않으면
+ *   기록하지 않는 NOOP 을 리턴한다. 추적하지 않는 작업에 대한 Executor 비용은 ThreadLocal 조회 한 번이다.
+ * - 끝난 Operation 은 최근 HISTORY 개까지만 보관한다. (넘치면 오래된 것부터 버린다)
+ * - CompletableFuture 의 *Async 단계 중 Executor 를 지정하지 않은 단계는 추적되지 않는다. {@link #commonPool()} 을 넘긴다.
+ */
+public final class TaskTracer {
+    public static final int HISTORY = 4096;
+
+    private static final Context.Key<Operation> OPERATION = Context.Key.of("trace");
+    private static final long ORIGIN = System.nanoTime();
+    private static final AtomicLong IDS = new AtomicLong();
+    private static final MessageQueue<Operation> COMPLETED = MessageQueue.mpmc(HISTORY);
+    private static final Operation NOOP = new Operation(0, "noop", false);
+    private static final Executor COMMON_POOL = wrap(ForkJoinPool.commonPool(), "commonPool");
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private static volatile double sampleRate = Double.parseDouble(System.getProperty("ecoletree.trace.sample", "0.01"));
+
+    private TaskTracer() {}
+
+    /**
+     * @param rate 0 ~ 1 (0: 추적 안 함, 1: 모두 추적)
+     */
+    public static void setSampleRate(final double rate) {
+        sampleRate = Math.max(0, Math.min(1, rate));
+    }
+
+    public static double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * 작업 추적 시작. 샘플링에서 제외되면 아무것도 기록하지 않는 Operation 을 리턴한다.
+     *
+     * @param name 작업 이름
+     * @return
+     */
+    public static Operation begin(final String name) {
+        final double rate = sampleRate;
+        if (rate <= 0 || rate < 1 && ThreadLocalRandom.current().nextDouble() >= rate) {
+            return NOOP;
+        }
+        return new Operation(IDS.incrementAndGet(), name, true);
+    }
+
+    /**
+     * 현재 쓰레드에서 추적 중인 작업. 없으면 NOOP
+     *
+     * @return
+     */
+    public static Operation current() {
+        final Operation operation = Context.current().get(OPERATION);
+        return operation == null ? NOOP : operation;
+    }
+
+    /**
+     * 추적 중인 작업이 넣은 명령의 큐 대기 / 실행 시간을 기록하는 Executor
+     *
+     * @param executor
+     * @param pool 기록에 사용할 풀 이름
+     * @return
+     */
+    public static Executor wrap(final Executor executor, final String pool) {
+        return command -> {
+            final Context captured = Context.current();
+            final Operation operation = captured.get(OPERATION);
+            if (operation == null) {
+                executor.execute(command);
+                return;
+            }
+            final Hop hop = new Hop(pool, System.nanoTime());
+            executor.execute(() -> {
+                hop.startNanos = System.nanoTime();
+                hop.thread = Thread.currentThread();
+                operation.running.incrementAndGet();
+                try {
+                    captured.run(command);
+                } catch (final RuntimeException | Error e) {
+                    hop.failed = true;
+                    throw e;
+                } finally {
+                    hop.endNanos = System.nanoTime();
+                    operation.hops.add(hop);
+                    // command 가 future 를 완료시켜 end() 가 먼저 불렸으면 이 Hop 까지 기록한 뒤 끝낸다
+                    if (operation.running.decrementAndGet() == 0 && operation.ended.get()) {
+                        operation.publish();
+                    }
+                }
+            });
+        };
+    }
+
+    /**
+     * 추적되는 commonPool. (CompletableFuture *Async 단계의 기본 Executor 대신 사용)
+     *
+     * @return
+     */
+    public static Executor commonPool() {
+        return COMMON_POOL;
+    }
+
+    /**
+     * 끝난 작업들을 꺼낸다. (꺼낸 작업은 보관 목록에서 제거된다)
+     *
+     * @return
+     */
+    public static List<Operation> drain() {
+        final List<Operation> operations = new ArrayList<>();
+        COMPLETED.drain(operations::add, HISTORY);
+        return operations;
+    }
+
+    /**
+     * 끝난 작업들을 꺼내서 Chrome trace 형식(JSON)으로 저장
+     *
+     * @param path
+     * @return 저장한 작업 수
+     * @throws IOException
+     */
+    public static int exportChromeTrace(final Path path) throws IOException {
+        final List<Operation> operations = drain();
+        try (OutputStream out = Files.newOutputStream(path)) {
+            writeChromeTrace(operations, out);
+        }
+        return operations.size();
+    }
+
+    /**
+     * Chrome trace 형식(JSON) 출력
+     *
+     * - Operation 전체와 Hop 별 큐 대기는 Operation id 로 묶인 async 이벤트 (같은 줄에 표시)
+     * - Hop 별 실행은 실행한 쓰레드 줄의 complete 이벤트
+     *
+     * @param operations
+     * @param out
+     * @throws IOException
+     */
+    public static void writeChromeTrace(final Collection<Operation> operations, final OutputStream out) throws IOException {
+        final Map<Long, String> threads = new LinkedHashMap<>();
+        try (JsonGenerator json = JSON.createGenerator(out, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeStringField("displayTimeUnit", "ms");
+            json.writeArrayFieldStart("traceEvents");
+            for (final Operation operation : operations) {
+                asyncEvent(json, "b", operation, operation.name, operation.beginNanos);
+                for (final Hop hop : operation.getHops()) {
+                    asyncEvent(json, "b", operation, "queue:" + hop.pool, hop.enqueueNanos);
+                    asyncEvent(json, "e", operation, "queue:" + hop.pool, hop.startNanos);
+
+                    json.writeStartObject();
+                    json.writeStringField("name", hop.pool);
+                    json.writeStringField("cat", hop.failed ? "run,failed" : "run");
+                    json.writeStringField("ph", "X");
+                    json.writeNumberField("ts", micros(hop.startNanos));
+                    json.writeNumberField("dur", (hop.endNanos - hop.startNanos) / 1000.0);
+                    json.writeNumberField("pid", 1);
+                    json.writeNumberField("tid", hop.thread.getId());
+                    json.writeObjectFieldStart("args");
+                    json.writeStringField("operation", operation.name);
+                    json.writeNumberField("id", operation.id);
+                    json.writeNumberField("queueWaitUs", hop.getQueueWait(TimeUnit.MICROSECONDS));
+                    json.writeEndObject();
+                    json.writeEndObject();
+                    threads.putIfAbsent(hop.thread.getId(), hop.thread.getName());
+                }
+                asyncEvent(json, "e", operation, operation.name, operation.endNanos);
+            }
+            for (final Map.Entry<Long, String> thread : threads.entrySet()) {
+                json.writeStartObject();
+                json.writeStringField("name", "thread_name");
+                json.writeStringField("ph", "M");
+                json.writeNumberField("pid", 1);
+                json.writeNumberField("tid", thread.getKey());
+                json.writeObjectFieldStart("args");
+                json.writeStringField("name", thread.getValue());
+                json.writeEndObject();
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    private static void asyncEvent(final JsonGenerator json, final String phase, final Operation operation,
+                                   final String name, final long nanos) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("name", name);
+        json.writeStringField("cat", "operation");
+        json.writeStringField("ph", phase);
+        json.writeNumberField("id", operation.id);
+        json.writeNumberField("ts", micros(nanos));
+        json.writeNumberField("pid", 1);
+        json.writeNumberField("tid", 0);
+        json.writeEndObject();
+    }
+
+    private static double micros(final long nanos) {
+        return (nanos - ORIGIN) / 1000.0;
+    }
+
+    private static void complete(final Operation operation) {
+        while (!COMPLETED.offer(operation)) {
+            COMPLETED.poll();
+        }
+    }
+
+    /**
+     * 추적 중인 논리적 작업 하나
+     */
+    public static final class Operation implements AutoCloseable {
+        private final long id;
+        private final String name;
+        private final boolean sampled;
+        private final long beginNanos;
+        private final Queue<Hop> hops = new ConcurrentLinkedQueue<>();
+        /** 실행 중인 Hop 수 */
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicBoolean ended = new AtomicBoolean();
+        private final AtomicBoolean published = new AtomicBoolean();
+        private volatile long endNanos;
+
+        private Operation(final long id, final String name, final boolean sampled) {
+            this.id = id;
+            this.name = name;
+            this.sampled = sampled;
+            this.beginNanos = System.nanoTime();
+        }
+
+        /**
+         * 현재 쓰레드에 이 작업을 적용. (이 상태로 wrap 한 Executor 에 넣은 명령이 기록된다)
+         *
+         * @return
+         */
+        public Context.Scope attach() {
+            if (!sampled) {
+                return () -> {};
+            }
+            return Context.current().with(OPERATION, this).attach();
+        }
+
+        public void run(final Runnable task) {
+            final Context.Scope scope = attach();
+            try {
+                task.run();
+            } finally {
+                scope.close();
+            }
+        }
+
+        public <T> T call(final Supplier<T> task) {
+            final Context.Scope scope = attach();
+            try {
+                return task.get();
+            } finally {
+                scope.close();
+            }
+        }
+
+        /**
+         * future 가 끝나면 작업 종료
+         *
+         * @param future
+         * @param <T>
+         * @return 넘겨받은 future
+         */
+        public <T> CompletableFuture<T> track(final CompletableFuture<T> future) {
+            if (sampled) {
+                future.whenComplete((r, e) -> end());
+            }
+            return future;
+        }
+
+        /**
+         * 작업 종료. 처음 한 번만 기록된다.
+         * 실행 중인 Hop 안에서 불리면 (Hop 의 명령이 future 를 완료시킨 경우) 그 Hop 이 끝난 뒤에 기록된다.
+         */
+        public void end() {
+            if (sampled && ended.compareAndSet(false, true) && running.get() == 0) {
+                publish();
+            }
+        }
+
+        private void publish() {
+            if (published.compareAndSet(false, true)) {
+                endNanos = System.nanoTime();
+                complete(this);
+            }
+        }
+
+        @Override
+        public void close() {
+            end();
+        }
+
+        public boolean isSampled() {
+            return sampled;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /** 끝나지 않았으면 -1 */
+        public long getDuration(final TimeUnit unit) {
+            final long end = endNanos;
+            return end == 0 ? -1 : unit.convert(end - beginNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /** 끝난 Hop (종료 순) */
+        public List<Hop> getHops() {
+            return new ArrayList<>(hops);
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder()
+                    .append(name).append('#').append(id)
+                    .append(' ').append(getDuration(TimeUnit.MICROSECONDS)).append("us");
+            for (final Hop hop : hops) {
+                sb.append(" -> ").append(hop);
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Executor 하나를 거친 기록
+     */
+    public static final class Hop {
+        private final String pool;
+        private final long enqueueNanos;
+        private long startNanos;
+        private long endNanos;
+        private Thread thread;
+        private boolean failed;
+
+        private Hop(final String pool, final long enqueueNanos) {
+            this.pool = pool;
+            this.enqueueNanos = enqueueNanos;
+        }
+
+        public String getPool() {
+            return pool;
+        }
+
+        public String getThreadName() {
+            return thread.getName();
+        }
+
+        public boolean isFailed() {
+            return failed;
+        }
+
+        /** 큐에 들어간 뒤 실행이 시작되기까지 걸린 시간 */
+        public long getQueueWait(final TimeUnit unit) {
+            return unit.convert(startNanos - enqueueNanos, TimeUnit.NANOSECONDS);
+        }
+
+        public long getRunTime(final TimeUnit unit) {
+            return unit.convert(endNanos - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s[wait=%dus, run=%dus @%s%s]", pool, getQueueWait(TimeUnit.MICROSECONDS),
+                    getRunTime(TimeUnit.MICROSECONDS), getThreadName(), failed ? ", failed" : "");
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : TimerWheel.java
+ * DESC : 단일 쓰레드 Hashed Wheel Timer (timeout 처리용)
+ *****************************************************************/
+package kr.co.ecoletree.common.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hashed Wheel Timer.
+ *
+ * 요청마다 ScheduledExecutorService 를 만들지 않고, 쓰레드 하나가 tick 단위로 bucket 을 돌며 만료된 작업을 실행한다.
+ * 등록/취소는 O(1) 이며, 정밀도는 tick 크기(기본 10ms)이다.
+ *
+ * 만료 작업은 timer 쓰레드에서 실행되므로 짧게 유지해야 한다. (무거운 작업은 다른 Executor 로 넘길 것)
+ */
+@Slf4j
+public final class TimerWheel {
+    private static final TimerWheel SHARED = new TimerWheel("timer", 10, TimeUnit.MILLISECONDS, 512);
+
+    private final String name;
+    private final long tickNanos;
+    private final ArrayDeque<Timeout>[] wheel;
+    private final int mask;
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final long startTime = System.nanoTime();
+    private long tick;
+
+    public TimerWheel(final String name, final long tickDuration, final TimeUnit unit, final int ticksPerWheel) {
+        this.name = name;
+        this.tickNanos = unit.toNanos(tickDuration);
+        final int size = Integer.highestOneBit(Math.max(ticksPerWheel, 2) - 1) << 1;
+        this.wheel = newBuckets(size);
+        this.mask = size - 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArrayDeque<Timeout>[] newBuckets(final int size) {
+        final ArrayDeque<Timeout>[] buckets = (ArrayDeque<Timeout>[]) new ArrayDeque<?>[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        return buckets;
+    }
+
+    /**
+     * 공용 Timer
+     *
+     * @return
+     */
+    public static TimerWheel shared() {
+        return SHARED;
+    }
+
+    /**
+     * 지연 작업 등록
+     *
+     * @param task 만료 시 timer 쓰레드에서 실행할 작업
+     * @param delay
+     * @param unit
+     * @return 취소용 핸들
+     */
+    public Timeout schedule(final Runnable task, final long delay, final TimeUnit unit) {
+        start();
+        final Timeout timeout = new Timeout(task, System.nanoTime() - startTime + unit.toNanos(delay));
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * 아직 wheel 로 옮겨지지 않은 등록 대기 작업 수 (모니터링용)
+     *
+     * @return
+     */
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    private void start() {
+        if (started.compareAndSet(false, true)) {
+            WorkerThreadFactory.daemon(name).newThread(this::run).start();
+        }
+    }
+
+    private void run() {
+        tick = (System.nanoTime() - startTime) / tickNanos;
+        while (!Thread.currentThread().isInterrupted()) {
+            waitForNextTick();
+            transferPending();
+            expire(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void waitForNextTick() {
+        final long deadline = tickNanos * (tick + 1);
+        long sleep;
+        while ((sleep = deadline - (System.nanoTime() - startTime)) > 0) {
+            LockSupport.parkNanos(this, sleep);
+        }
+    }
+
+    private void transferPending() {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            final long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            final long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void expire(final ArrayDeque<Timeout> bucket) {
+        final Iterator<Timeout> it = bucket.iterator();
+        while (it.hasNext()) {
+            final Timeout timeout = it.next();
+            if (timeout.isCancelled()) {
+                it.remove();
+            } else if (timeout.remainingRounds <= 0) {
+                it.remove();
+                timeout.expire();
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    /**
+     * 등록된 지연 작업 핸들
+     */
+    public static final class Timeout {
+        private static final int INIT = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(INIT);
+        private long remainingRounds;
+
+        Timeout(final Runnable task, final long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * 작업 취소. 이미 실행된 경우 false
+         *
+         * @return
+         */
+        public boolean cancel() {
+            return state.compareAndSet(INIT, CANCELLED);
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(INIT, EXPIRED)) {
+                return;
+            }
+            try {
+                task.run();
+            } catch (final Throwable t) {
+                log.warn("Timer task failed: {}", t.getMessage(), t);
+            }
+        }
+    }
+}
@@ -0,0 +1,286 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : WorkerPools.java
+ * DESC : CPU-bound 작업(work-stealing) / Blocking 작업(I/O) 쓰레드 풀 분리
+ *****************************************************************/
+package kr.co.ecoletree.common.concurrent;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import kr.co.ecoletree.common.exception.ETRuntimeException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * CPU-bound 작업과 Blocking 작업을 서로 다른 쓰레드 풀에서 실행하도록 분리한다.
+ *
+ * CPU 풀: 코어 수 만큼의 work-stealing {@link ForkJoinPool}. RecursiveTask, parallel stream 용.
+ * I/O 풀: Blocking 호출(HTTP, DB, sleep...) 용 고정 크기 풀.
+ *
+ * CPU 풀(또는 commonPool)에서 {@link #blocking(Callable)} 이 호출되면 경고 로그를 남기고
+ * {@link ForkJoinPool.ManagedBlocker} 로 감싸 풀이 보상 쓰레드를 띄우도록 한다.
+ */
+@Slf4j
+public final class WorkerPools {
+    public static final int CPU_PARALLELISM = Runtime.getRuntime().availableProcessors();
+    public static final int IO_POOL_SIZE = Math.max(16, CPU_PARALLELISM * 4);
+
+    public static final String CPU_POOL = "cpu";
+    public static final String IO_POOL = "io";
+    public static final String DIRECT = "direct";
+
+    private static final ForkJoinPool CPU = new ForkJoinPool(
+            CPU_PARALLELISM,
+            WorkerThreadFactory.daemon(CPU_POOL),
+            null,
+            false);
+
+    private static final ThreadPoolExecutor IO = new ThreadPoolExecutor(
+            IO_POOL_SIZE, IO_POOL_SIZE,
+            60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            WorkerThreadFactory.daemon(IO_POOL));
+
+    private static final AtomicLong BLOCKING_ON_CPU = new AtomicLong();
+    private static final Map<String, Boolean> WARNED_CALL_SITES = new ConcurrentHashMap<>();
+    private static final Map<String, Executor> NAMED = new ConcurrentHashMap<>();
+
+    static {
+        IO.allowCoreThreadTimeOut(true);
+        NAMED.put(CPU_POOL, CPU);
+        NAMED.put(IO_POOL, IO);
+        NAMED.put(DIRECT, Runnable::run);
+    }
+
+    private WorkerPools() {}
+
+    /**
+     * CPU-bound 작업용 work-stealing 풀
+     *
+     * @return
+     */
+    public static ForkJoinPool cpu() {
+        return CPU;
+    }
+
+    /**
+     * Blocking 작업용 풀
+     *
+     * @return
+     */
+    public static ExecutorService io() {
+        return IO;
+    }
+
+    /**
+     * 이름으로 Executor 등록. 같은 이름이 있으면 교체한다.
+     *
+     * @param name
+     * @param executor
+     */
+    public static void register(final String name, final Executor executor) {
+        NAMED.put(name, executor);
+    }
+
+    /**
+     * 이름으로 등록된 Executor 조회 ("cpu", "io", "direct" 기본 등록)
+     *
+     * @param name
+     * @return
+     */
+    public static Executor named(final String name) {
+        final Executor executor = NAMED.get(name);
+        if (executor == null) {
+            throw new ETRuntimeException(String.format("Executor not registered: %s", name));
+        }
+        return executor;
+    }
+
+    /**
+     * ForkJoinTask(RecursiveTask, RecursiveAction)를 CPU 풀에서 실행하고 결과를 기다린다.
+     * 이미 CPU 풀 쓰레드라면 현재 쓰레드에서 바로 fork/join 한다.
+     *
+     * @param task
+     * @param <T>
+     * @return
+     */
+    public static <T> T invoke(final ForkJoinTask<T> task) {
+        return isCpuThread() ? task.invoke() : CPU.invoke(task);
+    }
+
+    /**
+     * parallel stream 등 내부적으로 fork/join 을 사용하는 연산을 CPU 풀에서 실행한다.
+     * ForkJoinPool 내부에서 시작된 parallel stream 은 commonPool 대신 해당 풀을 사용한다.
+     *
+     * @param computation
+     * @param <T>
+     * @return
+     */
+    public static <T> T parallel(final Supplier<T> computation) {
+        if (isCpuThread()) {
+            return computation.get();
+        }
+        return CPU.submit(computation::get).join();
+    }
+
+    /**
+     * CPU-bound 작업을 CPU 풀에서 비동기 실행
+     *
+     * @param computation
+     * @param <T>
+     * @return
+     */
+    public static <T> CompletableFuture<T> supplyCpu(final Supplier<T> computation) {
+        return CompletableFuture.supplyAsync(computation, CPU);
+    }
+
+    /**
+     * Blocking 작업을 I/O 풀에서 비동기 실행
+     *
+     * @param callable
+     * @param <T>
+     * @return
+     */
+    public static <T> CompletableFuture<T> supplyIo(final Callable<T> callable) {
+        return CompletableFuture.supplyAsync(() -> call(callable), IO);
+    }
+
+    /**
+     * Blocking 호출 실행.
+     *
+     * ForkJoinPool(CPU 풀, commonPool) 쓰레드에서 호출된 경우 호출 위치 별로 한 번 경고 로그를 남기고,
+     * {@link ForkJoinPool#managedBlock(ForkJoinPool.ManagedBlocker)} 으로 실행하여
+     * Blocking 되는 동안 풀의 병렬성이 유지되도록 한다.
+     *
+     * @param callable Blocking 작업
+     * @param <T>
+     * @return
+     */
+    public static <T> T blocking(final Callable<T> callable) {
+        final Thread current = Thread.currentThread();
+        if (!(current instanceof ForkJoinWorkerThread)) {
+            return call(callable);
+        }
+
+        BLOCKING_ON_CPU.incrementAndGet();
+        warnBlockingCall((ForkJoinWorkerThread) current);
+
+        final CallableBlocker<T> blocker = new CallableBlocker<>(callable);
+        try {
+            ForkJoinPool.managedBlock(blocker);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ETRuntimeException(e);
+        }
+        return blocker.getResult();
+    }
+
+    /**
+     * Blocking 호출 실행 (반환값 없음)
+     *
+     * @param runnable
+     */
+    public static void blocking(final Runnable runnable) {
+        blocking(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * 현재 쓰레드가 CPU 풀의 워커인지 확인
+     *
+     * @return
+     */
+    public static boolean isCpuThread() {
+        final Thread current = Thread.currentThread();
+        return current instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread) current).getPool() == CPU;
+    }
+
+    /**
+     * ForkJoinPool 쓰레드에서 실행된 Blocking 호출 횟수
+     *
+     * @return
+     */
+    public static long getBlockingCallsOnCpu() {
+        return BLOCKING_ON_CPU.get();
+    }
+
+    private static void warnBlockingCall(final ForkJoinWorkerThread worker) {
+        final String callSite = Arrays.stream(new Throwable().getStackTrace())
+                .filter(e -> !WorkerPools.class.getName().equals(e.getClassName()))
+                .findFirst()
+                .map(StackTraceElement::toString)
+                .orElse("unknown");
+        if (WARNED_CALL_SITES.putIfAbsent(callSite, Boolean.TRUE) == null) {
+            final String pool = worker.getPool() == ForkJoinPool.commonPool() ? "commonPool" : worker.getName();
+            log.warn("Blocking call on ForkJoinPool thread({}) at {}. Use WorkerPools.io() for blocking work.", pool, callSite);
+        }
+    }
+
+    private static <T> T call(final Callable<T> callable) {
+        try {
+            return callable.call();
+        } catch (final RuntimeException e) {
+            throw e;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ETRuntimeException(e);
+        } catch (final Exception e) {
+            throw new ETRuntimeException(e);
+        }
+    }
+
+    /**
+     * Callable 을 ManagedBlocker 로 감싸는 클래스
+     */
+    private static class CallableBlocker<T> implements ForkJoinPool.ManagedBlocker {
+        private final Callable<T> callable;
+        private T result;
+        private RuntimeException error;
+        private boolean done;
+
+        CallableBlocker(final Callable<T> callable) {
+            this.callable = callable;
+        }
+
+        @Override
+        public boolean block() {
+            try {
+                result = call(callable);
+            } catch (final RuntimeException e) {
+                error = e;
+            }
+            done = true;
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return done;
+        }
+
+        T getResult() {
+            if (error != null) {
+                throw error;
+            }
+            return result;
+        }
+    }
+}
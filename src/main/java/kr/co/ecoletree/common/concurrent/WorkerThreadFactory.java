@@ -0,0 +1,228 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : WorkerThreadFactory.java
+ * DESC : 쓰레드 풀 공통 ThreadFactory (이름, daemon, 우선순위, stack 크기, 예외 카운트, CPU affinity)
+ *****************************************************************/
+package kr.co.ecoletree.common.concurrent;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import kr.co.ecoletree.common.exception.ETRuntimeException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 모든 쓰레드 풀이 사용하는 ThreadFactory.
+ *
+ * - 쓰레드 이름: Ecoletree-{pool}-{번호}
+ * - daemon 여부, 우선순위, stack 크기 (0 이면 JVM 기본값)
+ * - 처리되지 않은 예외는 로그를 남기고 풀 별로 센다. ({@link #uncaughtExceptions()})
+ * - affinity 를 지정하면 쓰레드가 시작할 때 {@link CpuAffinity} 로 해당 CPU 에 고정한다. (Linux 전용, 그 외에는 무시)
+ *
+ * {@link ForkJoinPool.ForkJoinWorkerThreadFactory} 도 구현하므로 ForkJoinPool 에도 그대로 넘길 수 있다.
+ * ForkJoinPool 을 만들 때 UncaughtExceptionHandler 인자는 null 로 넘겨야 이 팩토리의 핸들러가 유지된다.
+ * (ForkJoinWorkerThread 는 stack 크기를 지정할 수 없으므로 stackSize 는 무시된다)
+ */
+@Slf4j
+public final class WorkerThreadFactory implements ThreadFactory, ForkJoinPool.ForkJoinWorkerThreadFactory {
+    public static final String PREFIX = "Ecoletree-";
+
+    private static final Map<String, AtomicLong> UNCAUGHT = new ConcurrentHashMap<>();
+
+    private final String pool;
+    private final boolean daemon;
+    private final int priority;
+    private final long stackSize;
+    private final int[] cpus;
+    private final Thread.UncaughtExceptionHandler delegate;
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final AtomicLong uncaught;
+    private final Thread.UncaughtExceptionHandler handler = this::uncaughtException;
+
+    private WorkerThreadFactory(final Builder builder) {
+        this.pool = builder.pool;
+        this.daemon = builder.daemon;
+        this.priority = builder.priority;
+        this.stackSize = builder.stackSize;
+        this.cpus = builder.cpus;
+        this.delegate = builder.delegate;
+        this.uncaught = UNCAUGHT.computeIfAbsent(pool, k -> new AtomicLong());
+    }
+
+    public static Builder builder(final String pool) {
+        return new Builder(pool);
+    }
+
+    /**
+     * 기본 설정(daemon)의 팩토리
+     *
+     * @param pool 풀 이름
+     * @return
+     */
+    public static WorkerThreadFactory daemon(final String pool) {
+        return builder(pool).daemon(true).build();
+    }
+
+    /**
+     * 풀 별 처리되지 않은 예외 수 (이름 순)
+     *
+     * @return
+     */
+    public static Map<String, Long> uncaughtExceptions() {
+        final Map<String, Long> counts = new TreeMap<>();
+        UNCAUGHT.forEach((pool, count) -> counts.put(pool, count.get()));
+        return Collections.unmodifiableMap(counts);
+    }
+
+    @Override
+    public Thread newThread(final Runnable r) {
+        final Runnable task = cpus.length == 0 ? r : () -> {
+            CpuAffinity.pinCurrentThread(cpus);
+            r.run();
+        };
+        return configure(new Thread(null, task, nextName(), stackSize));
+    }
+
+    @Override
+    public ForkJoinWorkerThread newThread(final ForkJoinPool forkJoinPool) {
+        final ForkJoinWorkerThread t = new Worker(forkJoinPool, cpus);
+        t.setName(nextName());
+        return configure(t);
+    }
+
+    public String getPool() {
+        return pool;
+    }
+
+    /** 지금까지 만든 쓰레드 수 */
+    public int getCreatedThreads() {
+        return sequence.get();
+    }
+
+    /** 이 풀에서 처리되지 않은 예외 수 */
+    public long getUncaughtExceptions() {
+        return uncaught.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("WorkerThreadFactory(%s, daemon=%s, priority=%d, stackSize=%d, cpus=%s, created=%d, uncaught=%d)",
+                pool, daemon, priority, stackSize, Arrays.toString(cpus), getCreatedThreads(), getUncaughtExceptions());
+    }
+
+    private String nextName() {
+        return PREFIX + pool + "-" + sequence.incrementAndGet();
+    }
+
+    private <T extends Thread> T configure(final T t) {
+        t.setDaemon(daemon);
+        t.setPriority(priority);
+        t.setUncaughtExceptionHandler(handler);
+        return t;
+    }
+
+    private void uncaughtException(final Thread t, final Throwable e) {
+        uncaught.incrementAndGet();
+        if (delegate != null) {
+            delegate.uncaughtException(t, e);
+        } else {
+            log.error("Uncaught exception in {}: {}", t.getName(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * affinity 적용을 위한 ForkJoinWorkerThread
+     */
+    private static final class Worker extends ForkJoinWorkerThread {
+        private final int[] cpus;
+
+        Worker(final ForkJoinPool pool, final int[] cpus) {
+            super(pool);
+            this.cpus = cpus;
+        }
+
+        @Override
+        protected void onStart() {
+            super.onStart();
+            if (cpus.length > 0) {
+                CpuAffinity.pinCurrentThread(cpus);
+            }
+        }
+    }
+
+    public static final class Builder {
+        private final String pool;
+        private boolean daemon;
+        private int priority = Thread.NORM_PRIORITY;
+        private long stackSize;
+        private int[] cpus = new int[0];
+        private Thread.UncaughtExceptionHandler delegate;
+
+        private Builder(final String pool) {
+            if (pool == null || pool.isEmpty()) {
+                throw new ETRuntimeException("pool name is required");
+            }
+            this.pool = pool;
+        }
+
+        public Builder daemon(final boolean daemon) {
+            this.daemon = daemon;
+            return this;
+        }
+
+        public Builder priority(final int priority) {
+            if (priority < Thread.MIN_PRIORITY || priority > Thread.MAX_PRIORITY) {
+                throw new ETRuntimeException(String.format("invalid priority: %d", priority));
+            }
+            this.priority = priority;
+            return this;
+        }
+
+        /**
+         * @param stackSize byte 단위. 0 이면 JVM 기본값 (-Xss)
+         * @return
+         */
+        public Builder stackSize(final long stackSize) {
+            if (stackSize < 0) {
+                throw new ETRuntimeException(String.format("invalid stack size: %d", stackSize));
+            }
+            this.stackSize = stackSize;
+            return this;
+        }
+
+        /**
+         * @param cpus 쓰레드를 고정할 CPU 번호들 (Linux 전용)
+         * @return
+         */
+        public Builder affinity(final int... cpus) {
+            this.cpus = cpus.clone();
+            return this;
+        }
+
+        /**
+         * 처리되지 않은 예외를 받을 핸들러 (지정하지 않으면 error 로그). 카운트는 항상 한다.
+         *
+         * @param handler
+         * @return
+         */
+        public Builder uncaughtExceptionHandler(final Thread.UncaughtExceptionHandler handler) {
+            this.delegate = handler;
+            return this;
+        }
+
+        public WorkerThreadFactory build() {
+            return new WorkerThreadFactory(this);
+        }
+    }
+}
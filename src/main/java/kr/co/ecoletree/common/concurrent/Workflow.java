@@ -0,0 +1,248 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : Workflow.java
+ * DESC : 의존 관계(DAG)로 구성하는 비동기 작업 흐름 (콜백 중첩 대체)
+ *****************************************************************/
+package kr.co.ecoletree.common.concurrent;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import kr.co.ecoletree.common.exception.ETRuntimeException;
+
+/**
+ * 비동기 작업(step)들을 의존 관계로 연결하여 실행한다.
+ *
+ * - 의존하는 step 이 모두 끝나면 바로 시작하므로, 서로 독립적인 step 들은 동시에 실행된다. (전체 시간 = critical path)
+ * - 하나라도 실패하면 전체가 즉시 실패하고, 실행중인 나머지 step 들은 취소된다.
+ * - step 별 timeout, 전체 timeout 지정 가능.
+ *
+ * 의존하는 step 은 먼저 등록되어 있어야 한다. (등록 순서가 곧 위상 정렬이므로 순환이 생기지 않는다)
+ *
+ * <pre>
+ * Workflow.create()
+ *         .step("user", r -> findUser(id))
+ *         .step("orders", Workflow.after("user"), r -> findOrders(r.get("user")))
+ *         .step("profile", Workflow.after("user"), r -> findProfile(r.get("user")))
+ *         .step("page", Workflow.after("orders", "profile"), r -> render(r.get("orders"), r.get("profile")))
+ *         .timeout(Duration.ofSeconds(3))
+ *         .run();
+ * </pre>
+ */
+public final class Workflow {
+    private final Map<String, Step> steps = new LinkedHashMap<>();
+    private Duration timeout;
+
+    private Workflow() {}
+
+    /**
+     * Workflow 생성
+     *
+     * @return
+     */
+    public static Workflow create() {
+        return new Workflow();
+    }
+
+    /**
+     * 의존 step 이름 목록
+     *
+     * @param names
+     * @return
+     */
+    public static List<String> after(final String... names) {
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    /**
+     * 의존 관계가 없는 step 등록
+     *
+     * @param name
+     * @param fn 앞선 step 결과 -> 비동기 작업
+     * @return
+     */
+    public Workflow step(final String name, final Function<Results, ? extends CompletionStage<?>> fn) {
+        return step(name, Collections.emptyList(), fn, null);
+    }
+
+    /**
+     * step 등록
+     *
+     * @param name
+     * @param dependsOn 먼저 끝나야 하는 step 이름들
+     * @param fn 앞선 step 결과 -> 비동기 작업
+     * @return
+     */
+    public Workflow step(final String name, final Collection<String> dependsOn, final Function<Results, ? extends CompletionStage<?>> fn) {
+        return step(name, dependsOn, fn, null);
+    }
+
+    /**
+     * step 등록 (step timeout 지정)
+     *
+     * @param name
+     * @param dependsOn 먼저 끝나야 하는 step 이름들
+     * @param fn 앞선 step 결과 -> 비동기 작업
+     * @param timeout 의존 step 이 끝난 후 부터의 제한 시간
+     * @return
+     */
+    public Workflow step(final String name, final Collection<String> dependsOn,
+                         final Function<Results, ? extends CompletionStage<?>> fn, final Duration timeout) {
+        if (steps.containsKey(name)) {
+            throw new ETRuntimeException(String.format("Duplicated step: %s", name));
+        }
+        for (final String dependency : dependsOn) {
+            if (!steps.containsKey(dependency)) {
+                throw new ETRuntimeException(String.format("Step '%s' depends on unknown step '%s'", name, dependency));
+            }
+        }
+        steps.put(name, new Step(name, dependsOn, fn, timeout));
+        return this;
+    }
+
+    /**
+     * 전체 제한 시간
+     *
+     * @param timeout
+     * @return
+     */
+    public Workflow timeout(final Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * Workflow 실행
+     *
+     * @return 모든 step 결과
+     */
+    public CompletableFuture<Results> run() {
+        final Results results = new Results();
+        final Map<String, CompletableFuture<Object>> futures = new LinkedHashMap<>();
+        final Map<String, CompletableFuture<?>> inflight = new ConcurrentHashMap<>();
+        final AtomicBoolean failed = new AtomicBoolean();
+
+        for (final Step step : steps.values()) {
+            final CompletableFuture<?>[] dependencies = step.dependsOn.stream()
+                    .map(futures::get)
+                    .toArray(CompletableFuture[]::new);
+            final CompletableFuture<Void> ready = dependencies.length == 0
+                    ? CompletableFuture.completedFuture(null)
+                    : CompletableFuture.allOf(dependencies);
+
+            final CompletableFuture<Object> future = ready.thenCompose(v -> {
+                if (failed.get()) {
+                    final CompletableFuture<Object> skipped = new CompletableFuture<>();
+                    skipped.cancel(false);
+                    return skipped;
+                }
+                final CompletableFuture<Object> stage = step.start(results);
+                inflight.put(step.name, stage);
+                // 등록 직전에 실패 처리가 inflight 를 이미 훑고 지나갔을 수 있다
+                if (failed.get()) {
+                    stage.cancel(true);
+                }
+                return step.timeout == null ? stage : Futures.withTimeout(stage, step.timeout);
+            }).thenApply(value -> {
+                results.put(step.name, value);
+                return value;
+            });
+            futures.put(step.name, future);
+        }
+
+        final CompletableFuture<Results> all = CompletableFuture
+                .allOf(futures.values().toArray(new CompletableFuture<?>[0]))
+                .thenApply(v -> results);
+
+        // fail-fast: 첫 번째 실패로 전체 완료, 나머지 step 취소
+        futures.forEach((name, future) -> future.whenComplete((r, t) -> {
+            if (t != null) {
+                all.completeExceptionally(new ETRuntimeException(String.format("Step '%s' failed", name), Futures.unwrap(t)));
+            }
+        }));
+        all.whenComplete((r, t) -> {
+            if (t != null) {
+                failed.set(true);
+                inflight.values().forEach(stage -> stage.cancel(true));
+                futures.values().forEach(future -> future.cancel(true));
+            }
+        });
+        return timeout == null ? all : Futures.withTimeout(all, timeout);
+    }
+
+    /**
+     * 완료된 step 결과 저장소
+     */
+    public static final class Results {
+        private final Map<String, Optional<Object>> values = new ConcurrentHashMap<>();
+
+        private void put(final String name, final Object value) {
+            values.put(name, Optional.ofNullable(value));
+        }
+
+        /**
+         * step 결과 조회. 의존 관계로 선언한 step 의 결과만 조회를 보장한다.
+         *
+         * @param name
+         * @param <V>
+         * @return
+         */
+        @SuppressWarnings("unchecked")
+        public <V> V get(final String name) {
+            final Optional<Object> value = values.get(name);
+            if (value == null) {
+                throw new ETRuntimeException(String.format("Step '%s' is not completed", name));
+            }
+            return (V) value.orElse(null);
+        }
+
+        public boolean contains(final String name) {
+            return values.containsKey(name);
+        }
+
+        @Override
+        public String toString() {
+            return values.toString();
+        }
+    }
+
+    private static final class Step {
+        private final String name;
+        private final Collection<String> dependsOn;
+        private final Function<Results, ? extends CompletionStage<?>> fn;
+        private final Duration timeout;
+
+        Step(final String name, final Collection<String> dependsOn,
+             final Function<Results, ? extends CompletionStage<?>> fn, final Duration timeout) {
+            this.name = name;
+            this.dependsOn = dependsOn;
+            this.fn = fn;
+            this.timeout = timeout;
+        }
+
+        @SuppressWarnings("unchecked")
+        CompletableFuture<Object> start(final Results results) {
+            try {
+                return (CompletableFuture<Object>) fn.apply(results).toCompletableFuture();
+            } catch (final Throwable t) {
+                final CompletableFuture<Object> failed = new CompletableFuture<>();
+                failed.completeExceptionally(t);
+                return failed;
+            }
+        }
+    }
+}
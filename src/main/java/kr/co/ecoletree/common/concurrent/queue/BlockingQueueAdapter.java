@@ -0,0 +1,276 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : BlockingQueueAdapter.java
+ * DESC : MessageQueue 를 BlockingQueue 로 사용 (ThreadPoolExecutor 작업 큐 교체용)
+ *****************************************************************/
+package kr.co.ecoletree.common.concurrent.queue;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Lock-free 큐에 대기 방식(WaitStrategy)을 붙여 BlockingQueue 로 만든다.
+ *
+ * put/take 가 Condition 신호 대신 WaitStrategy 로 기다리므로 Lock 이 없다.
+ * 대신 park 를 쓰는 경우 최대 park 시간만큼 꺼내기가 늦어질 수 있다.
+ *
+ * ThreadPoolExecutor 에 사용할 때는 작업 쓰레드가 여러 개이므로 {@link MessageQueue#mpmc(int)} 를 사용한다.
+ * 작업 쓰레드가 하나면 {@link MessageQueue#mpsc(int)} 도 가능하다.
+ *
+ * iterator() 는 {@link MessageQueue#forEach(Consumer)} 로 만든 snapshot 을 순회한다. (weakly consistent)
+ * 배열 큐 중간의 요소는 꺼낼 수 없으므로 remove(Object) / Iterator.remove() 는 요소에 "제거됨" 표시만 하고,
+ * 꺼내는 쪽(poll, take, drainTo)이 표시된 요소를 건너뛴다.
+ * 표시한 뒤에도 큐에 남아 있는 것을 확인하고 true 를 리턴하므로, true 면 그 요소는 꺼내지지 않는다.
+ * (ThreadPoolExecutor 의 remove(Runnable), purge(), shutdownNow() 가 사용한다)
+ *
+ * @param <E>
+ */
+public class BlockingQueueAdapter<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+    private final MessageQueue<E> queue;
+    private final WaitStrategy waitStrategy;
+    /** 제거 표시된 요소 -> 표시 개수 (비어 있으면 꺼내기 경로는 map 을 조회하지 않는다) */
+    private final Map<Object, Integer> removed = new ConcurrentHashMap<>();
+    private final AtomicInteger removedCount = new AtomicInteger();
+
+    public BlockingQueueAdapter(final MessageQueue<E> queue, final WaitStrategy waitStrategy) {
+        this.queue = queue;
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * MPMC 큐 + backoff 대기
+     *
+     * @param capacity
+     * @param <E>
+     * @return
+     */
+    public static <E> BlockingQueueAdapter<E> mpmc(final int capacity) {
+        return new BlockingQueueAdapter<>(MessageQueue.mpmc(capacity), WaitStrategy.backoff());
+    }
+
+    @Override
+    public boolean offer(final E e) {
+        return queue.offer(e);
+    }
+
+    @Override
+    public E poll() {
+        E e;
+        while ((e = queue.poll()) != null && isRemoved(e)) {
+            // 제거 표시된 요소는 버리고 다음 요소
+        }
+        return e;
+    }
+
+    /**
+     * 다음 요소 확인. 제거 표시만 되고 아직 버려지지 않은 요소를 리턴할 수 있다.
+     *
+     * @return
+     */
+    @Override
+    public E peek() {
+        return queue.peek();
+    }
+
+    @Override
+    public void put(final E e) throws InterruptedException {
+        for (int idle = 0; !queue.offer(e); idle++) {
+            checkInterrupted();
+            waitStrategy.idle(idle);
+        }
+    }
+
+    @Override
+    public boolean offer(final E e, final long timeout, final TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (int idle = 0; !queue.offer(e); idle++) {
+            checkInterrupted();
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            waitStrategy.idle(idle);
+        }
+        return true;
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        E e;
+        for (int idle = 0; (e = poll()) == null; idle++) {
+            checkInterrupted();
+            waitStrategy.idle(idle);
+        }
+        return e;
+    }
+
+    @Override
+    public E poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        E e;
+        for (int idle = 0; (e = poll()) == null; idle++) {
+            checkInterrupted();
+            if (System.nanoTime() - deadline >= 0) {
+                return null;
+            }
+            waitStrategy.idle(idle);
+        }
+        return e;
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return queue.capacity() - queue.size();
+    }
+
+    @Override
+    public int drainTo(final Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(final Collection<? super E> c, final int maxElements) {
+        if (c == this) throw new IllegalArgumentException();
+        if (removedCount.get() == 0) {
+            return queue.drain(c::add, maxElements);
+        }
+        int count = 0;
+        E e;
+        while (count < maxElements && (e = poll()) != null) {
+            c.add(e);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 요소 수 (제거 표시된 요소 제외, 동시 변경 중에는 근사치)
+     *
+     * @return
+     */
+    @Override
+    public int size() {
+        return Math.max(0, queue.size() - removedCount.get());
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * 요소 하나에 제거 표시. 표시 후에도 큐에 남아 있으면 true (이후 꺼내는 쪽이 건너뛴다)
+     *
+     * @param o
+     * @return
+     */
+    @Override
+    public boolean remove(final Object o) {
+        if (o == null || occurrences(o) <= removed.getOrDefault(o, 0)) {
+            return false;
+        }
+        final int marked = removed.merge(o, 1, Integer::sum);
+        removedCount.incrementAndGet();
+        // 표시한 뒤에 아직 큐에 있으면, 그 요소를 꺼내는 쪽은 반드시 표시를 본다
+        if (occurrences(o) >= marked) {
+            return true;
+        }
+        // 그 사이에 꺼내졌다: 표시를 되돌린다. 이미 꺼내는 쪽이 표시를 가져갔으면 제거된 것이다
+        return !unmark(o);
+    }
+
+    /**
+     * 현재 요소들의 snapshot 을 순회한다. Iterator.remove() 는 {@link #remove(Object)} 와 같다.
+     *
+     * @return
+     */
+    @Override
+    public Iterator<E> iterator() {
+        final List<E> snapshot = new ArrayList<>();
+        if (removedCount.get() == 0) {
+            queue.forEach(snapshot::add);
+        } else {
+            final Map<Object, Integer> skip = new HashMap<>(removed);
+            queue.forEach(e -> {
+                final Integer n = skip.get(e);
+                if (n == null) {
+                    snapshot.add(e);
+                } else if (n == 1) {
+                    skip.remove(e);
+                } else {
+                    skip.put(e, n - 1);
+                }
+            });
+        }
+        return new Iterator<E>() {
+            private final Iterator<E> it = snapshot.iterator();
+            private E last;
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public E next() {
+                return last = it.next();
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                BlockingQueueAdapter.this.remove(last);
+                last = null;
+            }
+        };
+    }
+
+    /**
+     * 꺼낸 요소가 제거 표시된 요소면 표시를 하나 가져가고 true
+     */
+    private boolean isRemoved(final E e) {
+        return removedCount.get() != 0 && unmark(e);
+    }
+
+    private boolean unmark(final Object o) {
+        final boolean[] unmarked = new boolean[1];
+        removed.computeIfPresent(o, (key, n) -> {
+            unmarked[0] = true;
+            return n == 1 ? null : n - 1;
+        });
+        if (unmarked[0]) {
+            removedCount.decrementAndGet();
+        }
+        return unmarked[0];
+    }
+
+    private int occurrences(final Object o) {
+        final int[] count = new int[1];
+        queue.forEach(e -> {
+            if (o.equals(e)) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    private static void checkInterrupted() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : MessageQueue.java
+ * DESC : 배열 기반 Lock-free 유한 큐 인터페이스 (SPSC / MPSC / MPMC)
+ *****************************************************************/
+package kr.co.ecoletree.common.concurrent.queue;
+
+import java.util.function.Consumer;
+
+/**
+ * 배열 기반 유한(bounded) Lock-free 큐.
+ *
+ * LinkedBlockingQueue 와 달리 요소마다 노드를 만들지 않고, put/take 마다 Lock 을 잡지 않는다.
+ * 가득 차거나 비어 있을 때 기다리지 않고 바로 false/null 을 리턴하므로,
+ * 기다려야 하는 경우에는 {@link WaitStrategy} 와 함께 {@link BlockingQueueAdapter} 로 감싸서 사용한다.
+ *
+ * 생산자/소비자 수에 맞는 구현을 선택한다. 제약을 어기면(예: SPSC 에 생산자 둘) 요소가 유실될 수 있다.
+ * - {@link #spsc(int)}: 생산자 1, 소비자 1
+ * - {@link #mpsc(int)}: 생산자 N, 소비자 1 (단일 쓰레드 Executor, Event Loop)
+ * - {@link #mpmc(int)}: 생산자 N, 소비자 N (ThreadPoolExecutor 작업 큐)
+ *
+ * @param <E>
+ */
+public interface MessageQueue<E> {
+
+    /**
+     * 추가. 가득 차 있으면 false
+     *
+     * @param e null 불가
+     * @return
+     */
+    boolean offer(E e);
+
+    /**
+     * 꺼내기. 비어 있으면 null
+     *
+     * @return
+     */
+    E poll();
+
+    /**
+     * 다음 요소 확인 (꺼내지 않음). 비어 있으면 null
+     *
+     * @return
+     */
+    E peek();
+
+    /**
+     * 최대 limit 개를 한 번에 꺼내서 consumer 로 전달한다.
+     * 구현에 따라 소비 위치(index) 갱신을 한 번으로 묶어 poll() 반복보다 싸다.
+     *
+     * @param consumer
+     * @param limit
+     * @return 꺼낸 개수
+     */
+    default int drain(final Consumer<? super E> consumer, final int limit) {
+        int count = 0;
+        E e;
+        while (count < limit && (e = poll()) != null) {
+            consumer.accept(e);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 꺼내지 않고 현재 요소들을 순서대로 전달한다.
+     * weakly consistent: 순회하는 동안 추가/제거된 요소는 포함될 수도, 빠질 수도 있다.
+     *
+     * @param action
+     */
+    void forEach(Consumer<? super E> action);
+
+    /**
+     * 현재 요소 수 (동시 변경 중에는 근사치)
+     *
+     * @return
+     */
+    int size();
+
+    int capacity();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * 생산자 1, 소비자 1
+     *
+     * @param capacity 2의 거듭제곱으로 올림
+     * @param <E>
+     * @return
+     */
+    static <E> MessageQueue<E> spsc(final int capacity) {
+        return new SpscArrayQueue<>(capacity);
+    }
+
+    /**
+     * 생산자 N, 소비자 1
+     *
+     * @param capacity 2의 거듭제곱으로 올림
+     * @param <E>
+     * @return
+     */
+    static <E> MessageQueue<E> mpsc(final int capacity) {
+        return new MpscArrayQueue<>(capacity);
+    }
+
+    /**
+     * 생산자 N, 소비자 N
+     *
+     * @param capacity 2의 거듭제곱으로 올림
+     * @param <E>
+     * @return
+     */
+    static <E> MessageQueue<E> mpmc(final int capacity) {
+        return new MpmcArrayQueue<>(capacity);
+    }
+}
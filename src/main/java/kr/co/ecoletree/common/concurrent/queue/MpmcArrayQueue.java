@@ -0,0 +1,127 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : MpmcArrayQueue.java
+ * DESC : 다중 생산자 / 다중 소비자 배열 큐 (slot 별 sequence 사용)
+ *****************************************************************/
+package kr.co.ecoletree.common.concurrent.queue;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * 생산자 N, 소비자 N 큐. (Dmitry Vyukov 의 bounded MPMC queue)
+ *
+ * slot 마다 sequence 를 두고, 생산자는 sequence == index 인 slot 을, 소비자는 sequence == index + 1 인 slot 을
+ * CAS 로 예약한다. 요소를 쓰거나 꺼낸 뒤 sequence 를 lazySet 하여 상대편에 넘긴다.
+ *
+ * @param <E>
+ */
+final class MpmcArrayQueue<E> implements MessageQueue<E> {
+    private final Object[] buffer;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final Sequence producer = new Sequence();
+    private final Sequence consumer = new Sequence();
+
+    MpmcArrayQueue(final int capacity) {
+        final int size = Sequence.roundToPowerOfTwo(capacity);
+        this.buffer = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.lazySet(i, i);
+        }
+    }
+
+    @Override
+    public boolean offer(final E e) {
+        if (e == null) throw new NullPointerException();
+        for (;;) {
+            final long p = producer.get();
+            final int index = (int) p & mask;
+            final long diff = sequences.get(index) - p;
+            if (diff == 0) {
+                if (producer.compareAndSet(p, p + 1)) {
+                    buffer[index] = e;
+                    sequences.lazySet(index, p + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                // 한 바퀴 전 요소를 아직 소비하지 않음 = 가득 참
+                return false;
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        for (;;) {
+            final long c = consumer.get();
+            final int index = (int) c & mask;
+            final long diff = sequences.get(index) - (c + 1);
+            if (diff == 0) {
+                if (consumer.compareAndSet(c, c + 1)) {
+                    final E e = (E) buffer[index];
+                    buffer[index] = null;
+                    sequences.lazySet(index, c + buffer.length);
+                    return e;
+                }
+            } else if (diff < 0) {
+                // 아직 채워지지 않음 = 비어 있음
+                return null;
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        for (;;) {
+            final long c = consumer.get();
+            final int index = (int) c & mask;
+            final long diff = sequences.get(index) - (c + 1);
+            if (diff < 0) {
+                return null;
+            }
+            final E e = (E) buffer[index];
+            if (diff == 0 && consumer.get() == c && e != null) {
+                return e;
+            }
+        }
+    }
+
+    /**
+     * sequence 가 "채워짐" 인 slot 만 전달한다. 요소를 읽은 뒤 sequence 가 그대로면 그 사이에 꺼내지지 않았다.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(final Consumer<? super E> action) {
+        final long p = producer.get();
+        for (long s = consumer.get(); s < p; s++) {
+            final int index = (int) s & mask;
+            if (sequences.get(index) != s + 1) {
+                continue;
+            }
+            final E e = (E) buffer[index];
+            if (e != null && sequences.get(index) == s + 1) {
+                action.accept(e);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        final long c = consumer.get();
+        final long p = producer.get();
+        return (int) Math.max(0, Math.min(p - c, buffer.length));
+    }
+
+    @Override
+    public int capacity() {
+        return buffer.length;
+    }
+}
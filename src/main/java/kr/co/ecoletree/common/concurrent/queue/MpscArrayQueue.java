@@ -0,0 +1,130 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : MpscArrayQueue.java
+ * DESC : 다중 생산자 / 단일 소비자 배열 큐
+ *****************************************************************/
+package kr.co.ecoletree.common.concurrent.queue;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * 생산자 N, 소비자 1 전용 큐.
+ *
+ * 생산자는 CAS 로 자리(index)를 예약한 뒤 그 자리에 요소를 lazySet 한다.
+ * 소비자는 자리가 채워졌는지(null 여부)로 판단하므로, 예약만 되고 아직 안 채워진 자리는 채워질 때까지 기다린다.
+ *
+ * @param <E>
+ */
+final class MpscArrayQueue<E> implements MessageQueue<E> {
+    private final AtomicReferenceArray<E> buffer;
+    private final int mask;
+    private final Sequence producer = new Sequence();
+    private final Sequence consumer = new Sequence();
+
+    MpscArrayQueue(final int capacity) {
+        final int size = Sequence.roundToPowerOfTwo(capacity);
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    @Override
+    public boolean offer(final E e) {
+        if (e == null) throw new NullPointerException();
+        final int capacity = buffer.length();
+        for (;;) {
+            final long p = producer.get();
+            if (p - consumer.get() >= capacity) {
+                return false;
+            }
+            if (producer.compareAndSet(p, p + 1)) {
+                buffer.lazySet((int) p & mask, e);
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public E poll() {
+        final long c = consumer.get();
+        final int index = (int) c & mask;
+        E e = buffer.get(index);
+        if (e == null) {
+            if (c == producer.get()) {
+                return null;
+            }
+            // 자리는 예약됐지만 생산자가 아직 값을 쓰지 않음
+            do {
+                e = buffer.get(index);
+            } while (e == null);
+        }
+        buffer.lazySet(index, null);
+        consumer.lazySet(c + 1);
+        return e;
+    }
+
+    @Override
+    public E peek() {
+        final long c = consumer.get();
+        final int index = (int) c & mask;
+        E e = buffer.get(index);
+        if (e == null && c != producer.get()) {
+            do {
+                e = buffer.get(index);
+            } while (e == null);
+        }
+        return e;
+    }
+
+    /**
+     * 채워진 자리까지 연속해서 꺼내고 소비자 index 는 한 번만 갱신한다.
+     */
+    @Override
+    public int drain(final Consumer<? super E> action, final int limit) {
+        final long c = consumer.get();
+        int count = 0;
+        while (count < limit) {
+            final int index = (int) (c + count) & mask;
+            final E e = buffer.get(index);
+            if (e == null) {
+                break;
+            }
+            buffer.lazySet(index, null);
+            action.accept(e);
+            count++;
+        }
+        if (count > 0) {
+            consumer.lazySet(c + count);
+        }
+        return count;
+    }
+
+    /**
+     * 요소를 읽은 뒤에도 소비자가 그 자리를 지나가지 않았으면 아직 큐에 있는 요소다.
+     */
+    @Override
+    public void forEach(final Consumer<? super E> action) {
+        final long p = producer.get();
+        for (long s = consumer.get(); s < p; s++) {
+            final E e = buffer.get((int) s & mask);
+            if (e != null && consumer.get() <= s) {
+                action.accept(e);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        final long c = consumer.get();
+        final long p = producer.get();
+        return (int) Math.max(0, Math.min(p - c, buffer.length()));
+    }
+
+    @Override
+    public int capacity() {
+        return buffer.length();
+    }
+}
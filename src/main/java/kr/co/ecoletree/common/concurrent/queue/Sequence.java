@@ -0,0 +1,33 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : Sequence.java
+ * DESC : cache line padding 된 index (생산자/소비자 index 간 false sharing 방지)
+ *****************************************************************/
+package kr.co.ecoletree.common.concurrent.queue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import kr.co.ecoletree.common.exception.ETRuntimeException;
+
+/**
+ * 큐의 생산자/소비자 index.
+ * 생산자 index 와 소비자 index 가 같은 cache line 에 있으면 서로 갱신할 때마다 cache line 을 뺏어온다.
+ * 값 뒤에 padding 을 두어 각 index 가 cache line 을 혼자 쓰도록 한다.
+ */
+@SuppressWarnings({ "serial", "unused" })
+final class Sequence extends AtomicLong {
+    /** 상대편 index 의 마지막 관찰값 (이 index 를 갱신하는 쪽만 사용) */
+    long cache;
+
+    long p1, p2, p3, p4, p5, p6;
+
+    static int roundToPowerOfTwo(final int capacity) {
+        if (capacity < 2 || capacity > (1 << 30)) {
+            throw new ETRuntimeException("capacity must be between 2 and 2^30: " + capacity);
+        }
+        return Integer.highestOneBit(capacity - 1) << 1;
+    }
+}
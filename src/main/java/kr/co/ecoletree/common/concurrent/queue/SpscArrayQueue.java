@@ -0,0 +1,124 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : SpscArrayQueue.java
+ * DESC : 단일 생산자 / 단일 소비자 배열 큐
+ *****************************************************************/
+package kr.co.ecoletree.common.concurrent.queue;
+
+import java.util.function.Consumer;
+
+/**
+ * 생산자 1, 소비자 1 전용 큐.
+ *
+ * 각 index 는 한 쓰레드만 갱신하므로 CAS 가 필요 없고, 요소를 쓴 뒤 index 를 lazySet(release) 하면 된다.
+ * 상대편 index 는 마지막으로 읽은 값을 캐시해 두고, 캐시 값으로 판단이 안 될 때만 다시 읽는다.
+ *
+ * @param <E>
+ */
+final class SpscArrayQueue<E> implements MessageQueue<E> {
+    private final Object[] buffer;
+    private final int mask;
+    /** 생산자 index. cache = 마지막으로 읽은 소비자 index */
+    private final Sequence producer = new Sequence();
+    /** 소비자 index. cache = 마지막으로 읽은 생산자 index */
+    private final Sequence consumer = new Sequence();
+
+    SpscArrayQueue(final int capacity) {
+        final int size = Sequence.roundToPowerOfTwo(capacity);
+        this.buffer = new Object[size];
+        this.mask = size - 1;
+    }
+
+    @Override
+    public boolean offer(final E e) {
+        if (e == null) throw new NullPointerException();
+        final long p = producer.get();
+        if (p - producer.cache >= buffer.length) {
+            producer.cache = consumer.get();
+            if (p - producer.cache >= buffer.length) {
+                return false;
+            }
+        }
+        buffer[(int) p & mask] = e;
+        producer.lazySet(p + 1);
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        final long c = consumer.get();
+        if (c >= consumer.cache) {
+            consumer.cache = producer.get();
+            if (c >= consumer.cache) {
+                return null;
+            }
+        }
+        final int index = (int) c & mask;
+        final E e = (E) buffer[index];
+        buffer[index] = null;
+        consumer.lazySet(c + 1);
+        return e;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        final long c = consumer.get();
+        if (c >= producer.get()) {
+            return null;
+        }
+        return (E) buffer[(int) c & mask];
+    }
+
+    /**
+     * 생산자 index 를 한 번 읽고, 가능한 만큼 꺼낸 뒤 소비자 index 를 한 번만 갱신한다.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public int drain(final Consumer<? super E> action, final int limit) {
+        final long c = consumer.get();
+        final long available = producer.get() - c;
+        final int count = (int) Math.min(available, limit);
+        for (int i = 0; i < count; i++) {
+            final int index = (int) (c + i) & mask;
+            final E e = (E) buffer[index];
+            buffer[index] = null;
+            action.accept(e);
+        }
+        if (count > 0) {
+            consumer.lazySet(c + count);
+        }
+        return count;
+    }
+
+    /**
+     * 요소를 읽은 뒤에도 소비자가 그 자리를 지나가지 않았으면 아직 큐에 있는 요소다.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(final Consumer<? super E> action) {
+        final long p = producer.get();
+        for (long s = consumer.get(); s < p; s++) {
+            final E e = (E) buffer[(int) s & mask];
+            if (e != null && consumer.get() <= s) {
+                action.accept(e);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        final long c = consumer.get();
+        final long p = producer.get();
+        return (int) Math.max(0, Math.min(p - c, buffer.length));
+    }
+
+    @Override
+    public int capacity() {
+        return buffer.length;
+    }
+}
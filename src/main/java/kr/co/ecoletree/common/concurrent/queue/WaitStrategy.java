@@ -0,0 +1,69 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : WaitStrategy.java
+ * DESC : 큐가 비었거나 가득 찼을 때의 대기 방식 (spin / yield / park / backoff)
+ *****************************************************************/
+package kr.co.ecoletree.common.concurrent.queue;
+
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 대기 방식.
+ *
+ * - spin: CPU 를 계속 사용하지만 지연이 가장 짧다. (코어가 남는 경우에만)
+ * - yield: 다른 쓰레드에 CPU 를 양보하고 다시 확인
+ * - park: 지정 시간 동안 잠든다. CPU 사용은 적지만 그 시간만큼 지연이 생긴다.
+ * - backoff: spin -> yield -> park 순으로 점점 길게 기다린다. (기본값)
+ */
+@FunctionalInterface
+public interface WaitStrategy {
+
+    /**
+     * 한 번 대기
+     *
+     * @param idleCount 연속으로 대기한 횟수 (작업을 얻으면 0 부터 다시 시작)
+     */
+    void idle(int idleCount);
+
+    static WaitStrategy spin() {
+        return idleCount -> {};
+    }
+
+    static WaitStrategy yielding() {
+        return idleCount -> Thread.yield();
+    }
+
+    static WaitStrategy parking(final Duration parkTime) {
+        final long nanos = parkTime.toNanos();
+        return idleCount -> LockSupport.parkNanos(nanos);
+    }
+
+    /**
+     * 100 회 spin, 100 회 yield 후 1us 부터 두 배씩 최대 maxPark 까지 park
+     *
+     * @param maxPark
+     * @return
+     */
+    static WaitStrategy backoff(final Duration maxPark) {
+        final long maxNanos = maxPark.toNanos();
+        return idleCount -> {
+            if (idleCount < 100) {
+                return;
+            }
+            if (idleCount < 200) {
+                Thread.yield();
+                return;
+            }
+            final int shift = Math.min(idleCount - 200, 20);
+            LockSupport.parkNanos(Math.min(1_000L << shift, maxNanos));
+        };
+    }
+
+    static WaitStrategy backoff() {
+        return backoff(Duration.ofMillis(1));
+    }
+}
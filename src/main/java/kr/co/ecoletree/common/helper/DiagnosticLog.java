@@ -0,0 +1,206 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : DiagnosticLog.java
+ * DESC : 쓰레드 이름을 붙여 출력하는 진단용 로그 (쓰레드별 StringBuilder 재사용, 비동기 일괄 출력)
+ *****************************************************************/
+package kr.co.ecoletree.common.helper;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import kr.co.ecoletree.common.concurrent.WorkerThreadFactory;
+import kr.co.ecoletree.common.concurrent.queue.MessageQueue;
+import kr.co.ecoletree.common.concurrent.queue.WaitStrategy;
+
+/**
+ * 예제 코드용 진단 로그.
+ *
+ * "[쓰레드 이름]   메시지" 형태로 출력한다. 메시지의 {} 는 인자로 치환된다. (SLF4J 와 같은 형식)
+ *
+ * - 쓰레드마다 StringBuilder 하나를 재사용하고 String.format / Stream 을 쓰지 않으므로, 호출 1회에 만들어지는 객체는 출력할 문자열 하나다.
+ * - 인자 5개까지는 가변 인자 배열을 만들지 않는 메서드를 사용한다.
+ *   가변 인자 배열은 호출하는 쪽에서 ENABLED 확인 전에 만들어지므로, 6개 이상을 자주 출력하는 곳은 if (DiagnosticLog.ENABLED) 로 감싼다.
+ * - 만들기 비싼 인자는 {@link #lazy(Supplier)} 로 감싸면 실제로 출력할 때만 계산된다.
+ * - 출력은 전용 쓰레드가 모아서 한 번에 쓴다. 호출한 쓰레드는 System.out Lock 을 기다리지 않는다.
+ *   큐가 가득 차면 해당 메시지는 버리고 개수만 센다. ({@link #getDropped()})
+ * - -Decoletree.diagnostic=false 로 끄면 ENABLED 가 상수 false 가 되어 JIT 가 호출 자체를 제거한다.
+ */
+public final class DiagnosticLog {
+    public static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("ecoletree.diagnostic"));
+
+    private static final int QUEUE_CAPACITY = 8192;
+    private static final int BATCH_SIZE = 512;
+    private static final String SEPARATOR = "\t\t\t";
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+    private static final AtomicLong DROPPED = new AtomicLong();
+    private static final Appender APPENDER = ENABLED ? new Appender(System.out) : null;
+
+    private DiagnosticLog() {}
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static void print(final String message) {
+        if (ENABLED) {
+            publish(begin().append(message));
+        }
+    }
+
+    public static void print(final String format, final Object arg1) {
+        if (ENABLED) {
+            publish(format(begin(), format, 1, arg1, null, null, null, null, null));
+        }
+    }
+
+    public static void print(final String format, final Object arg1, final Object arg2) {
+        if (ENABLED) {
+            publish(format(begin(), format, 2, arg1, arg2, null, null, null, null));
+        }
+    }
+
+    public static void print(final String format, final Object arg1, final Object arg2, final Object arg3) {
+        if (ENABLED) {
+            publish(format(begin(), format, 3, arg1, arg2, arg3, null, null, null));
+        }
+    }
+
+    public static void print(final String format, final Object arg1, final Object arg2, final Object arg3, final Object arg4) {
+        if (ENABLED) {
+            publish(format(begin(), format, 4, arg1, arg2, arg3, arg4, null, null));
+        }
+    }
+
+    public static void print(final String format, final Object arg1, final Object arg2, final Object arg3, final Object arg4,
+                             final Object arg5) {
+        if (ENABLED) {
+            publish(format(begin(), format, 5, arg1, arg2, arg3, arg4, arg5, null));
+        }
+    }
+
+    /**
+     * 인자 6개 이상. 배열은 호출하는 쪽에서 만들어지므로 꺼져 있어도 할당된다.
+     *
+     * @param format
+     * @param args
+     */
+    public static void print(final String format, final Object... args) {
+        if (ENABLED) {
+            publish(format(begin(), format, args.length, null, null, null, null, null, args));
+        }
+    }
+
+    /**
+     * 출력할 때만 계산되는 인자
+     *
+     * @param supplier
+     * @return
+     */
+    public static Object lazy(final Supplier<?> supplier) {
+        return new Object() {
+            @Override
+            public String toString() {
+                return String.valueOf(supplier.get());
+            }
+        };
+    }
+
+    /**
+     * 지금까지 넣은 메시지가 모두 출력될 때까지 대기 (최대 1초)
+     */
+    public static void flush() {
+        if (ENABLED) {
+            APPENDER.awaitIdle(TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+
+    /**
+     * 큐가 가득 차서 버린 메시지 수
+     *
+     * @return
+     */
+    public static long getDropped() {
+        return DROPPED.get();
+    }
+
+    private static StringBuilder begin() {
+        final StringBuilder sb = BUFFER.get();
+        sb.setLength(0);
+        return sb.append('[').append(Thread.currentThread().getName()).append(']').append(SEPARATOR);
+    }
+
+    private static void publish(final StringBuilder sb) {
+        if (!APPENDER.queue.offer(sb.append('\n').toString())) {
+            DROPPED.incrementAndGet();
+        }
+    }
+
+    /**
+     * {} 를 순서대로 인자로 치환. 인자 5개까지는 arg1~5, 그 이상은 args 배열 사용
+     */
+    private static StringBuilder format(final StringBuilder sb, final String format, final int count,
+                                        final Object arg1, final Object arg2, final Object arg3, final Object arg4,
+                                        final Object arg5, final Object[] args) {
+        int from = 0;
+        for (int i = 0; i < count; i++) {
+            final int at = format.indexOf("{}", from);
+            if (at < 0) {
+                break;
+            }
+            sb.append(format, from, at);
+            final Object arg = args != null ? args[i] : i == 0 ? arg1 : i == 1 ? arg2 : i == 2 ? arg3 : i == 3 ? arg4 : arg5;
+            sb.append(arg);
+            from = at + 2;
+        }
+        return sb.append(format, from, format.length());
+    }
+
+    /**
+     * 메시지를 모아서 출력하는 쓰레드
+     */
+    private static final class Appender implements Runnable {
+        private final MessageQueue<String> queue = MessageQueue.mpsc(QUEUE_CAPACITY);
+        private final WaitStrategy waitStrategy = WaitStrategy.backoff(Duration.ofMillis(5));
+        private final StringBuilder batch = new StringBuilder(BATCH_SIZE * 64);
+        private final Consumer<String> collector = batch::append;
+        private final PrintStream out;
+        private volatile boolean writing;
+
+        Appender(final PrintStream out) {
+            this.out = out;
+            WorkerThreadFactory.daemon("diagnostic").newThread(this).start();
+            Runtime.getRuntime().addShutdownHook(new Thread(DiagnosticLog::flush, "Ecoletree-diagnostic-flush"));
+        }
+
+        @Override
+        public void run() {
+            for (int idle = 0; ; ) {
+                writing = true;
+                if (queue.drain(collector, BATCH_SIZE) > 0) {
+                    out.print(batch);
+                    out.flush();
+                    batch.setLength(0);
+                    idle = 0;
+                } else {
+                    writing = false;
+                    waitStrategy.idle(idle++);
+                }
+            }
+        }
+
+        void awaitIdle(final long timeoutNanos) {
+            final long deadline = System.nanoTime() + timeoutNanos;
+            while ((!queue.isEmpty() || writing) && System.nanoTime() - deadline < 0) {
+                Thread.yield();
+            }
+        }
+    }
+}
@@ -0,0 +1,254 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : DnsCache.java
+ * DESC : 고정 유지 시간(TTL) DNS 캐시 (만료 전 백그라운드 갱신, 실패 시 마지막 주소 사용)
+ *****************************************************************/
+package kr.co.ecoletree.common.helper;
+
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.IOReactorException;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.security.Security;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import kong.unirest.Config;
+import kong.unirest.apache.ApacheAsyncClient;
+import kong.unirest.apache.ApacheClient;
+import kr.co.ecoletree.common.concurrent.TimerWheel;
+import kr.co.ecoletree.common.concurrent.WorkerPools;
+import kr.co.ecoletree.common.exception.ETRuntimeException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 호스트 주소 캐시.
+ *
+ * - TTL 은 생성할 때 정한 고정 값이다. (DNS 레코드의 TTL 은 InetAddress 로 알 수 없으므로 사용하지 않는다.
+ *   공용 캐시는 JVM 설정 networkaddress.cache.ttl 을 쓴다)
+ * - TTL 안에서는 조회하지 않고 캐시된 주소를 준다.
+ * - {@link #keepFresh(String)} 로 등록한 호스트는 TTL 이 끝나기 전에 I/O 풀에서 다시 조회한다.
+ * - 다시 조회하다 실패하면 마지막으로 성공한 주소를 계속 쓴다. (DNS 서버 장애가 곧바로 요청 실패가 되지 않도록)
+ *
+ * Apache HttpClient 의 {@link DnsResolver} 이므로 HttpClientBuilder.setDnsResolver(...) 에 바로 넣을 수 있고,
+ * Unirest 는 {@link #configure(Config)} 로 sync / async 클라이언트의 연결 관리자에 넣는다. (HttpClientUtil 의 기본 Unirest 인스턴스는 적용되어 있다)
+ * 이렇게 resolver 로 넣은 클라이언트만 이 캐시를 쓴다. HttpURLConnection(UrlConnectionClient) 등은 JVM InetAddress 캐시를 쓰므로
+ * 조회할 때 JVM 캐시가 같이 채워지기는 하지만, JVM 캐시가 만료된 직후의 요청은 직접 DNS 조회를 할 수 있다.
+ */
+@Slf4j
+public final class DnsCache implements DnsResolver {
+    private final long ttlNanos;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> refreshing = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong staleAnswers = new AtomicLong();
+
+    /**
+     * @param ttl 캐시 유지 시간
+     */
+    public DnsCache(final Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * JVM DNS 캐시 시간(networkaddress.cache.ttl, 기본 30초)과 같은 TTL 의 공용 캐시
+     *
+     * @return
+     */
+    public static DnsCache shared() {
+        return Holder.INSTANCE;
+    }
+
+    @Override
+    public InetAddress[] resolve(final String host) throws UnknownHostException {
+        final Entry entry = entries.get(host);
+        if (entry != null && System.nanoTime() - entry.resolvedAt < ttlNanos) {
+            hits.incrementAndGet();
+            return entry.addresses.clone();
+        }
+        return lookup(host).clone();
+    }
+
+    /**
+     * Unirest 설정의 Apache sync / async 클라이언트가 이 캐시로 주소를 찾도록 한다.
+     * 연결 수 / 연결 유지 시간(TTL) 은 Unirest 설정을 따른다.
+     *
+     * 클라이언트가 이미 만들어졌거나(isRunning) SSL 설정(keystore, SSLContext, 검증 해제)을 바꾼 경우에는
+     * Unirest 가 만드는 연결 관리자를 그대로 두고 적용하지 않는다.
+     *
+     * @param config
+     * @return 적용 여부
+     */
+    public boolean configure(final Config config) {
+        if (config.isRunning() || config.getKeystore() != null || config.getSslContext() != null || !config.isVerifySsl()) {
+            log.debug("Unirest clients are running or use custom SSL, DnsCache is not applied");
+            return false;
+        }
+        config.httpClient(c -> new ApacheClient(c, builder -> builder.setConnectionManager(connectionManager(c))));
+        config.asyncClient(c -> {
+            final PoolingNHttpClientConnectionManager manager = asyncConnectionManager(c);
+            final CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                    .setConnectionManager(manager)
+                    .build();
+            client.start();
+            return new ApacheAsyncClient(client, c, manager, null);
+        });
+        return true;
+    }
+
+    /**
+     * 호스트를 캐시에 유지한다. (지금 조회하고, 이후 TTL 의 80% 마다 다시 조회)
+     *
+     * @param host
+     * @return 조회된 주소
+     * @throws UnknownHostException
+     */
+    public InetAddress[] keepFresh(final String host) throws UnknownHostException {
+        final InetAddress[] addresses = lookup(host);
+        if (refreshing.putIfAbsent(host, Boolean.TRUE) == null) {
+            scheduleRefresh(host);
+        }
+        return addresses.clone();
+    }
+
+    /**
+     * 백그라운드 갱신 중지
+     *
+     * @param host
+     */
+    public void forget(final String host) {
+        refreshing.remove(host);
+        entries.remove(host);
+    }
+
+    public Duration getTtl() {
+        return Duration.ofNanos(ttlNanos);
+    }
+
+    /** 캐시에서 바로 준 횟수 */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /** 실제 DNS 조회 횟수 */
+    public long getLookups() {
+        return lookups.get();
+    }
+
+    /** 조회 실패로 마지막 주소를 준 횟수 */
+    public long getStaleAnswers() {
+        return staleAnswers.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DnsCache(ttl=%d s, hosts=%d, hits=%d, lookups=%d, stale=%d)",
+                TimeUnit.NANOSECONDS.toSeconds(ttlNanos), entries.size(), getHits(), getLookups(), getStaleAnswers());
+    }
+
+    private PoolingHttpClientConnectionManager connectionManager(final Config config) {
+        final Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", SSLConnectionSocketFactory.getSocketFactory())
+                .build();
+        final PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager(registry, null, null, this, config.getTTL(), TimeUnit.MILLISECONDS);
+        manager.setMaxTotal(config.getMaxConnections());
+        manager.setDefaultMaxPerRoute(config.getMaxPerRoutes());
+        return manager;
+    }
+
+    private PoolingNHttpClientConnectionManager asyncConnectionManager(final Config config) {
+        final Registry<SchemeIOSessionStrategy> registry = RegistryBuilder.<SchemeIOSessionStrategy>create()
+                .register("http", NoopIOSessionStrategy.INSTANCE)
+                .register("https", SSLIOSessionStrategy.getDefaultStrategy())
+                .build();
+        try {
+            final PoolingNHttpClientConnectionManager manager = new PoolingNHttpClientConnectionManager(
+                    new DefaultConnectingIOReactor(), null, registry, null, this, config.getTTL(), TimeUnit.MILLISECONDS);
+            manager.setMaxTotal(config.getMaxConnections());
+            manager.setDefaultMaxPerRoute(config.getMaxPerRoutes());
+            return manager;
+        } catch (final IOReactorException e) {
+            throw new ETRuntimeException(e);
+        }
+    }
+
+    private InetAddress[] lookup(final String host) throws UnknownHostException {
+        lookups.incrementAndGet();
+        try {
+            final InetAddress[] addresses = InetAddress.getAllByName(host);
+            entries.put(host, new Entry(addresses, System.nanoTime()));
+            return addresses;
+        } catch (final UnknownHostException e) {
+            final Entry stale = entries.get(host);
+            if (stale == null) {
+                throw e;
+            }
+            staleAnswers.incrementAndGet();
+            log.warn("DNS lookup failed, using last known addresses of {}: {}", host, e.getMessage());
+            return stale.addresses;
+        }
+    }
+
+    private void scheduleRefresh(final String host) {
+        final long delay = Math.max(TimeUnit.SECONDS.toNanos(1), ttlNanos / 10 * 8);
+        TimerWheel.shared().schedule(() -> WorkerPools.io().execute(() -> {
+            if (!refreshing.containsKey(host)) {
+                return;
+            }
+            try {
+                lookup(host);
+            } catch (final UnknownHostException e) {
+                log.warn("DNS refresh failed for {}: {}", host, e.getMessage());
+            }
+            scheduleRefresh(host);
+        }), delay, TimeUnit.NANOSECONDS);
+    }
+
+    private static Duration jvmTtl() {
+        final String ttl = Security.getProperty("networkaddress.cache.ttl");
+        try {
+            if (ttl != null && Integer.parseInt(ttl.trim()) > 0) {
+                return Duration.ofSeconds(Integer.parseInt(ttl.trim()));
+            }
+        } catch (final NumberFormatException ignore) {
+        }
+        return Duration.ofSeconds(30);
+    }
+
+    private static final class Entry {
+        private final InetAddress[] addresses;
+        private final long resolvedAt;
+
+        private Entry(final InetAddress[] addresses, final long resolvedAt) {
+            this.addresses = addresses;
+            this.resolvedAt = resolvedAt;
+        }
+    }
+
+    private static final class Holder {
+        static final DnsCache INSTANCE = new DnsCache(jvmTtl());
+    }
+}
@@ -0,0 +1,122 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : FileRangeInputStream.java
+ * DESC : 파일의 일부 구간을 FileChannel 로 나눠 읽는 InputStream
+ *****************************************************************/
+package kr.co.ecoletree.common.helper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 파일의 [position, position + length) 구간을 읽는 InputStream.
+ *
+ * 파일은 처음 read 할 때 열고, 구간 끝에 도달하거나 close 하면 닫는다.
+ * 같은 파일의 여러 구간을 각자 다른 쓰레드에서 읽어도 된다. (구간마다 FileChannel 을 따로 연다)
+ */
+public final class FileRangeInputStream extends InputStream {
+    private final Path path;
+    private final long position;
+    private final long length;
+    private FileChannel channel;
+    private long read;
+    private boolean closed;
+
+    public FileRangeInputStream(final Path path, final long position, final long length) {
+        if (position < 0 || length < 0) {
+            throw new IllegalArgumentException(String.format("invalid range: position=%d, length=%d", position, length));
+        }
+        this.path = path;
+        this.position = position;
+        this.length = length;
+    }
+
+    /**
+     * 파일 전체
+     *
+     * @param path
+     * @return
+     * @throws IOException
+     */
+    public static FileRangeInputStream of(final Path path) throws IOException {
+        return new FileRangeInputStream(path, 0, path.toFile().length());
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    /** 읽을 전체 바이트 수 */
+    public long getLength() {
+        return length;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final byte[] one = new byte[1];
+        return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] buffer, final int offset, final int len) throws IOException {
+        if (closed) {
+            throw new IOException("stream closed");
+        }
+        if (len == 0) {
+            return 0;
+        }
+        final long remaining = length - read;
+        if (remaining <= 0) {
+            release();
+            return -1;
+        }
+        if (channel == null) {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        }
+        final int n = channel.read(ByteBuffer.wrap(buffer, offset, (int) Math.min(len, remaining)), position + read);
+        if (n < 0) {
+            throw new IOException(String.format("%s is shorter than expected: %d < %d", path, position + read, position + length));
+        }
+        read += n;
+        if (read == length) {
+            release();
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(final long n) {
+        final long skipped = Math.max(0, Math.min(n, length - read));
+        read += skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, length - read);
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        release();
+    }
+
+    private void release() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+}
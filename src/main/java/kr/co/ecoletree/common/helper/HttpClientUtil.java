@@ -8,18 +8,25 @@
  *****************************************************************/
 package kr.co.ecoletree.common.helper;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.CopyOption;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -37,15 +44,28 @@ import kong.unirest.MultipartBody;
 import kong.unirest.RawResponse;
 import kong.unirest.RequestBodyEntity;
 import kong.unirest.Unirest;
+import kong.unirest.UnirestInstance;
+import kr.co.ecoletree.common.concurrent.FutureAdapters;
+import kr.co.ecoletree.common.concurrent.Futures;
+import kr.co.ecoletree.common.concurrent.WorkerPools;
 import kr.co.ecoletree.common.exception.ETRuntimeException;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
+import reactor.core.publisher.Mono;
 
 @Setter(AccessLevel.PROTECTED)
 @Getter
 public abstract class HttpClientUtil<T extends HttpRequest<T>> {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<Map<String, Object>>() {};
+
+    static {
+        // 기본 Unirest 인스턴스의 Apache 클라이언트가 공용 DnsCache 로 주소를 찾도록 (클라이언트가 만들어지기 전에만 적용된다)
+        DnsCache.shared().configure(Unirest.config());
+    }
+
     protected String url;
     protected String method;
     protected String contentType;
@@ -57,6 +77,7 @@ public abstract class HttpClientUtil<T extends HttpRequest<T>> {
     protected List<Cookie> cookies;
     protected Duration connectionTimeout;
     protected Duration socketTimeout;
+    protected Executor callbackExecutor;
     protected T request;
 
     private HttpClientUtil(final String url, final String method, final T request) {
@@ -107,6 +128,52 @@ public abstract class HttpClientUtil<T extends HttpRequest<T>> {
         return new Put(url);
     }
 
+    /**
+     * 지정한 UnirestInstance 로 실행하는 HTTP GET Request 빌더 생성
+     *
+     * @see UrlConnectionClient#shared()
+     *
+     * @param client
+     * @param url
+     * @return
+     */
+    public static Get get(final UnirestInstance client, final String url) {
+        return new Get(client, url);
+    }
+
+    /**
+     * 지정한 UnirestInstance 로 실행하는 HTTP DELETE Request 빌더 생성
+     *
+     * @param client
+     * @param url
+     * @return
+     */
+    public static Delete delete(final UnirestInstance client, final String url) {
+        return new Delete(client, url);
+    }
+
+    /**
+     * 지정한 UnirestInstance 로 실행하는 HTTP POST Request 빌더 생성
+     *
+     * @param client
+     * @param url
+     * @return
+     */
+    public static Post post(final UnirestInstance client, final String url) {
+        return new Post(client, url);
+    }
+
+    /**
+     * 지정한 UnirestInstance 로 실행하는 HTTP PUT Request 빌더 생성
+     *
+     * @param client
+     * @param url
+     * @return
+     */
+    public static Put put(final UnirestInstance client, final String url) {
+        return new Put(client, url);
+    }
+
     /**
      * [Optional] Route Parameters 지정.
      *
@@ -232,6 +299,22 @@ public abstract class HttpClientUtil<T extends HttpRequest<T>> {
         return this;
     }
 
+    /**
+     * 비동기 응답 처리(JSON 변환, thenApply 등 후속 작업)를 실행할 Executor 지정.
+     * 기본: null (지정하지 않으면 이전처럼 I/O reactor 쓰레드에서 그대로 실행한다)
+     *
+     * Apache HttpAsyncClient 는 I/O reactor 쓰레드에서 응답 future 를 완료하므로,
+     * 그 쓰레드에서 무거운 작업을 하면 같은 reactor 의 다른 요청 I/O 가 모두 멈춘다.
+     * 응답이 크거나 후속 작업이 무거우면 {@link WorkerPools#cpu()} 등을 지정한다.
+     *
+     * @param executor
+     * @return
+     */
+    public HttpClientUtil<T> callbackExecutor(final Executor executor) {
+        setCallbackExecutor(executor);
+        return this;
+    }
+
     public int getConnectionTimeoutMillis() {
         return (int) getConnectionTimeout().toMillis();
     }
@@ -325,7 +408,7 @@ public abstract class HttpClientUtil<T extends HttpRequest<T>> {
      * @return
      */
     public AsyncExchange<Empty> exchangeEmptyAsync() {
-        return AsyncExchange.exchangeEmpty(getRequest());
+        return AsyncExchange.exchangeEmpty(getRequest()).callbackOn(getCallbackExecutor());
     }
 
     /**
@@ -334,13 +417,13 @@ public abstract class HttpClientUtil<T extends HttpRequest<T>> {
      * @return
      */
     public AsyncExchange<String> exchangeAsStringAsync() {
-        return AsyncExchange.exchangeAsString(getRequest());
+        return AsyncExchange.exchangeAsString(getRequest()).callbackOn(getCallbackExecutor());
     }
 
     /**
      * (Non-Blocking) HTTP 요청 실행, Response Body 문자열로 받음.
      *
-     * @param callback ResponseBody callback function (a.k.a. ajax.success)
+     * @param callback ResponseBody callback function (a.k.a. ajax.success), I/O reactor 쓰레드에서 호출된다.
      * @return
      */
     public AsyncExchange<String> exchangeAsStringAsync(final Callback<String> callback) {
@@ -355,7 +438,7 @@ public abstract class HttpClientUtil<T extends HttpRequest<T>> {
      * @return
      */
     public <R> AsyncExchange<R> exchangeAsObjectAsync(final Class<? extends R> clazz) {
-        return AsyncExchange.exchangeAsObject(getRequest(), clazz);
+        return AsyncExchange.<R>exchangeAsObject(getRequest(), clazz).callbackOn(getCallbackExecutor());
     }
 
     /**
@@ -378,7 +461,7 @@ public abstract class HttpClientUtil<T extends HttpRequest<T>> {
      * @return
      */
     public <R> AsyncExchange<R> exchangeAsObjectAsync(final Function<RawResponse, R> mapper) {
-        return AsyncExchange.exchangeAsObject(getRequest(), mapper);
+        return AsyncExchange.exchangeAsObject(getRequest(), mapper).callbackOn(getCallbackExecutor());
     }
 
     /**
@@ -389,7 +472,7 @@ public abstract class HttpClientUtil<T extends HttpRequest<T>> {
      * @return
      */
     public AsyncExchange<File> exchangeAsFileAsync(final String outputFilePath, final CopyOption... copyOptions) {
-        return AsyncExchange.exchangeAsFile(getRequest(), outputFilePath, copyOptions);
+        return AsyncExchange.exchangeAsFile(getRequest(), outputFilePath, copyOptions).callbackOn(getCallbackExecutor());
     }
 
     /**
@@ -411,7 +494,7 @@ public abstract class HttpClientUtil<T extends HttpRequest<T>> {
      * @return
      */
     public AsyncExchange<Map<String, Object>> exchangeAsMapAsync(final Predicate<? super RawResponse> responsePredicate) {
-        return AsyncExchange.exchangeAsMap(getRequest(), responsePredicate);
+        return AsyncExchange.exchangeAsMap(getRequest(), responsePredicate, getCallbackExecutor());
     }
 
     /**
@@ -420,7 +503,7 @@ public abstract class HttpClientUtil<T extends HttpRequest<T>> {
      * @return
      */
     public AsyncExchange<Map<String, Object>> exchangeAsMapAsync() {
-        return AsyncExchange.exchangeAsMap(getRequest());
+        return AsyncExchange.exchangeAsMap(getRequest(), HttpClientUtil::isResponseStatus2xx, getCallbackExecutor());
     }
     ///////////////////////////////////////////////
     ///                  End                    ///
@@ -440,6 +523,10 @@ public abstract class HttpClientUtil<T extends HttpRequest<T>> {
             super(url, "GET", Unirest.get(url));
         }
 
+        public Get(final UnirestInstance client, final String url) {
+            super(url, "GET", client.get(url));
+        }
+
         @Override
         public Get routeParams(final Map<String, Object> routeParameters) {
             super.routeParams(routeParameters);
@@ -493,6 +580,12 @@ public abstract class HttpClientUtil<T extends HttpRequest<T>> {
             super.socketTimeout(timeout);
             return this;
         }
+
+        @Override
+        public Get callbackExecutor(final Executor executor) {
+            super.callbackExecutor(executor);
+            return this;
+        }
     }
 
     /**
@@ -503,6 +596,10 @@ public abstract class HttpClientUtil<T extends HttpRequest<T>> {
             super(url, "DELETE");
         }
 
+        public Delete(final UnirestInstance client, final String url) {
+            super(client, url, "DELETE");
+        }
+
         @Override
         public Delete routeParams(final Map<String, Object> routeParameters) {
             super.routeParams(routeParameters);
@@ -557,6 +654,12 @@ public abstract class HttpClientUtil<T extends HttpRequest<T>> {
             return this;
         }
 
+        @Override
+        public Delete callbackExecutor(final Executor executor) {
+            super.callbackExecutor(executor);
+            return this;
+        }
+
         @Override
         public Delete contentType(final String contentType) {
             super.contentType(contentType);
@@ -572,6 +675,10 @@ public abstract class HttpClientUtil<T extends HttpRequest<T>> {
             super(url, "POST");
         }
 
+        public Post(final UnirestInstance client, final String url) {
+            super(client, url, "POST");
+        }
+
         @Override
         public Post routeParams(final Map<String, Object> routeParameters) {
             super.routeParams(routeParameters);
@@ -626,6 +733,12 @@ public abstract class HttpClientUtil<T extends HttpRequest<T>> {
             return this;
         }
 
+        @Override
+        public Post callbackExecutor(final Executor executor) {
+            super.callbackExecutor(executor);
+            return this;
+        }
+
         @Override
         public Post contentType(final String contentType) {
             super.contentType(contentType);
@@ -641,6 +754,10 @@ public abstract class HttpClientUtil<T extends HttpRequest<T>> {
             super(url, "PUT");
         }
 
+        public Put(final UnirestInstance client, final String url) {
+            super(client, url, "PUT");
+        }
+
         @Override
         public Put routeParams(final Map<String, Object> routeParameters) {
             super.routeParams(routeParameters);
@@ -695,6 +812,12 @@ public abstract class HttpClientUtil<T extends HttpRequest<T>> {
             return this;
         }
 
+        @Override
+        public Put callbackExecutor(final Executor executor) {
+            super.callbackExecutor(executor);
+            return this;
+        }
+
         @Override
         public Put contentType(final String contentType) {
             super.contentType(contentType);
@@ -710,12 +833,69 @@ public abstract class HttpClientUtil<T extends HttpRequest<T>> {
             super(url, method.toUpperCase(), Unirest.request(method.toUpperCase(), url));
         }
 
+        ElseMethod(final UnirestInstance client, final String url, final String method) {
+            super(url, method.toUpperCase(), client.request(method.toUpperCase(), url));
+        }
+
         public Body body(final Object body) {
-            return new Body(getUrl(), getMethod(), getRequest().body(body));
+            final Body builder = new Body(getUrl(), getMethod(), getRequest().body(body));
+            builder.setCallbackExecutor(getCallbackExecutor());
+            return builder;
         }
 
         public FormData formData(final Map<String, Object> formData) {
-            return new FormData(getUrl(), getMethod(), getRequest().fields(formData));
+            final FormData builder = new FormData(getUrl(), getMethod(), getRequest().fields(formData));
+            builder.setCallbackExecutor(getCallbackExecutor());
+            return builder;
+        }
+
+        /**
+         * multipart/form-data 본문을 메모리에 모으지 않고 전송 (File / Path 값은 파일 part)
+         *
+         * @param formData 값: File, Path, byte[], InputStream(크기 모름), 그 외는 문자열
+         * @return
+         */
+        public Body formDataStream(final Map<String, Object> formData) {
+            final MultipartStream.Builder builder = MultipartStream.builder();
+            formData.forEach((name, value) -> {
+                if (value instanceof File) {
+                    builder.file(name, ((File) value).toPath(), "application/octet-stream");
+                } else if (value instanceof Path) {
+                    builder.file(name, (Path) value, "application/octet-stream");
+                } else if (value instanceof byte[]) {
+                    builder.field(name, (byte[]) value, "application/octet-stream", name);
+                } else if (value instanceof InputStream) {
+                    builder.stream(name, (InputStream) value, -1, "application/octet-stream", name);
+                } else {
+                    builder.field(name, String.valueOf(value));
+                }
+            });
+            return multipart(builder.build());
+        }
+
+        /**
+         * multipart/form-data 본문을 읽는 대로 전송
+         *
+         * UrlConnectionClient 는 크기를 알면 Content-Length, 모르면 chunked 로 보내고, Unirest Apache sync client 는 chunked 로 보낸다.
+         * Unirest Apache async client 는 모든 요청 본문을 byte[] 로 모은 뒤 보내므로 큰 파일은 UrlConnectionClient 를 사용한다.
+         *
+         * @param multipart
+         * @return
+         */
+        public Body multipart(final MultipartStream multipart) {
+            return stream(multipart).contentType(multipart.getContentType());
+        }
+
+        /**
+         * InputStream 본문을 읽는 대로 전송 (기본 Content-Type: application/octet-stream)
+         *
+         * @param in 전송이 끝나면 닫힌다.
+         * @return
+         */
+        public Body stream(final InputStream in) {
+            final Body builder = new Body(getUrl(), getMethod(), getRequest().body(in));
+            builder.setCallbackExecutor(getCallbackExecutor());
+            return builder.contentType("application/octet-stream");
         }
 
         public ElseMethod contentType(final String contentType) {
@@ -734,8 +914,15 @@ public abstract class HttpClientUtil<T extends HttpRequest<T>> {
             setContentType("application/json");
         }
 
+        /**
+         * Content-Type 지정. 이미 지정된 값(예: stream() 의 application/octet-stream)은 교체한다.
+         * (Unirest contentType() 은 헤더를 추가하므로 Content-Type 이 두 개 전송된다)
+         *
+         * @param contentType
+         * @return
+         */
         public Body contentType(final String contentType) {
-            updateRequest(req -> req.contentType(contentType));
+            updateRequest(req -> req.headerReplace("Content-Type", contentType));
             setContentType(contentType);
             return this;
         }
@@ -964,6 +1151,26 @@ public abstract class HttpClientUtil<T extends HttpRequest<T>> {
             return exchangeAsObject(request, resp -> HttpClientUtil.responseBody2Map(resp, responseValidator));
         }
 
+        /**
+         * (Non-Blocking) HTTP 요청 실행, Response Body java.util.Map 객체로 받음.
+         * I/O reactor 쓰레드에서는 응답 확인 / 본문 복사만 하고 JSON 변환은 executor 에서 실행한다.
+         *
+         * @param request Unirest HttpRequest<?> 객체
+         * @param responseValidator
+         * @param executor JSON 변환 / 후속 작업 Executor (null 이면 I/O reactor 쓰레드)
+         * @return
+         */
+        public static AsyncExchange<Map<String, Object>> exchangeAsMap(final HttpRequest<?> request, final Predicate<? super RawResponse> responseValidator, final Executor executor) {
+            if (executor == null) {
+                return exchangeAsMap(request, responseValidator);
+            }
+            final CompletableFuture<HttpResponse<ResponseBody>> response = request.asObjectAsync(resp -> {
+                validateResponse(resp, responseValidator);
+                return new ResponseBody(resp.getContentAsBytes(), charset(resp));
+            });
+            return new AsyncExchange<>(request, response.thenApplyAsync(resp -> resp.map(body -> bytes2Map(body.bytes, body.charset)), executor));
+        }
+
         /**
          * (Non-Blocking) HTTP 요청 실행, Response Body java.util.Map 객체로 받음.
          *
@@ -974,6 +1181,32 @@ public abstract class HttpClientUtil<T extends HttpRequest<T>> {
             return exchangeAsMap(request, HttpClientUtil::isResponseStatus2xx);
         }
 
+        /**
+         * Response 대기 시간 지정. 시간 안에 응답이 없으면 response future 는 TimeoutException 으로 완료된다.
+         *
+         * Unirest 는 내부 요청 Future 를 노출하지 않으므로 진행중인 소켓 I/O 는 socketTimeout 으로 제한된다.
+         *
+         * @param timeout
+         * @return
+         */
+        public AsyncExchange<R> timeout(final Duration timeout) {
+            Futures.withTimeout(response, timeout);
+            return this;
+        }
+
+        /**
+         * 응답 future 완료 이후의 작업(body() 검사, thenApply 등)을 executor 에서 실행한다.
+         *
+         * @param executor null 이면 그대로 (I/O reactor 쓰레드)
+         * @return
+         */
+        public AsyncExchange<R> callbackOn(final Executor executor) {
+            if (executor != null) {
+                response = response.thenApplyAsync(Function.identity(), executor);
+            }
+            return this;
+        }
+
         /**
          * (Blocking) Response Body 리턴.
          * Blocking method 사용을 원한다면, 이 메서드 보다는 Exchange 클래스 사용
@@ -1019,7 +1252,7 @@ public abstract class HttpClientUtil<T extends HttpRequest<T>> {
          * @return
          */
         public Flowable<HttpResponse<R>> responseFlowable() {
-            return Flowable.fromFuture(response);
+            return FutureAdapters.toFlowable(response);
         }
 
         /**
@@ -1028,7 +1261,7 @@ public abstract class HttpClientUtil<T extends HttpRequest<T>> {
          * @return
          */
         public Single<HttpResponse<R>> responseSingle() {
-            return Single.fromFuture(response);
+            return FutureAdapters.toSingle(response);
         }
 
         /**
@@ -1038,7 +1271,7 @@ public abstract class HttpClientUtil<T extends HttpRequest<T>> {
          * @return
          */
         public Flowable<R> responseBodyFlowable(final Predicate<? super HttpResponse<R>> responseValidator) {
-            return Flowable.fromFuture(body(responseValidator));
+            return FutureAdapters.toFlowable(body(responseValidator));
         }
 
         /**
@@ -1047,7 +1280,7 @@ public abstract class HttpClientUtil<T extends HttpRequest<T>> {
          * @return
          */
         public Flowable<R> responseBodyFlowable() {
-            return Flowable.fromFuture(body());
+            return FutureAdapters.toFlowable(body());
         }
 
         /**
@@ -1057,7 +1290,7 @@ public abstract class HttpClientUtil<T extends HttpRequest<T>> {
          * @return
          */
         public Single<R> responseBodySingle(final Predicate<? super HttpResponse<R>> responseValidator) {
-            return Single.fromFuture(body(responseValidator));
+            return FutureAdapters.toSingle(body(responseValidator));
         }
 
         /**
@@ -1066,7 +1299,26 @@ public abstract class HttpClientUtil<T extends HttpRequest<T>> {
          * @return
          */
         public Single<R> responseBodySingle() {
-            return Single.fromFuture(body());
+            return FutureAdapters.toSingle(body());
+        }
+
+        /**
+         * Reactor Mono 연계
+         *
+         * @param responseValidator
+         * @return
+         */
+        public Mono<R> responseBodyMono(final Predicate<? super HttpResponse<R>> responseValidator) {
+            return FutureAdapters.toMono(body(responseValidator));
+        }
+
+        /**
+         * Reactor Mono 연계
+         *
+         * @return
+         */
+        public Mono<R> responseBodyMono() {
+            return FutureAdapters.toMono(body());
         }
     }
     ////////////////////////////////////////
@@ -1082,20 +1334,65 @@ public abstract class HttpClientUtil<T extends HttpRequest<T>> {
      * @return
      */
     public static Map<String, Object> responseBody2Map(final RawResponse resp, final Predicate<? super RawResponse> responseValidator) {
+        validateResponse(resp, responseValidator);
+        return bytes2Map(resp.getContentAsBytes(), charset(resp));
+    }
+
+    private static void validateResponse(final RawResponse resp, final Predicate<? super RawResponse> responseValidator) {
         if (!responseValidator.test(resp)) {
             String body = "";
             try { body = resp.getContentAsString(); }
             catch (final Throwable ignore) { }
             throw new ETRuntimeException(String.format("Response Status: %d(%s), Headers: %s, Detail: %s", resp.getStatus(), resp.getStatusText(), resp.getHeaders(), body));
         }
-        final ObjectMapper objectMapper = new ObjectMapper();
+    }
+
+    /**
+     * 응답 charset 으로 읽어서 Map 변환 (UTF-8 은 byte[] 를 그대로 Jackson 에 넘긴다)
+     */
+    private static Map<String, Object> bytes2Map(final byte[] body, final Charset charset) {
+        if (body == null) {
+            return null;
+        }
         try {
-            return objectMapper.readValue(resp.getContentAsString(), new TypeReference<Map<String, Object>>() {});
-        } catch (final JsonProcessingException e) {
+            if (StandardCharsets.UTF_8.equals(charset)) {
+                return OBJECT_MAPPER.readValue(body, MAP_TYPE);
+            }
+            return OBJECT_MAPPER.readValue(new InputStreamReader(new ByteArrayInputStream(body), charset), MAP_TYPE);
+        } catch (final IOException e) {
             throw new ETRuntimeException(e);
         }
     }
 
+    /**
+     * Content-Type 의 charset (없거나 알 수 없으면 UTF-8)
+     */
+    private static Charset charset(final RawResponse resp) {
+        final String contentType = resp.getContentType();
+        if (contentType != null) {
+            for (final String parameter : contentType.split(";")) {
+                final String value = parameter.trim();
+                if (value.regionMatches(true, 0, "charset=", 0, 8)) {
+                    try {
+                        return Charset.forName(value.substring(8).replace("\"", "").trim());
+                    } catch (final IllegalArgumentException e) {
+                        break;
+                    }
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * I/O 쓰레드에서 복사한 응답 본문 (Map 변환은 다른 Executor 에서)
+     */
+    @AllArgsConstructor
+    private static final class ResponseBody {
+        private final byte[] bytes;
+        private final Charset charset;
+    }
+
     /**
      * Response 성공 여부 확인 함수, Response Http status code 2xx 인 경우 성공.
      * @param response
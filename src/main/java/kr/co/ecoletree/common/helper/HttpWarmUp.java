@@ -0,0 +1,268 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : HttpWarmUp.java
+ * DESC : 기동 시 upstream 호스트 DNS 조회 / 연결 / 요청 처리 경로 예열
+ *****************************************************************/
+package kr.co.ecoletree.common.helper;
+
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import kong.unirest.UnirestInstance;
+import kr.co.ecoletree.common.concurrent.Futures;
+import kr.co.ecoletree.common.exception.ETRuntimeException;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 배포 직후 첫 요청들이 DNS 조회, TCP / TLS handshake, Unirest / Jackson 코드 JIT 비용을 내지 않도록 미리 실행한다.
+ *
+ * URL 마다
+ * 1. {@link DnsCache#keepFresh(String)} 로 주소를 조회한다. 이때 JVM InetAddress 캐시도 채워진다.
+ *    (HttpClientUtil 의 기본 Unirest 인스턴스와 setDnsResolver 로 넣은 Apache HttpClient 는 DnsCache 를 쓰고,
+ *    UrlConnectionClient 등 나머지는 JVM 캐시를 쓴다. {@link DnsCache#configure(kong.unirest.Config)})
+ * 2. connections 개의 요청을 동시에 보내 연결 풀에 연결을 만들어 둔다. (TLS session 도 캐시된다)
+ * 3. 같은 요청을 rounds 번 반복해서 HttpClientUtil 비동기 경로와 JSON 변환 코드를 JIT 컴파일 시킨다.
+ *
+ * 응답 상태 / 본문은 확인하지 않는다. (health check 처럼 가벼운 GET URL 을 지정할 것)
+ * 실패해도 예외를 던지지 않고 결과에 기록한다.
+ * 한 round 의 요청이 모두 실패하면(upstream 장애) 그 URL 은 남은 round 를 건너뛴다.
+ * 전체 시간이 deadline 을 넘으면 남은 round / URL 을 건너뛴다. (기동이 예열 때문에 오래 멈추지 않도록)
+ */
+@Slf4j
+public final class HttpWarmUp {
+    private final Config config;
+
+    public HttpWarmUp(final Config config) {
+        this.config = config;
+    }
+
+    /**
+     * 모든 URL 예열 (URL 순서대로, 각 URL 안에서는 동시에)
+     *
+     * @return URL 별 결과
+     */
+    public List<Result> run() {
+        final List<Result> results = new ArrayList<>();
+        final long deadline = System.nanoTime() + config.deadline.toNanos();
+        for (final String url : config.urls) {
+            final Result result = warmUp(url, deadline);
+            if (result.error == null) {
+                log.info("HTTP warm-up {}", result);
+            } else {
+                log.warn("HTTP warm-up {}", result);
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    private Result warmUp(final String url, final long deadline) {
+        final Result result = new Result(url);
+        if (System.nanoTime() - deadline >= 0) {
+            result.error = "skipped, deadline exceeded (" + config.deadline + ")";
+            return result;
+        }
+        final String host = URI.create(url).getHost();
+        if (host == null) {
+            result.error = "invalid url";
+            return result;
+        }
+        final long resolving = System.nanoTime();
+        try {
+            config.dnsCache.keepFresh(host);
+            result.dnsNanos = System.nanoTime() - resolving;
+        } catch (final UnknownHostException e) {
+            result.error = "unknown host: " + host;
+            return result;
+        }
+
+        for (int round = 0; round < config.rounds; round++) {
+            if (round > 0 && System.nanoTime() - deadline >= 0) {
+                result.error = String.format("deadline exceeded after %d rounds (%s)", round, config.deadline);
+                break;
+            }
+            final long begin = System.nanoTime();
+            final List<CompletableFuture<?>> exchanges = new ArrayList<>();
+            for (int i = 0; i < config.connections; i++) {
+                // 문자열 / Map 변환 경로를 번갈아 실행 (Map 변환이 실패해도 JIT 에는 도움이 된다)
+                final HttpClientUtil.Get get = config.client == null ? HttpClientUtil.get(url) : HttpClientUtil.get(config.client, url);
+                exchanges.add(i % 2 == 0
+                        ? get.exchangeAsStringAsync().timeout(config.timeout).body(response -> true)
+                        : get.exchangeAsMapAsync().timeout(config.timeout).body(response -> true));
+            }
+            int failures = 0;
+            for (final CompletableFuture<?> exchange : exchanges) {
+                try {
+                    exchange.join();
+                } catch (final RuntimeException e) {
+                    failures++;
+                    result.error = String.valueOf(Futures.unwrap(e));
+                }
+            }
+            final long elapsed = System.nanoTime() - begin;
+            if (round == 0) {
+                result.firstRoundNanos = elapsed;
+            }
+            result.lastRoundNanos = elapsed;
+            result.exchanges += config.connections;
+            result.failures += failures;
+            if (failures == config.connections) {
+                result.error = String.format("all exchanges failed in round %d, skipped the rest: %s", round + 1, result.error);
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * URL 별 예열 결과
+     */
+    @Getter
+    public static final class Result {
+        private final String url;
+        private long dnsNanos;
+        private long firstRoundNanos;
+        private long lastRoundNanos;
+        private int exchanges;
+        private int failures;
+        private String error;
+
+        private Result(final String url) {
+            this.url = url;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Result(%s, dns=%d ms, first round=%d ms, last round=%d ms, exchanges=%d, failures=%d%s)",
+                    url, TimeUnit.NANOSECONDS.toMillis(dnsNanos), TimeUnit.NANOSECONDS.toMillis(firstRoundNanos),
+                    TimeUnit.NANOSECONDS.toMillis(lastRoundNanos), exchanges, failures, error == null ? "" : ", error=" + error);
+        }
+    }
+
+    /**
+     * 예열 설정
+     */
+    public static final class Config {
+        private final List<String> urls;
+        private final int connections;
+        private final int rounds;
+        private final Duration timeout;
+        private final Duration deadline;
+        private final UnirestInstance client;
+        private final DnsCache dnsCache;
+
+        private Config(final Builder builder) {
+            this.urls = Collections.unmodifiableList(new ArrayList<>(builder.urls));
+            this.connections = builder.connections;
+            this.rounds = builder.rounds;
+            this.timeout = builder.timeout;
+            this.deadline = builder.deadline;
+            this.client = builder.client;
+            this.dnsCache = builder.dnsCache;
+        }
+
+        public static Builder builder() {
+            return new Builder();
+        }
+
+        public List<String> getUrls() {
+            return urls;
+        }
+
+        public static final class Builder {
+            private final List<String> urls = new ArrayList<>();
+            private int connections = 4;
+            private int rounds = 20;
+            private Duration timeout = Duration.ofSeconds(10);
+            private Duration deadline = Duration.ofSeconds(60);
+            private UnirestInstance client;
+            private DnsCache dnsCache = DnsCache.shared();
+
+            private Builder() {}
+
+            /**
+             * @param url 예열할 URL (GET)
+             * @return
+             */
+            public Builder url(final String url) {
+                this.urls.add(url);
+                return this;
+            }
+
+            public Builder urls(final List<String> urls) {
+                this.urls.addAll(urls);
+                return this;
+            }
+
+            /**
+             * @param connections URL 마다 만들어 둘 연결 수 (한 round 에 동시에 보내는 요청 수)
+             * @return
+             */
+            public Builder connections(final int connections) {
+                if (connections < 1) {
+                    throw new ETRuntimeException(String.format("invalid connections: %d", connections));
+                }
+                this.connections = connections;
+                return this;
+            }
+
+            /**
+             * @param rounds JIT 예열용 반복 횟수
+             * @return
+             */
+            public Builder rounds(final int rounds) {
+                if (rounds < 1) {
+                    throw new ETRuntimeException(String.format("invalid rounds: %d", rounds));
+                }
+                this.rounds = rounds;
+                return this;
+            }
+
+            /**
+             * @param timeout 요청 하나의 최대 대기 시간
+             * @return
+             */
+            public Builder timeout(final Duration timeout) {
+                this.timeout = timeout;
+                return this;
+            }
+
+            /**
+             * @param deadline 전체 예열의 최대 시간. 넘으면 남은 round / URL 을 건너뛴다. (진행 중인 round 는 끝까지 기다린다)
+             * @return
+             */
+            public Builder deadline(final Duration deadline) {
+                this.deadline = deadline;
+                return this;
+            }
+
+            /**
+             * @param client 예열할 Unirest 인스턴스 (기본: HttpClientUtil 이 쓰는 공용 Unirest)
+             * @return
+             */
+            public Builder client(final UnirestInstance client) {
+                this.client = client;
+                return this;
+            }
+
+            public Builder dnsCache(final DnsCache dnsCache) {
+                this.dnsCache = dnsCache;
+                return this;
+            }
+
+            public Config build() {
+                return new Config(this);
+            }
+        }
+    }
+}
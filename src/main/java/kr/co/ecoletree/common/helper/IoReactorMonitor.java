@@ -0,0 +1,134 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : IoReactorMonitor.java
+ * DESC : I/O reactor(event loop) 쓰레드 사용률 측정
+ *****************************************************************/
+package kr.co.ecoletree.common.helper;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.Map;
+
+import kr.co.ecoletree.common.exception.ETRuntimeException;
+import lombok.Getter;
+
+/**
+ * 이름이 prefix 로 시작하는 쓰레드들의 CPU 사용 시간을 주기적으로 읽어 사용률을 계산한다.
+ *
+ * I/O reactor 쓰레드는 할 일이 없으면 selector 에서 대기하므로 CPU 시간을 쓰지 않는다.
+ * 사용률이 높은 쓰레드가 있다면 그 쓰레드에서 응답 변환 / callback 같은 작업이 실행되고 있을 가능성이 높다.
+ *
+ * <pre>
+ * {@code
+ * final IoReactorMonitor monitor = IoReactorMonitor.apache();
+ * monitor.sample();            // 기준점
+ * ... 요청 실행 ...
+ * log.info("{}", monitor.sample());
+ * }
+ * </pre>
+ */
+public final class IoReactorMonitor {
+    /** Apache HttpAsyncClient (Unirest 기본 비동기 클라이언트) I/O reactor 쓰레드 이름 */
+    public static final String APACHE_DISPATCHER = "I/O dispatcher";
+
+    private final String threadPrefix;
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final Map<Long, Long> lastCpuNanos = new HashMap<>();
+    private long lastSampleNanos = System.nanoTime();
+
+    public IoReactorMonitor(final String threadPrefix) {
+        if (!threadMXBean.isThreadCpuTimeSupported()) {
+            throw new ETRuntimeException("thread cpu time is not supported");
+        }
+        if (!threadMXBean.isThreadCpuTimeEnabled()) {
+            threadMXBean.setThreadCpuTimeEnabled(true);
+        }
+        this.threadPrefix = threadPrefix;
+    }
+
+    public static IoReactorMonitor apache() {
+        return new IoReactorMonitor(APACHE_DISPATCHER);
+    }
+
+    /**
+     * 이전 sample() 이후의 사용률
+     *
+     * @return
+     */
+    public synchronized Utilization sample() {
+        final long now = System.nanoTime();
+        final long elapsed = Math.max(1, now - lastSampleNanos);
+        lastSampleNanos = now;
+
+        int threads = 0;
+        long total = 0;
+        long busiest = 0;
+        final Map<Long, Long> current = new HashMap<>();
+        for (final ThreadInfo info : threadMXBean.getThreadInfo(threadMXBean.getAllThreadIds())) {
+            if (info == null || !info.getThreadName().startsWith(threadPrefix)) {
+                continue;
+            }
+            final long cpu = threadMXBean.getThreadCpuTime(info.getThreadId());
+            if (cpu < 0) {
+                continue;
+            }
+            final long used = cpu - lastCpuNanos.getOrDefault(info.getThreadId(), cpu);
+            current.put(info.getThreadId(), cpu);
+            threads++;
+            total += used;
+            busiest = Math.max(busiest, used);
+        }
+        lastCpuNanos.clear();
+        lastCpuNanos.putAll(current);
+        return new Utilization(threadPrefix, threads, elapsed, total, busiest);
+    }
+
+    /**
+     * 측정 결과
+     */
+    @Getter
+    public static final class Utilization {
+        private final String threadPrefix;
+        private final int threads;
+        private final long elapsedNanos;
+        private final long cpuNanos;
+        private final long busiestCpuNanos;
+
+        private Utilization(final String threadPrefix, final int threads, final long elapsedNanos, final long cpuNanos, final long busiestCpuNanos) {
+            this.threadPrefix = threadPrefix;
+            this.threads = threads;
+            this.elapsedNanos = elapsedNanos;
+            this.cpuNanos = cpuNanos;
+            this.busiestCpuNanos = busiestCpuNanos;
+        }
+
+        /**
+         * 쓰레드 평균 사용률 (0.0 ~ 1.0)
+         *
+         * @return
+         */
+        public double getAverage() {
+            return threads == 0 ? 0 : (double) cpuNanos / elapsedNanos / threads;
+        }
+
+        /**
+         * 가장 바쁜 쓰레드의 사용률 (0.0 ~ 1.0)
+         *
+         * @return
+         */
+        public double getBusiest() {
+            return (double) busiestCpuNanos / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Utilization(%s, threads=%d, elapsed=%d ms, average=%.1f%%, busiest=%.1f%%)",
+                    threadPrefix, threads, elapsedNanos / 1_000_000, getAverage() * 100, getBusiest() * 100);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : MicroBenchmark.java
+ * DESC : 멀티 쓰레드 처리량(throughput) 측정 유틸
+ *****************************************************************/
+package kr.co.ecoletree.common.helper;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+import kr.co.ecoletree.common.exception.ETRuntimeException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 예제 코드용 간단한 처리량 측정 도구.
+ *
+ * 지정한 쓰레드 수 만큼 동시에 작업을 반복 실행하고 초당 처리 횟수를 계산한다.
+ * warm-up 구간을 먼저 실행하여 JIT 컴파일 이후의 값을 측정한다.
+ * (정밀한 측정이 필요하면 JMH 사용)
+ */
+public final class MicroBenchmark {
+    public static final Duration DEFAULT_WARMUP = Duration.ofMillis(200);
+    public static final Duration DEFAULT_MEASURE = Duration.ofMillis(500);
+
+    private MicroBenchmark() {}
+
+    /**
+     * 처리량 측정
+     *
+     * @param name 결과 출력용 이름
+     * @param threads 동시 실행 쓰레드 수
+     * @param operation 쓰레드 index -> 반복 실행할 작업. 쓰레드 마다 한 번 호출된다.
+     * @return
+     */
+    public static Result throughput(final String name, final int threads, final IntFunction<Runnable> operation) {
+        return throughput(name, threads, DEFAULT_WARMUP, DEFAULT_MEASURE, operation);
+    }
+
+    /**
+     * 처리량 측정
+     *
+     * @param name 결과 출력용 이름
+     * @param threads 동시 실행 쓰레드 수
+     * @param warmup warm-up 시간
+     * @param measure 측정 시간
+     * @param operation 쓰레드 index -> 반복 실행할 작업. 쓰레드 마다 한 번 호출된다.
+     * @return
+     */
+    public static Result throughput(final String name, final int threads, final Duration warmup, final Duration measure,
+                                    final IntFunction<Runnable> operation) {
+        run(threads, warmup, operation);
+        final long ops = run(threads, measure, operation);
+        return new Result(name, threads, ops, measure);
+    }
+
+    private static long run(final int threads, final Duration duration, final IntFunction<Runnable> operation) {
+        final CountDownLatch ready = new CountDownLatch(threads);
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(threads);
+        final AtomicLong total = new AtomicLong();
+        final StopFlag stop = new StopFlag();
+
+        for (int i = 0; i < threads; i++) {
+            final Runnable op = operation.apply(i);
+            final Thread t = new Thread(() -> {
+                long ops = 0;
+                ready.countDown();
+                try {
+                    start.await();
+                    while (!stop.stopped) {
+                        op.run();
+                        ops++;
+                    }
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    total.addAndGet(ops);
+                    finished.countDown();
+                }
+            }, "bench-" + i);
+            t.setDaemon(true);
+            t.start();
+        }
+
+        try {
+            ready.await();
+            start.countDown();
+            TimeUnit.NANOSECONDS.sleep(duration.toNanos());
+            stop.stopped = true;
+            finished.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ETRuntimeException(e);
+        }
+        return total.get();
+    }
+
+    private static final class StopFlag {
+        private volatile boolean stopped;
+    }
+
+    /**
+     * 측정 결과
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Result {
+        private final String name;
+        private final int threads;
+        private final long operations;
+        private final Duration duration;
+
+        public double opsPerSecond() {
+            return operations * 1_000_000_000d / duration.toNanos();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-24s threads=%-3d %,14.0f ops/s", name, threads, opsPerSecond());
+        }
+    }
+}
@@ -0,0 +1,249 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : MultipartStream.java
+ * DESC : 메모리에 모으지 않고 읽는 대로 만들어지는 multipart/form-data 본문
+ *****************************************************************/
+package kr.co.ecoletree.common.helper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+import kr.co.ecoletree.common.exception.ETRuntimeException;
+
+/**
+ * multipart/form-data 본문 InputStream.
+ *
+ * Unirest MultipartBody 는 전송 전에 Apache MultipartEntity 를 통째로 만들지만,
+ * 이 클래스는 part 헤더 / 파일 내용을 read 하는 만큼만 만든다. 파일은 {@link FileRangeInputStream} 으로 나눠 읽는다.
+ * 모든 part 의 크기를 알면 (문자열, byte[], 파일) 전체 Content-Length 를 미리 계산한다.
+ *
+ * 한 번만 읽을 수 있다. 전송 방식은 {@link HttpClientUtil.ElseMethod#multipart(MultipartStream)} 참고.
+ *
+ * <pre>
+ * {@code
+ * final MultipartStream form = MultipartStream.builder()
+ *         .field("name", "ecoletree")
+ *         .file("upload", Paths.get("large.bin"), "application/octet-stream")
+ *         .build();
+ * HttpClientUtil.post(url).multipart(form).exchangeAsStringAsync();
+ * }
+ * </pre>
+ */
+public final class MultipartStream extends InputStream {
+    private static final byte[] CRLF = "\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final String boundary;
+    private final long contentLength;
+    private final List<Callable<InputStream>> segments;
+    private int next;
+    private InputStream current;
+
+    private MultipartStream(final Builder builder) {
+        this.boundary = builder.boundary;
+        final List<Callable<InputStream>> segments = new ArrayList<>(builder.segments);
+        final byte[] closing = ("--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        segments.add(() -> new ByteArrayInputStream(closing));
+        this.segments = Collections.unmodifiableList(segments);
+        this.contentLength = builder.contentLength < 0 ? -1 : builder.contentLength + closing.length;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String getBoundary() {
+        return boundary;
+    }
+
+    /**
+     * @return "multipart/form-data; boundary=..."
+     */
+    public String getContentType() {
+        return "multipart/form-data; boundary=" + boundary;
+    }
+
+    /**
+     * 전체 본문 크기, 크기를 모르는 InputStream part 가 있으면 -1 (chunked 전송)
+     *
+     * @return
+     */
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final byte[] one = new byte[1];
+        return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] buffer, final int offset, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (true) {
+            if (current == null) {
+                if (next == segments.size()) {
+                    return -1;
+                }
+                current = open(segments.get(next++));
+            }
+            final int n = current.read(buffer, offset, len);
+            if (n >= 0) {
+                return n;
+            }
+            current.close();
+            current = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+        next = segments.size();
+    }
+
+    /**
+     * Content-Disposition 의 name / filename 값 (따옴표 안) 인코딩.
+     * RFC 7578 / HTML form 과 같이 ", CR, LF 만 percent-encoding 하고 나머지(한글 등)는 본문 charset 으로 그대로 보낸다.
+     *
+     * @param value
+     * @return
+     */
+    static String escape(final String value) {
+        StringBuilder sb = null;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            final String encoded = c == '"' ? "%22" : c == '\r' ? "%0D" : c == '\n' ? "%0A" : null;
+            if (encoded != null && sb == null) {
+                sb = new StringBuilder(value.length() + 8).append(value, 0, i);
+            }
+            if (sb != null) {
+                if (encoded != null) {
+                    sb.append(encoded);
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+        return sb == null ? value : sb.toString();
+    }
+
+    private static InputStream open(final Callable<InputStream> segment) throws IOException {
+        try {
+            return segment.call();
+        } catch (final IOException | RuntimeException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * 본문 빌더
+     */
+    public static final class Builder {
+        private final List<Callable<InputStream>> segments = new ArrayList<>();
+        private String boundary = "----ecoletree" + UUID.randomUUID().toString().replace("-", "");
+        private Charset charset = StandardCharsets.UTF_8;
+        private long contentLength;
+
+        private Builder() {}
+
+        public Builder boundary(final String boundary) {
+            if (!segments.isEmpty()) {
+                throw new ETRuntimeException("boundary must be set before adding parts");
+            }
+            this.boundary = boundary;
+            return this;
+        }
+
+        /**
+         * @param charset part 이름 / 문자열 값 인코딩 (기본: UTF-8)
+         * @return
+         */
+        public Builder charset(final Charset charset) {
+            this.charset = charset;
+            return this;
+        }
+
+        public Builder field(final String name, final String value) {
+            final byte[] bytes = value.getBytes(charset);
+            return part(name, null, null, bytes.length, () -> new ByteArrayInputStream(bytes));
+        }
+
+        public Builder field(final String name, final byte[] value, final String contentType, final String fileName) {
+            return part(name, fileName, contentType, value.length, () -> new ByteArrayInputStream(value));
+        }
+
+        /**
+         * 파일 part (크기는 지금 읽고, 내용은 전송할 때 FileChannel 로 나눠 읽는다)
+         *
+         * @param name
+         * @param path
+         * @param contentType
+         * @return
+         */
+        public Builder file(final String name, final Path path, final String contentType) {
+            if (!path.toFile().isFile()) {
+                throw new ETRuntimeException(String.format("file not found: %s", path));
+            }
+            final long size = path.toFile().length();
+            return part(name, path.getFileName().toString(), contentType, size, () -> new FileRangeInputStream(path, 0, size));
+        }
+
+        /**
+         * InputStream part
+         *
+         * @param name
+         * @param in
+         * @param length 크기를 모르면 -1 (Content-Length 를 계산할 수 없다)
+         * @param contentType
+         * @param fileName
+         * @return
+         */
+        public Builder stream(final String name, final InputStream in, final long length, final String contentType, final String fileName) {
+            return part(name, fileName, contentType, length, () -> in);
+        }
+
+        public MultipartStream build() {
+            return new MultipartStream(this);
+        }
+
+        private Builder part(final String name, final String fileName, final String contentType, final long length, final Callable<InputStream> body) {
+            final StringBuilder head = new StringBuilder("--").append(boundary).append("\r\n")
+                    .append("Content-Disposition: form-data; name=\"").append(escape(name)).append('"');
+            if (fileName != null) {
+                head.append("; filename=\"").append(escape(fileName)).append('"');
+            }
+            head.append("\r\n");
+            if (contentType != null) {
+                head.append("Content-Type: ").append(contentType).append("\r\n");
+            }
+            head.append("\r\n");
+            final byte[] headBytes = head.toString().getBytes(charset);
+
+            segments.add(() -> new ByteArrayInputStream(headBytes));
+            segments.add(body);
+            segments.add(() -> new ByteArrayInputStream(CRLF));
+            contentLength = contentLength < 0 || length < 0 ? -1 : contentLength + headBytes.length + length + CRLF.length;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : RangedUpload.java
+ * DESC : 큰 파일을 구간(part)으로 나눠 동시에 업로드
+ *****************************************************************/
+package kr.co.ecoletree.common.helper;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import kr.co.ecoletree.common.concurrent.Futures;
+import kr.co.ecoletree.common.exception.ETRuntimeException;
+import lombok.Getter;
+
+/**
+ * 구간 업로드(Content-Range, S3 multipart 등)를 받는 API 에 파일을 나눠서 동시에 올린다.
+ *
+ * 파일을 partSize 로 나누고 최대 parallelism 개의 part 를 동시에 전송한다. part 본문은
+ * {@link Part#open()} 으로 FileChannel 에서 나눠 읽으므로 파일 전체를 메모리에 올리지 않는다.
+ * 한 part 라도 실패하면 남은 part 는 보내지 않고 결과 future 가 실패로 완료된다.
+ *
+ * <pre>
+ * {@code
+ * RangedUpload.of(path, 8 * 1024 * 1024, 4)
+ *         .upload(part -> HttpClientUtil.put(url)
+ *                 .headers(MapBuilder.of("Content-Range", part.getContentRange()))
+ *                 .stream(part.open())
+ *                 .exchangeEmptyAsync());
+ * }
+ * </pre>
+ */
+public final class RangedUpload {
+    private final Path path;
+    private final long size;
+    private final long partSize;
+    private final int parallelism;
+
+    private RangedUpload(final Path path, final long partSize, final int parallelism) {
+        if (!path.toFile().isFile()) {
+            throw new ETRuntimeException(String.format("file not found: %s", path));
+        }
+        if (partSize < 1 || parallelism < 1) {
+            throw new ETRuntimeException(String.format("invalid part size / parallelism: %d / %d", partSize, parallelism));
+        }
+        this.path = path;
+        this.size = path.toFile().length();
+        this.partSize = partSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @param path 업로드할 파일
+     * @param partSize part 크기 (bytes)
+     * @param parallelism 동시에 전송할 최대 part 수
+     * @return
+     */
+    public static RangedUpload of(final Path path, final long partSize, final int parallelism) {
+        return new RangedUpload(path, partSize, parallelism);
+    }
+
+    public int getParts() {
+        return (int) Math.max(1, (size + partSize - 1) / partSize);
+    }
+
+    /**
+     * 모든 part 업로드
+     *
+     * @param sender part 를 전송하는 요청 (part 마다 한 번 호출된다)
+     * @return 모든 part 가 성공하면 완료
+     */
+    public CompletableFuture<Result> upload(final Function<Part, HttpClientUtil.AsyncExchange<?>> sender) {
+        final int parts = getParts();
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicInteger completed = new AtomicInteger();
+        final AtomicLong bytes = new AtomicLong();
+        final AtomicBoolean failed = new AtomicBoolean();
+        final CompletableFuture<Result> result = new CompletableFuture<>();
+        final long begin = System.nanoTime();
+
+        final Runnable[] worker = new Runnable[1];
+        worker[0] = () -> {
+            final int index = next.getAndIncrement();
+            if (index >= parts || failed.get()) {
+                return;
+            }
+            final Part part = new Part(index, (long) index * partSize, Math.min(partSize, size - (long) index * partSize));
+            final CompletableFuture<?> sent;
+            try {
+                sent = sender.apply(part).body();
+            } catch (final RuntimeException e) {
+                failed.set(true);
+                result.completeExceptionally(e);
+                return;
+            }
+            sent.whenComplete((ignore, e) -> {
+                if (e != null) {
+                    failed.set(true);
+                    result.completeExceptionally(new ETRuntimeException(String.format("part %d (%s) failed", part.index, part.getContentRange()), Futures.unwrap(e)));
+                    return;
+                }
+                bytes.addAndGet(part.length);
+                if (completed.incrementAndGet() == parts) {
+                    result.complete(new Result(parts, bytes.get(), System.nanoTime() - begin));
+                } else {
+                    worker[0].run();
+                }
+            });
+        };
+        for (int i = 0; i < Math.min(parallelism, parts); i++) {
+            worker[0].run();
+        }
+        return result;
+    }
+
+    /**
+     * 업로드할 파일 구간
+     */
+    @Getter
+    public final class Part {
+        private final int index;
+        private final long position;
+        private final long length;
+
+        private Part(final int index, final long position, final long length) {
+            this.index = index;
+            this.position = position;
+            this.length = length;
+        }
+
+        /** 전체 파일 크기 */
+        public long getTotal() {
+            return size;
+        }
+
+        /**
+         * @return "bytes {first}-{last}/{total}"
+         */
+        public String getContentRange() {
+            if (length == 0) {
+                return "bytes */" + size;
+            }
+            return String.format("bytes %d-%d/%d", position, position + length - 1, size);
+        }
+
+        /**
+         * part 본문 (전송할 때 FileChannel 로 나눠 읽는다)
+         *
+         * @return
+         */
+        public FileRangeInputStream open() {
+            return new FileRangeInputStream(path, position, length);
+        }
+    }
+
+    /**
+     * 업로드 결과
+     */
+    @Getter
+    public static final class Result {
+        private final int parts;
+        private final long bytes;
+        private final long elapsedNanos;
+
+        private Result(final int parts, final long bytes, final long elapsedNanos) {
+            this.parts = parts;
+            this.bytes = bytes;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Result(parts=%d, bytes=%d, elapsed=%d ms)", parts, bytes, elapsedNanos / 1_000_000);
+        }
+    }
+}
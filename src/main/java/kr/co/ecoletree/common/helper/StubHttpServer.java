@@ -0,0 +1,249 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : StubHttpServer.java
+ * DESC : HTTP 클라이언트 예제 / 성능 측정용 로컬 HTTP 서버 (JDK HttpServer)
+ *****************************************************************/
+package kr.co.ecoletree.common.helper;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import kr.co.ecoletree.common.concurrent.TimerWheel;
+import kr.co.ecoletree.common.concurrent.WorkerThreadFactory;
+import kr.co.ecoletree.common.exception.ETRuntimeException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 예제 / 성능 측정용 HTTP 서버.
+ *
+ * - GET  /hello        : {"message":"hello"}
+ * - POST /echo         : 요청 본문을 그대로 응답 (Content-Type 도 그대로)
+ * - GET  /bytes/{n}    : n 바이트 응답
+ * - POST/PUT /upload   : 요청 본문을 읽고 버린 뒤 크기 / 전송 방식(Content-Length, chunked) / Content-Range / 받은 Content-Type 헤더 목록 응답
+ *
+ * 모든 경로에 ?delay=ms 를 붙이면 응답 전에 대기한다. (원격 서버 지연 흉내, 대기 중에는 쓰레드를 쓰지 않는다)
+ * 다른 경로는 {@link #handle(String, HttpHandler)} 로 추가한다.
+ *
+ * <pre>
+ * {@code
+ * try (StubHttpServer server = StubHttpServer.start()) {
+ *     HttpClientUtil.get(server.url("/hello")).exchangeAsMapAsync();
+ * }
+ * }
+ * </pre>
+ */
+@Slf4j
+public final class StubHttpServer implements AutoCloseable {
+    private static final byte[] HELLO = "{\"message\":\"hello\"}".getBytes(StandardCharsets.UTF_8);
+    private static final int BUFFER_SIZE = 8192;
+
+    static {
+        // 응답 헤더 / 본문을 따로 쓰므로 Nagle + delayed ACK 로 40ms 씩 지연되지 않도록 (JDK HttpServer 설정, 처음 만들 때 읽는다)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService handlers = Executors.newCachedThreadPool(WorkerThreadFactory.daemon("http-stub"));
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong bytesIn = new AtomicLong();
+    private final AtomicLong bytesOut = new AtomicLong();
+
+    private StubHttpServer() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        server.setExecutor(handlers);
+        handle("/hello", exchange -> reply(exchange, 200, "application/json", HELLO));
+        handle("/echo", exchange -> {
+            final String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            reply(exchange, 200, contentType == null ? "application/octet-stream" : contentType, readBody(exchange));
+        });
+        handle("/bytes/", exchange -> {
+            final String path = exchange.getRequestURI().getPath();
+            final int size = Integer.parseInt(path.substring(path.lastIndexOf('/') + 1));
+            exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+            exchange.sendResponseHeaders(200, size == 0 ? -1 : size);
+            try (OutputStream out = exchange.getResponseBody()) {
+                final byte[] chunk = new byte[Math.min(size, BUFFER_SIZE)];
+                for (int remaining = size; remaining > 0; remaining -= chunk.length) {
+                    out.write(chunk, 0, Math.min(chunk.length, remaining));
+                }
+            }
+            bytesOut.addAndGet(size);
+        });
+        handle("/upload", exchange -> {
+            long size = 0;
+            try (InputStream in = exchange.getRequestBody()) {
+                final byte[] buffer = new byte[BUFFER_SIZE];
+                for (int n; (n = in.read(buffer)) >= 0; ) {
+                    size += n;
+                }
+            }
+            bytesIn.addAndGet(size);
+            final String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+            final String contentRange = exchange.getRequestHeaders().getFirst("Content-Range");
+            final List<String> contentTypes = exchange.getRequestHeaders().getOrDefault("Content-Type", Collections.emptyList());
+            final String json = String.format("{\"bytes\":%d,\"transfer\":\"%s\",\"range\":%s,\"contentTypes\":[%s]}",
+                    size, contentLength != null ? "content-length" : "chunked", contentRange == null ? "null" : "\"" + contentRange + "\"",
+                    contentTypes.stream().map(type -> "\"" + type.replace("\"", "\\\"") + "\"").collect(Collectors.joining(",")));
+            reply(exchange, 200, "application/json", json.getBytes(StandardCharsets.UTF_8));
+        });
+        server.start();
+    }
+
+    public static StubHttpServer start() {
+        try {
+            return new StubHttpServer();
+        } catch (final IOException e) {
+            throw new ETRuntimeException(e);
+        }
+    }
+
+    /**
+     * 경로 추가 (요청 수 / delay 처리 포함)
+     *
+     * @param path
+     * @param handler
+     * @return
+     */
+    public StubHttpServer handle(final String path, final HttpHandler handler) {
+        server.createContext(path, exchange -> {
+            requests.incrementAndGet();
+            final long delay = delayMillis(exchange.getRequestURI());
+            if (delay > 0) {
+                // 대기하는 동안 쓰레드를 붙잡지 않도록 timer 에서 응답한다.
+                TimerWheel.shared().schedule(() -> handlers.execute(() -> respond(exchange, handler)), delay, TimeUnit.MILLISECONDS);
+            } else {
+                respond(exchange, handler);
+            }
+        });
+        return this;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @param path "/hello" 등
+     * @return
+     */
+    public String url(final String path) {
+        return "http://" + server.getAddress().getAddress().getHostAddress() + ":" + getPort() + path;
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /** 받은 요청 본문 크기 */
+    public long getBytesIn() {
+        return bytesIn.get();
+    }
+
+    /** 보낸 응답 본문 크기 */
+    public long getBytesOut() {
+        return bytesOut.get();
+    }
+
+    public void reset() {
+        requests.set(0);
+        bytesIn.set(0);
+        bytesOut.set(0);
+    }
+
+    /**
+     * 요청 본문을 모두 읽는다.
+     *
+     * @param exchange
+     * @return
+     * @throws IOException
+     */
+    public byte[] readBody(final HttpExchange exchange) throws IOException {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (InputStream in = exchange.getRequestBody()) {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            for (int n; (n = in.read(buffer)) >= 0; ) {
+                body.write(buffer, 0, n);
+            }
+        }
+        bytesIn.addAndGet(body.size());
+        return body.toByteArray();
+    }
+
+    /**
+     * 응답 전송
+     *
+     * @param exchange
+     * @param status
+     * @param contentType
+     * @param body
+     * @throws IOException
+     */
+    public void reply(final HttpExchange exchange, final int status, final String contentType, final byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+        bytesOut.addAndGet(body.length);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        handlers.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("StubHttpServer(port=%d, requests=%d, bytesIn=%d, bytesOut=%d)",
+                getPort(), getRequests(), getBytesIn(), getBytesOut());
+    }
+
+    private static void respond(final HttpExchange exchange, final HttpHandler handler) {
+        try {
+            handler.handle(exchange);
+        } catch (final IOException | RuntimeException e) {
+            log.debug("{} {} failed: {}", exchange.getRequestMethod(), exchange.getRequestURI(), e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static long delayMillis(final URI uri) {
+        final String query = uri.getRawQuery();
+        if (query == null) {
+            return 0;
+        }
+        for (final String parameter : query.split("&")) {
+            if (parameter.startsWith("delay=")) {
+                return Long.parseLong(parameter.substring("delay=".length()));
+            }
+        }
+        return 0;
+    }
+}
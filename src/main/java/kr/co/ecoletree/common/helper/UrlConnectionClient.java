@@ -0,0 +1,483 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : UrlConnectionClient.java
+ * DESC : JDK HttpURLConnection 으로 요청을 실행하는 Unirest Client (Apache HttpClient 없이)
+ *****************************************************************/
+package kr.co.ecoletree.common.helper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import javax.net.ssl.HttpsURLConnection;
+
+import kong.unirest.AsyncClient;
+import kong.unirest.Body;
+import kong.unirest.BodyPart;
+import kong.unirest.Client;
+import kong.unirest.Config;
+import kong.unirest.Header;
+import kong.unirest.Headers;
+import kong.unirest.HttpRequest;
+import kong.unirest.HttpRequestSummary;
+import kong.unirest.HttpResponse;
+import kong.unirest.MetricContext;
+import kong.unirest.RawResponse;
+import kong.unirest.RawResponseBase;
+import kong.unirest.UnirestInstance;
+import kr.co.ecoletree.common.concurrent.WorkerPools;
+import kr.co.ecoletree.common.exception.ETRuntimeException;
+
+/**
+ * HttpURLConnection 기반 Unirest Client.
+ *
+ * Unirest 의 요청 빌더 / 응답 변환(asString, asObject ...)은 그대로 쓰고 실제 전송만 JDK 로 한다.
+ * Apache HttpClient / HttpAsyncClient (연결 풀, I/O reactor 쓰레드) 를 만들지 않으므로 시작이 빠르고 메모리를 적게 쓴다.
+ * 연결 재사용은 JDK keep-alive 캐시(http.maxConnections, 기본 5)가 한다. 응답 본문은 끝까지 읽고 닫아야 재사용된다.
+ *
+ * 비동기 요청은 {@link WorkerPools#io()} 에서 실행한다. (HttpURLConnection 은 blocking I/O)
+ *
+ * HttpURLConnection 은 PATCH 를 지원하지 않는다. PATCH 요청은 보내지 않고 바로 실패한다. (UnirestException)
+ * 서버가 X-HTTP-Method-Override 를 지원하면 POST 에 그 헤더를 붙여서 보내고, 아니면 기본 Client(Apache)를 사용할 것.
+ *
+ * <pre>
+ * {@code
+ * HttpClientUtil.get(UrlConnectionClient.shared(), "http://localhost:8080/hello").exchangeAsStringAsync();
+ * }
+ * </pre>
+ */
+public final class UrlConnectionClient implements Client {
+    private static final int BUFFER_SIZE = 8192;
+    /** HttpURLConnection#setRequestMethod 가 받는 메소드 */
+    private static final Set<String> METHODS = new HashSet<>(Arrays.asList("GET", "POST", "HEAD", "OPTIONS", "PUT", "DELETE", "TRACE"));
+
+    private final Config config;
+
+    public UrlConnectionClient(final Config config) {
+        this.config = config;
+    }
+
+    /**
+     * 이 Client 를 쓰는 UnirestInstance 생성
+     *
+     * @param executor 비동기 요청을 실행할 Executor
+     * @return
+     */
+    public static UnirestInstance newInstance(final Executor executor) {
+        final Config config = new Config();
+        config.httpClient(UrlConnectionClient::new)
+                .asyncClient(c -> new Async(new UrlConnectionClient(c), executor))
+                .addShutdownHook(false);
+        return new UnirestInstance(config);
+    }
+
+    /**
+     * 공용 UnirestInstance (비동기 요청은 I/O 풀에서 실행)
+     *
+     * @return
+     */
+    public static UnirestInstance shared() {
+        return Holder.INSTANCE;
+    }
+
+    @Override
+    public Object getClient() {
+        return this;
+    }
+
+    /**
+     * Client 인터페이스가 raw HttpRequest 로 선언되어 있어서 raw 타입을 그대로 받는다.
+     */
+    @Override
+    @Deprecated
+    @SuppressWarnings("rawtypes")
+    public <T> HttpResponse<T> request(final HttpRequest request, final Function<RawResponse, HttpResponse<T>> transformer) {
+        return execute(request, transformer);
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public <T> HttpResponse<T> request(final HttpRequest request, final Function<RawResponse, HttpResponse<T>> transformer,
+                                       final Class<?> resultType) {
+        return execute(request, transformer);
+    }
+
+    private <T> HttpResponse<T> execute(final HttpRequest<?> request, final Function<RawResponse, HttpResponse<T>> transformer) {
+        final HttpRequestSummary summary = request.toSummary();
+        config.getUniInterceptor().onRequest(request, config);
+        final MetricContext metric = config.getMetric().begin(summary);
+        HttpURLConnection connection = null;
+        try {
+            connection = open(request);
+            writeBody(connection, request);
+            final Response raw = new Response(connection, config);
+            metric.complete(raw.toSummary(), null);
+            final HttpResponse<T> response = transformer.apply(raw);
+            raw.release();
+            config.getUniInterceptor().onResponse(response, summary, config);
+            return response;
+        } catch (final Exception e) {
+            metric.complete(null, e);
+            if (connection != null) {
+                connection.disconnect();
+            }
+            @SuppressWarnings("unchecked")
+            final HttpResponse<T> failed = (HttpResponse<T>) config.getUniInterceptor().onFail(e, summary, config);
+            return failed;
+        }
+    }
+
+    @Override
+    public Stream<Exception> close() {
+        return Stream.empty();
+    }
+
+    @Override
+    public void registerShutdownHook() {
+        // 닫을 자원이 없다.
+    }
+
+    private HttpURLConnection open(final HttpRequest<?> request) throws IOException {
+        final String method = request.getHttpMethod().name();
+        if (!METHODS.contains(method)) {
+            throw new ETRuntimeException(String.format("HttpURLConnection does not support %s (%s), use the default Unirest client", method, request.getUrl()));
+        }
+        final HttpURLConnection connection = (HttpURLConnection) new URL(request.getUrl()).openConnection();
+        connection.setRequestMethod(method);
+        connection.setConnectTimeout(request.getConnectTimeout());
+        connection.setReadTimeout(request.getSocketTimeout());
+        connection.setInstanceFollowRedirects(config.getFollowRedirects());
+        connection.setUseCaches(false);
+        if (connection instanceof HttpsURLConnection) {
+            if (config.getSslContext() != null) {
+                ((HttpsURLConnection) connection).setSSLSocketFactory(config.getSslContext().getSocketFactory());
+            }
+            if (config.getHostnameVerifier() != null) {
+                ((HttpsURLConnection) connection).setHostnameVerifier(config.getHostnameVerifier());
+            }
+        }
+        for (final Header header : request.getHeaders().all()) {
+            connection.addRequestProperty(header.getName(), header.getValue());
+        }
+        return connection;
+    }
+
+    private static void writeBody(final HttpURLConnection connection, final HttpRequest<?> request) throws IOException {
+        final Body body = request.getBody().orElse(null);
+        if (body == null) {
+            return;
+        }
+        connection.setDoOutput(true);
+        final Charset charset = body.getCharset() != null ? body.getCharset() : StandardCharsets.UTF_8;
+        if (body.isEntityBody() && body.uniPart().getValue() instanceof InputStream) {
+            // 메모리에 모으지 않고 읽는 대로 전송, 크기를 알면 Content-Length, 모르면 chunked
+            final InputStream in = (InputStream) body.uniPart().getValue();
+            final long length = knownLength(in);
+            if (length >= 0) {
+                connection.setFixedLengthStreamingMode(length);
+            } else {
+                connection.setChunkedStreamingMode(BUFFER_SIZE);
+            }
+            try (InputStream source = in; OutputStream out = connection.getOutputStream()) {
+                copy(source, out);
+            }
+        } else if (body.isEntityBody()) {
+            final byte[] bytes = toBytes(body.uniPart(), charset);
+            if (connection.getRequestProperty("Content-Type") == null) {
+                connection.setRequestProperty("Content-Type", "text/plain; charset=" + charset.name());
+            }
+            connection.setFixedLengthStreamingMode(bytes.length);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(bytes);
+            }
+        } else if (body.isMultiPart()) {
+            final String boundary = "----ecoletree" + UUID.randomUUID().toString().replace("-", "");
+            connection.setRequestProperty("Content-Type", "multipart/form-data; boundary=" + boundary);
+            connection.setChunkedStreamingMode(BUFFER_SIZE);
+            try (OutputStream out = connection.getOutputStream()) {
+                writeMultipart(out, body, boundary, charset);
+            }
+        } else {
+            final StringBuilder form = new StringBuilder();
+            for (final BodyPart<?> part : body.multiParts()) {
+                if (form.length() > 0) {
+                    form.append('&');
+                }
+                form.append(encode(part.getName(), charset)).append('=').append(encode(String.valueOf(part.getValue()), charset));
+            }
+            final byte[] bytes = form.toString().getBytes(StandardCharsets.US_ASCII);
+            if (connection.getRequestProperty("Content-Type") == null) {
+                connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded; charset=" + charset.name());
+            }
+            connection.setFixedLengthStreamingMode(bytes.length);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static void writeMultipart(final OutputStream out, final Body body, final String boundary, final Charset charset) throws IOException {
+        for (final BodyPart<?> part : body.multiParts()) {
+            final StringBuilder head = new StringBuilder("--").append(boundary).append("\r\n")
+                    .append("Content-Disposition: form-data; name=\"").append(MultipartStream.escape(part.getName())).append('"');
+            if (part.getFileName() != null) {
+                head.append("; filename=\"").append(MultipartStream.escape(part.getFileName())).append('"');
+            }
+            head.append("\r\n");
+            if (part.getContentType() != null) {
+                head.append("Content-Type: ").append(part.getContentType()).append("\r\n");
+            }
+            head.append("\r\n");
+            out.write(head.toString().getBytes(charset));
+
+            final Object value = part.getValue();
+            if (value instanceof File) {
+                Files.copy(((File) value).toPath(), out);
+            } else if (value instanceof InputStream) {
+                copy((InputStream) value, out);
+            } else {
+                out.write(toBytes(part, charset));
+            }
+            out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+        }
+        out.write(("--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static byte[] toBytes(final BodyPart<?> part, final Charset charset) throws IOException {
+        final Object value = part.getValue();
+        if (value instanceof byte[]) {
+            return (byte[]) value;
+        }
+        if (value instanceof InputStream) {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            copy((InputStream) value, bytes);
+            return bytes.toByteArray();
+        }
+        if (value instanceof File) {
+            return Files.readAllBytes(((File) value).toPath());
+        }
+        return String.valueOf(value).getBytes(charset);
+    }
+
+    private static long knownLength(final InputStream in) {
+        if (in instanceof MultipartStream) {
+            return ((MultipartStream) in).getContentLength();
+        }
+        if (in instanceof FileRangeInputStream) {
+            return ((FileRangeInputStream) in).getLength();
+        }
+        return -1;
+    }
+
+    private static String encode(final String value, final Charset charset) throws UnsupportedEncodingException {
+        return URLEncoder.encode(value, charset.name());
+    }
+
+    private static void copy(final InputStream in, final OutputStream out) throws IOException {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        for (int n; (n = in.read(buffer)) >= 0; ) {
+            out.write(buffer, 0, n);
+        }
+    }
+
+    /**
+     * 비동기 요청: 동기 요청을 Executor 에서 실행
+     */
+    public static final class Async implements AsyncClient {
+        private final UrlConnectionClient client;
+        private final Executor executor;
+
+        public Async(final UrlConnectionClient client, final Executor executor) {
+            this.client = client;
+            this.executor = executor;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T getClient() {
+            return (T) client;
+        }
+
+        /**
+         * AsyncClient 인터페이스가 raw HttpRequest 로 선언되어 있어서 raw 타입을 그대로 받는다.
+         */
+        @Override
+        @Deprecated
+        @SuppressWarnings("rawtypes")
+        public <T> CompletableFuture<HttpResponse<T>> request(final HttpRequest request,
+                                                              final Function<RawResponse, HttpResponse<T>> transformer,
+                                                              final CompletableFuture<HttpResponse<T>> callback) {
+            return execute(request, transformer, callback);
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public <T> CompletableFuture<HttpResponse<T>> request(final HttpRequest request,
+                                                              final Function<RawResponse, HttpResponse<T>> transformer,
+                                                              final CompletableFuture<HttpResponse<T>> callback,
+                                                              final Class<?> resultType) {
+            return execute(request, transformer, callback);
+        }
+
+        private <T> CompletableFuture<HttpResponse<T>> execute(final HttpRequest<?> request,
+                                                               final Function<RawResponse, HttpResponse<T>> transformer,
+                                                               final CompletableFuture<HttpResponse<T>> callback) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        callback.complete(client.execute(request, transformer));
+                    } catch (final Throwable t) {
+                        callback.completeExceptionally(t);
+                    }
+                });
+            } catch (final RuntimeException e) {
+                callback.completeExceptionally(e);
+            }
+            return callback;
+        }
+
+        @Override
+        public void registerShutdownHook() {
+            // 닫을 자원이 없다.
+        }
+    }
+
+    /**
+     * HttpURLConnection 응답
+     */
+    private static final class Response extends RawResponseBase {
+        private final HttpURLConnection connection;
+        private final int status;
+        private final String statusText;
+        private final Headers headers = new Headers();
+        private InputStream content;
+        private byte[] bytes;
+
+        Response(final HttpURLConnection connection, final Config config) throws IOException {
+            super(config);
+            this.connection = connection;
+            this.status = connection.getResponseCode();
+            this.statusText = connection.getResponseMessage();
+            for (final Map.Entry<String, List<String>> entry : connection.getHeaderFields().entrySet()) {
+                if (entry.getKey() != null) {
+                    entry.getValue().forEach(value -> headers.add(entry.getKey(), value));
+                }
+            }
+            this.content = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        }
+
+        /**
+         * 남은 본문을 읽고 닫아서 연결을 keep-alive 캐시로 돌려준다.
+         */
+        void release() {
+            if (content == null) {
+                return;
+            }
+            try (InputStream in = content) {
+                final byte[] buffer = new byte[BUFFER_SIZE];
+                while (in.read(buffer) >= 0) {
+                    // drain
+                }
+            } catch (final IOException e) {
+                connection.disconnect();
+            }
+            content = null;
+        }
+
+        @Override
+        public int getStatus() {
+            return status;
+        }
+
+        @Override
+        public String getStatusText() {
+            return statusText;
+        }
+
+        @Override
+        public Headers getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getContent() {
+            return bytes != null ? new ByteArrayInputStream(bytes) : content == null ? new ByteArrayInputStream(new byte[0]) : content;
+        }
+
+        @Override
+        public byte[] getContentAsBytes() {
+            if (bytes == null) {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                if (content != null) {
+                    try (InputStream in = content) {
+                        copy(in, out);
+                    } catch (final IOException e) {
+                        throw new ETRuntimeException(e);
+                    }
+                    content = null;
+                }
+                bytes = out.toByteArray();
+            }
+            return bytes;
+        }
+
+        @Override
+        public String getContentAsString() {
+            return getContentAsString(null);
+        }
+
+        @Override
+        public String getContentAsString(final String charset) {
+            final String name = charset != null ? charset : getCharSet();
+            return new String(getContentAsBytes(), Charset.forName(name));
+        }
+
+        @Override
+        public InputStreamReader getContentReader() {
+            return new InputStreamReader(getContent(), Charset.forName(getCharSet()));
+        }
+
+        @Override
+        public boolean hasContent() {
+            return bytes != null ? bytes.length > 0 : content != null;
+        }
+
+        @Override
+        public String getContentType() {
+            return connection.getContentType();
+        }
+
+        @Override
+        public String getEncoding() {
+            return connection.getContentEncoding();
+        }
+    }
+
+    private static final class Holder {
+        static final UnirestInstance INSTANCE = newInstance(WorkerPools.io());
+    }
+}
@@ -0,0 +1,399 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : WebClientService.java
+ * DESC : 연결 풀 / Event Loop 을 공유하는 WebClient (Reactor Netty)
+ *****************************************************************/
+package kr.co.ecoletree.common.helper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+
+import io.netty.channel.ChannelOption;
+import kr.co.ecoletree.common.concurrent.WorkerPools;
+import kr.co.ecoletree.common.exception.ETRuntimeException;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * WebClient 서비스.
+ *
+ * WebClient.create(url) 를 요청마다 호출하면 기본 연결 풀 / Event Loop 을 쓰긴 하지만 설정(timeout, codec, 풀 크기)을 바꿀 수 없고,
+ * RestTemplate / AsyncRestTemplate 은 요청마다 쓰레드를 붙잡는다. (AsyncRestTemplate 기본 Executor 는 요청마다 새 쓰레드)
+ * 이 클래스는 다음을 한 번만 만들어서 공유한다.
+ *
+ * - ConnectionProvider: 호스트별 최대 연결 수, 연결 대기열 크기 / 대기 시간, idle / life time, 백그라운드 정리
+ * - LoopResources: Event Loop 쓰레드 (기본: CPU 수). 모든 요청의 I/O 를 이 쓰레드들이 처리한다.
+ * - ExchangeStrategies: 공유 ObjectMapper 를 쓰는 JSON codec, 메모리에 올릴 최대 본문 크기
+ *
+ * Event Loop 쓰레드에서는 blocking 작업을 하면 안 된다. (무거운 변환은 publishOn(Schedulers...) 로 넘긴다)
+ *
+ * 앞 요청의 응답을 그대로 다음 요청 본문으로 보낼 때는 Map 등으로 역직렬화 / 재직렬화하지 않고
+ * {@link #postForBuffers(String, Object)} 로 받은 DataBuffer 를 {@link #relay(String, Publisher, Class)} 로 넘긴다.
+ *
+ * <pre>
+ * {@code
+ * service.relay(next, service.postForBuffers(first, body), String.class)
+ *        .subscribe(response -> ...);
+ * }
+ * </pre>
+ */
+public final class WebClientService implements AutoCloseable {
+    private final Config config;
+    private final ConnectionProvider connectionProvider;
+    private final LoopResources loopResources;
+    private final WebClient webClient;
+
+    public WebClientService(final Config config) {
+        this.config = config;
+        this.connectionProvider = ConnectionProvider.builder(config.name)
+                .maxConnections(config.maxConnections)
+                .pendingAcquireMaxCount(config.pendingAcquireMaxCount)
+                .pendingAcquireTimeout(config.pendingAcquireTimeout)
+                .maxIdleTime(config.maxIdleTime)
+                .maxLifeTime(config.maxLifeTime)
+                .evictInBackground(config.maxIdleTime)
+                .build();
+        this.loopResources = LoopResources.create("Ecoletree-" + config.name, config.eventLoopThreads, true);
+
+        final HttpClient httpClient = HttpClient.create(connectionProvider)
+                .runOn(loopResources)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) config.connectTimeout.toMillis())
+                .option(ChannelOption.TCP_NODELAY, true)
+                .responseTimeout(config.responseTimeout)
+                .compress(config.compress);
+
+        final ExchangeStrategies strategies = ExchangeStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().maxInMemorySize(config.maxInMemorySize);
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(config.objectMapper, MediaType.APPLICATION_JSON));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(config.objectMapper, MediaType.APPLICATION_JSON));
+                })
+                .build();
+
+        this.webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .exchangeStrategies(strategies)
+                .build();
+    }
+
+    /**
+     * 기본 설정의 공용 서비스
+     *
+     * @return
+     */
+    public static WebClientService shared() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * 설정이 적용된 WebClient (여러 쓰레드에서 같이 사용한다)
+     *
+     * @return
+     */
+    public WebClient client() {
+        return webClient;
+    }
+
+    /**
+     * GET 요청, 2xx 가 아니면 WebClientResponseException
+     *
+     * @param url
+     * @param type 응답 본문 타입
+     * @param <R>
+     * @return
+     */
+    public <R> Mono<R> get(final String url, final Class<R> type) {
+        return webClient.get()
+                .uri(url)
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToMono(type);
+    }
+
+    /**
+     * JSON 본문 POST 요청, 2xx 가 아니면 WebClientResponseException
+     *
+     * @param url
+     * @param body JSON 으로 변환할 객체
+     * @param type 응답 본문 타입
+     * @param <R>
+     * @return
+     */
+    public <R> Mono<R> post(final String url, final Object body, final Class<R> type) {
+        return webClient.post()
+                .uri(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .retrieve()
+                .bodyToMono(type);
+    }
+
+    /**
+     * JSON 본문 POST 요청, 응답 본문을 변환하지 않고 DataBuffer 로 받는다.
+     * 받은 DataBuffer 는 {@link #relay(String, Publisher, Class)} 로 넘기거나 DataBufferUtils.release 해야 한다.
+     *
+     * @param url
+     * @param body JSON 으로 변환할 객체
+     * @return
+     */
+    public Flux<DataBuffer> postForBuffers(final String url, final Object body) {
+        return webClient.post()
+                .uri(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .retrieve()
+                .bodyToFlux(DataBuffer.class);
+    }
+
+    /**
+     * 받은 JSON 본문(DataBuffer)을 그대로 다음 요청 본문으로 POST (역직렬화 / 재직렬화 없음, 받는 대로 전송)
+     *
+     * @param url
+     * @param body 앞 요청의 응답 본문, 한 번만 구독할 수 있다.
+     * @param type 응답 본문 타입
+     * @param <R>
+     * @return
+     */
+    public <R> Mono<R> relay(final String url, final Publisher<DataBuffer> body, final Class<R> type) {
+        return webClient.post()
+                .uri(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromDataBuffers(body))
+                .retrieve()
+                .bodyToMono(type);
+    }
+
+    /**
+     * 받은 JSON 본문을 여러 URL 에 동시에 POST.
+     * 응답 본문은 한 번만 읽을 수 있으므로 byte[] 로 한 번 모은 뒤 요청마다 감싸서 보낸다. (역직렬화 없음)
+     * maxInMemorySize 를 넘으면 DataBufferLimitException
+     *
+     * @param urls
+     * @param body 앞 요청의 응답 본문
+     * @param type 응답 본문 타입
+     * @param <R>
+     * @return urls 순서의 응답
+     */
+    public <R> Mono<List<R>> relayAll(final List<String> urls, final Publisher<DataBuffer> body, final Class<R> type) {
+        // 모으는 크기는 codec 과 같은 maxInMemorySize 로 제한하고, 본문이 없으면 빈 본문으로 보낸다.
+        return DataBufferUtils.join(body, config.maxInMemorySize)
+                .map(WebClientService::toBytes)
+                .defaultIfEmpty(new byte[0])
+                .flatMap(bytes -> Flux.fromIterable(urls)
+                        .flatMapSequential(url -> relay(url, Mono.fromSupplier(() -> DefaultDataBufferFactory.sharedInstance.wrap(bytes)), type))
+                        .collectList());
+    }
+
+    public Config getConfig() {
+        return config;
+    }
+
+    @Override
+    public void close() {
+        connectionProvider.disposeLater().block(Duration.ofSeconds(5));
+        loopResources.disposeLater().block(Duration.ofSeconds(5));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("WebClientService(%s, maxConnections=%d, eventLoopThreads=%d)",
+                config.name, config.maxConnections, config.eventLoopThreads);
+    }
+
+    private static byte[] toBytes(final DataBuffer buffer) {
+        try {
+            final byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            return bytes;
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    private static final class Holder {
+        static final WebClientService INSTANCE = new WebClientService(Config.DEFAULT);
+    }
+
+    /**
+     * 서비스 설정
+     */
+    public static final class Config {
+        public static final Config DEFAULT = builder().build();
+
+        private final String name;
+        private final int maxConnections;
+        private final int pendingAcquireMaxCount;
+        private final Duration pendingAcquireTimeout;
+        private final Duration maxIdleTime;
+        private final Duration maxLifeTime;
+        private final int eventLoopThreads;
+        private final Duration connectTimeout;
+        private final Duration responseTimeout;
+        private final boolean compress;
+        private final int maxInMemorySize;
+        private final ObjectMapper objectMapper;
+
+        private Config(final Builder builder) {
+            this.name = builder.name;
+            this.maxConnections = builder.maxConnections;
+            this.pendingAcquireMaxCount = builder.pendingAcquireMaxCount;
+            this.pendingAcquireTimeout = builder.pendingAcquireTimeout;
+            this.maxIdleTime = builder.maxIdleTime;
+            this.maxLifeTime = builder.maxLifeTime;
+            this.eventLoopThreads = builder.eventLoopThreads;
+            this.connectTimeout = builder.connectTimeout;
+            this.responseTimeout = builder.responseTimeout;
+            this.compress = builder.compress;
+            this.maxInMemorySize = builder.maxInMemorySize;
+            this.objectMapper = builder.objectMapper;
+        }
+
+        public static Builder builder() {
+            return new Builder();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public int getEventLoopThreads() {
+            return eventLoopThreads;
+        }
+
+        public Duration getResponseTimeout() {
+            return responseTimeout;
+        }
+
+        public static final class Builder {
+            private String name = "http";
+            private int maxConnections = 200;
+            private int pendingAcquireMaxCount = 2000;
+            private Duration pendingAcquireTimeout = Duration.ofSeconds(10);
+            private Duration maxIdleTime = Duration.ofSeconds(30);
+            private Duration maxLifeTime = Duration.ofMinutes(5);
+            private int eventLoopThreads = WorkerPools.CPU_PARALLELISM;
+            private Duration connectTimeout = Duration.ofSeconds(5);
+            private Duration responseTimeout = Duration.ofSeconds(30);
+            private boolean compress = true;
+            private int maxInMemorySize = 2 * 1024 * 1024;
+            private ObjectMapper objectMapper = new ObjectMapper();
+
+            private Builder() {}
+
+            /**
+             * @param name 연결 풀 / Event Loop 쓰레드 이름
+             * @return
+             */
+            public Builder name(final String name) {
+                this.name = name;
+                return this;
+            }
+
+            /**
+             * @param maxConnections 호스트(remote address) 별 최대 연결 수
+             * @return
+             */
+            public Builder maxConnections(final int maxConnections) {
+                if (maxConnections < 1) {
+                    throw new ETRuntimeException(String.format("invalid max connections: %d", maxConnections));
+                }
+                this.maxConnections = maxConnections;
+                return this;
+            }
+
+            /**
+             * @param pendingAcquireMaxCount 연결을 기다릴 수 있는 최대 요청 수 (넘으면 바로 실패)
+             * @param pendingAcquireTimeout 연결을 기다리는 최대 시간
+             * @return
+             */
+            public Builder pendingAcquire(final int pendingAcquireMaxCount, final Duration pendingAcquireTimeout) {
+                this.pendingAcquireMaxCount = pendingAcquireMaxCount;
+                this.pendingAcquireTimeout = pendingAcquireTimeout;
+                return this;
+            }
+
+            /**
+             * @param maxIdleTime 사용하지 않은 연결을 닫을 시간 (서버의 keep-alive timeout 보다 짧게)
+             * @param maxLifeTime 연결 최대 사용 시간 (DNS 변경 / 서버 교체 반영)
+             * @return
+             */
+            public Builder connectionLifetime(final Duration maxIdleTime, final Duration maxLifeTime) {
+                this.maxIdleTime = maxIdleTime;
+                this.maxLifeTime = maxLifeTime;
+                return this;
+            }
+
+            public Builder eventLoopThreads(final int eventLoopThreads) {
+                if (eventLoopThreads < 1) {
+                    throw new ETRuntimeException(String.format("invalid event loop threads: %d", eventLoopThreads));
+                }
+                this.eventLoopThreads = eventLoopThreads;
+                return this;
+            }
+
+            public Builder connectTimeout(final Duration connectTimeout) {
+                this.connectTimeout = connectTimeout;
+                return this;
+            }
+
+            public Builder responseTimeout(final Duration responseTimeout) {
+                this.responseTimeout = responseTimeout;
+                return this;
+            }
+
+            /**
+             * @param compress gzip 응답 요청 여부
+             * @return
+             */
+            public Builder compress(final boolean compress) {
+                this.compress = compress;
+                return this;
+            }
+
+            /**
+             * @param maxInMemorySize bodyToMono 등으로 메모리에 모을 최대 본문 크기 (넘으면 DataBufferLimitException)
+             * @return
+             */
+            public Builder maxInMemorySize(final int maxInMemorySize) {
+                this.maxInMemorySize = maxInMemorySize;
+                return this;
+            }
+
+            public Builder objectMapper(final ObjectMapper objectMapper) {
+                this.objectMapper = objectMapper;
+                return this;
+            }
+
+            public Config build() {
+                return new Config(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,265 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : BulkMailer.java
+ * DESC : 대량 메일 렌더링 (템플릿 하나 + 수신자 stream, CPU 풀에서 병렬 렌더링, 개수 제한 streaming)
+ *****************************************************************/
+package kr.co.ecoletree.common.mail;
+
+import org.simplejavamail.api.email.Email;
+import org.simplejavamail.api.email.EmailPopulatingBuilder;
+import org.simplejavamail.email.EmailBuilder;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import kr.co.ecoletree.common.concurrent.WorkerPools;
+import kr.co.ecoletree.common.exception.ETRuntimeException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 대량 발송용 렌더링.
+ *
+ * 기준 메일(EmailInfo)의 subject / content 를 템플릿으로 한 번만 해석하고, 수신자마다 변수를 치환해서 Email 을 만든다.
+ *
+ * - 렌더링(템플릿 치환 + Email 생성)은 CPU 풀에서 병렬로 한다. 렌더링 버퍼는 쓰레드마다 재사용한다.
+ * - 수신자는 Iterator / Stream 에서 필요한 만큼만 읽는다. 렌더링 중이거나 sink 로 넘기지 못한 메일은 최대 window 개이므로
+ *   수신자가 10만명이어도 메모리에는 window 개만 있다.
+ * - 렌더링된 메일은 호출한 쓰레드에서 sink 로 넘긴다. sink 가 느리면(예: {@link MailOutbox#put} 이 대기) 수신자 읽기도 같이 느려진다.
+ *
+ * <pre>
+ * {@code
+ * final BulkMailer bulk = new BulkMailer(campaign);       // campaign.subject / content 에 ${name} 등 사용
+ * bulk.send(recipients.stream(), email -> outbox.put(email, Duration.ofSeconds(30)));
+ * }
+ * </pre>
+ */
+@Slf4j
+public final class BulkMailer {
+    public static final int DEFAULT_WINDOW = 256;
+    private static final int MAX_BUFFER = 64 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private final EmailInfo base;
+    private final MailTemplate subject;
+    private final MailTemplate content;
+    private final Executor executor;
+    private final int window;
+
+    /**
+     * CPU 풀에서 렌더링
+     *
+     * @param base 보내는 사람, 참조 / 숨은 참조, 제목 / 본문 템플릿
+     */
+    public BulkMailer(final EmailInfo base) {
+        this(base, WorkerPools.cpu(), DEFAULT_WINDOW);
+    }
+
+    /**
+     * @param base 보내는 사람, 참조 / 숨은 참조, 제목 / 본문 템플릿
+     * @param executor 렌더링할 Executor (거부하면 호출한 쓰레드에서 렌더링. 작업을 조용히 버리는 DiscardPolicy 는 사용하지 말 것)
+     * @param window 렌더링 중이거나 sink 로 넘기지 않은 최대 메일 수
+     */
+    public BulkMailer(final EmailInfo base, final Executor executor, final int window) {
+        this.base = base;
+        this.subject = MailTemplate.compile(base.getSubject());
+        this.content = MailTemplate.compile(base.getContent());
+        this.executor = executor;
+        this.window = window;
+    }
+
+    public Result send(final Stream<Recipient> recipients, final Consumer<Email> sink) {
+        return send(recipients.iterator(), sink, BulkMailer::logFailure);
+    }
+
+    public Result send(final Iterator<Recipient> recipients, final Consumer<Email> sink) {
+        return send(recipients, sink, BulkMailer::logFailure);
+    }
+
+    /**
+     * 수신자 별로 렌더링해서 sink 로 넘긴다. 모두 넘길 때까지 리턴하지 않는다.
+     *
+     * @param recipients
+     * @param sink 렌더링된 메일을 받을 곳 (호출한 쓰레드에서 실행)
+     * @param onFailure 렌더링(Error 포함) 또는 sink 가 실패한 수신자
+     * @return
+     */
+    public Result send(final Iterator<Recipient> recipients, final Consumer<Email> sink,
+                       final BiConsumer<Recipient, Throwable> onFailure) {
+        final long begin = System.nanoTime();
+        final BlockingQueue<Rendered> rendered = new ArrayBlockingQueue<>(window);
+        final Semaphore permits = new Semaphore(window);
+        final Result result = new Result();
+
+        try {
+            while (recipients.hasNext()) {
+                while (!permits.tryAcquire()) {
+                    deliver(rendered.take(), sink, onFailure, permits, result);
+                }
+                final Recipient recipient = recipients.next();
+                result.submitted++;
+                submit(recipient, rendered);
+                for (Rendered r; (r = rendered.poll()) != null; ) {
+                    deliver(r, sink, onFailure, permits, result);
+                }
+            }
+            while (result.delivered + result.failed < result.submitted) {
+                deliver(rendered.take(), sink, onFailure, permits, result);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ETRuntimeException(e);
+        }
+        result.elapsedNanos = System.nanoTime() - begin;
+        return result;
+    }
+
+    /**
+     * 수신자 한 명의 메일 렌더링 (쓰레드 별 버퍼 재사용)
+     *
+     * @param recipient
+     * @return
+     */
+    public Email render(final Recipient recipient) {
+        final StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        final String renderedSubject = subject.render(recipient.getVariables(), buffer).toString();
+        buffer.setLength(0);
+        final String renderedContent = content.render(recipient.getVariables(), buffer).toString();
+        if (buffer.capacity() > MAX_BUFFER) {
+            BUFFER.remove();
+        }
+
+        final EmailPopulatingBuilder builder = EmailBuilder.startingBlank()
+                .from(base.getSenderName(), base.getSender())
+                .to(recipient.getName(), recipient.getAddress())
+                .withSubject(renderedSubject)
+                .withPlainText(renderedContent);
+        final List<String> cc = base.getCc();
+        if (cc != null && !cc.isEmpty()) {
+            builder.ccAddresses(cc);
+        }
+        final List<String> bcc = base.getBcc();
+        if (bcc != null && !bcc.isEmpty()) {
+            builder.bccAddresses(bcc);
+        }
+        return builder.buildEmail();
+    }
+
+    /**
+     * executor 에서 렌더링. executor 가 거부하면(RejectedExecutionException) 호출한 쓰레드에서 렌더링한다.
+     * 어느 쪽이든 rendered 에 결과 하나가 반드시 들어가야 send 가 take() 에서 멈추지 않는다.
+     *
+     * @param recipient
+     * @param rendered
+     */
+    private void submit(final Recipient recipient, final BlockingQueue<Rendered> rendered) {
+        try {
+            executor.execute(() -> rendered.add(renderSafely(recipient)));
+        } catch (final RejectedExecutionException e) {
+            rendered.add(renderSafely(recipient));
+        }
+    }
+
+    /**
+     * 렌더링 실패(Error 포함)도 결과로 돌려준다.
+     */
+    private Rendered renderSafely(final Recipient recipient) {
+        try {
+            return new Rendered(recipient, render(recipient), null);
+        } catch (final Throwable e) {
+            return new Rendered(recipient, null, e);
+        }
+    }
+
+    private static void deliver(final Rendered rendered, final Consumer<Email> sink, final BiConsumer<Recipient, Throwable> onFailure,
+                                final Semaphore permits, final Result result) {
+        try {
+            if (rendered.error != null) {
+                result.failed++;
+                onFailure.accept(rendered.recipient, rendered.error);
+                return;
+            }
+            try {
+                sink.accept(rendered.email);
+                result.delivered++;
+            } catch (final RuntimeException e) {
+                result.failed++;
+                onFailure.accept(rendered.recipient, e);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static void logFailure(final Recipient recipient, final Throwable error) {
+        log.warn("Bulk mail to {} failed: {}", recipient.getAddress(), error.getMessage());
+    }
+
+    /**
+     * 수신자
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class Recipient {
+        private final String address;
+        private final String name;
+        /** 템플릿 변수 */
+        private final Map<String, ?> variables;
+
+        public Recipient(final String address, final String name) {
+            this(address, name, Collections.emptyMap());
+        }
+    }
+
+    /**
+     * 렌더링 결과 (sink 로 넘길 때까지 보관)
+     */
+    @AllArgsConstructor
+    private static final class Rendered {
+        private final Recipient recipient;
+        private final Email email;
+        private final Throwable error;
+    }
+
+    /**
+     * 처리 결과
+     */
+    @Getter
+    public static final class Result {
+        private long submitted;
+        private long delivered;
+        private long failed;
+        private long elapsedNanos;
+
+        public long getElapsed(final TimeUnit unit) {
+            return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /** 초당 sink 로 넘긴 메일 수 */
+        public double getRate() {
+            return elapsedNanos == 0 ? 0 : delivered * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Result(submitted=%d, delivered=%d, failed=%d, %d ms, %,.0f emails/s)",
+                    submitted, delivered, failed, getElapsed(TimeUnit.MILLISECONDS), getRate());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : EmailAuth.java
+ * DESC : SMTP 서버 접속 정보
+ *****************************************************************/
+package kr.co.ecoletree.common.mail;
+
+import lombok.Data;
+import lombok.ToString;
+
+@Data
+public class EmailAuth {
+    private String host;
+    private int port;
+    private String account;
+    @ToString.Exclude
+    private String password;
+}
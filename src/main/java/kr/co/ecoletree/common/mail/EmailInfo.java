@@ -0,0 +1,27 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : EmailInfo.java
+ * DESC : 발송할 메일 정보
+ *****************************************************************/
+package kr.co.ecoletree.common.mail;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class EmailInfo {
+    private String receiver;
+    private String receiverName;
+    private String sender;
+    private String senderName;
+    /** 참조 (전체) */
+    private List<String> cc;
+    /** 숨은 참조 (메일 헤더에는 나타나지 않는다) */
+    private List<String> bcc;
+    private String subject;
+    private String content;
+}
@@ -0,0 +1,593 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : MailOutbox.java
+ * DESC : 발송 대기열 (journal 기록, 일괄 발송, 초당 발송 제한, 재시도 / dead letter)
+ *****************************************************************/
+package kr.co.ecoletree.common.mail;
+
+import org.simplejavamail.api.email.Email;
+
+import com.sun.mail.smtp.SMTPAddressFailedException;
+import com.sun.mail.smtp.SMTPSendFailedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import javax.mail.Address;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+
+import kr.co.ecoletree.common.concurrent.RateLimiter;
+import kr.co.ecoletree.common.concurrent.TimerWheel;
+import kr.co.ecoletree.common.concurrent.WorkerThreadFactory;
+import kr.co.ecoletree.common.concurrent.queue.BlockingQueueAdapter;
+import kr.co.ecoletree.common.exception.ETRuntimeException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * SMTP 서버(relay) 하나에 대한 발송 대기열.
+ *
+ * 바로 보내지 않고 대기열에 넣으면 전용 쓰레드가 일정 개수씩 꺼내서 연결 풀로 보낸다.
+ *
+ * - 유실 방지: 대기열에 넣기 전에 {@link OutboxJournal} 에 기록하고, 발송이 끝나면(성공 / 포기) 완료를 기록한다.
+ *   JVM 이 죽었다가 같은 디렉토리로 다시 열면 끝나지 않은 메일을 다시 보낸다. (따라서 드물게 중복 발송될 수 있다)
+ * - backpressure: 끝나지 않은 메일(재시도 대기 포함)은 capacity 개까지만 받는다. 가득 차면 offer 는 false, put 은 대기.
+ * - 초당 발송 제한: relay 가 허용하는 속도 이상으로 보내지 않는다. ({@link RateLimiter})
+ * - 재시도: 4xx 등 일시적인 실패는 지수 backoff (+ jitter) 후 다시 보낸다.
+ *   5xx 응답이거나 maxAttempts 번 실패하면 dead letter 로 기록하고 handler 에 넘긴다.
+ *   수신자 일부만 실패하면 보내지 못한 수신자만 다시 보내고, dead letter 에도 실패한 수신자만 넣는다.
+ */
+@Slf4j
+public final class MailOutbox implements AutoCloseable {
+    private final PooledMailer mailer;
+    private final OutboxJournal journal;
+    private final Config config;
+    private final Consumer<DeadLetter> deadLetterHandler;
+
+    private final BlockingQueue<Entry> queue;
+    /** 재시도 시각이 된 메일, 다시 열 때 복구한 메일 (대기열보다 먼저 보낸다) */
+    private final Queue<Entry> retries = new ConcurrentLinkedQueue<>();
+    private final Semaphore capacity;
+    private final RateLimiter rateLimiter;
+    private final Thread dispatcher;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile boolean closed;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    private MailOutbox(final PooledMailer mailer, final Path directory, final Config config,
+                       final Consumer<DeadLetter> deadLetterHandler) {
+        this.mailer = mailer;
+        this.config = config;
+        this.deadLetterHandler = deadLetterHandler;
+        this.journal = new OutboxJournal(directory, config.segmentSize, config.sync);
+        this.queue = BlockingQueueAdapter.mpmc(config.capacity);
+        this.capacity = new Semaphore(config.capacity);
+        this.rateLimiter = RateLimiter.create(config.ratePerSecond, config.batchSize);
+
+        for (final Map.Entry<Long, byte[]> recovered : journal.recovered().entrySet()) {
+            retries.add(decode(recovered.getKey(), recovered.getValue()));
+        }
+        this.dispatcher = WorkerThreadFactory.daemon("outbox-" + mailer.getAuth().getHost()).newThread(this::dispatch);
+        this.dispatcher.start();
+    }
+
+    /**
+     * @param mailer 발송할 relay 의 Mailer
+     * @param directory journal 디렉토리 (relay 마다 다른 디렉토리)
+     * @param config
+     * @param deadLetterHandler 포기한 메일 처리
+     * @return
+     */
+    public static MailOutbox open(final PooledMailer mailer, final Path directory, final Config config,
+                                  final Consumer<DeadLetter> deadLetterHandler) {
+        return new MailOutbox(mailer, directory, config, deadLetterHandler);
+    }
+
+    /**
+     * dead letter 는 error 로그만 남긴다.
+     */
+    public static MailOutbox open(final PooledMailer mailer, final Path directory, final Config config) {
+        return open(mailer, directory, config, dead -> log.error("Dead letter #{} after {} attempts: {}",
+                dead.getId(), dead.getAttempts(), dead.getCause().getMessage()));
+    }
+
+    /**
+     * 대기열에 추가. 가득 찼으면 false
+     *
+     * @param email
+     * @return
+     */
+    public boolean offer(final Email email) {
+        if (closed || !capacity.tryAcquire()) {
+            rejected.incrementAndGet();
+            return false;
+        }
+        enqueue(email);
+        return true;
+    }
+
+    /**
+     * 대기열에 추가. 가득 찼으면 timeout 까지 기다리고, 그래도 자리가 없으면 ETRuntimeException
+     *
+     * @param email
+     * @param timeout
+     */
+    public void put(final Email email, final Duration timeout) {
+        try {
+            if (closed || !capacity.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                rejected.incrementAndGet();
+                throw new ETRuntimeException(String.format("Mail outbox is full (%d)", config.capacity));
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ETRuntimeException(e);
+        }
+        enqueue(email);
+    }
+
+    /**
+     * 끝나지 않은 메일 수 (대기 + 발송 중 + 재시도 대기)
+     *
+     * @return
+     */
+    public int getPending() {
+        return journal.pending();
+    }
+
+    public long getAccepted() {
+        return accepted.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public long getSent() {
+        return sent.get();
+    }
+
+    public long getRetried() {
+        return retried.get();
+    }
+
+    public long getDeadLettered() {
+        return deadLettered.get();
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    /**
+     * 모든 메일이 끝날 때까지 대기 (재시도 포함)
+     *
+     * @param timeout
+     * @return 모두 끝났는지 여부
+     */
+    public boolean awaitEmpty(final Duration timeout) throws InterruptedException {
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        while (getPending() > 0) {
+            if (System.nanoTime() - deadline > 0) {
+                return false;
+            }
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        return true;
+    }
+
+    /**
+     * 새 메일을 받지 않고, 발송 중인 메일이 끝날 때까지 기다린 뒤 닫는다.
+     * 보내지 못한 메일은 journal 에 남아 다음에 열 때 다시 보낸다.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            dispatcher.join(config.shutdownTimeout.toMillis());
+            final long deadline = System.nanoTime() + config.shutdownTimeout.toNanos();
+            while (inFlight.get() > 0 && System.nanoTime() - deadline < 0) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        journal.close();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MailOutbox(pending=%d, accepted=%d, rejected=%d, sent=%d, retried=%d, dead=%d, batches=%d, %s)",
+                getPending(), getAccepted(), getRejected(), getSent(), getRetried(), getDeadLettered(), getBatches(), rateLimiter);
+    }
+
+    private void enqueue(final Email email) {
+        try {
+            final MimeMessage message = mailer.toMimeMessage(email);
+            final Address[] recipients = message.getAllRecipients();
+            final Entry entry = new Entry(0, message, recipients, true);
+            entry.id = journal.append(encode(entry));
+            accepted.incrementAndGet();
+            queue.add(entry);
+        } catch (final MessagingException | IOException | RuntimeException e) {
+            capacity.release();
+            throw e instanceof RuntimeException ? (RuntimeException) e : new ETRuntimeException(e);
+        }
+    }
+
+    /**
+     * 대기열에서 최대 batchSize 개씩 꺼내서 발송
+     */
+    private void dispatch() {
+        final List<Entry> batch = new ArrayList<>(config.batchSize);
+        while (!closed) {
+            try {
+                drainRetries(batch);
+                if (batch.isEmpty()) {
+                    final Entry first = queue.poll(config.pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                }
+                queue.drainTo(batch, config.batchSize - batch.size());
+
+                rateLimiter.acquire(batch.size());
+                batches.incrementAndGet();
+                for (final Entry entry : batch) {
+                    inFlight.incrementAndGet();
+                    mailer.sendAsync(entry.message, entry.recipients).whenComplete((r, e) -> {
+                        try {
+                            if (e == null) {
+                                succeeded(entry);
+                            } else {
+                                failed(entry, e.getCause() != null ? e.getCause() : e);
+                            }
+                        } finally {
+                            inFlight.decrementAndGet();
+                        }
+                    });
+                }
+                batch.clear();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (final RuntimeException e) {
+                log.error("Mail outbox dispatch failed: {}", e.getMessage(), e);
+                batch.clear();
+            }
+        }
+    }
+
+    private void drainRetries(final List<Entry> batch) {
+        for (Entry entry; batch.size() < config.batchSize && (entry = retries.poll()) != null; ) {
+            batch.add(entry);
+        }
+    }
+
+    private void succeeded(final Entry entry) {
+        journal.complete(entry.id);
+        sent.incrementAndGet();
+        finished(entry);
+    }
+
+    /**
+     * 보내지 못한 수신자만 다시 보내고, 거부된 수신자만 dead letter 로 넘긴다. (이미 받은 수신자에게는 다시 보내지 않는다)
+     */
+    private void failed(final Entry entry, final Throwable cause) {
+        entry.attempts++;
+        Address[] retry;
+        Address[] dead;
+        final SendFailedException result = sendResult(cause);
+        if (result != null) {
+            retry = orEmpty(result.getValidUnsentAddresses());
+            dead = orEmpty(result.getInvalidAddresses());
+        } else if (isPermanent(cause)) {
+            retry = new Address[0];
+            dead = entry.recipients;
+        } else {
+            retry = entry.recipients;
+            dead = new Address[0];
+        }
+        if (retry.length > 0 && entry.attempts >= config.maxAttempts) {
+            dead = concat(dead, retry);
+            retry = new Address[0];
+        }
+
+        if (retry.length == 0) {
+            journal.dead(entry.id);
+            finished(entry);
+        } else {
+            retried.incrementAndGet();
+            final Entry next = retry.length == entry.recipients.length ? entry : remaining(entry, retry);
+            final long delay = backoff(config.initialBackoff, config.maxBackoff, entry.attempts);
+            log.debug("Mail #{} failed for {} of {} recipients ({}), retry in {} ms",
+                    entry.id, retry.length, entry.recipients.length, cause.getMessage(), delay);
+            TimerWheel.shared().schedule(() -> retries.add(next), delay, TimeUnit.MILLISECONDS);
+        }
+        if (dead.length > 0) {
+            deadLettered.incrementAndGet();
+            try {
+                deadLetterHandler.accept(new DeadLetter(entry.id, entry.message, dead, entry.attempts, cause));
+            } catch (final RuntimeException e) {
+                log.error("Dead letter handler failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 일부 수신자만 다시 보낼 항목. journal 에도 남은 수신자만 새로 기록한다. (재시작해도 받은 수신자에게 다시 보내지 않도록)
+     */
+    private Entry remaining(final Entry entry, final Address[] recipients) {
+        final Entry next = new Entry(entry.id, entry.message, recipients, entry.permit);
+        next.attempts = entry.attempts;
+        try {
+            next.id = journal.append(encode(next));
+            journal.complete(entry.id);
+        } catch (final IOException | MessagingException | RuntimeException e) {
+            log.warn("Failed to journal remaining recipients of mail #{}, a restart may resend to all recipients: {}",
+                    entry.id, e.getMessage());
+        }
+        return next;
+    }
+
+    private void finished(final Entry entry) {
+        if (entry.permit) {
+            capacity.release();
+        }
+    }
+
+    /**
+     * initialBackoff * 2^(attempts-1), 최대 maxBackoff.
+     * 동시에 실패한 메일이 한꺼번에 재시도하지 않도록 [50%, 100%] 구간에서 jitter (maxBackoff 를 넘지 않는다)
+     *
+     * @return 재시도까지 대기할 시간 (ms)
+     */
+    static long backoff(final Duration initialBackoff, final Duration maxBackoff, final int attempts) {
+        final long base = initialBackoff.toMillis() << Math.min(20, attempts - 1);
+        final long capped = Math.min(maxBackoff.toMillis(), base);
+        return capped / 2 + ThreadLocalRandom.current().nextLong(capped - capped / 2 + 1);
+    }
+
+    /**
+     * {@link SmtpConnectionPool#send} 가 수신자를 나눠 담은 SendFailedException (보내지 못한 수신자가 없으면 null)
+     */
+    private static SendFailedException sendResult(final Throwable cause) {
+        for (Throwable t = cause; t != null; t = next(t)) {
+            if (t instanceof SendFailedException) {
+                final SendFailedException result = (SendFailedException) t;
+                return orEmpty(result.getValidUnsentAddresses()).length + orEmpty(result.getInvalidAddresses()).length > 0 ? result : null;
+            }
+        }
+        return null;
+    }
+
+    private static Address[] orEmpty(final Address[] addresses) {
+        return addresses == null ? new Address[0] : addresses;
+    }
+
+    private static Address[] concat(final Address[] first, final Address[] second) {
+        final Address[] all = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, all, first.length, second.length);
+        return all;
+    }
+
+    /**
+     * SMTP 5xx 응답(영구 실패)인지 확인
+     */
+    private static boolean isPermanent(final Throwable cause) {
+        for (Throwable t = cause; t != null; t = next(t)) {
+            if (t instanceof SMTPSendFailedException && ((SMTPSendFailedException) t).getReturnCode() >= 500) {
+                return true;
+            }
+            if (t instanceof SMTPAddressFailedException && ((SMTPAddressFailedException) t).getReturnCode() >= 500) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Throwable next(final Throwable t) {
+        if (t instanceof MessagingException && ((MessagingException) t).getNextException() != null) {
+            return ((MessagingException) t).getNextException();
+        }
+        return t.getCause() == t ? null : t.getCause();
+    }
+
+    /**
+     * journal 레코드: [수신자 수][수신자...][MIME 본문]
+     * (MIME 본문에는 Bcc 헤더가 저장되지 않으므로 수신자는 따로 저장한다)
+     */
+    private static byte[] encode(final Entry entry) throws IOException, MessagingException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(entry.recipients.length);
+        for (final Address recipient : entry.recipients) {
+            out.writeUTF(recipient.toString());
+        }
+        entry.message.writeTo(out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private Entry decode(final long id, final byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            final Address[] recipients = new Address[in.readInt()];
+            for (int i = 0; i < recipients.length; i++) {
+                recipients[i] = new InternetAddress(in.readUTF());
+            }
+            return new Entry(id, new MimeMessage(mailer.getSession(), in), recipients, false);
+        } catch (final IOException | MessagingException e) {
+            throw new ETRuntimeException(String.format("Failed to read journal record #%d", id), e);
+        }
+    }
+
+    /**
+     * 대기열 항목
+     */
+    private static final class Entry {
+        private long id;
+        private final MimeMessage message;
+        private final Address[] recipients;
+        /** capacity permit 을 가지고 있는지 여부 (복구한 메일은 없다) */
+        private final boolean permit;
+        private volatile int attempts;
+
+        Entry(final long id, final MimeMessage message, final Address[] recipients, final boolean permit) {
+            this.id = id;
+            this.message = message;
+            this.recipients = recipients;
+            this.permit = permit;
+        }
+    }
+
+    /**
+     * 발송을 포기한 메일
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class DeadLetter {
+        private final long id;
+        private final MimeMessage message;
+        private final Address[] recipients;
+        private final int attempts;
+        private final Throwable cause;
+    }
+
+    /**
+     * 대기열 설정
+     */
+    public static final class Config {
+        public static final Config DEFAULT = builder().build();
+
+        private final int capacity;
+        private final int batchSize;
+        private final double ratePerSecond;
+        private final int maxAttempts;
+        private final Duration initialBackoff;
+        private final Duration maxBackoff;
+        private final Duration pollInterval;
+        private final Duration shutdownTimeout;
+        private final int segmentSize;
+        private final boolean sync;
+
+        private Config(final Builder builder) {
+            this.capacity = builder.capacity;
+            this.batchSize = builder.batchSize;
+            this.ratePerSecond = builder.ratePerSecond;
+            this.maxAttempts = builder.maxAttempts;
+            this.initialBackoff = builder.initialBackoff;
+            this.maxBackoff = builder.maxBackoff;
+            this.pollInterval = builder.pollInterval;
+            this.shutdownTimeout = builder.shutdownTimeout;
+            this.segmentSize = builder.segmentSize;
+            this.sync = builder.sync;
+        }
+
+        public static Builder builder() {
+            return new Builder();
+        }
+
+        public static final class Builder {
+            private int capacity = 10_000;
+            private int batchSize = 50;
+            private double ratePerSecond = 100;
+            private int maxAttempts = 5;
+            private Duration initialBackoff = Duration.ofSeconds(1);
+            private Duration maxBackoff = Duration.ofMinutes(5);
+            private Duration pollInterval = Duration.ofMillis(20);
+            private Duration shutdownTimeout = Duration.ofSeconds(10);
+            private int segmentSize = 16 * 1024 * 1024;
+            private boolean sync;
+
+            private Builder() {}
+
+            /** 끝나지 않은 메일 최대 수 */
+            public Builder capacity(final int capacity) {
+                this.capacity = capacity;
+                return this;
+            }
+
+            /** 한 번에 꺼내서 보낼 최대 메일 수 */
+            public Builder batchSize(final int batchSize) {
+                this.batchSize = batchSize;
+                return this;
+            }
+
+            /** relay 로 보낼 초당 최대 메일 수 */
+            public Builder ratePerSecond(final double ratePerSecond) {
+                this.ratePerSecond = ratePerSecond;
+                return this;
+            }
+
+            /** 최대 발송 시도 횟수 (넘으면 dead letter) */
+            public Builder maxAttempts(final int maxAttempts) {
+                this.maxAttempts = Math.max(1, maxAttempts);
+                return this;
+            }
+
+            public Builder backoff(final Duration initialBackoff, final Duration maxBackoff) {
+                this.initialBackoff = initialBackoff;
+                this.maxBackoff = maxBackoff;
+                return this;
+            }
+
+            /** 대기열이 비었을 때 재시도 목록을 다시 확인하는 주기 */
+            public Builder pollInterval(final Duration pollInterval) {
+                this.pollInterval = pollInterval;
+                return this;
+            }
+
+            public Builder shutdownTimeout(final Duration shutdownTimeout) {
+                this.shutdownTimeout = shutdownTimeout;
+                return this;
+            }
+
+            /** journal segment 파일 크기 */
+            public Builder segmentSize(final int segmentSize) {
+                this.segmentSize = segmentSize;
+                return this;
+            }
+
+            /** journal 을 쓸 때마다 디스크에 반영할지 여부 (기본 false: JVM 장애까지만 대비) */
+            public Builder sync(final boolean sync) {
+                this.sync = sync;
+                return this;
+            }
+
+            public Config build() {
+                return new Config(this);
+            }
+        }
+    }
+}
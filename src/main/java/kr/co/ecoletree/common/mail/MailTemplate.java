@@ -0,0 +1,108 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : MailTemplate.java
+ * DESC : 미리 해석(compile)해 둔 메일 템플릿 (${변수} 치환)
+ *****************************************************************/
+package kr.co.ecoletree.common.mail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import kr.co.ecoletree.common.exception.ETRuntimeException;
+
+/**
+ * ${변수} 를 치환하는 템플릿.
+ *
+ * 수신자마다 String.replace 를 변수 개수만큼 호출하면 매번 템플릿 전체를 검색하고 중간 문자열을 만든다.
+ * 템플릿을 한 번만 해석해서 [고정 문자열, 변수, 고정 문자열, ...] 로 나눠 두고,
+ * 렌더링할 때는 StringBuilder 에 순서대로 붙이기만 한다.
+ *
+ * 변수 값이 없으면 ETRuntimeException. (빈 값으로 발송되지 않도록)
+ * 불변 객체이므로 여러 쓰레드에서 같이 사용한다.
+ */
+public final class MailTemplate {
+    private static final String OPEN = "${";
+    private static final String CLOSE = "}";
+
+    private final String source;
+    /** literals.length == variables.length + 1 */
+    private final String[] literals;
+    private final String[] variables;
+    private final int literalLength;
+
+    private MailTemplate(final String source, final String[] literals, final String[] variables) {
+        this.source = source;
+        this.literals = literals;
+        this.variables = variables;
+        int length = 0;
+        for (final String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * 템플릿 해석
+     *
+     * @param source
+     * @return
+     */
+    public static MailTemplate compile(final String source) {
+        final List<String> literals = new ArrayList<>();
+        final List<String> variables = new ArrayList<>();
+        int from = 0;
+        for (int open; (open = source.indexOf(OPEN, from)) >= 0; ) {
+            final int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new ETRuntimeException(String.format("Unclosed variable at %d: %s", open, source));
+            }
+            literals.add(source.substring(from, open));
+            variables.add(source.substring(open + OPEN.length(), close).trim());
+            from = close + CLOSE.length();
+        }
+        literals.add(source.substring(from));
+        return new MailTemplate(source, literals.toArray(new String[0]), variables.toArray(new String[0]));
+    }
+
+    /**
+     * 렌더링 결과를 out 뒤에 붙인다.
+     *
+     * @param values 변수 값
+     * @param out
+     * @return out
+     */
+    public StringBuilder render(final Map<String, ?> values, final StringBuilder out) {
+        out.ensureCapacity(out.length() + literalLength + variables.length * 16);
+        for (int i = 0; i < variables.length; i++) {
+            out.append(literals[i]);
+            final Object value = values.get(variables[i]);
+            if (value == null) {
+                throw new ETRuntimeException(String.format("Missing template variable: %s", variables[i]));
+            }
+            out.append(value);
+        }
+        return out.append(literals[variables.length]);
+    }
+
+    public String render(final Map<String, ?> values) {
+        return render(values, new StringBuilder()).toString();
+    }
+
+    /** 템플릿에서 사용하는 변수 이름 (등장 순서, 중복 포함) */
+    public String[] getVariables() {
+        return variables.clone();
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    @Override
+    public String toString() {
+        return "MailTemplate(" + source + ")";
+    }
+}
@@ -0,0 +1,92 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : MailerCache.java
+ * DESC : SMTP 서버(host, port, 계정) 별 PooledMailer 캐시
+ *****************************************************************/
+package kr.co.ecoletree.common.mail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+
+/**
+ * SMTP 서버 별 Mailer 캐시.
+ *
+ * 같은 host / port / 계정으로 보내는 메일은 같은 {@link PooledMailer}(같은 연결 풀)를 사용한다.
+ * 비밀번호가 바뀐 경우에는 기존 Mailer 를 닫고 새로 만든다.
+ */
+public final class MailerCache implements AutoCloseable {
+    private static final MailerCache SHARED = new MailerCache(SmtpConnectionPool.Config.DEFAULT);
+
+    private final SmtpConnectionPool.Config config;
+    private final Map<Key, PooledMailer> mailers = new ConcurrentHashMap<>();
+
+    /**
+     * @param config 새로 만드는 연결 풀에 적용할 설정
+     */
+    public MailerCache(final SmtpConnectionPool.Config config) {
+        this.config = config;
+    }
+
+    /**
+     * 기본 설정의 공용 캐시
+     *
+     * @return
+     */
+    public static MailerCache shared() {
+        return SHARED;
+    }
+
+    public PooledMailer get(final EmailAuth auth) {
+        final Key key = new Key(auth.getHost(), auth.getPort(), auth.getAccount());
+        for (;;) {
+            final PooledMailer mailer = mailers.computeIfAbsent(key, k -> new PooledMailer(auth, config));
+            if (mailer.matchesPassword(auth)) {
+                return mailer;
+            }
+            // 비밀번호 변경
+            if (mailers.remove(key, mailer)) {
+                mailer.close();
+            }
+        }
+    }
+
+    /**
+     * 해당 서버의 Mailer 를 닫고 캐시에서 제거
+     *
+     * @param auth
+     */
+    public void invalidate(final EmailAuth auth) {
+        final PooledMailer mailer = mailers.remove(new Key(auth.getHost(), auth.getPort(), auth.getAccount()));
+        if (mailer != null) {
+            mailer.close();
+        }
+    }
+
+    public List<PooledMailer> getMailers() {
+        return new ArrayList<>(mailers.values());
+    }
+
+    @Override
+    public void close() {
+        mailers.values().removeIf(mailer -> {
+            mailer.close();
+            return true;
+        });
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class Key {
+        private final String host;
+        private final int port;
+        private final String account;
+    }
+}
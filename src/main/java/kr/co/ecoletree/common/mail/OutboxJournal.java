@@ -0,0 +1,265 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : OutboxJournal.java
+ * DESC : 발송 대기 메일 기록용 append-only journal (memory-mapped segment 파일)
+ *****************************************************************/
+package kr.co.ecoletree.common.mail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+import kr.co.ecoletree.common.exception.ETRuntimeException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 발송 대기 메일 journal.
+ *
+ * 레코드: [길이(int)][CRC32(int)][종류(byte)][id(long)][내용]
+ * - ENQUEUED: 발송할 메일 (내용 포함)
+ * - COMPLETED / DEAD: 발송 완료 / 포기 (내용 없음)
+ *
+ * 고정 크기 segment 파일을 memory-map 해서 뒤에 붙이기만 한다. 가득 차면 다음 segment 를 만든다.
+ * map 된 파일에 쓴 내용은 OS page cache 에 있으므로 JVM 이 죽어도 남는다. (전원 장애까지 대비하려면 sync = true)
+ * 다시 열면 ENQUEUED 중 COMPLETED / DEAD 가 없는 것을 복구한다. 길이가 0 이거나 CRC 가 맞지 않는 곳(쓰다 만 레코드)에서 해당 segment 읽기를 멈춘다.
+ *
+ * 완료 기록은 원래 레코드보다 뒤 segment 에 쓰이므로, 대기 중인 메일이 없는 segment 라도
+ * 앞쪽 segment 가 모두 지워진 경우에만 지운다.
+ */
+@Slf4j
+final class OutboxJournal implements AutoCloseable {
+    static final byte ENQUEUED = 1;
+    static final byte COMPLETED = 2;
+    static final byte DEAD = 3;
+
+    private static final int HEADER = 4 + 4;
+    private static final int BODY_HEADER = 1 + 8;
+    private static final String PREFIX = "outbox-";
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean sync;
+    private final CRC32 crc = new CRC32();
+
+    /** segment 번호 → 대기 중인 메일 수 */
+    private final TreeMap<Long, Integer> segments = new TreeMap<>();
+    /** 메일 id → segment 번호 */
+    private final Map<Long, Long> segmentOf = new HashMap<>();
+    private final Map<Long, byte[]> recovered = new LinkedHashMap<>();
+
+    private long activeSegment;
+    private MappedByteBuffer active;
+    private long lastId;
+
+    /**
+     * @param directory journal 디렉토리 (없으면 만든다)
+     * @param segmentSize segment 파일 크기 (레코드 하나는 이보다 작아야 한다)
+     * @param sync 레코드를 쓸 때마다 디스크에 반영(force)할지 여부
+     */
+    OutboxJournal(final Path directory, final int segmentSize, final boolean sync) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.sync = sync;
+        try {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+                for (final Path file : files) {
+                    segments.put(segmentNumber(file), 0);
+                }
+            }
+            for (final Long segment : segments.keySet()) {
+                replay(segment);
+            }
+            activeSegment = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+            active = map(activeSegment);
+            segments.put(activeSegment, 0);
+            purge();
+        } catch (final IOException e) {
+            throw new ETRuntimeException(String.format("Failed to open outbox journal: %s", directory), e);
+        }
+        if (!recovered.isEmpty()) {
+            log.info("Recovered {} pending emails from {}", recovered.size(), directory);
+        }
+    }
+
+    /**
+     * 다시 열 때 복구한 대기 메일 (id 순서)
+     *
+     * @return
+     */
+    Map<Long, byte[]> recovered() {
+        return Collections.unmodifiableMap(recovered);
+    }
+
+    /**
+     * 메일 기록
+     *
+     * @param payload
+     * @return 메일 id
+     */
+    synchronized long append(final byte[] payload) {
+        final long id = ++lastId;
+        write(ENQUEUED, id, payload);
+        segmentOf.put(id, activeSegment);
+        segments.merge(activeSegment, 1, Integer::sum);
+        return id;
+    }
+
+    synchronized void complete(final long id) {
+        finish(COMPLETED, id);
+    }
+
+    synchronized void dead(final long id) {
+        finish(DEAD, id);
+    }
+
+    /** 대기 중인 메일 수 */
+    synchronized int pending() {
+        return segmentOf.size();
+    }
+
+    /** 남아 있는 segment 파일 수 */
+    synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        active.force();
+    }
+
+    private void finish(final byte type, final long id) {
+        write(type, id, new byte[0]);
+        final Long segment = segmentOf.remove(id);
+        if (segment != null) {
+            segments.computeIfPresent(segment, (k, count) -> count - 1);
+            purge();
+        }
+    }
+
+    private void write(final byte type, final long id, final byte[] payload) {
+        final int length = BODY_HEADER + payload.length;
+        if (HEADER + length > segmentSize) {
+            throw new ETRuntimeException(String.format("Journal record too large: %d bytes (segment %d)", length, segmentSize));
+        }
+        if (active.remaining() < HEADER + length) {
+            roll();
+        }
+        final int start = active.position();
+        active.position(start + HEADER);
+        active.put(type).putLong(id).put(payload);
+
+        final ByteBuffer body = active.duplicate();
+        body.position(start + HEADER).limit(start + HEADER + length);
+        crc.reset();
+        crc.update(body);
+        // 길이를 마지막에 써서, 중간에 죽으면 길이 0 (끝) 으로 읽히도록 한다.
+        active.putInt(start + 4, (int) crc.getValue());
+        active.putInt(start, length);
+        if (sync) {
+            active.force();
+        }
+    }
+
+    private void roll() {
+        active.force();
+        activeSegment++;
+        try {
+            active = map(activeSegment);
+        } catch (final IOException e) {
+            throw new ETRuntimeException(String.format("Failed to create journal segment %d", activeSegment), e);
+        }
+        segments.put(activeSegment, 0);
+        purge();
+    }
+
+    /**
+     * 앞쪽부터 대기 중인 메일이 없는 segment 삭제
+     */
+    private void purge() {
+        for (final Iterator<Map.Entry<Long, Integer>> it = segments.entrySet().iterator(); it.hasNext(); ) {
+            final Map.Entry<Long, Integer> entry = it.next();
+            if (entry.getValue() > 0 || entry.getKey() == activeSegment) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(path(entry.getKey()));
+            } catch (final IOException e) {
+                log.warn("Failed to delete journal segment {}: {}", entry.getKey(), e.getMessage());
+                return;
+            }
+            it.remove();
+        }
+    }
+
+    private void replay(final long segment) throws IOException {
+        final ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path(segment), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        while (buffer.remaining() >= HEADER + BODY_HEADER) {
+            final int start = buffer.position();
+            final int length = buffer.getInt();
+            final int checksum = buffer.getInt();
+            if (length < BODY_HEADER || length > buffer.remaining()) {
+                break;
+            }
+            final ByteBuffer body = buffer.duplicate();
+            body.limit(start + HEADER + length);
+            crc.reset();
+            crc.update(body);
+            if ((int) crc.getValue() != checksum) {
+                log.warn("Corrupted journal record in segment {} at {}", segment, start);
+                break;
+            }
+            final byte type = buffer.get();
+            final long id = buffer.getLong();
+            lastId = Math.max(lastId, id);
+            if (type == ENQUEUED) {
+                final byte[] payload = new byte[length - BODY_HEADER];
+                buffer.get(payload);
+                recovered.put(id, payload);
+                segmentOf.put(id, segment);
+                segments.merge(segment, 1, Integer::sum);
+            } else {
+                final Long origin = segmentOf.remove(id);
+                if (origin != null) {
+                    recovered.remove(id);
+                    segments.computeIfPresent(origin, (k, count) -> count - 1);
+                }
+            }
+        }
+    }
+
+    private MappedByteBuffer map(final long segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(path(segment),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private Path path(final long segment) {
+        return directory.resolve(String.format("%s%010d%s", PREFIX, segment, SUFFIX));
+    }
+
+    private static long segmentNumber(final Path file) {
+        final String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,175 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : PooledMailer.java
+ * DESC : SMTP 연결 풀을 사용하는 Mailer (SMTP 서버 하나 당 하나, MailerCache 에서 조회)
+ *****************************************************************/
+package kr.co.ecoletree.common.mail;
+
+import org.simplejavamail.api.email.Email;
+import org.simplejavamail.api.mailer.Mailer;
+import org.simplejavamail.api.mailer.config.TransportStrategy;
+import org.simplejavamail.converter.EmailConverter;
+import org.simplejavamail.mailer.MailerBuilder;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.mail.Address;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.AddressException;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+
+import kr.co.ecoletree.common.concurrent.WorkerThreadFactory;
+import kr.co.ecoletree.common.exception.ETRuntimeException;
+
+/**
+ * 연결을 재사용하는 Mailer.
+ *
+ * Session 설정과 Email → MimeMessage 변환은 Simple Java Mail 의 Mailer 를 그대로 쓰고,
+ * 실제 전송만 {@link SmtpConnectionPool} 의 연결로 한다.
+ * 비동기 발송은 풀 크기 만큼의 전용 쓰레드에서 실행한다. (연결을 기다리느라 공용 I/O 쓰레드를 붙잡지 않도록)
+ */
+public final class PooledMailer implements AutoCloseable {
+    private final EmailAuth auth;
+    private final Session session;
+    private final SmtpConnectionPool pool;
+    private final ExecutorService senders;
+
+    PooledMailer(final EmailAuth auth, final SmtpConnectionPool.Config config) {
+        this.auth = copyOf(auth);
+        final Mailer mailer = MailerBuilder
+                .withSMTPServer(auth.getHost(), auth.getPort(), auth.getAccount(), auth.getPassword())
+                .withTransportStrategy(TransportStrategy.SMTP)
+                .buildMailer();
+        // getSession() 은 호출할 때마다 경고 로그를 남기므로 한 번만 가져온다.
+        this.session = mailer.getSession();
+        this.pool = new SmtpConnectionPool(session, this.auth, config);
+        this.senders = Executors.newFixedThreadPool(config.getMaxSize(),
+                WorkerThreadFactory.daemon("mail-" + auth.getHost() + ":" + auth.getPort()));
+    }
+
+    /**
+     * 동기 발송
+     *
+     * @param email
+     */
+    public void send(final Email email) {
+        final MimeMessage message = toMimeMessage(email);
+        try {
+            pool.send(message, message.getAllRecipients());
+        } catch (final MessagingException e) {
+            throw new ETRuntimeException(e);
+        }
+    }
+
+    /**
+     * 동기 발송 (recipients 를 maxRecipients 명씩 SMTP 트랜잭션 하나로)
+     *
+     * @param message
+     * @param recipients
+     */
+    public void send(final MimeMessage message, final Address[] recipients) {
+        pool.send(message, recipients);
+    }
+
+    /**
+     * 비동기 발송
+     *
+     * @param email
+     * @return
+     */
+    public CompletableFuture<Void> sendAsync(final Email email) {
+        return CompletableFuture.runAsync(() -> send(email), senders);
+    }
+
+    public CompletableFuture<Void> sendAsync(final MimeMessage message, final Address[] recipients) {
+        return CompletableFuture.runAsync(() -> send(message, recipients), senders);
+    }
+
+    /**
+     * 같은 내용을 recipients 전체에게 발송 (동기)
+     *
+     * 메일 헤더(To / Cc)와 관계없이 recipients 에게만 보낸다. (수신자끼리는 서로 보이지 않는다)
+     * 본문은 한 번만 만들고, SMTP 트랜잭션 하나에 maxRecipients 명씩 RCPT TO 로 넣어서 DATA 전송 횟수를 줄인다.
+     *
+     * @param email 보낼 내용 (To 는 보통 보내는 사람 자신 또는 목록 주소)
+     * @param recipients 실제 수신자 (중복은 한 번만 보낸다)
+     */
+    public void sendToAll(final Email email, final Collection<String> recipients) {
+        pool.send(toMimeMessage(email), parse(recipients));
+    }
+
+    /**
+     * 같은 내용을 recipients 전체에게 발송 (비동기)
+     *
+     * @param email
+     * @param recipients
+     * @return
+     */
+    public CompletableFuture<Void> sendToAllAsync(final Email email, final Collection<String> recipients) {
+        final Address[] addresses = parse(recipients);
+        return CompletableFuture.runAsync(() -> pool.send(toMimeMessage(email), addresses), senders);
+    }
+
+    public MimeMessage toMimeMessage(final Email email) {
+        return EmailConverter.emailToMimeMessage(email, session);
+    }
+
+    /** MimeMessage 를 만들 때 사용할 Session */
+    public Session getSession() {
+        return session;
+    }
+
+    public EmailAuth getAuth() {
+        return copyOf(auth);
+    }
+
+    public SmtpConnectionPool getPool() {
+        return pool;
+    }
+
+    @Override
+    public void close() {
+        senders.shutdown();
+        pool.close();
+    }
+
+    @Override
+    public String toString() {
+        return "PooledMailer(" + pool + ")";
+    }
+
+    boolean matchesPassword(final EmailAuth other) {
+        return auth.getPassword() == null ? other.getPassword() == null : auth.getPassword().equals(other.getPassword());
+    }
+
+    private static Address[] parse(final Collection<String> recipients) {
+        final Set<Address> addresses = new LinkedHashSet<>();
+        for (final String recipient : recipients) {
+            try {
+                addresses.add(new InternetAddress(recipient, true));
+            } catch (final AddressException e) {
+                throw new ETRuntimeException(String.format("Invalid recipient: %s", recipient), e);
+            }
+        }
+        return addresses.toArray(new Address[0]);
+    }
+
+    private static EmailAuth copyOf(final EmailAuth auth) {
+        final EmailAuth copy = new EmailAuth();
+        copy.setHost(auth.getHost());
+        copy.setPort(auth.getPort());
+        copy.setAccount(auth.getAccount());
+        copy.setPassword(auth.getPassword());
+        return copy;
+    }
+}
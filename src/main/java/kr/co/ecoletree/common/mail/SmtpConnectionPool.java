@@ -0,0 +1,468 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : SmtpConnectionPool.java
+ * DESC : SMTP 서버 하나에 대한 연결(Transport) 풀 (최대 개수, 재사용 횟수 제한, idle timeout)
+ *****************************************************************/
+package kr.co.ecoletree.common.mail;
+
+import com.sun.mail.smtp.SMTPSendFailedException;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.mail.Address;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.MimeMessage;
+
+import kr.co.ecoletree.common.concurrent.TimerWheel;
+import kr.co.ecoletree.common.exception.ETRuntimeException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * SMTP 연결 풀.
+ *
+ * 메일 한 통마다 연결 / EHLO / (STARTTLS) / AUTH 를 하면 발송 시간 대부분이 연결 설정에 쓰인다.
+ * 연결된 Transport 를 보관했다가 다음 발송에 다시 사용한다.
+ *
+ * - maxSize: 동시에 사용할 수 있는 최대 연결 수. 모두 사용 중이면 claimTimeout 까지 기다린다.
+ * - maxReuse: 연결 하나로 보낼 최대 메일 수. (서버가 세션당 메일 수를 제한하는 경우, 0 이면 제한 없음)
+ * - idleTimeout: 이 시간 동안 사용하지 않은 연결은 닫는다. (서버가 먼저 끊기 전에 정리)
+ * - maxRecipients: SMTP 트랜잭션 하나에 넣을 최대 수신자(RCPT TO) 수. 수신자가 많으면 나눠서 보낸다.
+ *
+ * 가장 최근에 반납된 연결부터 사용한다. (LIFO, 오래 쉰 연결은 뒤에 남아서 정리된다)
+ * 재사용한 연결로 발송이 실패하면 서버가 이미 끊은 연결일 수 있으므로 새 연결로 한 번 더 시도한다.
+ *
+ * 같은 내용을 여러 수신자에게 보낼 때는 본문(DATA)을 한 번만 전송한다. 서버 한도가 maxRecipients 보다 작아서
+ * 일부 수신자를 452 (Too many recipients) 로 미루면, 받은 수신자에게 보낸 뒤 나머지를 다음 트랜잭션으로 보낸다.
+ * (이를 위해 전달받은 Session 을 복사한 풀 전용 Session 에서 mail.smtp.sendpartial 을 켠다. 전달받은 Session 은 바꾸지 않는다)
+ *
+ * 일부 트랜잭션만 실패하면 나머지 트랜잭션은 계속 보내고, 끝난 뒤 수신자를 보냄 / 재시도 가능 / 거부로 나눠서 알려준다.
+ * (재시도하는 쪽이 이미 받은 수신자에게 다시 보내지 않도록)
+ */
+@Slf4j
+public final class SmtpConnectionPool implements AutoCloseable {
+    private final Session session;
+    private final EmailAuth auth;
+    private final Config config;
+    private final BlockingDeque<Connection> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private volatile boolean closed;
+
+    private final AtomicLong opened = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    /**
+     * @param session 접속 설정(Transport 종류, timeout 등)이 들어있는 Session
+     * @param auth
+     * @param config
+     */
+    public SmtpConnectionPool(final Session session, final EmailAuth auth, final Config config) {
+        this.session = sendPartial(session);
+        this.auth = auth;
+        this.config = config;
+        this.permits = new Semaphore(config.maxSize, true);
+        scheduleEviction();
+    }
+
+    /**
+     * 메일 발송. recipients 를 maxRecipients 씩 나눠서 트랜잭션 하나에 여러 RCPT TO 로 보낸다.
+     *
+     * 보내지 못한 수신자가 있으면 나머지 트랜잭션까지 모두 시도한 뒤 ETRuntimeException.
+     * cause 는 수신자를 나눠 담은 SendFailedException 이다.
+     * - getValidSentAddresses: 보낸 수신자
+     * - getValidUnsentAddresses: 일시적인 실패(4xx, 연결 실패 등)로 보내지 못한 수신자. 이 수신자만 다시 보내면 된다.
+     * - getInvalidAddresses: 5xx 로 거부된 수신자 (다시 보내도 실패)
+     * 연결 / 풀 문제로 실패하면 남은 트랜잭션은 시도하지 않고 모두 getValidUnsentAddresses 에 넣는다.
+     *
+     * @param message
+     * @param recipients
+     */
+    public void send(final MimeMessage message, final Address[] recipients) {
+        final Deque<Address> remaining = new ArrayDeque<>(Arrays.asList(recipients));
+        final List<Address> delivered = new ArrayList<>();
+        final List<Address> unsent = new ArrayList<>();
+        final List<Address> invalid = new ArrayList<>();
+        Exception failure = null;
+
+        int limit = config.maxRecipients > 0 ? config.maxRecipients : Math.max(1, recipients.length);
+        while (!remaining.isEmpty()) {
+            final Address[] chunk = new Address[Math.min(limit, remaining.size())];
+            for (int i = 0; i < chunk.length; i++) {
+                chunk[i] = remaining.pollFirst();
+            }
+            try {
+                transaction(message, chunk);
+                Collections.addAll(delivered, chunk);
+            } catch (final SendFailedException e) {
+                final Address[] sentTo = orEmpty(e.getValidSentAddresses());
+                final Address[] deferred = orEmpty(e.getValidUnsentAddresses());
+                final Address[] refused = orEmpty(e.getInvalidAddresses());
+                Collections.addAll(delivered, sentTo);
+                Collections.addAll(invalid, refused);
+                if (sentTo.length > 0 && deferred.length > 0) {
+                    // 서버 한도 (452): 받은 만큼이 한도. 미룬 수신자는 다음 트랜잭션으로
+                    log.debug("SMTP server accepted {} of {} recipients, send the rest in the next transaction", sentTo.length, chunk.length);
+                    limit = sentTo.length;
+                    for (int i = deferred.length - 1; i >= 0; i--) {
+                        remaining.addFirst(deferred[i]);
+                    }
+                } else if (isPermanent(e)) {
+                    Collections.addAll(invalid, deferred);
+                } else {
+                    Collections.addAll(unsent, deferred);
+                }
+                if (refused.length > 0 || sentTo.length == 0) {
+                    failure = e;
+                }
+            } catch (final RuntimeException e) {
+                // 연결 실패 / 풀 종료 등: 이 트랜잭션과 남은 수신자는 보내지 못했다
+                Collections.addAll(unsent, chunk);
+                unsent.addAll(remaining);
+                remaining.clear();
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            final SendFailedException cause = new SendFailedException(failure.getMessage(), failure,
+                    delivered.toArray(new Address[0]), unsent.toArray(new Address[0]), invalid.toArray(new Address[0]));
+            throw new ETRuntimeException(String.format("SMTP send failed for %d of %d recipients (%d rejected, %d to retry) (%s:%d)",
+                    unsent.size() + invalid.size(), recipients.length, invalid.size(), unsent.size(),
+                    auth.getHost(), auth.getPort()), cause);
+        }
+    }
+
+    /**
+     * 트랜잭션 전체가 5xx 로 거부되었는지 (DATA 거부 등. 4xx 나 수신자 한도는 다시 보낼 수 있다)
+     */
+    private static boolean isPermanent(final SendFailedException e) {
+        return e instanceof SMTPSendFailedException && ((SMTPSendFailedException) e).getReturnCode() >= 500;
+    }
+
+    /**
+     * 풀 전용 Session (전달받은 Session 설정 복사 + sendpartial)
+     */
+    private static Session sendPartial(final Session session) {
+        final Properties properties = new Properties();
+        properties.putAll(session.getProperties());
+        for (final String name : session.getProperties().stringPropertyNames()) {
+            properties.putIfAbsent(name, session.getProperties().getProperty(name));
+        }
+        final String protocol = properties.getProperty("mail.transport.protocol");
+        properties.setProperty("mail." + (protocol == null ? "smtp" : protocol) + ".sendpartial", "true");
+        final Session pooled = Session.getInstance(properties);
+        pooled.setDebug(session.getDebug());
+        return pooled;
+    }
+
+    /**
+     * 트랜잭션 하나 (MAIL FROM, RCPT TO * n, DATA)
+     */
+    private void transaction(final MimeMessage message, final Address[] recipients) throws SendFailedException {
+        final Connection connection = claim();
+        final boolean reusing = connection.connected;
+        try {
+            transmit(connection, message, recipients);
+            release(connection, false);
+        } catch (final SendFailedException e) {
+            // 수신자 거부 등 메일 자체의 문제. 연결은 계속 사용할 수 있다.
+            release(connection, false);
+            if (orEmpty(e.getValidSentAddresses()).length > 0) {
+                sent.incrementAndGet();
+            } else {
+                failed.incrementAndGet();
+            }
+            throw e;
+        } catch (final MessagingException e) {
+            release(connection, true);
+            if (!reusing) {
+                failed.incrementAndGet();
+                throw new ETRuntimeException(String.format("SMTP send failed (%s:%d)", auth.getHost(), auth.getPort()), e);
+            }
+            log.debug("Reused SMTP connection failed, retry with a new connection: {}", e.getMessage());
+            transaction(message, recipients);
+        } catch (final RuntimeException e) {
+            release(connection, true);
+            throw e;
+        }
+    }
+
+    /** 사용 가능한 최대 연결 수 */
+    public int getMaxSize() {
+        return config.maxSize;
+    }
+
+    /** SMTP 트랜잭션 하나에 넣을 최대 수신자 수 (0: 제한 없음) */
+    public int getMaxRecipients() {
+        return config.maxRecipients;
+    }
+
+    /** 사용 중인 연결 수 */
+    public int getActive() {
+        return config.maxSize - permits.availablePermits();
+    }
+
+    /** 쉬고 있는 연결 수 */
+    public int getIdle() {
+        return idle.size();
+    }
+
+    /** 새로 연결한 횟수 */
+    public long getOpened() {
+        return opened.get();
+    }
+
+    /** 기존 연결로 보낸 횟수 */
+    public long getReused() {
+        return reused.get();
+    }
+
+    /** 재사용 제한 / idle timeout 으로 닫은 연결 수 */
+    public long getExpired() {
+        return expired.get();
+    }
+
+    public long getSent() {
+        return sent.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (Connection connection; (connection = idle.pollFirst()) != null; ) {
+            connection.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SmtpConnectionPool(%s:%d, active=%d/%d, idle=%d, opened=%d, reused=%d, expired=%d, sent=%d, failed=%d)",
+                auth.getHost(), auth.getPort(), getActive(), getMaxSize(), getIdle(),
+                getOpened(), getReused(), getExpired(), getSent(), getFailed());
+    }
+
+    private void transmit(final Connection connection, final MimeMessage message, final Address[] recipients) throws MessagingException {
+        // Transport.isConnected() 는 NOOP 명령을 보내므로 직접 상태를 관리한다.
+        if (!connection.connected) {
+            connection.transport.connect(auth.getHost(), auth.getPort(), auth.getAccount(), auth.getPassword());
+            connection.connected = true;
+            opened.incrementAndGet();
+        } else {
+            reused.incrementAndGet();
+        }
+        connection.uses++;
+        connection.transport.sendMessage(message, recipients);
+        sent.incrementAndGet();
+    }
+
+    private static Address[] orEmpty(final Address[] addresses) {
+        return addresses == null ? new Address[0] : addresses;
+    }
+
+    private Connection claim() {
+        if (closed) {
+            throw new ETRuntimeException("SMTP connection pool is closed");
+        }
+        try {
+            if (!permits.tryAcquire(config.claimTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ETRuntimeException(String.format("No SMTP connection available within %s (%s)", config.claimTimeout, this));
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ETRuntimeException(e);
+        }
+        final long now = System.nanoTime();
+        for (Connection connection; (connection = idle.pollFirst()) != null; ) {
+            if (now - connection.lastUsedNanos < config.idleTimeout.toNanos()) {
+                return connection;
+            }
+            expire(connection);
+        }
+        try {
+            return new Connection(session.getTransport());
+        } catch (final MessagingException e) {
+            permits.release();
+            throw new ETRuntimeException(e);
+        }
+    }
+
+    private void release(final Connection connection, final boolean broken) {
+        try {
+            if (broken || closed) {
+                connection.close();
+            } else if (config.maxReuse > 0 && connection.uses >= config.maxReuse) {
+                expire(connection);
+            } else {
+                connection.lastUsedNanos = System.nanoTime();
+                idle.offerFirst(connection);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void expire(final Connection connection) {
+        expired.incrementAndGet();
+        connection.close();
+    }
+
+    /**
+     * 오래 쉰 연결(뒤쪽부터) 정리
+     */
+    private void scheduleEviction() {
+        final long interval = Math.max(100, config.idleTimeout.toMillis() / 2);
+        TimerWheel.shared().schedule(() -> {
+            if (closed) {
+                return;
+            }
+            final long now = System.nanoTime();
+            for (Connection connection; (connection = idle.peekLast()) != null
+                    && now - connection.lastUsedNanos >= config.idleTimeout.toNanos(); ) {
+                if (idle.removeLastOccurrence(connection)) {
+                    expire(connection);
+                }
+            }
+            scheduleEviction();
+        }, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 풀에 보관하는 연결
+     */
+    private static final class Connection {
+        private final Transport transport;
+        private boolean connected;
+        private int uses;
+        private long lastUsedNanos = System.nanoTime();
+
+        Connection(final Transport transport) {
+            this.transport = transport;
+        }
+
+        void close() {
+            try {
+                transport.close();
+            } catch (final MessagingException e) {
+                log.debug("Failed to close SMTP connection: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 풀 설정
+     */
+    public static final class Config {
+        public static final Config DEFAULT = builder().build();
+
+        private final int maxSize;
+        private final int maxReuse;
+        private final Duration claimTimeout;
+        private final Duration idleTimeout;
+        private final int maxRecipients;
+
+        private Config(final Builder builder) {
+            this.maxSize = builder.maxSize;
+            this.maxReuse = builder.maxReuse;
+            this.claimTimeout = builder.claimTimeout;
+            this.idleTimeout = builder.idleTimeout;
+            this.maxRecipients = builder.maxRecipients;
+        }
+
+        public static Builder builder() {
+            return new Builder();
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public int getMaxReuse() {
+            return maxReuse;
+        }
+
+        public Duration getClaimTimeout() {
+            return claimTimeout;
+        }
+
+        public Duration getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public int getMaxRecipients() {
+            return maxRecipients;
+        }
+
+        public static final class Builder {
+            private int maxSize = 4;
+            private int maxReuse = 100;
+            private Duration claimTimeout = Duration.ofSeconds(10);
+            private Duration idleTimeout = Duration.ofSeconds(30);
+            private int maxRecipients = 100;
+
+            private Builder() {}
+
+            public Builder maxSize(final int maxSize) {
+                if (maxSize < 1) {
+                    throw new ETRuntimeException(String.format("invalid pool size: %d", maxSize));
+                }
+                this.maxSize = maxSize;
+                return this;
+            }
+
+            /**
+             * @param maxReuse 연결 하나로 보낼 최대 메일 수 (0: 제한 없음)
+             * @return
+             */
+            public Builder maxReuse(final int maxReuse) {
+                this.maxReuse = Math.max(0, maxReuse);
+                return this;
+            }
+
+            public Builder claimTimeout(final Duration claimTimeout) {
+                this.claimTimeout = claimTimeout;
+                return this;
+            }
+
+            public Builder idleTimeout(final Duration idleTimeout) {
+                this.idleTimeout = idleTimeout;
+                return this;
+            }
+
+            /**
+             * @param maxRecipients SMTP 트랜잭션 하나에 넣을 최대 수신자 수 (0: 제한 없음, RFC 5321 은 최소 100 을 받도록 권장)
+             * @return
+             */
+            public Builder maxRecipients(final int maxRecipients) {
+                this.maxRecipients = Math.max(0, maxRecipients);
+                return this;
+            }
+
+            public Config build() {
+                return new Config(this);
+            }
+        }
+    }
+}
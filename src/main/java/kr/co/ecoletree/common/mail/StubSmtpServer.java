@@ -0,0 +1,301 @@
+/*****************************************************************
+ * Copyright (c) 2017 EcoleTree. All Rights Reserved.
+ *
+ * Author : HyungSeok Kim
+ * Create Date : 2026. 10. 19.
+ * File Name : StubSmtpServer.java
+ * DESC : 발송 성능 측정용 로컬 SMTP 서버 (메일은 저장하지 않고 개수만 센다)
+ *****************************************************************/
+package kr.co.ecoletree.common.mail;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import kr.co.ecoletree.common.concurrent.WorkerThreadFactory;
+import kr.co.ecoletree.common.exception.ETRuntimeException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 예제 / 성능 측정용 SMTP 서버.
+ *
+ * EHLO, AUTH(PLAIN, LOGIN), MAIL, RCPT, DATA, RSET, NOOP, QUIT 만 처리하고 메일은 버린다.
+ * 실제 서버의 TCP / TLS / 인사말 지연은 connectDelay 로 흉내낸다. (연결마다 한 번 대기)
+ *
+ * <pre>
+ * {@code
+ * try (StubSmtpServer server = StubSmtpServer.start(Duration.ofMillis(20))) {
+ *     // localhost:server.getPort() 로 발송
+ * }
+ * }
+ * </pre>
+ */
+@Slf4j
+public final class StubSmtpServer implements AutoCloseable {
+    public static final int DEFAULT_MAX_RECIPIENTS = 100;
+
+    private final ServerSocket serverSocket;
+    private final Duration connectDelay;
+    private final int maxRecipients;
+    private final ExecutorService sessions = Executors.newCachedThreadPool(WorkerThreadFactory.daemon("smtp-stub"));
+
+    private final AtomicLong connections = new AtomicLong();
+    private final AtomicLong transactions = new AtomicLong();
+    private final AtomicLong recipients = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicInteger passes = new AtomicInteger();
+    private volatile String failureReply;
+
+    private StubSmtpServer(final Duration connectDelay, final int maxRecipients) throws IOException {
+        this.serverSocket = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+        this.connectDelay = connectDelay;
+        this.maxRecipients = maxRecipients;
+        sessions.execute(this::accept);
+    }
+
+    /**
+     * @param connectDelay 연결마다 인사말(220) 전에 대기할 시간
+     * @return
+     */
+    public static StubSmtpServer start(final Duration connectDelay) {
+        return start(connectDelay, DEFAULT_MAX_RECIPIENTS);
+    }
+
+    /**
+     * @param connectDelay 연결마다 인사말(220) 전에 대기할 시간
+     * @param maxRecipients 트랜잭션 하나에 받을 최대 RCPT 수 (넘으면 452)
+     * @return
+     */
+    public static StubSmtpServer start(final Duration connectDelay, final int maxRecipients) {
+        try {
+            return new StubSmtpServer(connectDelay, maxRecipients);
+        } catch (final IOException e) {
+            throw new ETRuntimeException(e);
+        }
+    }
+
+    public String getHost() {
+        return serverSocket.getInetAddress().getHostAddress();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * 이 서버로 접속하는 정보 (계정 / 비밀번호는 검사하지 않는다)
+     *
+     * @return
+     */
+    public EmailAuth auth() {
+        final EmailAuth auth = new EmailAuth();
+        auth.setHost(getHost());
+        auth.setPort(getPort());
+        auth.setAccount("stub");
+        auth.setPassword("stub");
+        return auth;
+    }
+
+    /** 받은 연결 수 (SMTP 세션 수) */
+    public long getConnections() {
+        return connections.get();
+    }
+
+    /** DATA 까지 끝난 트랜잭션 수 */
+    public long getTransactions() {
+        return transactions.get();
+    }
+
+    /** 받은 수신자(RCPT) 수 */
+    public long getRecipients() {
+        return recipients.get();
+    }
+
+    /** 받은 메일 본문 크기 */
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    /** DATA 후 거부한 트랜잭션 수 */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * 다음 count 개의 트랜잭션을 DATA 후 지정한 응답으로 거부한다. (예: "451 4.3.0 Try again later", "554 5.7.1 Rejected")
+     *
+     * @param count
+     * @param reply
+     */
+    public void failNext(final int count, final String reply) {
+        failAfter(0, count, reply);
+    }
+
+    /**
+     * 다음 accepted 개의 트랜잭션은 받고, 그 다음 count 개의 트랜잭션을 지정한 응답으로 거부한다.
+     * (수신자를 여러 트랜잭션으로 나눠 보낼 때 중간 트랜잭션만 실패시키는 용도)
+     *
+     * @param accepted
+     * @param count
+     * @param reply
+     */
+    public void failAfter(final int accepted, final int count, final String reply) {
+        failureReply = reply;
+        failures.set(count);
+        passes.set(accepted);
+    }
+
+    public void reset() {
+        connections.set(0);
+        transactions.set(0);
+        recipients.set(0);
+        bytes.set(0);
+        rejected.set(0);
+        failures.set(0);
+        passes.set(0);
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (final IOException e) {
+            log.debug("close failed: {}", e.getMessage());
+        }
+        sessions.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("StubSmtpServer(%s:%d, connections=%d, transactions=%d, recipients=%d, bytes=%d, rejected=%d)",
+                getHost(), getPort(), getConnections(), getTransactions(), getRecipients(), getBytes(), getRejected());
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                final Socket socket = serverSocket.accept();
+                sessions.execute(() -> session(socket));
+            } catch (final SocketException e) {
+                return;
+            } catch (final IOException e) {
+                log.warn("accept failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void session(final Socket socket) {
+        connections.incrementAndGet();
+        try (Socket s = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII));
+             OutputStream out = s.getOutputStream()) {
+            s.setTcpNoDelay(true);
+            TimeUnit.MILLISECONDS.sleep(connectDelay.toMillis());
+            reply(out, "220 stub ESMTP ready");
+
+            int rcpt = 0;
+            for (String line; (line = in.readLine()) != null; ) {
+                final String command = line.length() < 4 ? line.toUpperCase() : line.substring(0, 4).toUpperCase();
+                switch (command) {
+                    case "EHLO":
+                        reply(out, "250-stub\r\n250-AUTH PLAIN LOGIN\r\n250-PIPELINING\r\n250 8BITMIME");
+                        break;
+                    case "HELO":
+                        reply(out, "250 stub");
+                        break;
+                    case "AUTH":
+                        auth(line, in, out);
+                        break;
+                    case "MAIL":
+                        rcpt = 0;
+                        reply(out, "250 OK");
+                        break;
+                    case "RCPT":
+                        if (rcpt >= maxRecipients) {
+                            reply(out, "452 4.5.3 Too many recipients");
+                        } else {
+                            rcpt++;
+                            reply(out, "250 OK");
+                        }
+                        break;
+                    case "DATA":
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        long size = 0;
+                        for (String data; (data = in.readLine()) != null && !".".equals(data); ) {
+                            size += data.length() + 2;
+                        }
+                        if (passes.getAndUpdate(n -> Math.max(0, n - 1)) == 0
+                                && failures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                            rejected.incrementAndGet();
+                            rcpt = 0;
+                            reply(out, failureReply);
+                            break;
+                        }
+                        bytes.addAndGet(size);
+                        recipients.addAndGet(rcpt);
+                        transactions.incrementAndGet();
+                        rcpt = 0;
+                        reply(out, "250 OK queued");
+                        break;
+                    case "RSET":
+                        rcpt = 0;
+                        reply(out, "250 OK");
+                        break;
+                    case "NOOP":
+                        reply(out, "250 OK");
+                        break;
+                    case "QUIT":
+                        reply(out, "221 Bye");
+                        return;
+                    default:
+                        reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final IOException e) {
+            log.debug("session closed: {}", e.getMessage());
+        }
+    }
+
+    private static void auth(final String line, final BufferedReader in, final OutputStream out) throws IOException {
+        final String[] parts = line.split(" ");
+        final String mechanism = parts.length > 1 ? parts[1].toUpperCase() : "";
+        if ("PLAIN".equals(mechanism)) {
+            if (parts.length < 3) {
+                reply(out, "334 ");
+                in.readLine();
+            }
+        } else if ("LOGIN".equals(mechanism)) {
+            if (parts.length < 3) {
+                reply(out, "334 VXNlcm5hbWU6");
+                in.readLine();
+            }
+            reply(out, "334 UGFzc3dvcmQ6");
+            in.readLine();
+        } else {
+            reply(out, "504 Unrecognized authentication type");
+            return;
+        }
+        reply(out, "235 2.7.0 Authentication successful");
+    }
+
+    private static void reply(final OutputStream out, final String reply) throws IOException {
+        out.write((reply + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+}
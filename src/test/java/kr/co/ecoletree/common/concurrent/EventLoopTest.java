@@ -0,0 +1,59 @@
+package kr.co.ecoletree.common.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventLoopTest {
+
+    @Test
+    void commandsAcceptedDuringShutdownAreExecuted() throws InterruptedException {
+        for (int round = 0; round < 20; round++) {
+            final EventLoop loop = new EventLoop("test", 1024, 64);
+            final AtomicLong executed = new AtomicLong();
+            final AtomicLong accepted = new AtomicLong();
+            final AtomicBoolean stopped = new AtomicBoolean();
+            final Runnable command = executed::incrementAndGet;
+            final List<Runnable> pair = Arrays.asList(command, command);
+            final CountDownLatch started = new CountDownLatch(2);
+            final List<Thread> producers = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                final Thread producer = new Thread(() -> {
+                    started.countDown();
+                    // shutdown 이후에는 모두 거부되어야 하고, 받아들인 명령은 모두 실행되어야 한다
+                    for (int n = 0; !stopped.get(); n++) {
+                        final int added = (n & 1) == 0 ? (loop.offer(command) ? 1 : 0) : loop.offerAll(pair);
+                        if (added == 0) {
+                            Thread.yield();
+                        }
+                        accepted.addAndGet(added);
+                    }
+                });
+                producers.add(producer);
+                producer.start();
+            }
+            started.await();
+            Thread.sleep(5);
+            loop.shutdown();
+            Thread.sleep(5);
+            stopped.set(true);
+            for (final Thread producer : producers) {
+                producer.join();
+            }
+
+            assertThat(loop.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(loop.offer(executed::incrementAndGet)).isFalse();
+            assertThat(loop.getQueueDepth()).isZero();
+            assertThat(executed.get()).isEqualTo(accepted.get());
+            assertThat(loop.getExecutedTasks()).isGreaterThanOrEqualTo(accepted.get());
+        }
+    }
+}
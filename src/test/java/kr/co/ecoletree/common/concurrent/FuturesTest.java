@@ -0,0 +1,71 @@
+package kr.co.ecoletree.common.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FuturesTest {
+
+    @Test
+    void withTimeoutCompletesExceptionally() {
+        final CompletableFuture<String> future = Futures.withTimeout(new CompletableFuture<>(), Duration.ofMillis(50));
+
+        assertThatThrownBy(future::join).hasCauseInstanceOf(TimeoutException.class);
+    }
+
+    @Test
+    void completedFutureIsNotTimedOut() throws Exception {
+        final CompletableFuture<String> future = Futures.withTimeout(new CompletableFuture<>(), Duration.ofMillis(50));
+        future.complete("done");
+        TimeUnit.MILLISECONDS.sleep(100);
+
+        assertThat(future.join()).isEqualTo("done");
+    }
+
+    @Test
+    void cancellingDerivedStageInterruptsSourceTask() throws Exception {
+        final ExecutorService es = Executors.newSingleThreadExecutor();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        try {
+            final CompletableFuture<String> source = Futures.supplyAsync(() -> {
+                started.countDown();
+                try {
+                    TimeUnit.SECONDS.sleep(10);
+                } catch (final InterruptedException e) {
+                    interrupted.countDown();
+                    throw e;
+                }
+                return "never";
+            }, es);
+            final CompletableFuture<String> derived = Pipeline.from(source).map(s -> s + "!").build();
+
+            assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+            derived.cancel(true);
+
+            assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+            assertThat(source.isCancelled()).isTrue();
+        } finally {
+            es.shutdownNow();
+        }
+    }
+
+    @Test
+    void pipelineTimeoutCancelsSource() {
+        final CompletableFuture<String> source = new CompletableFuture<>();
+        final CompletableFuture<String> result = Pipeline.from(source).map(s -> s + "!").build(Duration.ofMillis(50));
+
+        assertThatThrownBy(result::join).hasCauseInstanceOf(TimeoutException.class);
+        assertThatThrownBy(source::join).isInstanceOf(CancellationException.class);
+    }
+}
@@ -0,0 +1,53 @@
+package kr.co.ecoletree.common.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PipelineTest {
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "pipeline-test"));
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void asyncStageAfterRecoverRunsOnItsExecutor() throws Exception {
+        final Pipeline<String> pipeline = Pipeline.<String>supplyAsync(executor, () -> {
+                    throw new IllegalStateException("failed");
+                })
+                .map(s -> s + "!")
+                .recover(t -> "recovered")
+                .mapAsync(executor, s -> s + "@" + Thread.currentThread().getName());
+        // 앞 작업이 모두 끝난 뒤에 build: recover 는 호출한 쓰레드에서 실행될 수 있다
+        executor.submit(() -> {}).get();
+
+        assertThat(pipeline.build().join()).isEqualTo("recovered@pipeline-test");
+    }
+
+    @Test
+    void asyncStageAfterCompletedSourceRunsOnItsExecutor() {
+        final CompletableFuture<String> result = Pipeline.from(CompletableFuture.completedFuture("done"))
+                .map(s -> s + "!")
+                .mapAsync(executor, s -> s + "@" + Thread.currentThread().getName())
+                .build();
+
+        assertThat(result.join()).isEqualTo("done!@pipeline-test");
+    }
+
+    @Test
+    void stagesFusedIntoSupplierRunOnSourceExecutor() {
+        final Pipeline<String> pipeline = Pipeline.supplyAsync(executor, () -> "value")
+                .map(s -> s + "!")
+                .mapAsync(executor, s -> Thread.currentThread().getName());
+
+        assertThat(pipeline.countAsyncBoundaries()).isZero();
+        assertThat(pipeline.build().join()).isEqualTo("pipeline-test");
+    }
+}
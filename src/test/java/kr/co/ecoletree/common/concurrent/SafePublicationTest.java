@@ -0,0 +1,125 @@
+package kr.co.ecoletree.common.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class SafePublicationTest {
+    private static final int ITERATIONS = 50_000;
+    private static final long SPIN_LIMIT = 1_000_000_000L;
+
+    @Test
+    void plainStopFlagIsHoistedOutOfTheLoop() throws InterruptedException {
+        // JIT 가 plain 필드 읽기를 반복문 밖으로 빼서 false 로 바꿔도 limit 까지 돈다
+        final StopFlag flag = new StopFlag();
+        final long[] spins = new long[2];
+        final Thread naive = new Thread(() -> {
+            long n = 0;
+            while (flag.running && n < SPIN_LIMIT) {
+                n++;
+            }
+            spins[0] = n;
+        });
+        final Thread safe = new Thread(() -> {
+            long n = 0;
+            while (!flag.stopped.isSet() && n < SPIN_LIMIT) {
+                n++;
+            }
+            spins[1] = n;
+        });
+        naive.start();
+        safe.start();
+
+        Thread.sleep(100);
+        flag.running = false;
+        flag.stopped.set();
+        naive.join();
+        safe.join();
+
+        assertThat(spins[0]).isEqualTo(SPIN_LIMIT);
+        assertThat(spins[1]).isLessThan(SPIN_LIMIT);
+    }
+
+    @Test
+    void releaseFlagPublishesData() {
+        StressHarness.of(Message::new)
+                .actor(m -> {
+                    m.data = 42;
+                    m.published.set();
+                })
+                .actor(m -> m.seen = m.published.isSet() ? m.data : -1)
+                .arbiter(m -> m.seen)
+                .iterations(ITERATIONS)
+                .run()
+                .requireOnly(v -> v == 42 || v == -1);
+    }
+
+    @Test
+    void nullCheckInitializesTwice() {
+        assumeTrue(Runtime.getRuntime().availableProcessors() >= 2, "needs at least 2 CPUs");
+
+        final StressHarness.Outcomes<Integer> outcomes = StressHarness.of(Holder::new)
+                .actor(Holder::naive)
+                .actor(Holder::naive)
+                .arbiter(h -> h.loads.get())
+                .iterations(ITERATIONS * 4)
+                .run();
+
+        assertThat(outcomes.count(2)).as(outcomes.toString()).isPositive();
+    }
+
+    @Test
+    void lazyInitializesOnce() {
+        StressHarness.of(Holder::new)
+                .actor(h -> h.lazy.get())
+                .actor(h -> h.lazy.get())
+                .arbiter(h -> h.loads.get())
+                .iterations(ITERATIONS)
+                .run()
+                .requireOnly(n -> n == 1);
+    }
+
+    @Test
+    void cacheCellLoadsOnce() {
+        StressHarness.of(Holder::new)
+                .actor(h -> h.cache.get())
+                .actor(h -> h.cache.get())
+                .arbiter(h -> h.loads.get())
+                .iterations(ITERATIONS)
+                .run()
+                .requireOnly(n -> n == 1);
+    }
+
+    private static final class StopFlag {
+        private boolean running = true;
+        private final ReleaseFlag stopped = new ReleaseFlag();
+    }
+
+    private static final class Message {
+        private int data;
+        private final ReleaseFlag published = new ReleaseFlag();
+        private int seen;
+    }
+
+    private static final class Holder {
+        private final AtomicInteger loads = new AtomicInteger();
+        private final Lazy<Object> lazy = Lazy.of(this::load);
+        private final CacheCell<Object> cache = new CacheCell<>(this::load);
+        private Object naive;
+
+        private Object load() {
+            loads.incrementAndGet();
+            return new Object();
+        }
+
+        private Object naive() {
+            if (naive == null) {
+                naive = load();
+            }
+            return naive;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package kr.co.ecoletree.common.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import kr.co.ecoletree.common.exception.ETRuntimeException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class StressHarnessTest {
+
+    @Test
+    void atomicIncrementsAreNeverLost() {
+        final StressHarness.Outcomes<Integer> outcomes = StressHarness.of(AtomicInteger::new)
+                .actor(AtomicInteger::incrementAndGet)
+                .actor(AtomicInteger::incrementAndGet)
+                .arbiter(AtomicInteger::get)
+                .iterations(20_000)
+                .run()
+                .requireOnly(n -> n == 2);
+
+        assertThat(outcomes.total()).isEqualTo(20_000);
+        assertThat(outcomes.count(2)).isEqualTo(20_000);
+    }
+
+    @Test
+    void unsynchronizedIncrementLosesUpdates() {
+        // actor 가 실제로 겹쳐 실행되어야 경쟁 상태가 보인다
+        assumeTrue(Runtime.getRuntime().availableProcessors() >= 2, "needs at least 2 CPUs");
+
+        final StressHarness.Outcomes<Integer> outcomes = StressHarness.of(Counter::new)
+                .actor(c -> c.value++)
+                .actor(c -> c.value++)
+                .arbiter(c -> c.value)
+                .iterations(200_000)
+                .run();
+
+        assertThat(outcomes.count(1)).as(outcomes.toString()).isPositive();
+        assertThat(outcomes.count(n -> n != 1 && n != 2)).isZero();
+    }
+
+    @Test
+    void forbiddenOutcomeFailsTheRun() {
+        final StressHarness.Outcomes<Integer> outcomes = StressHarness.of(AtomicInteger::new)
+                .actor(AtomicInteger::incrementAndGet)
+                .arbiter(AtomicInteger::get)
+                .iterations(100)
+                .run();
+
+        assertThatThrownBy(() -> outcomes.requireOnly(n -> n == 0)).isInstanceOf(ETRuntimeException.class);
+    }
+
+    @Test
+    void actorFailureIsReported() {
+        assertThatThrownBy(() -> StressHarness.of(AtomicInteger::new)
+                .actor(a -> { throw new IllegalStateException("boom"); })
+                .actor(AtomicInteger::incrementAndGet)
+                .arbiter(AtomicInteger::get)
+                .iterations(100)
+                .run())
+                .isInstanceOf(ETRuntimeException.class)
+                .hasRootCauseInstanceOf(IllegalStateException.class);
+    }
+
+    private static final class Counter {
+        private int value;
+    }
+}
@@ -0,0 +1,97 @@
+package kr.co.ecoletree.common.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskTracerTest {
+    private final double sampleRate = TaskTracer.getSampleRate();
+
+    @AfterEach
+    void restore() {
+        TaskTracer.setSampleRate(sampleRate);
+        TaskTracer.drain();
+    }
+
+    @Test
+    void chromeTracePairsEventsInTimeOrder() throws Exception {
+        TaskTracer.setSampleRate(1);
+        TaskTracer.drain();
+        final ExecutorService es = Executors.newSingleThreadExecutor(r -> new Thread(r, "traced-worker"));
+        final long workerId;
+        try {
+            final Executor traced = TaskTracer.wrap(es, "es");
+            workerId = es.submit(() -> Thread.currentThread().getId()).get();
+            final List<CompletableFuture<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                final TaskTracer.Operation op = TaskTracer.begin("op-" + i);
+                futures.add(op.call(() -> op.track(CompletableFuture.supplyAsync(() -> "a", traced)
+                        .thenApplyAsync(String::length, traced))));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } finally {
+            es.shutdownNow();
+        }
+        final List<TaskTracer.Operation> operations = TaskTracer.drain();
+        assertThat(operations).hasSize(3);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TaskTracer.writeChromeTrace(operations, out);
+        final JsonNode events = new ObjectMapper().readTree(out.toByteArray()).get("traceEvents");
+
+        // async 이벤트: (id, name) 별로 b 다음 e, ts 는 b <= e
+        final Map<String, Double> open = new HashMap<>();
+        final Map<Long, List<Double>> timeline = new HashMap<>();
+        int runs = 0;
+        boolean threadName = false;
+        for (final JsonNode event : events) {
+            final String phase = event.get("ph").asText();
+            final String key = event.path("id").asLong() + "/" + event.get("name").asText();
+            switch (phase) {
+                case "b":
+                    assertThat(open.put(key, event.get("ts").asDouble())).as("nested begin %s", key).isNull();
+                    timeline.computeIfAbsent(event.get("id").asLong(), id -> new ArrayList<>()).add(event.get("ts").asDouble());
+                    assertThat(event.get("tid").asLong()).isZero();
+                    break;
+                case "e":
+                    final Double begin = open.remove(key);
+                    assertThat(begin).as("end without begin %s", key).isNotNull();
+                    assertThat(event.get("ts").asDouble()).isGreaterThanOrEqualTo(begin);
+                    timeline.get(event.get("id").asLong()).add(event.get("ts").asDouble());
+                    break;
+                case "X":
+                    runs++;
+                    assertThat(event.get("tid").asLong()).isEqualTo(workerId);
+                    assertThat(event.get("dur").asDouble()).isNotNegative();
+                    timeline.get(event.path("args").get("id").asLong()).add(event.get("ts").asDouble());
+                    break;
+                case "M":
+                    threadName |= event.get("tid").asLong() == workerId
+                            && "traced-worker".equals(event.path("args").get("name").asText());
+                    break;
+                default:
+                    throw new AssertionError("unexpected phase " + phase);
+            }
+        }
+        assertThat(open).isEmpty();
+        assertThat(runs).isEqualTo(6);
+        assertThat(threadName).isTrue();
+        // Operation 별 이벤트는 시간 순: begin, (queue begin, queue end, run) x 2, end
+        assertThat(timeline).hasSize(3);
+        timeline.values().forEach(ts -> assertThat(ts).hasSize(8).isSorted());
+    }
+}
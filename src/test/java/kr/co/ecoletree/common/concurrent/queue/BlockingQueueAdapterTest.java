@@ -0,0 +1,62 @@
+package kr.co.ecoletree.common.concurrent.queue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BlockingQueueAdapterTest {
+
+    @Test
+    void removedElementIsSkippedByPoll() {
+        final BlockingQueueAdapter<String> queue = BlockingQueueAdapter.mpmc(8);
+        queue.offer("a");
+        queue.offer("b");
+        queue.offer("c");
+
+        final Iterator<String> it = queue.iterator();
+        assertThat(it.next()).isEqualTo("a");
+        assertThat(it.next()).isEqualTo("b");
+        it.remove();
+
+        assertThat(queue).containsExactly("a", "c");
+        assertThat(queue.size()).isEqualTo(2);
+        assertThat(queue.remove("x")).isFalse();
+        assertThat(queue.poll()).isEqualTo("a");
+        assertThat(queue.poll()).isEqualTo("c");
+        assertThat(queue.poll()).isNull();
+        assertThat(queue.isEmpty()).isTrue();
+    }
+
+    @Test
+    void threadPoolExecutorShutdownNowReturnsQueuedTasks() throws InterruptedException {
+        final ThreadPoolExecutor es = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, BlockingQueueAdapter.<Runnable>mpmc(16));
+        final CountDownLatch blocked = new CountDownLatch(1);
+        es.execute(() -> {
+            try { blocked.await(); }
+            catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        });
+        final List<Runnable> tasks = new ArrayList<>();
+        final List<Integer> ran = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            // 작업마다 다른 객체 (캡처하지 않는 람다는 같은 인스턴스가 재사용될 수 있다)
+            final int id = i;
+            final Runnable task = () -> ran.add(id);
+            tasks.add(task);
+            es.execute(task);
+        }
+
+        assertThat(es.remove(tasks.get(2))).isTrue();
+        final List<Runnable> notExecuted = es.shutdownNow();
+
+        assertThat(notExecuted).containsExactly(tasks.get(0), tasks.get(1), tasks.get(3), tasks.get(4));
+        assertThat(es.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(ran).isEmpty();
+    }
+}
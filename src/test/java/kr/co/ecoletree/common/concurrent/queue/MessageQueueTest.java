@@ -0,0 +1,170 @@
+package kr.co.ecoletree.common.concurrent.queue;
+
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessageQueueTest {
+    private static final int PER_PRODUCER = 100_000;
+
+    static Stream<Named<IntFunction<MessageQueue<Integer>>>> queues() {
+        return Stream.of(
+                Named.of("spsc", MessageQueue::spsc),
+                Named.of("mpsc", MessageQueue::mpsc),
+                Named.of("mpmc", MessageQueue::mpmc));
+    }
+
+    @ParameterizedTest
+    @MethodSource("queues")
+    void fifoUpToCapacity(final IntFunction<MessageQueue<Integer>> factory) {
+        final MessageQueue<Integer> queue = factory.apply(6);
+        assertThat(queue.capacity()).isEqualTo(8);
+        assertThat(queue.poll()).isNull();
+        assertThat(queue.peek()).isNull();
+
+        for (int i = 0; i < 8; i++) {
+            assertThat(queue.offer(i)).isTrue();
+        }
+        assertThat(queue.offer(8)).isFalse();
+        assertThat(queue.size()).isEqualTo(8);
+        assertThat(queue.peek()).isZero();
+
+        final List<Integer> seen = new ArrayList<>();
+        queue.forEach(seen::add);
+        assertThat(seen).containsExactly(0, 1, 2, 3, 4, 5, 6, 7);
+
+        // 한 칸 비우면 다시 들어가고, 순서는 유지된다 (index wrap-around)
+        assertThat(queue.poll()).isZero();
+        assertThat(queue.offer(8)).isTrue();
+        final List<Integer> drained = new ArrayList<>();
+        assertThat(queue.drain(drained::add, 5)).isEqualTo(5);
+        assertThat(queue.drain(drained::add, 100)).isEqualTo(3);
+        assertThat(drained).containsExactly(1, 2, 3, 4, 5, 6, 7, 8);
+        assertThat(queue.isEmpty()).isTrue();
+    }
+
+    @Test
+    void spscKeepsOrderAcrossThreads() throws Exception {
+        final MessageQueue<Integer> queue = MessageQueue.spsc(64);
+        final ExecutorService es = Executors.newFixedThreadPool(2);
+        try {
+            final Future<?> producer = es.submit(() -> produce(queue, 0, PER_PRODUCER));
+            final Future<List<Integer>> consumer = es.submit(() -> consume(queue, PER_PRODUCER, new AtomicInteger()));
+
+            producer.get(30, TimeUnit.SECONDS);
+            final List<Integer> received = consumer.get(30, TimeUnit.SECONDS);
+            for (int i = 0; i < PER_PRODUCER; i++) {
+                assertThat(received.get(i)).isEqualTo(i);
+            }
+        } finally {
+            es.shutdownNow();
+        }
+    }
+
+    @Test
+    void mpscLosesAndDuplicatesNothing() throws Exception {
+        final int producers = 4;
+        final List<List<Integer>> received = run(MessageQueue.mpsc(64), producers, 1);
+
+        assertNoLossNoDuplicate(received, producers);
+        // 생산자 하나가 넣은 순서는 유지된다
+        final int[] last = new int[producers];
+        Arrays.fill(last, -1);
+        for (final int v : received.get(0)) {
+            final int producer = v / PER_PRODUCER;
+            assertThat(v).isGreaterThan(last[producer]);
+            last[producer] = v;
+        }
+    }
+
+    @Test
+    void mpmcLosesAndDuplicatesNothing() throws Exception {
+        final int producers = 4;
+        assertNoLossNoDuplicate(run(MessageQueue.mpmc(64), producers, 4), producers);
+    }
+
+    /**
+     * 생산자 i 는 [i * PER_PRODUCER, (i + 1) * PER_PRODUCER) 를 넣는다.
+     *
+     * @return 소비자별로 꺼낸 값
+     */
+    private static List<List<Integer>> run(final MessageQueue<Integer> queue, final int producers, final int consumers) throws Exception {
+        final int total = producers * PER_PRODUCER;
+        final AtomicInteger taken = new AtomicInteger();
+        final ExecutorService es = Executors.newFixedThreadPool(producers + consumers);
+        try {
+            final List<Future<?>> produced = new ArrayList<>();
+            for (int i = 0; i < producers; i++) {
+                final int from = i * PER_PRODUCER;
+                produced.add(es.submit(() -> produce(queue, from, from + PER_PRODUCER)));
+            }
+            final List<Future<List<Integer>>> consumed = new ArrayList<>();
+            for (int i = 0; i < consumers; i++) {
+                consumed.add(es.submit(() -> consume(queue, total, taken)));
+            }
+            for (final Future<?> f : produced) {
+                f.get(60, TimeUnit.SECONDS);
+            }
+            final List<List<Integer>> received = new ArrayList<>();
+            for (final Future<List<Integer>> f : consumed) {
+                received.add(f.get(60, TimeUnit.SECONDS));
+            }
+            assertThat(queue.poll()).isNull();
+            return received;
+        } finally {
+            es.shutdownNow();
+        }
+    }
+
+    private static void produce(final MessageQueue<Integer> queue, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            while (!queue.offer(i)) {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * 모든 소비자가 꺼낸 수의 합이 total 이 될 때까지 꺼낸다.
+     */
+    private static List<Integer> consume(final MessageQueue<Integer> queue, final int total, final AtomicInteger taken) {
+        final List<Integer> received = new ArrayList<>();
+        while (taken.get() < total) {
+            final Integer v = queue.poll();
+            if (v == null) {
+                Thread.yield();
+                continue;
+            }
+            received.add(v);
+            taken.incrementAndGet();
+        }
+        return received;
+    }
+
+    private static void assertNoLossNoDuplicate(final List<List<Integer>> received, final int producers) {
+        final boolean[] seen = new boolean[producers * PER_PRODUCER];
+        int count = 0;
+        for (final List<Integer> values : received) {
+            for (final int v : values) {
+                assertThat(seen[v]).as("duplicate %d", v).isFalse();
+                seen[v] = true;
+                count++;
+            }
+        }
+        assertThat(count).isEqualTo(seen.length);
+    }
+}
@@ -0,0 +1,40 @@
+package kr.co.ecoletree.common.helper;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import kong.unirest.Config;
+import kong.unirest.UnirestInstance;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DnsCacheTest {
+
+    @Test
+    void unirestClientsResolveThroughCache() {
+        final DnsCache cache = new DnsCache(Duration.ofMinutes(1));
+        try (StubHttpServer server = StubHttpServer.start();
+             UnirestInstance client = new UnirestInstance(new Config())) {
+            assertThat(cache.configure(client.config())).isTrue();
+            final String url = "http://localhost:" + server.getPort() + "/hello";
+
+            assertThat(client.get(url).asString().getStatus()).isEqualTo(200);
+            assertThat(client.get(url).asStringAsync().join().getStatus()).isEqualTo(200);
+
+            // sync 에서 조회하고, 이후(async 포함)는 캐시에서 준다
+            assertThat(cache.getLookups()).isEqualTo(1);
+            assertThat(cache.getHits()).isPositive();
+        }
+    }
+
+    @Test
+    void runningClientsAreLeftAlone() {
+        final DnsCache cache = new DnsCache(Duration.ofMinutes(1));
+        try (UnirestInstance client = new UnirestInstance(new Config())) {
+            client.config().getClient();
+
+            assertThat(cache.configure(client.config())).isFalse();
+        }
+    }
+}
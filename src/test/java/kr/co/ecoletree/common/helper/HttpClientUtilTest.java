@@ -0,0 +1,68 @@
+package kr.co.ecoletree.common.helper;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpClientUtilTest {
+    private static final Charset EUC_KR = Charset.forName("EUC-KR");
+
+    private StubHttpServer server;
+
+    @BeforeEach
+    void start() {
+        server = StubHttpServer.start();
+        server.handle("/euc-kr", exchange -> server.reply(exchange, 200, "application/json; charset=EUC-KR",
+                "{\"name\":\"에콜트리\"}".getBytes(EUC_KR)));
+    }
+
+    @AfterEach
+    void stop() {
+        server.close();
+    }
+
+    @Test
+    void mapUsesResponseCharset() {
+        final Map<String, Object> body = HttpClientUtil.get(UrlConnectionClient.shared(), server.url("/euc-kr"))
+                .exchangeAsMap()
+                .responseBody();
+
+        assertThat(body).containsEntry("name", "에콜트리");
+    }
+
+    @Test
+    void defaultClientResolvesThroughSharedDnsCache() {
+        final DnsCache cache = DnsCache.shared();
+        final long before = cache.getHits() + cache.getLookups();
+
+        final Map<String, Object> body = HttpClientUtil.get("http://localhost:" + server.getPort() + "/euc-kr")
+                .exchangeAsMap()
+                .responseBody();
+
+        assertThat(body).containsEntry("name", "에콜트리");
+        assertThat(cache.getHits() + cache.getLookups()).isGreaterThan(before);
+    }
+
+    @Test
+    void asyncMapUsesResponseCharsetOnCallbackExecutor() {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Map<String, Object> body = HttpClientUtil.get(UrlConnectionClient.shared(), server.url("/euc-kr"))
+                    .callbackExecutor(executor)
+                    .exchangeAsMapAsync()
+                    .body()
+                    .join();
+
+            assertThat(body).containsEntry("name", "에콜트리");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package kr.co.ecoletree.common.helper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import kong.unirest.Unirest;
+import kong.unirest.UnirestInstance;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MultipartStreamTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void contentLengthMatchesStreamedBody() throws IOException {
+        final Path file = Files.write(directory.resolve("data.txt"), "file-content".getBytes(StandardCharsets.UTF_8));
+        final MultipartStream form = MultipartStream.builder()
+                .boundary("BOUNDARY")
+                .field("name", "에콜트리")
+                .file("upload", file, "text/plain")
+                .build();
+
+        final String body = new String(readAll(form), StandardCharsets.UTF_8);
+        assertThat(body.getBytes(StandardCharsets.UTF_8)).hasSize((int) form.getContentLength());
+        assertThat(body).isEqualTo("--BOUNDARY\r\n"
+                + "Content-Disposition: form-data; name=\"name\"\r\n\r\n"
+                + "에콜트리\r\n"
+                + "--BOUNDARY\r\n"
+                + "Content-Disposition: form-data; name=\"upload\"; filename=\"data.txt\"\r\n"
+                + "Content-Type: text/plain\r\n\r\n"
+                + "file-content\r\n"
+                + "--BOUNDARY--\r\n");
+    }
+
+    @Test
+    void dispositionValuesArePercentEncoded() throws IOException {
+        final MultipartStream form = MultipartStream.builder()
+                .boundary("BOUNDARY")
+                .stream("a\"b", new ByteArrayInputStream(new byte[0]), 0, null, "x\r\nContent-Type: text/html\".txt")
+                .build();
+
+        assertThat(new String(readAll(form), StandardCharsets.UTF_8)).isEqualTo("--BOUNDARY\r\n"
+                + "Content-Disposition: form-data; name=\"a%22b\"; filename=\"x%0D%0AContent-Type: text/html%22.txt\"\r\n\r\n"
+                + "\r\n"
+                + "--BOUNDARY--\r\n");
+        assertThat(MultipartStream.escape("에콜트리.txt")).isEqualTo("에콜트리.txt");
+    }
+
+    @Test
+    void unknownStreamLengthDisablesContentLength() {
+        final MultipartStream form = MultipartStream.builder()
+                .stream("upload", new ByteArrayInputStream(new byte[10]), -1, "application/octet-stream", "a.bin")
+                .build();
+        assertThat(form.getContentLength()).isEqualTo(-1);
+    }
+
+    @Test
+    void fileRangeReadsOnlyItsSlice() throws IOException {
+        final Path file = Files.write(directory.resolve("range.txt"), "0123456789".getBytes(StandardCharsets.US_ASCII));
+        try (FileRangeInputStream in = new FileRangeInputStream(file, 3, 4)) {
+            assertThat(new String(readAll(in), StandardCharsets.US_ASCII)).isEqualTo("3456");
+            assertThat(in.read()).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    void multipartUploadSendsSingleContentType() throws IOException {
+        final Path file = Files.write(directory.resolve("upload.txt"), "file-content".getBytes(StandardCharsets.UTF_8));
+        try (StubHttpServer server = StubHttpServer.start()) {
+            for (final UnirestInstance client : Arrays.asList(UrlConnectionClient.shared(), Unirest.primaryInstance())) {
+                final MultipartStream form = MultipartStream.builder()
+                        .field("name", "에콜트리")
+                        .file("upload", file, "text/plain")
+                        .build();
+
+                final Map<String, Object> response = HttpClientUtil.post(client, server.url("/upload"))
+                        .multipart(form)
+                        .exchangeAsMap()
+                        .responseBody();
+
+                assertThat(form.getContentType()).startsWith("multipart/form-data; boundary=");
+                assertThat(response.get("contentTypes")).isEqualTo(Collections.singletonList(form.getContentType()));
+            }
+        }
+    }
+
+    private static byte[] readAll(final InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[3];
+        for (int n; (n = in.read(buffer)) >= 0; ) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,110 @@
+package kr.co.ecoletree.common.helper;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import kr.co.ecoletree.common.exception.ETRuntimeException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RangedUploadTest {
+    private static final int SIZE = 10_000;
+    private static final int PART_SIZE = 1_000;
+
+    @TempDir
+    Path directory;
+
+    private StubHttpServer server;
+    private Path file;
+    /** Content-Range -> 받은 본문 */
+    private final Map<String, byte[]> received = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile String failingRange;
+
+    @BeforeEach
+    void start() throws Exception {
+        final byte[] content = new byte[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            content[i] = (byte) i;
+        }
+        file = Files.write(directory.resolve("upload.bin"), content);
+        server = StubHttpServer.start();
+        server.handle("/part", exchange -> {
+            final int current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            try {
+                final String range = exchange.getRequestHeaders().getFirst("Content-Range");
+                received.put(range, server.readBody(exchange));
+                TimeUnit.MILLISECONDS.sleep(20);
+                final int status = range.equals(failingRange) ? 500 : 200;
+                server.reply(exchange, status, "application/json", "{}".getBytes(StandardCharsets.UTF_8));
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+    }
+
+    @AfterEach
+    void stop() {
+        server.close();
+    }
+
+    @Test
+    void uploadsEveryRangeWithinParallelism() throws Exception {
+        final RangedUpload upload = RangedUpload.of(file, PART_SIZE, 3);
+
+        final RangedUpload.Result result = upload.upload(this::send).get(30, TimeUnit.SECONDS);
+
+        assertThat(result.getParts()).isEqualTo(10);
+        assertThat(result.getBytes()).isEqualTo(SIZE);
+        assertThat(received).hasSize(10);
+        final byte[] content = Files.readAllBytes(file);
+        for (int i = 0; i < 10; i++) {
+            final int from = i * PART_SIZE;
+            final String range = String.format("bytes %d-%d/%d", from, from + PART_SIZE - 1, SIZE);
+            assertThat(received.get(range)).as(range).isEqualTo(Arrays.copyOfRange(content, from, from + PART_SIZE));
+        }
+        assertThat(maxInFlight.get()).isBetween(1, 3);
+    }
+
+    @Test
+    void stopsSendingAfterFirstFailure() throws Exception {
+        failingRange = "bytes 2000-2999/10000";
+        final RangedUpload upload = RangedUpload.of(file, PART_SIZE, 2);
+
+        assertThatThrownBy(() -> upload.upload(this::send).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(ETRuntimeException.class)
+                .hasMessageContaining("part 2");
+        final int atFailure = received.size();
+
+        // 실패 시점에 전송 중이던 part (최대 parallelism - 1 개) 까지만 끝나고, 이후 part 는 시작하지 않는다
+        TimeUnit.MILLISECONDS.sleep(200);
+        assertThat(received).containsKey(failingRange);
+        assertThat(received.size()).isLessThanOrEqualTo(atFailure + 1).isLessThan(10);
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(2);
+    }
+
+    private HttpClientUtil.AsyncExchange<?> send(final RangedUpload.Part part) {
+        return HttpClientUtil.put(UrlConnectionClient.shared(), server.url("/part"))
+                .headers(MapBuilder.of("Content-Range", part.getContentRange()))
+                .stream(part.open())
+                .exchangeEmptyAsync();
+    }
+}
@@ -0,0 +1,97 @@
+package kr.co.ecoletree.common.mail;
+
+import org.junit.jupiter.api.Test;
+import org.simplejavamail.api.email.Email;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class BulkMailerTest {
+
+    @Test
+    void templateReplacesVariablesAndRejectsMissingValues() {
+        final MailTemplate template = MailTemplate.compile("Hello ${ name }, ${greeting}!");
+
+        assertThat(template.getVariables()).containsExactly("name", "greeting");
+        final Map<String, Object> values = new HashMap<>();
+        values.put("name", "Kim");
+        values.put("greeting", "welcome");
+        assertThat(template.render(values)).isEqualTo("Hello Kim, welcome!");
+        assertThatThrownBy(() -> template.render(Collections.singletonMap("name", "Kim")))
+                .hasMessageContaining("greeting");
+    }
+
+    @Test
+    void rejectedRenderingRunsOnCallerThread() {
+        final AtomicInteger calls = new AtomicInteger();
+        // 두 번째 작업부터 거부
+        final Executor rejecting = task -> {
+            if (calls.getAndIncrement() > 0) {
+                throw new RejectedExecutionException("saturated");
+            }
+            task.run();
+        };
+        final BulkMailer bulk = new BulkMailer(campaign(), rejecting, 2);
+        final List<Email> sent = new CopyOnWriteArrayList<>();
+
+        final BulkMailer.Result result = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> bulk.send(recipients(5).iterator(), sent::add));
+
+        assertThat(result.getDelivered()).isEqualTo(5);
+        assertThat(result.getFailed()).isZero();
+        assertThat(sent).extracting(Email::getSubject).containsExactly("Hi user0", "Hi user1", "Hi user2", "Hi user3", "Hi user4");
+    }
+
+    @Test
+    void errorWhileRenderingIsReportedAsFailure() {
+        final Object broken = new Object() {
+            @Override
+            public String toString() {
+                throw new AssertionError("broken variable");
+            }
+        };
+        final BulkMailer bulk = new BulkMailer(campaign(), Runnable::run, 2);
+        final List<BulkMailer.Recipient> recipients = new ArrayList<>(recipients(2));
+        recipients.add(1, new BulkMailer.Recipient("broken@example.com", "broken", Collections.singletonMap("name", broken)));
+        final List<Throwable> failures = new CopyOnWriteArrayList<>();
+
+        final BulkMailer.Result result = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> bulk.send(recipients.iterator(), email -> {}, (recipient, error) -> failures.add(error)));
+
+        assertThat(result.getSubmitted()).isEqualTo(3);
+        assertThat(result.getDelivered()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(failures).hasSize(1).first().isInstanceOf(AssertionError.class);
+    }
+
+    private static EmailInfo campaign() {
+        final EmailInfo info = new EmailInfo();
+        info.setSender("sender@example.com");
+        info.setSenderName("sender");
+        info.setSubject("Hi ${name}");
+        info.setContent("Dear ${name}");
+        return info;
+    }
+
+    private static List<BulkMailer.Recipient> recipients(final int count) {
+        final BulkMailer.Recipient[] recipients = new BulkMailer.Recipient[count];
+        for (int i = 0; i < count; i++) {
+            recipients[i] = new BulkMailer.Recipient("user" + i + "@example.com", "user" + i,
+                    Collections.singletonMap("name", "user" + i));
+        }
+        return Arrays.asList(recipients);
+    }
+}
@@ -0,0 +1,157 @@
+package kr.co.ecoletree.common.mail;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.simplejavamail.api.email.Email;
+import org.simplejavamail.email.EmailBuilder;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MailOutboxTest {
+
+    @TempDir
+    Path directory;
+
+    private StubSmtpServer server;
+    private PooledMailer mailer;
+    private final List<MailOutbox.DeadLetter> deadLetters = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void start() {
+        server = StubSmtpServer.start(Duration.ZERO);
+        mailer = new PooledMailer(server.auth(), SmtpConnectionPool.Config.DEFAULT);
+    }
+
+    @AfterEach
+    void stop() {
+        mailer.close();
+        server.close();
+    }
+
+    @Test
+    void backoffStaysWithinHalfAndFullOfCappedDelay() {
+        final Duration initial = Duration.ofMillis(100);
+        final Duration max = Duration.ofMillis(1000);
+        for (int attempts = 1; attempts <= 30; attempts++) {
+            final long capped = Math.min(max.toMillis(), initial.toMillis() << Math.min(20, attempts - 1));
+            for (int i = 0; i < 1000; i++) {
+                assertThat(MailOutbox.backoff(initial, max, attempts)).isBetween(capped / 2, capped);
+            }
+        }
+    }
+
+    @Test
+    void transientFailureIsRetried() throws Exception {
+        server.failNext(1, "451 4.3.0 Try again later");
+        try (MailOutbox outbox = open(3)) {
+            assertThat(outbox.offer(email())).isTrue();
+
+            assertThat(outbox.awaitEmpty(Duration.ofSeconds(10))).isTrue();
+            assertThat(outbox.getSent()).isEqualTo(1);
+            assertThat(outbox.getRetried()).isEqualTo(1);
+            assertThat(outbox.getDeadLettered()).isZero();
+        }
+        assertThat(deadLetters).isEmpty();
+    }
+
+    @Test
+    void permanentFailureIsDeadLetteredWithoutRetry() throws Exception {
+        server.failNext(1, "554 5.7.1 Rejected");
+        try (MailOutbox outbox = open(3)) {
+            assertThat(outbox.offer(email())).isTrue();
+
+            assertThat(outbox.awaitEmpty(Duration.ofSeconds(10))).isTrue();
+            assertThat(outbox.getSent()).isZero();
+            assertThat(outbox.getRetried()).isZero();
+            assertThat(outbox.getDeadLettered()).isEqualTo(1);
+        }
+        assertThat(deadLetters).hasSize(1);
+        assertThat(deadLetters.get(0).getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void transientFailuresAreDeadLetteredAfterMaxAttempts() throws Exception {
+        server.failNext(10, "451 4.3.0 Try again later");
+        try (MailOutbox outbox = open(3)) {
+            assertThat(outbox.offer(email())).isTrue();
+
+            assertThat(outbox.awaitEmpty(Duration.ofSeconds(10))).isTrue();
+            assertThat(outbox.getSent()).isZero();
+            assertThat(outbox.getRetried()).isEqualTo(2);
+            assertThat(outbox.getDeadLettered()).isEqualTo(1);
+        }
+        assertThat(deadLetters).hasSize(1);
+        assertThat(deadLetters.get(0).getAttempts()).isEqualTo(3);
+        assertThat(deadLetters.get(0).getRecipients()).hasSize(1);
+    }
+
+    @Test
+    void onlyUndeliveredRecipientsAreRetried() throws Exception {
+        // 수신자 한 명씩 트랜잭션 3개. 두 번째 트랜잭션만 일시적으로 실패
+        server.failAfter(1, 1, "451 4.3.0 Try again later");
+        try (PooledMailer chunked = chunkedMailer(); MailOutbox outbox = open(chunked, 3)) {
+            assertThat(outbox.offer(email("a@example.com", "b@example.com", "c@example.com"))).isTrue();
+
+            assertThat(outbox.awaitEmpty(Duration.ofSeconds(10))).isTrue();
+            assertThat(outbox.getRetried()).isEqualTo(1);
+            assertThat(outbox.getSent()).isEqualTo(1);
+            assertThat(outbox.getDeadLettered()).isZero();
+        }
+        assertThat(server.getRecipients()).isEqualTo(3);
+        assertThat(server.getTransactions()).isEqualTo(3);
+        // sendpartial 은 풀 전용 Session 에만 켠다
+        assertThat(mailer.getSession().getProperty("mail.smtp.sendpartial")).isNull();
+    }
+
+    @Test
+    void onlyRejectedRecipientsAreDeadLettered() throws Exception {
+        server.failAfter(1, 1, "554 5.7.1 Rejected");
+        try (PooledMailer chunked = chunkedMailer(); MailOutbox outbox = open(chunked, 3)) {
+            assertThat(outbox.offer(email("a@example.com", "b@example.com", "c@example.com"))).isTrue();
+
+            assertThat(outbox.awaitEmpty(Duration.ofSeconds(10))).isTrue();
+            assertThat(outbox.getRetried()).isZero();
+            assertThat(outbox.getDeadLettered()).isEqualTo(1);
+        }
+        assertThat(server.getRecipients()).isEqualTo(2);
+        assertThat(deadLetters).hasSize(1);
+        assertThat(deadLetters.get(0).getRecipients()).extracting(Object::toString).containsExactly("b@example.com");
+    }
+
+    private PooledMailer chunkedMailer() {
+        return new PooledMailer(server.auth(), SmtpConnectionPool.Config.builder().maxRecipients(1).build());
+    }
+
+    private MailOutbox open(final int maxAttempts) {
+        return open(mailer, maxAttempts);
+    }
+
+    private MailOutbox open(final PooledMailer mailer, final int maxAttempts) {
+        final MailOutbox.Config config = MailOutbox.Config.builder()
+                .maxAttempts(maxAttempts)
+                .backoff(Duration.ofMillis(10), Duration.ofMillis(50))
+                .pollInterval(Duration.ofMillis(10))
+                .build();
+        return MailOutbox.open(mailer, directory, config, deadLetters::add);
+    }
+
+    private static Email email() {
+        return email("user@example.com");
+    }
+
+    private static Email email(final String... recipients) {
+        return EmailBuilder.startingBlank()
+                .from("sender@example.com")
+                .toMultiple(recipients)
+                .withSubject("outbox test")
+                .withPlainText("body")
+                .buildEmail();
+    }
+}
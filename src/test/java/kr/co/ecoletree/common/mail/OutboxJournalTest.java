@@ -0,0 +1,55 @@
+package kr.co.ecoletree.common.mail;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutboxJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void pendingRecordsAreRecoveredAfterReopen() {
+        final OutboxJournal journal = new OutboxJournal(directory, 4096, false);
+        final long sent = journal.append(bytes("sent"));
+        final long dead = journal.append(bytes("dead"));
+        final long pending = journal.append(bytes("pending"));
+        journal.complete(sent);
+        journal.dead(dead);
+        journal.close();
+
+        final OutboxJournal reopened = new OutboxJournal(directory, 4096, false);
+        assertThat(reopened.recovered()).containsOnlyKeys(pending);
+        assertThat(new String(reopened.recovered().get(pending), StandardCharsets.UTF_8)).isEqualTo("pending");
+        assertThat(reopened.append(bytes("next"))).isGreaterThan(pending);
+    }
+
+    @Test
+    void finishedSegmentsAreDeletedOldestFirst() {
+        final OutboxJournal journal = new OutboxJournal(directory, 128, false);
+        final long first = journal.append(bytes("first"));
+        for (int i = 0; i < 20; i++) {
+            journal.complete(journal.append(bytes("message-" + i)));
+        }
+        // 첫 메일이 끝나지 않았으므로 그 뒤 segment 도 지울 수 없다.
+        assertThat(journal.segmentCount()).isGreaterThan(2);
+
+        journal.complete(first);
+        journal.append(bytes("last"));
+        assertThat(journal.segmentCount()).isLessThanOrEqualTo(2);
+        journal.close();
+
+        final OutboxJournal reopened = new OutboxJournal(directory, 128, false);
+        assertThat(reopened.recovered()).hasSize(1);
+        assertThat(reopened.pending()).isEqualTo(1);
+    }
+
+    private static byte[] bytes(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}